@@ -0,0 +1,306 @@
+package br.univali.portugol.nucleo.desempenho;
+
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import br.univali.portugol.nucleo.analise.sintatica.AnalisadorSintatico;
+import br.univali.portugol.nucleo.analise.semantica.AnalisadorSemantico;
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrata;
+import br.univali.portugol.nucleo.execucao.Depurador;
+import br.univali.portugol.nucleo.execucao.ObservadorExecucao;
+import br.univali.portugol.nucleo.execucao.ObservadorExecucaoBasico;
+import br.univali.portugol.nucleo.execucao.es.Saida;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o desempenho das fases de compilação e execução do Portugol sobre um conjunto de
+ * programas representativos.
+ * <p>
+ * Cada medição segue o mesmo roteiro: algumas iterações de aquecimento, para que a JVM
+ * compile os trechos mais usados, seguidas das iterações medidas. Em cada iteração a
+ * operação é repetida até completar o tempo da iteração. O resultado informa a vazão
+ * (operações por segundo, com o desvio padrão entre as iterações) e a taxa de alocação
+ * (bytes alocados por operação na thread que executa a medição).
+ * <p>
+ * Uso: {@code ant benchmark} ou
+ * {@code java ExecutorDesempenho [-Dbenchmark.aquecimento=3] [-Dbenchmark.iteracoes=5]
+ * [-Dbenchmark.duracao=1000] [-Dbenchmark.csv=arquivo] [programa...]}
+ */
+public final class ExecutorDesempenho
+{
+    public static enum Fase
+    {
+        ANALISE_SINTATICA, ANALISE_SEMANTICA, EXECUCAO
+    }
+
+    /**
+     * Os programas do conjunto de medição, que ficam no pacote "programas" ou são
+     * gerados por {@link ProgramasGerados}.
+     */
+    public static final List<String> PROGRAMAS = Collections.unmodifiableList(Arrays.asList
+    (
+        "fibonacci_recursivo",
+        "ordenacao_bolha",
+        "ordenacao_rapida",
+        "multiplicacao_matrizes",
+        "concatenacao_cadeias",
+        "maquina_estados",
+        "bibliotecas",
+        ProgramasGerados.PARENTESES_ANINHADOS,
+        ProgramasGerados.MILHARES_DE_LINHAS
+    ));
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Recebe os resultados das operações para que a JVM não as elimine como código morto.
+     */
+    private static volatile Object consumidor;
+
+    private final int iteracoesAquecimento;
+    private final int iteracoesMedidas;
+    private final long duracaoIteracao;
+
+    public ExecutorDesempenho(int iteracoesAquecimento, int iteracoesMedidas, long duracaoIteracao)
+    {
+        this.iteracoesAquecimento = iteracoesAquecimento;
+        this.iteracoesMedidas = iteracoesMedidas;
+        this.duracaoIteracao = duracaoIteracao;
+    }
+
+    public static void main(String[] argumentos) throws Exception
+    {
+        ExecutorDesempenho executor = new ExecutorDesempenho
+        (
+            Integer.getInteger("benchmark.aquecimento", 3),
+            Integer.getInteger("benchmark.iteracoes", 5),
+            Long.getLong("benchmark.duracao", 1000L)
+        );
+
+        List<String> programas = (argumentos.length > 0) ? Arrays.asList(argumentos) : PROGRAMAS;
+        List<ResultadoDesempenho> resultados = new ArrayList<>();
+
+        System.out.println(ResultadoDesempenho.cabecalho());
+
+        for (String programa : programas)
+        {
+            for (Fase fase : Fase.values())
+            {
+                ResultadoDesempenho resultado = executor.medir(programa, fase);
+
+                resultados.add(resultado);
+                System.out.println(resultado);
+            }
+        }
+
+        String arquivoCsv = System.getProperty("benchmark.csv");
+
+        if (arquivoCsv != null && !arquivoCsv.isEmpty())
+        {
+            try (PrintStream csv = new PrintStream(new File(arquivoCsv), "UTF-8"))
+            {
+                csv.println(ResultadoDesempenho.cabecalhoCsv());
+
+                for (ResultadoDesempenho resultado : resultados)
+                {
+                    csv.println(resultado.paraCsv());
+                }
+            }
+        }
+    }
+
+    /**
+     * Mede uma fase sobre um dos programas do conjunto.
+     *
+     * @param nomePrograma o nome do programa, sem a extensão
+     * @param fase a fase medida
+     * @return o resultado da medição
+     * @throws Exception se o programa não puder ser carregado ou compilado
+     */
+    public ResultadoDesempenho medir(String nomePrograma, Fase fase) throws Exception
+    {
+        Operacao operacao = criarOperacao(carregarCodigoFonte(nomePrograma), fase);
+
+        for (int i = 0; i < iteracoesAquecimento; i++)
+        {
+            executarIteracao(operacao);
+        }
+
+        double[] vazoes = new double[iteracoesMedidas];
+        long bytesAlocados = 0;
+        long operacoes = 0;
+
+        for (int i = 0; i < iteracoesMedidas; i++)
+        {
+            long alocacaoInicial = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long inicio = System.nanoTime();
+            long quantidade = executarIteracao(operacao);
+            long tempo = System.nanoTime() - inicio;
+
+            bytesAlocados += THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - alocacaoInicial;
+            operacoes += quantidade;
+            vazoes[i] = quantidade / (tempo / 1e9);
+        }
+
+        return new ResultadoDesempenho(nomePrograma, fase, vazoes, (double) bytesAlocados / operacoes);
+    }
+
+    private long executarIteracao(Operacao operacao) throws Exception
+    {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duracaoIteracao);
+        long quantidade = 0;
+
+        do
+        {
+            consumidor = operacao.executar();
+            quantidade++;
+        }
+        while (System.nanoTime() < limite);
+
+        return quantidade;
+    }
+
+    private static Operacao criarOperacao(final String codigoFonte, Fase fase) throws Exception
+    {
+        // Compila uma vez antes de medir para garantir que o programa não possui erros
+        final Programa programa = Portugol.compilar(codigoFonte);
+
+        switch (fase)
+        {
+            case ANALISE_SINTATICA:
+                return new Operacao()
+                {
+                    @Override
+                    public Object executar() throws Exception
+                    {
+                        return new AnalisadorSintatico().analisar(codigoFonte);
+                    }
+                };
+
+            case ANALISE_SEMANTICA:
+                final ArvoreSintaticaAbstrata asa = new AnalisadorSintatico().analisar(codigoFonte);
+
+                return new Operacao()
+                {
+                    @Override
+                    public Object executar() throws Exception
+                    {
+                        AnalisadorSemantico analisadorSemantico = new AnalisadorSemantico();
+                        analisadorSemantico.analisar(asa);
+
+                        return analisadorSemantico;
+                    }
+                };
+
+            default:
+                final List<ObservadorExecucao> observadores = Collections.<ObservadorExecucao>singletonList(new ObservadorExecucaoBasico()
+                {
+                });
+
+                programa.setSaida(new SaidaDescartada());
+
+                return new Operacao()
+                {
+                    @Override
+                    public Object executar() throws Exception
+                    {
+                        // Executa na thread da medição para que a alocação seja contabilizada
+                        Depurador depurador = new Depurador();
+
+                        depurador.setEstado(Depurador.Estado.BREAK_POINT);
+                        depurador.adicionarObservadoresExecucao(observadores);
+                        depurador.executar(programa, null);
+
+                        return depurador;
+                    }
+                };
+        }
+    }
+
+    private static String carregarCodigoFonte(String nomePrograma) throws IOException
+    {
+        String codigoGerado = ProgramasGerados.gerar(nomePrograma);
+
+        if (codigoGerado != null)
+        {
+            return codigoGerado;
+        }
+
+        String recurso = "programas/" + nomePrograma + ".por";
+
+        try (InputStream entrada = ExecutorDesempenho.class.getResourceAsStream(recurso))
+        {
+            if (entrada == null)
+            {
+                throw new IOException("Programa de medição não encontrado: " + recurso);
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int lidos;
+
+            while ((lidos = entrada.read(buffer)) >= 0)
+            {
+                bytes.write(buffer, 0, lidos);
+            }
+
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static interface Operacao
+    {
+        public Object executar() throws Exception;
+    }
+
+    /**
+     * Descarta tudo o que o programa escreve, para que a medição não dependa do console.
+     */
+    private static final class SaidaDescartada implements Saida
+    {
+        @Override
+        public void limpar() throws Exception
+        {
+        }
+
+        @Override
+        public void escrever(String valor) throws Exception
+        {
+            consumidor = valor;
+        }
+
+        @Override
+        public void escrever(boolean valor) throws Exception
+        {
+            consumidor = valor;
+        }
+
+        @Override
+        public void escrever(int valor) throws Exception
+        {
+            consumidor = valor;
+        }
+
+        @Override
+        public void escrever(double valor) throws Exception
+        {
+            consumidor = valor;
+        }
+
+        @Override
+        public void escrever(char valor) throws Exception
+        {
+            consumidor = valor;
+        }
+    }
+}
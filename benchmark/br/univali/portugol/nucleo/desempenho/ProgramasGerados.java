@@ -0,0 +1,67 @@
+package br.univali.portugol.nucleo.desempenho;
+
+/**
+ * Gera os programas do conjunto de medição que são grandes demais para ficar no pacote
+ * "programas": os casos mais custosos para o analisador sintático, que também são
+ * verificados por AnalisadorSintaticoDesempenhoTest.
+ */
+final class ProgramasGerados
+{
+    static final String PARENTESES_ANINHADOS = "parenteses_aninhados";
+    static final String MILHARES_DE_LINHAS = "milhares_de_linhas";
+
+    private ProgramasGerados()
+    {
+    }
+
+    /**
+     * @param nomePrograma o nome do programa
+     * @return o código fonte do programa, ou {@code null} se o programa não é gerado
+     */
+    static String gerar(String nomePrograma)
+    {
+        switch (nomePrograma)
+        {
+            case PARENTESES_ANINHADOS: return gerarExpressaoParentesesAninhados(200);
+            case MILHARES_DE_LINHAS: return gerarProgramaComLinhas(5000);
+            default: return null;
+        }
+    }
+
+    private static String gerarExpressaoParentesesAninhados(int niveis)
+    {
+        StringBuilder codigo = new StringBuilder("programa\n{\n  funcao inicio()\n  {\n    inteiro x = ");
+
+        for (int nivel = 0; nivel < niveis; nivel++)
+        {
+            codigo.append("(-");
+        }
+
+        codigo.append('1');
+
+        for (int nivel = 0; nivel < niveis; nivel++)
+        {
+            codigo.append(" + ").append(nivel).append(')');
+        }
+
+        return codigo.append("\n  }\n}\n").toString();
+    }
+
+    private static String gerarProgramaComLinhas(int linhas)
+    {
+        StringBuilder codigo = new StringBuilder("programa\n{\n  funcao inicio()\n  {\n    inteiro x = 0\n");
+
+        for (int linha = 5; linha < linhas - 2; linha++)
+        {
+            switch (linha % 4)
+            {
+                case 0: codigo.append("    se (x > ").append(linha).append(") { x = x - 1 } senao se (x < 2) { x = (x + 1) * 2 } senao { escreva(x) }\n"); break;
+                case 1: codigo.append("    x = -(x * 2 + ").append(linha).append(") % 7\n"); break;
+                case 2: codigo.append("    enquanto (x > 10 e nao (x == 3)) { x = x / 2 }\n"); break;
+                default: codigo.append("    escreva(\"linha \", ").append(linha).append(", x >= 0 ou x < -1)\n");
+            }
+        }
+
+        return codigo.append("  }\n}\n").toString();
+    }
+}
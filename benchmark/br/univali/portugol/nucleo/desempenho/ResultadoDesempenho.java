@@ -0,0 +1,100 @@
+package br.univali.portugol.nucleo.desempenho;
+
+import java.util.Locale;
+
+/**
+ * Resultado da medição de uma fase sobre um programa.
+ */
+public final class ResultadoDesempenho
+{
+    private final String programa;
+    private final ExecutorDesempenho.Fase fase;
+    private final double vazaoMedia;
+    private final double desvioPadrao;
+    private final double bytesPorOperacao;
+
+    ResultadoDesempenho(String programa, ExecutorDesempenho.Fase fase, double[] vazoes, double bytesPorOperacao)
+    {
+        this.programa = programa;
+        this.fase = fase;
+        this.bytesPorOperacao = bytesPorOperacao;
+
+        double soma = 0;
+
+        for (double vazao : vazoes)
+        {
+            soma += vazao;
+        }
+
+        this.vazaoMedia = soma / vazoes.length;
+
+        double somaQuadrados = 0;
+
+        for (double vazao : vazoes)
+        {
+            somaQuadrados += (vazao - vazaoMedia) * (vazao - vazaoMedia);
+        }
+
+        this.desvioPadrao = (vazoes.length > 1) ? Math.sqrt(somaQuadrados / (vazoes.length - 1)) : 0;
+    }
+
+    public String getPrograma()
+    {
+        return programa;
+    }
+
+    public ExecutorDesempenho.Fase getFase()
+    {
+        return fase;
+    }
+
+    /**
+     * @return a média das operações por segundo das iterações medidas
+     */
+    public double getVazaoMedia()
+    {
+        return vazaoMedia;
+    }
+
+    public double getDesvioPadrao()
+    {
+        return desvioPadrao;
+    }
+
+    /**
+     * @return a quantidade média de bytes alocados em cada operação
+     */
+    public double getBytesPorOperacao()
+    {
+        return bytesPorOperacao;
+    }
+
+    /**
+     * @return a taxa de alocação, em megabytes por segundo
+     */
+    public double getTaxaAlocacao()
+    {
+        return bytesPorOperacao * vazaoMedia / (1024 * 1024);
+    }
+
+    static String cabecalho()
+    {
+        return String.format(Locale.ROOT, "%-24s %-18s %14s %12s %16s %12s", "Programa", "Fase", "ops/s", "desvio", "B/op", "MB/s");
+    }
+
+    static String cabecalhoCsv()
+    {
+        return "programa,fase,ops_por_segundo,desvio_padrao,bytes_por_operacao,mb_por_segundo";
+    }
+
+    String paraCsv()
+    {
+        return String.format(Locale.ROOT, "%s,%s,%.3f,%.3f,%.1f,%.3f", programa, fase, vazaoMedia, desvioPadrao, bytesPorOperacao, getTaxaAlocacao());
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format(Locale.ROOT, "%-24s %-18s %14.1f %12.1f %16.0f %12.1f", programa, fase, vazaoMedia, desvioPadrao, bytesPorOperacao, getTaxaAlocacao());
+    }
+}
@@ -58,8 +58,11 @@ import br.univali.portugol.nucleo.asa.NoVetor;
 import br.univali.portugol.nucleo.asa.TrechoCodigoFonte;
 import br.univali.portugol.nucleo.asa.VisitanteASA;
 import br.univali.portugol.nucleo.execucao.Depurador;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -67,13 +70,17 @@ import java.util.logging.Logger;
 /**
  *
  * Esta classe recebe uma coleção de inteiros representado os números das linhas
- * onde o usuário colocou pontos de parada. A árvore é precorrida e em cada nó é
- * feita uma comparação com a linha de código que corresponde ao nó. Se existe
- * um ponto de parada para a linha então um ponto de parada é adicionado no nó
- * da AST. Esta classe também desativa os pontos de parada de todos os outros
- * nós que não estão marcados com 'breakpoints', evitando que se tenha que
- * executar algum método que reseta o estado de parada dos nós antes de cada
- * execução do depurador.
+ * onde o usuário colocou pontos de parada e ativa os pontos de parada dos nós
+ * da AST que correspondem a estas linhas.
+ * <p>
+ * Na primeira ativação a árvore é percorrida uma única vez para montar um índice
+ * que associa cada linha aos nós onde o depurador pode parar. As linhas ativas
+ * ficam guardadas em um mapa de bits, assim, nas ativações seguintes, apenas os
+ * nós das linhas que mudaram de estado são atualizados, e ativar ou desativar
+ * um único ponto de parada custa O(1) em relação ao tamanho do programa. Os nós
+ * das linhas que não estão marcadas com 'breakpoints' permanecem desativados,
+ * evitando que se tenha que executar algum método que reseta o estado de parada
+ * dos nós antes de cada execução do depurador.
  *
  * @author Luiz Fernando
  * @author Elieser
@@ -81,12 +88,25 @@ import java.util.logging.Logger;
 public final class AtivadorDePontosDeParada implements VisitanteASA
 {
     private static final Logger LOGGER = Logger.getLogger(AtivadorDePontosDeParada.class.getName());
-    private Set<Integer> linhasDasParadas;
 
-    private boolean podeAtivar(NoBloco noBloco)
+    private final Map<Integer, List<NoBloco>> nosPorLinha = new HashMap<>();
+    private BitSet linhasAtivas = new BitSet();
+    private ArvoreSintaticaAbstrataPrograma asaIndexada;
+    private volatile boolean possuiPontosDeParadaAtivos = false;
+
+    private void registrar(NoBloco noBloco)
     {
         int linhaDoNo = noBloco.getTrechoCodigoFonte().getLinha();
-        return linhasDasParadas.contains(linhaDoNo);
+        List<NoBloco> nos = nosPorLinha.get(linhaDoNo);
+
+        if (nos == null)
+        {
+            nos = new ArrayList<>(2);
+            nosPorLinha.put(linhaDoNo, nos);
+        }
+
+        nos.add(noBloco);
+        noBloco.definirPontoParada(linhaDoNo >= 0 && linhasAtivas.get(linhaDoNo));
     }
 
     /**
@@ -95,10 +115,85 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
      * de parada
      * @param asa
      */
-    public void ativaPontosDeParada(Set<Integer> linhasDosPontosDeParada, ArvoreSintaticaAbstrataPrograma asa)
+    public synchronized void ativaPontosDeParada(Set<Integer> linhasDosPontosDeParada, ArvoreSintaticaAbstrataPrograma asa)
     {
+        indexar(asa);
+
+        BitSet novasLinhas = new BitSet();
+
+        for (Integer linha : linhasDosPontosDeParada)
+        {
+            if (linha != null && linha >= 0)
+            {
+                novasLinhas.set(linha);
+            }
+        }
+
+        BitSet linhasAlteradas = (BitSet) novasLinhas.clone();
+        linhasAlteradas.xor(linhasAtivas);
+        linhasAtivas = novasLinhas;
+
+        for (int linha = linhasAlteradas.nextSetBit(0); linha >= 0; linha = linhasAlteradas.nextSetBit(linha + 1))
+        {
+            aplicar(linha, novasLinhas.get(linha));
+        }
+
+        possuiPontosDeParadaAtivos = !linhasAtivas.isEmpty();
+    }
+
+    /**
+     * Ativa ou desativa o ponto de parada de uma única linha, sem alterar as demais.
+     *
+     * @param linha a linha do ponto de parada
+     * @param ativo se o ponto de parada deve ser ativado ou desativado
+     * @param asa a AST do programa
+     */
+    public synchronized void definirPontoDeParada(int linha, boolean ativo, ArvoreSintaticaAbstrataPrograma asa)
+    {
+        indexar(asa);
+
+        if (linha >= 0 && linhasAtivas.get(linha) != ativo)
+        {
+            linhasAtivas.set(linha, ativo);
+            aplicar(linha, ativo);
+        }
+
+        possuiPontosDeParadaAtivos = !linhasAtivas.isEmpty();
+    }
+
+    /**
+     * Permite ao depurador ignorar a verificação dos pontos de parada de cada nó
+     * quando nenhuma linha possui ponto de parada.
+     *
+     * @return se existe ao menos uma linha com ponto de parada ativo
+     */
+    public boolean possuiPontosDeParadaAtivos()
+    {
+        return possuiPontosDeParadaAtivos;
+    }
+
+    private void aplicar(int linha, boolean ativo)
+    {
+        List<NoBloco> nos = nosPorLinha.get(linha);
+
+        if (nos != null)
+        {
+            for (NoBloco no : nos)
+            {
+                no.definirPontoParada(ativo);
+            }
+        }
+    }
+
+    private void indexar(ArvoreSintaticaAbstrataPrograma asa)
+    {
+        if (asa == asaIndexada || asa == null)
+        {
+            return;
+        }
 
-        this.linhasDasParadas = linhasDosPontosDeParada;
+        nosPorLinha.clear();
+        asaIndexada = asa;
 
         try
         {
@@ -138,11 +233,11 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
         NoExpressao expressao = noCaso.getExpressao();
         if (expressao != null)
         {
-            expressao.definirPontoParada(podeAtivar(expressao));
+            registrar(expressao);
         }
         else
         {
-            noCaso.definirPontoParada(podeAtivar(noCaso));
+            registrar(noCaso);
         }
 
         if (noCaso.getBlocos() != null)
@@ -158,21 +253,21 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
     @Override
     public Object visitar(NoChamadaFuncao chamadaFuncao) throws ExcecaoVisitaASA
     {
-        chamadaFuncao.definirPontoParada(podeAtivar(chamadaFuncao));
+        registrar(chamadaFuncao);
         return null;
     }
 
     @Override
     public Object visitar(NoContinue noContinue) throws ExcecaoVisitaASA
     {
-        noContinue.definirPontoParada(podeAtivar(noContinue));
+        registrar(noContinue);
         return null;
     }
 
     @Override
     public Object visitar(NoDeclaracaoFuncao declaracaoFuncao) throws ExcecaoVisitaASA
     {
-        declaracaoFuncao.definirPontoParada(podeAtivar(declaracaoFuncao));
+        registrar(declaracaoFuncao);
 
         for (NoBloco filho : declaracaoFuncao.getBlocos())
         {
@@ -184,28 +279,28 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
     @Override
     public Object visitar(NoDeclaracaoMatriz noDeclaracaoMatriz) throws ExcecaoVisitaASA
     {
-        noDeclaracaoMatriz.definirPontoParada(podeAtivar(noDeclaracaoMatriz));
+        registrar(noDeclaracaoMatriz);
         return null;
     }
 
     @Override
     public Object visitar(NoDeclaracaoVariavel noDeclaracaoVariavel) throws ExcecaoVisitaASA
     {
-        noDeclaracaoVariavel.definirPontoParada(podeAtivar(noDeclaracaoVariavel));
+        registrar(noDeclaracaoVariavel);
         return null;
     }
 
     @Override
     public Object visitar(NoDeclaracaoVetor noDeclaracaoVetor) throws ExcecaoVisitaASA
     {
-        noDeclaracaoVetor.definirPontoParada(podeAtivar(noDeclaracaoVetor));
+        registrar(noDeclaracaoVetor);
         return null;
     }
 
     @Override
     public Object visitar(NoEnquanto noEnquanto) throws ExcecaoVisitaASA
     {
-        noEnquanto.getCondicao().definirPontoParada(podeAtivar(noEnquanto.getCondicao()));
+        registrar(noEnquanto.getCondicao());
         for (NoBloco bloco : noEnquanto.getBlocos())
         {
             bloco.aceitar(this);
@@ -216,7 +311,7 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
     @Override
     public Object visitar(NoEscolha noEscolha) throws ExcecaoVisitaASA
     {
-        noEscolha.definirPontoParada(podeAtivar(noEscolha));
+        registrar(noEscolha);
         for (NoCaso caso : noEscolha.getCasos())
         {
             caso.aceitar(this);
@@ -227,13 +322,13 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
     @Override
     public Object visitar(NoFacaEnquanto noFacaEnquanto) throws ExcecaoVisitaASA
     {
-        noFacaEnquanto.definirPontoParada(podeAtivar(noFacaEnquanto));
+        registrar(noFacaEnquanto);
         for (NoBloco no : noFacaEnquanto.getBlocos())
         {
             no.aceitar(this);
         }
 
-        noFacaEnquanto.getCondicao().definirPontoParada(podeAtivar(noFacaEnquanto.getCondicao()));
+        registrar(noFacaEnquanto.getCondicao());
         return null;
     }
 
@@ -282,7 +377,7 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
     @Override
     public Object visitar(NoOperacaoAtribuicao noOperacaoAtribuicao) throws ExcecaoVisitaASA
     {
-        noOperacaoAtribuicao.definirPontoParada(podeAtivar(noOperacaoAtribuicao));
+        registrar(noOperacaoAtribuicao);
         return null;
     }
 
@@ -392,7 +487,7 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
     public Object visitar(NoPara noPara) throws ExcecaoVisitaASA
     {
         NoExpressao condicao = noPara.getCondicao();
-        condicao.definirPontoParada(podeAtivar(condicao));
+        registrar(condicao);
         for (NoBloco no : noPara.getBlocos())
         {
             no.aceitar(this);
@@ -403,7 +498,7 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
     @Override
     public Object visitar(NoPare noPare) throws ExcecaoVisitaASA
     {
-        noPare.definirPontoParada(podeAtivar(noPare));
+        registrar(noPare);
         return null;
     }
 
@@ -445,7 +540,7 @@ public final class AtivadorDePontosDeParada implements VisitanteASA
     @Override
     public Object visitar(NoSe noSe) throws ExcecaoVisitaASA
     {
-        noSe.getCondicao().definirPontoParada(podeAtivar(noSe.getCondicao()));
+        registrar(noSe.getCondicao());
         for (NoBloco no : noSe.getBlocosVerdadeiros())
         {
             no.aceitar(this);
@@ -0,0 +1,257 @@
+package br.univali.portugol.nucleo;
+
+import br.univali.portugol.nucleo.analise.AnalisadorAlgoritmo;
+import br.univali.portugol.nucleo.analise.ResultadoAnalise;
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.ExcecaoSerializacaoASA;
+import br.univali.portugol.nucleo.asa.SerializadorASA;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache em disco das ASAs dos programas compilados.
+ * <p>
+ * Cada programa compilado sem erros tem sua ASA gravada com o {@link SerializadorASA} em um
+ * arquivo cujo nome é o hash SHA-1 do código fonte. Nas compilações seguintes do mesmo código
+ * a análise sintática e semântica é dispensada e o programa é montado diretamente a partir
+ * do arquivo. Arquivos corrompidos ou gravados por outra versão do serializador são descartados
+ * e o código é compilado novamente.
+ * <p>
+ * Junto com a ASA é gravada a quantidade de avisos gerados pela análise. Quando o programa
+ * possui avisos, a análise semântica é refeita sobre a ASA recuperada para que o
+ * {@link ResultadoAnalise} contenha os mesmos avisos da compilação original. Apenas as
+ * estatísticas da análise não são recuperadas.
+ */
+public final class CacheCompilacao
+{
+    private static final Logger LOGGER = Logger.getLogger(CacheCompilacao.class.getName());
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String EXTENSAO = ".asa";
+
+    private final Path diretorio;
+
+    /**
+     *
+     * @param diretorio     o diretório onde os arquivos do cache serão gravados. É criado caso não exista.
+     */
+    public CacheCompilacao(File diretorio)
+    {
+        this.diretorio = diretorio.toPath();
+    }
+
+    /**
+     * Compila o código fonte, reaproveitando a ASA armazenada no cache quando houver.
+     *
+     * @param codigo     o código fonte em Portugol a ser compilado
+     * @return           o programa equivalente ao código fonte passado
+     * @throws ErroCompilacao     caso o código fonte contenha erros
+     */
+    public Programa compilar(String codigo) throws ErroCompilacao
+    {
+        Path arquivo = diretorio.resolve(calcularChave(codigo) + EXTENSAO);
+        Entrada entrada = carregar(arquivo);
+
+        if (entrada != null)
+        {
+            ResultadoAnalise resultadoAnalise = recuperarResultadoAnalise(entrada);
+
+            if (resultadoAnalise != null)
+            {
+                return new Compilador().criarPrograma(entrada.asa, resultadoAnalise);
+            }
+
+            LOGGER.log(Level.INFO, String.format("Descartando o arquivo de cache '%s' cujos avisos não puderam ser recuperados", arquivo));
+            excluir(arquivo);
+        }
+
+        Programa programa = new Compilador().compilar(codigo);
+        armazenar(arquivo, programa.getArvoreSintaticaAbstrata(), programa.getResultadoAnalise().getAvisos().size());
+
+        return programa;
+    }
+
+    private static ResultadoAnalise recuperarResultadoAnalise(Entrada entrada)
+    {
+        if (entrada.quantidadeAvisos == 0)
+        {
+            return new ResultadoAnalise();
+        }
+
+        ResultadoAnalise resultadoAnalise = new AnalisadorAlgoritmo().reanalisar(entrada.asa);
+
+        if (resultadoAnalise.contemErros() || resultadoAnalise.getAvisos().size() != entrada.quantidadeAvisos)
+        {
+            return null;
+        }
+
+        return resultadoAnalise;
+    }
+
+    /**
+     * Remove todos os arquivos gravados pelo cache.
+     */
+    public void limpar()
+    {
+        if (!Files.isDirectory(diretorio))
+        {
+            return;
+        }
+
+        File[] arquivos = diretorio.toFile().listFiles();
+
+        if (arquivos != null)
+        {
+            for (File arquivo : arquivos)
+            {
+                if (arquivo.getName().endsWith(EXTENSAO))
+                {
+                    excluir(arquivo.toPath());
+                }
+            }
+        }
+    }
+
+    private Entrada carregar(Path arquivo)
+    {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ))
+        {
+            ByteBuffer cabecalho = ByteBuffer.allocate(4);
+
+            while (cabecalho.hasRemaining() && canal.read(cabecalho) >= 0)
+            {
+                // Lê o cabeçalho até o fim ou até o final do arquivo
+            }
+
+            cabecalho.flip();
+
+            if (cabecalho.remaining() < 4 || cabecalho.getInt(0) < 0)
+            {
+                throw new ExcecaoSerializacaoASA("O cabeçalho do arquivo de cache é inválido");
+            }
+
+            return new Entrada(cabecalho.getInt(0), SerializadorASA.desserializar(canal));
+        }
+        catch (NoSuchFileException excecao)
+        {
+            return null;
+        }
+        catch (ExcecaoSerializacaoASA excecao)
+        {
+            LOGGER.log(Level.INFO, String.format("Descartando o arquivo de cache inválido '%s'", arquivo), excecao);
+            excluir(arquivo);
+
+            return null;
+        }
+        catch (IOException excecao)
+        {
+            LOGGER.log(Level.WARNING, String.format("Não foi possível ler o arquivo de cache '%s'", arquivo), excecao);
+
+            return null;
+        }
+    }
+
+    private void armazenar(Path arquivo, ArvoreSintaticaAbstrataPrograma asa, int quantidadeAvisos)
+    {
+        Path temporario = null;
+
+        try
+        {
+            Files.createDirectories(diretorio);
+            temporario = Files.createTempFile(diretorio, "asa", ".tmp");
+
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                ByteBuffer cabecalho = ByteBuffer.allocate(4);
+                cabecalho.putInt(0, quantidadeAvisos);
+
+                while (cabecalho.hasRemaining())
+                {
+                    canal.write(cabecalho);
+                }
+
+                SerializadorASA.serializar(asa, canal);
+            }
+
+            try
+            {
+                Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException excecao)
+            {
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            temporario = null;
+        }
+        catch (IOException | ExcecaoSerializacaoASA excecao)
+        {
+            LOGGER.log(Level.WARNING, String.format("Não foi possível gravar o arquivo de cache '%s'", arquivo), excecao);
+        }
+        finally
+        {
+            if (temporario != null)
+            {
+                excluir(temporario);
+            }
+        }
+    }
+
+    private void excluir(Path arquivo)
+    {
+        try
+        {
+            Files.deleteIfExists(arquivo);
+        }
+        catch (IOException excecao)
+        {
+            LOGGER.log(Level.WARNING, String.format("Não foi possível excluir o arquivo de cache '%s'", arquivo), excecao);
+        }
+    }
+
+    private static String calcularChave(String codigo)
+    {
+        try
+        {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(codigo.getBytes(UTF8));
+            StringBuilder chave = new StringBuilder(hash.length * 2);
+
+            for (byte b : hash)
+            {
+                chave.append(Character.forDigit((b >> 4) & 0xF, 16));
+                chave.append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return chave.toString();
+        }
+        catch (NoSuchAlgorithmException excecao)
+        {
+            // Toda implementação da plataforma Java é obrigada a fornecer o SHA-1
+            throw new IllegalStateException(excecao);
+        }
+    }
+
+    private static final class Entrada
+    {
+        private final int quantidadeAvisos;
+        private final ArvoreSintaticaAbstrataPrograma asa;
+
+        private Entrada(int quantidadeAvisos, ArvoreSintaticaAbstrataPrograma asa)
+        {
+            this.quantidadeAvisos = quantidadeAvisos;
+            this.asa = asa;
+        }
+    }
+}
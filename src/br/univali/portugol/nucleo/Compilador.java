@@ -10,6 +10,7 @@ import br.univali.portugol.nucleo.asa.NoDeclaracaoMatriz;
 import br.univali.portugol.nucleo.asa.NoDeclaracaoVariavel;
 import br.univali.portugol.nucleo.asa.NoDeclaracaoVetor;
 import br.univali.portugol.nucleo.asa.VisitanteASABasico;
+import br.univali.portugol.nucleo.metricas.MetricasNucleo;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,17 +40,13 @@ final class Compilador
         AnalisadorAlgoritmo analisadorAlgoritmo = new AnalisadorAlgoritmo();
         ResultadoAnalise resultadoAnalise = analisadorAlgoritmo.analisar(codigo);
 
+        MetricasNucleo.getInstance().compilacaoRealizada(!resultadoAnalise.contemErros());
+
         if (!resultadoAnalise.contemErros())
         {
             ArvoreSintaticaAbstrataPrograma asa = (ArvoreSintaticaAbstrataPrograma) analisadorAlgoritmo.getArvoreSintaticaAbstrata();
         
-            Programa programa = new Programa();
-            programa.setFuncoes(localizadorFuncoes.getFuncoes(asa));
-            programa.setFuncaoInicial(localizadorFuncoes.getFuncaoInicial());
-            programa.setArvoreSintaticaAbstrata(asa);
-            programa.setResultadoAnalise(resultadoAnalise);
-
-        return programa;
+            return criarPrograma(asa, resultadoAnalise);
         }
         else
         {
@@ -57,6 +54,26 @@ final class Compilador
         }
     }
     
+    /**
+     * Cria um programa a partir de uma ASA já verificada pelo analisador semântico. Utilizado
+     * também para montar os programas recuperados do {@link CacheCompilacao}.
+     * 
+     * @param asa               a ASA do programa, sem erros de compilação
+     * @param resultadoAnalise  o resultado da análise que originou a ASA
+     * @return  o programa pronto para ser executado
+     */
+    Programa criarPrograma(ArvoreSintaticaAbstrataPrograma asa, ResultadoAnalise resultadoAnalise)
+    {
+        Programa programa = new Programa();
+        programa.setFuncoes(localizadorFuncoes.getFuncoes(asa));
+        programa.setFuncaoInicial(localizadorFuncoes.getFuncaoInicial());
+        programa.setArvoreSintaticaAbstrata(asa);
+        programa.setResultadoAnalise(resultadoAnalise);
+        programa.getTabelaConstantes();
+
+        return programa;
+    }
+    
     private final class LocalizadorFuncoes extends VisitanteASABasico
     {
         private final List<String> funcoes = new ArrayList<>();
@@ -3,6 +3,7 @@ package br.univali.portugol.nucleo;
 
 import br.univali.portugol.nucleo.asa.NoDeclaracao;
 import br.univali.portugol.nucleo.bibliotecas.base.GerenciadorBibliotecas;
+import java.io.File;
 
 /**
  *
@@ -22,6 +23,11 @@ public final class Portugol
         return programa;
     }
     
+    public static Programa compilar(String codigo, File diretorioCache) throws ErroCompilacao
+    {
+        return new CacheCompilacao(diretorioCache).compilar(codigo);
+    }
+    
     public static String renomearSimbolo(String programa, int linha, int coluna, String novoNome) throws ErroAoRenomearSimbolo
     {
         return new RenomeadorDeSimbolos().renomearSimbolo(programa, linha, coluna, novoNome);
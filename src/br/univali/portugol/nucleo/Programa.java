@@ -2,15 +2,26 @@ package br.univali.portugol.nucleo;
 
 import br.univali.portugol.nucleo.analise.ResultadoAnalise;
 import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.ExcecaoVisitaASA;
+import br.univali.portugol.nucleo.asa.IndicePosicoesASA;
 import br.univali.portugol.nucleo.execucao.Depurador;
+import br.univali.portugol.nucleo.execucao.DistribuidorEventosExecucao;
 import br.univali.portugol.nucleo.execucao.Interpretador;
+import br.univali.portugol.nucleo.execucao.MonitoresExecucao;
+import br.univali.portugol.nucleo.execucao.cobertura.ColetorCobertura;
+import br.univali.portugol.nucleo.execucao.cobertura.MapaCobertura;
 import br.univali.portugol.nucleo.execucao.es.Entrada;
 import br.univali.portugol.nucleo.execucao.es.EntradaSaidaPadrao;
 import br.univali.portugol.nucleo.execucao.ModoEncerramento;
 import br.univali.portugol.nucleo.execucao.ObservadorExecucao;
 import br.univali.portugol.nucleo.execucao.ResultadoExecucao;
+import br.univali.portugol.nucleo.execucao.TabelaConstantes;
 import br.univali.portugol.nucleo.execucao.es.Saida;
+import br.univali.portugol.nucleo.execucao.es.SaidaBufferizada;
+import br.univali.portugol.nucleo.execucao.perfil.Perfilador;
+import br.univali.portugol.nucleo.execucao.reproducao.ControleReproducao;
 import br.univali.portugol.nucleo.mensagens.ErroExecucao;
+import br.univali.portugol.nucleo.metricas.MetricasNucleo;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -67,6 +78,9 @@ public final class Programa
     private Future controleTarefaExecucao = null;
 
     private ArvoreSintaticaAbstrataPrograma arvoreSintaticaAbstrataPrograma;
+    private volatile IndicePosicoesASA indicePosicoes;
+    private volatile MapaCobertura mapaCobertura;
+    private volatile TabelaConstantes tabelaConstantes;
     private List<String> funcoes;
     private ResultadoAnalise resultadoAnalise;
     
@@ -74,12 +88,19 @@ public final class Programa
 
     private final AtivadorDePontosDeParada ativadorDePontoDesParada = new AtivadorDePontosDeParada();
 
+    private int capacidadeEventosDepuracao = DistribuidorEventosExecucao.CAPACIDADE_PADRAO;
+    private long intervaloEventosDepuracao = DistribuidorEventosExecucao.INTERVALO_QUADRO_PADRAO;
+    private DistribuidorEventosExecucao.PoliticaFilaCheia politicaEventosDepuracao = DistribuidorEventosExecucao.PoliticaFilaCheia.BLOQUEAR;
+    private Perfilador perfilador = null;
+    private ColetorCobertura coletorCobertura = null;
+    private ControleReproducao controleReproducao = null;
+
     public Programa()
     {
         EntradaSaidaPadrao es = new EntradaSaidaPadrao();
 
         entrada = es;
-        saida = es;
+        saida = new SaidaBufferizada(es);
         funcoes = new ArrayList<>();
         observadores = new ArrayList<>();
     }
@@ -151,6 +172,90 @@ public final class Programa
         ativadorDePontoDesParada.ativaPontosDeParada(linhasComPontosDeParadaAtivados, arvoreSintaticaAbstrataPrograma);
     }
 
+    /**
+     * Ativa ou desativa o ponto de parada de uma única linha, mantendo os pontos
+     * de parada das demais linhas.
+     *
+     * @param linha a linha do ponto de parada
+     * @param ativo se o ponto de parada deve ser ativado ou desativado
+     */
+    public void definirPontoDeParada(int linha, boolean ativo)
+    {
+        ativadorDePontoDesParada.definirPontoDeParada(linha, ativo, arvoreSintaticaAbstrataPrograma);
+    }
+
+    public boolean possuiPontosDeParadaAtivos()
+    {
+        return ativadorDePontoDesParada.possuiPontosDeParadaAtivos();
+    }
+
+    /**
+     * Configura a entrega dos eventos de depuração aos observadores da execução. Os
+     * eventos são entregues em uma thread separada, para que observadores lentos não
+     * atrasem o programa. A configuração é aplicada nas próximas execuções.
+     *
+     * @param capacidade a quantidade máxima de eventos aguardando entrega
+     * @param intervaloQuadro o intervalo, em milissegundos, durante o qual as alterações
+     * de um mesmo símbolo são agrupadas antes de serem entregues
+     * @param politica o que fazer com as alterações de símbolos quando a fila está cheia
+     */
+    public void configurarEventosDepuracao(int capacidade, long intervaloQuadro, DistribuidorEventosExecucao.PoliticaFilaCheia politica)
+    {
+        this.capacidadeEventosDepuracao = capacidade;
+        this.intervaloEventosDepuracao = intervaloQuadro;
+        this.politicaEventosDepuracao = politica;
+    }
+
+    /**
+     * Define o perfilador usado nas próximas execuções do programa. Após a execução, as
+     * medições podem ser obtidas através de {@link Perfilador#gerarRelatorio()}.
+     *
+     * @param perfilador o perfilador ou {@code null} para executar sem medições
+     */
+    public void setPerfilador(Perfilador perfilador)
+    {
+        this.perfilador = perfilador;
+    }
+
+    public Perfilador getPerfilador()
+    {
+        return perfilador;
+    }
+
+    /**
+     * Define o coletor de cobertura usado nas próximas execuções do programa. O coletor
+     * deve ter sido criado com o mapa retornado por {@link #getMapaCobertura()}.
+     *
+     * @param coletorCobertura o coletor ou {@code null} para executar sem coletar cobertura
+     */
+    public void setColetorCobertura(ColetorCobertura coletorCobertura)
+    {
+        this.coletorCobertura = coletorCobertura;
+    }
+
+    public ColetorCobertura getColetorCobertura()
+    {
+        return coletorCobertura;
+    }
+
+    /**
+     * Define o gravador ou reprodutor usado na próxima execução do programa. Cada
+     * gravador ou reprodutor deve ser usado em uma única execução.
+     *
+     * @param controleReproducao um {@link br.univali.portugol.nucleo.execucao.reproducao.GravadorExecucao},
+     * um {@link br.univali.portugol.nucleo.execucao.reproducao.ReprodutorExecucao} ou
+     * {@code null} para executar normalmente
+     */
+    public void setControleReproducao(ControleReproducao controleReproducao)
+    {
+        this.controleReproducao = controleReproducao;
+    }
+
+    public ControleReproducao getControleReproducao()
+    {
+        return controleReproducao;
+    }
+
     /**
      * Implementa uma tarefa para disparar a execução do programa com os
      * parâmetros e a estratégia selecionada. Futuramente podemos refatorar para
@@ -168,7 +273,9 @@ public final class Programa
             this.parametros = parametros;
             this.resultadoExecucao = new ResultadoExecucao();
             this.estado = estado;
-            this.depurador = new Depurador();
+            this.depurador = new Depurador(new DistribuidorEventosExecucao(capacidadeEventosDepuracao, intervaloEventosDepuracao, politicaEventosDepuracao));
+            this.depurador.setMonitor(MonitoresExecucao.combinar(perfilador, coletorCobertura, controleReproducao));
+            this.depurador.setInterceptador(controleReproducao);
         }
 
         public ResultadoExecucao getResultadoExecucao()
@@ -179,7 +286,9 @@ public final class Programa
         @Override
         public void run()
         {
-            long horaInicialExecucao = System.currentTimeMillis();
+            long horaInicialExecucao = System.nanoTime();
+
+            MetricasNucleo.getInstance().execucaoIniciada();
 
             try
             {
@@ -198,8 +307,13 @@ public final class Programa
             {
                 resultadoExecucao.setModoEncerramento(ModoEncerramento.INTERRUPCAO);
             }
+            finally
+            {
+                MetricasNucleo.getInstance().execucaoEncerrada(resultadoExecucao.getModoEncerramento());
+            }
 
-            resultadoExecucao.setTempoExecucao(System.currentTimeMillis() - horaInicialExecucao);
+            resultadoExecucao.setTempoExecucaoNanos(System.nanoTime() - horaInicialExecucao);
+            resultadoExecucao.setEstatisticas(depurador.getEstatisticas());
 
             notificarEncerramentoExecucao(resultadoExecucao);
         }
@@ -276,6 +390,70 @@ public final class Programa
     public void setArvoreSintaticaAbstrata(ArvoreSintaticaAbstrataPrograma arvoreSintaticaAbstrataPrograma)
     {
         this.arvoreSintaticaAbstrataPrograma = arvoreSintaticaAbstrataPrograma;
+        this.indicePosicoes = null;
+        this.mapaCobertura = null;
+        this.tabelaConstantes = null;
+    }
+
+    /**
+     * Obtém o índice das posições dos símbolos da ASA deste programa. O índice é
+     * construído na primeira chamada e reaproveitado até que uma nova ASA seja definida.
+     *
+     * @return o índice das posições dos símbolos deste programa
+     * @throws ExcecaoVisitaASA caso ocorra um erro ao percorrer a ASA
+     */
+    public IndicePosicoesASA getIndicePosicoes() throws ExcecaoVisitaASA
+    {
+        IndicePosicoesASA indice = indicePosicoes;
+
+        if (indice == null)
+        {
+            indice = new IndicePosicoesASA(arvoreSintaticaAbstrataPrograma);
+            indicePosicoes = indice;
+        }
+
+        return indice;
+    }
+
+    /**
+     * Obtém a numeração dos comandos e desvios deste programa usada na coleta de
+     * cobertura. O mapa é construído na primeira chamada e reaproveitado até que uma nova
+     * ASA seja definida.
+     *
+     * @return o mapa de cobertura deste programa
+     * @throws ExcecaoVisitaASA caso ocorra um erro ao percorrer a ASA
+     */
+    public MapaCobertura getMapaCobertura() throws ExcecaoVisitaASA
+    {
+        MapaCobertura mapa = mapaCobertura;
+
+        if (mapa == null)
+        {
+            mapa = new MapaCobertura(arvoreSintaticaAbstrataPrograma);
+            mapaCobertura = mapa;
+        }
+
+        return mapa;
+    }
+
+    /**
+     * Obtém os valores pré-calculados das inicializações de vetores e matrizes compostas
+     * apenas por literais. O {@link Compilador} monta a tabela ao criar o programa; para
+     * programas cuja ASA foi definida diretamente, a tabela é montada na primeira chamada.
+     *
+     * @return a tabela de constantes deste programa
+     */
+    public TabelaConstantes getTabelaConstantes()
+    {
+        TabelaConstantes tabela = tabelaConstantes;
+
+        if (tabela == null)
+        {
+            tabela = new TabelaConstantes(arvoreSintaticaAbstrataPrograma);
+            tabelaConstantes = tabela;
+        }
+
+        return tabela;
     }
 
     /**
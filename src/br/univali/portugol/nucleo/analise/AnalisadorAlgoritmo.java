@@ -3,6 +3,10 @@ package br.univali.portugol.nucleo.analise;
 import br.univali.portugol.nucleo.analise.semantica.AnalisadorSemantico;
 import br.univali.portugol.nucleo.analise.sintatica.AnalisadorSintatico;
 import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrata;
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.metricas.MetricasNucleo;
+import java.util.List;
+import org.antlr.runtime.Token;
 
 /**
  * Esta classe provê uma fachada (Facade) que abstrai o processo de análise do código fonte.
@@ -54,10 +58,56 @@ public final class AnalisadorAlgoritmo
         analisadorSintatico.adicionarObservador(observadorAnaliseAlgoritmo);
         analisadorSemantico.adicionarObservador(observadorAnaliseAlgoritmo);
         
+        long inicio = System.nanoTime();
+
         ArvoreSintaticaAbstrata asa = analisadorSintatico.analisar(codigo);
         arvoreSintaticaAbstrata = asa;
+
+        long fimAnaliseSintatica = System.nanoTime();
+
         analisadorSemantico.analisar(asa);
-        
+
+        long tempoAnaliseSemantica = System.nanoTime() - fimAnaliseSintatica;
+        long tempoCarregamentoBibliotecas = analisadorSemantico.getTempoCarregamentoBibliotecas();
+
+        MetricasNucleo metricas = MetricasNucleo.getInstance();
+        metricas.analiseSintaticaRealizada(fimAnaliseSintatica - inicio);
+        metricas.analiseSemanticaRealizada(tempoAnaliseSemantica);
+
+        List<Token> tokens = analisadorSintatico.getTokens();
+
+        ResultadoAnalise resultadoAnalise = observadorAnaliseAlgoritmo.getResultadoAnalise();
+        resultadoAnalise.setEstatisticas(new EstatisticasAnalise
+        (
+            analisadorSintatico.getTempoAnaliseLexica(),
+            analisadorSintatico.getTempoAnaliseSintatica(),
+            tempoAnaliseSemantica - tempoCarregamentoBibliotecas,
+            tempoCarregamentoBibliotecas,
+            (tokens != null) ? tokens.size() : 0
+        ));
+
+        return resultadoAnalise;
+    }
+
+    /**
+     * Refaz a análise semântica de uma ASA que já foi analisada anteriormente, como as ASAs
+     * recuperadas do {@link br.univali.portugol.nucleo.asa.SerializadorASA}. As referências
+     * vinculadas às declarações são descartadas antes da análise para não serem duplicadas.
+     * 
+     * @param asa        a ASA a ser analisada.
+     * @return           um objeto contendo os erros e avisos da análise semântica.
+     */
+    public ResultadoAnalise reanalisar(ArvoreSintaticaAbstrataPrograma asa)
+    {
+        ObservadorAnaliseAlgoritmo observadorAnaliseAlgoritmo = new ObservadorAnaliseAlgoritmo();
+        AnalisadorSemantico analisadorSemantico = new AnalisadorSemantico();
+
+        analisadorSemantico.adicionarObservador(observadorAnaliseAlgoritmo);
+        arvoreSintaticaAbstrata = asa;
+
+        LimpadorReferencias.limpar(asa);
+        analisadorSemantico.analisar(asa);
+
         return observadorAnaliseAlgoritmo.getResultadoAnalise();
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package br.univali.portugol.nucleo.analise;
+
+/**
+ * Tempos gastos em cada etapa da análise de um código fonte. Os tempos são medidos em
+ * nanossegundos.
+ *
+ * @see ResultadoAnalise#getEstatisticas()
+ */
+public final class EstatisticasAnalise
+{
+    private final long tempoAnaliseLexica;
+    private final long tempoAnaliseSintatica;
+    private final long tempoAnaliseSemantica;
+    private final long tempoCarregamentoBibliotecas;
+    private final int quantidadeTokens;
+
+    EstatisticasAnalise(long tempoAnaliseLexica, long tempoAnaliseSintatica, long tempoAnaliseSemantica, long tempoCarregamentoBibliotecas, int quantidadeTokens)
+    {
+        this.tempoAnaliseLexica = tempoAnaliseLexica;
+        this.tempoAnaliseSintatica = tempoAnaliseSintatica;
+        this.tempoAnaliseSemantica = tempoAnaliseSemantica;
+        this.tempoCarregamentoBibliotecas = tempoCarregamentoBibliotecas;
+        this.quantidadeTokens = quantidadeTokens;
+    }
+
+    /**
+     * @return o tempo gasto para separar o código fonte em tokens
+     */
+    public long getTempoAnaliseLexica()
+    {
+        return tempoAnaliseLexica;
+    }
+
+    /**
+     * @return o tempo gasto para construir a ASA a partir dos tokens
+     */
+    public long getTempoAnaliseSintatica()
+    {
+        return tempoAnaliseSintatica;
+    }
+
+    /**
+     * @return o tempo gasto na análise semântica, sem incluir o carregamento das
+     * bibliotecas
+     */
+    public long getTempoAnaliseSemantica()
+    {
+        return tempoAnaliseSemantica;
+    }
+
+    /**
+     * @return o tempo gasto carregando os metadados das bibliotecas incluídas no
+     * programa durante a análise semântica
+     */
+    public long getTempoCarregamentoBibliotecas()
+    {
+        return tempoCarregamentoBibliotecas;
+    }
+
+    public int getQuantidadeTokens()
+    {
+        return quantidadeTokens;
+    }
+
+    /**
+     * @return a soma dos tempos de todas as etapas
+     */
+    public long getTempoTotal()
+    {
+        return tempoAnaliseLexica + tempoAnaliseSintatica + tempoAnaliseSemantica + tempoCarregamentoBibliotecas;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("léxica: %d ns, sintática: %d ns, semântica: %d ns, bibliotecas: %d ns, tokens: %d", tempoAnaliseLexica, tempoAnaliseSintatica, tempoAnaliseSemantica, tempoCarregamentoBibliotecas, quantidadeTokens);
+    }
+}
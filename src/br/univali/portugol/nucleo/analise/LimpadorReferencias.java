@@ -0,0 +1,78 @@
+package br.univali.portugol.nucleo.analise;
+
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.ExcecaoVisitaASA;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoMatriz;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoParametro;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoVariavel;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoVetor;
+import br.univali.portugol.nucleo.asa.VisitanteASAPadrao;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Descarta as referências vinculadas às declarações de uma ASA, para que ela possa ser
+ * analisada semanticamente outra vez sem que as referências sejam duplicadas.
+ */
+final class LimpadorReferencias extends VisitanteASAPadrao
+{
+    private static final Logger LOGGER = Logger.getLogger(LimpadorReferencias.class.getName());
+
+    private LimpadorReferencias()
+    {
+
+    }
+
+    static void limpar(ArvoreSintaticaAbstrataPrograma asa)
+    {
+        try
+        {
+            asa.aceitar(new LimpadorReferencias());
+        }
+        catch (ExcecaoVisitaASA excecao)
+        {
+            LOGGER.log(Level.SEVERE, null, excecao);
+        }
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoFuncao declaracaoFuncao) throws ExcecaoVisitaASA
+    {
+        declaracaoFuncao.limparReferencias();
+
+        return super.visitar(declaracaoFuncao);
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoParametro noDeclaracaoParametro) throws ExcecaoVisitaASA
+    {
+        noDeclaracaoParametro.limparReferencias();
+
+        return super.visitar(noDeclaracaoParametro);
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoVariavel noDeclaracaoVariavel) throws ExcecaoVisitaASA
+    {
+        noDeclaracaoVariavel.limparReferencias();
+
+        return super.visitar(noDeclaracaoVariavel);
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoVetor noDeclaracaoVetor) throws ExcecaoVisitaASA
+    {
+        noDeclaracaoVetor.limparReferencias();
+
+        return super.visitar(noDeclaracaoVetor);
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoMatriz noDeclaracaoMatriz) throws ExcecaoVisitaASA
+    {
+        noDeclaracaoMatriz.limparReferencias();
+
+        return super.visitar(noDeclaracaoMatriz);
+    }
+}
@@ -28,6 +28,7 @@ public final class ResultadoAnalise
     private List<ErroSintatico> errosSintaticos = null;
     private List<ErroSemantico> errosSemanticos = null;    
     private List<AvisoAnalise> avisos = null;
+    private EstatisticasAnalise estatisticas = null;
 
     public ResultadoAnalise()
     {
@@ -150,4 +151,21 @@ public final class ResultadoAnalise
     {
         return new ArrayList<>(errosSemanticos);
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtém os tempos gastos em cada etapa da análise.
+     *
+     * @return as estatísticas da análise, ou {@code null} se o resultado não foi
+     * produzido por uma análise completa (por exemplo, quando recuperado do cache de
+     * compilação)
+     */
+    public EstatisticasAnalise getEstatisticas()
+    {
+        return estatisticas;
+    }
+
+    void setEstatisticas(EstatisticasAnalise estatisticas)
+    {
+        this.estatisticas = estatisticas;
+    }
+}
@@ -0,0 +1,454 @@
+package br.univali.portugol.nucleo.analise;
+
+import br.univali.portugol.nucleo.analise.semantica.AnalisadorSemantico;
+import br.univali.portugol.nucleo.analise.semantica.CacheAnaliseFuncoes;
+import br.univali.portugol.nucleo.analise.sintatica.AnalisadorSintatico;
+import br.univali.portugol.nucleo.analise.sintatica.ObservadorAnaliseSintatica;
+import br.univali.portugol.nucleo.analise.sintatica.PortugolParser;
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.NoDeclaracao;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import br.univali.portugol.nucleo.mensagens.ErroSintatico;
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+
+/**
+ * Sessão de análise incremental, utilizada pelos editores para analisar o código fonte a cada
+ * alteração feita pelo usuário.
+ * <p>
+ * A sessão mantém o código fonte, a ASA e a posição de cada declaração de função obtidas na
+ * última análise. Quando uma alteração fica contida no corpo de uma única função, apenas o
+ * trecho desta função é analisado sintaticamente outra vez (e também as funções seguintes,
+ * caso a quantidade de linhas tenha mudado) e a nova declaração substitui a anterior na ASA.
+ * Na análise semântica, apenas as funções substituídas e as funções que dependem delas são
+ * analisadas outra vez (veja {@link CacheAnaliseFuncoes}).
+ * Qualquer outra alteração, ou um erro sintático no trecho reanalisado, leva a uma análise
+ * completa, de forma que o {@link ResultadoAnalise} produzido é sempre igual ao de
+ * {@link AnalisadorAlgoritmo#analisar(java.lang.String) }.
+ */
+public final class SessaoAnalise
+{
+    private final AnalisadorSintatico analisadorSintatico = new AnalisadorSintatico();
+    private final DetectorErroSintatico detectorErroSintatico = new DetectorErroSintatico();
+    private final CacheAnaliseFuncoes cacheAnaliseFuncoes = new CacheAnaliseFuncoes();
+
+    private String codigo;
+    private ArvoreSintaticaAbstrataPrograma asa;
+    private ResultadoAnalise resultadoAnalise;
+    private List<RegiaoFuncao> regioes;
+    private boolean ultimaAnaliseIncremental;
+
+    public SessaoAnalise()
+    {
+        analisadorSintatico.adicionarObservador(detectorErroSintatico);
+    }
+
+    /**
+     * Realiza a análise completa do código fonte e o adota como o estado atual da sessão.
+     *
+     * @param codigo     o código fonte a ser analisado
+     * @return           o resultado da análise
+     */
+    public ResultadoAnalise analisar(String codigo)
+    {
+        ObservadorAnaliseAlgoritmo observador = new ObservadorAnaliseAlgoritmo();
+
+        analisadorSintatico.adicionarObservador(observador);
+        detectorErroSintatico.limpar();
+
+        try
+        {
+            this.asa = (ArvoreSintaticaAbstrataPrograma) analisadorSintatico.analisar(codigo);
+        }
+        finally
+        {
+            analisadorSintatico.removerObservador(observador);
+        }
+
+        this.codigo = codigo;
+        this.regioes = null;
+        this.ultimaAnaliseIncremental = false;
+
+        if (asa != null && !detectorErroSintatico.encontrouErro())
+        {
+            regioes = localizarRegioes(asa, analisadorSintatico.getTokens());
+        }
+
+        analisarSemanticamente(observador);
+
+        this.resultadoAnalise = observador.getResultadoAnalise();
+
+        return resultadoAnalise;
+    }
+
+    /**
+     * Aplica uma alteração ao código fonte da sessão e o analisa novamente, reaproveitando a
+     * análise anterior sempre que possível.
+     *
+     * @param posicao              a posição do código fonte onde a alteração começa
+     * @param tamanhoRemovido      a quantidade de caracteres removidos a partir da posição
+     * @param textoInserido        o texto inserido na posição
+     * @return                     o resultado da análise do código alterado
+     */
+    public ResultadoAnalise alterar(int posicao, int tamanhoRemovido, String textoInserido)
+    {
+        if (codigo == null)
+        {
+            throw new IllegalStateException("A sessão ainda não analisou nenhum código fonte");
+        }
+
+        if (posicao < 0 || tamanhoRemovido < 0 || posicao + tamanhoRemovido > codigo.length())
+        {
+            throw new IllegalArgumentException(String.format("Alteração inválida: posição %d, tamanho %d", posicao, tamanhoRemovido));
+        }
+
+        String removido = codigo.substring(posicao, posicao + tamanhoRemovido);
+        String novoCodigo = codigo.substring(0, posicao) + textoInserido + codigo.substring(posicao + tamanhoRemovido);
+
+        if (!reanalisarFuncoes(novoCodigo, posicao, removido, textoInserido))
+        {
+            analisar(novoCodigo);
+        }
+
+        return resultadoAnalise;
+    }
+
+    private boolean reanalisarFuncoes(String novoCodigo, int posicao, String removido, String inserido)
+    {
+        if (regioes == null)
+        {
+            return false;
+        }
+
+        int indiceAlterada = -1;
+
+        for (int i = 0; i < regioes.size(); i++)
+        {
+            RegiaoFuncao regiao = regioes.get(i);
+
+            if (regiao.abreChaves < posicao && posicao + removido.length() <= regiao.fechaChaves)
+            {
+                indiceAlterada = i;
+                break;
+            }
+        }
+
+        if (indiceAlterada < 0)
+        {
+            return false;
+        }
+
+        int deslocamento = inserido.length() - removido.length();
+        int linhasAdicionadas = contarLinhas(inserido) - contarLinhas(removido);
+        int linhaFimAlterada = regioes.get(indiceAlterada).linhaFechaChaves;
+
+        if (moveDeclaracoesVariaveis(regioes.get(indiceAlterada).indiceDeclaracao, linhasAdicionadas, linhaFimAlterada))
+        {
+            return false;
+        }
+
+        List<RegiaoFuncao> novasRegioes = new ArrayList<>(regioes.size());
+        List<NoDeclaracaoFuncao> novasDeclaracoes = new ArrayList<>();
+        List<Integer> indicesSubstituidos = new ArrayList<>();
+
+        for (int i = 0; i < regioes.size(); i++)
+        {
+            RegiaoFuncao regiao = regioes.get(i);
+
+            if (i < indiceAlterada)
+            {
+                novasRegioes.add(regiao);
+                continue;
+            }
+
+            int inicio = (i == indiceAlterada) ? regiao.inicio : regiao.inicio + deslocamento;
+            int fim = regiao.fechaChaves + deslocamento + 1;
+            int linha = (i == indiceAlterada) ? regiao.linha : regiao.linha + linhasAdicionadas;
+
+            // As funções seguintes só precisam ser reanalisadas quando suas posições no código mudam
+            boolean reanalisar = (i == indiceAlterada) || linhasAdicionadas != 0 || regiao.linha == linhaFimAlterada;
+
+            if (!reanalisar)
+            {
+                novasRegioes.add(regiao.deslocar(deslocamento));
+                continue;
+            }
+
+            detectorErroSintatico.limpar();
+
+            NoDeclaracaoFuncao declaracao = analisadorSintatico.analisarDeclaracaoFuncao(novoCodigo, inicio, fim, linha, calcularColuna(novoCodigo, inicio));
+
+            if (declaracao == null || detectorErroSintatico.encontrouErro())
+            {
+                return false;
+            }
+
+            List<RegiaoFuncao> regioesTrecho = localizarRegioes(analisadorSintatico.getTokens(), inicio, 0);
+
+            if (regioesTrecho.size() != 1 || regioesTrecho.get(0).fechaChaves != fim - 1)
+            {
+                return false;
+            }
+
+            RegiaoFuncao novaRegiao = regioesTrecho.get(0);
+            novaRegiao.indiceDeclaracao = regiao.indiceDeclaracao;
+
+            novasRegioes.add(novaRegiao);
+            novasDeclaracoes.add(declaracao);
+            indicesSubstituidos.add(regiao.indiceDeclaracao);
+        }
+
+        List<NoDeclaracao> declaracoesGlobais = asa.getListaDeclaracoesGlobais();
+
+        for (int i = 0; i < novasDeclaracoes.size(); i++)
+        {
+            declaracoesGlobais.set(indicesSubstituidos.get(i), novasDeclaracoes.get(i));
+        }
+
+        ObservadorAnaliseAlgoritmo observador = new ObservadorAnaliseAlgoritmo();
+
+        LimpadorReferencias.limpar(asa);
+        analisarSemanticamente(observador);
+
+        this.codigo = novoCodigo;
+        this.regioes = novasRegioes;
+        this.resultadoAnalise = observador.getResultadoAnalise();
+        this.ultimaAnaliseIncremental = true;
+
+        return true;
+    }
+
+    /**
+     * Verifica se a alteração muda a posição de alguma declaração global de variável, vetor ou
+     * matriz. Como estas declarações não são reanalisadas isoladamente, a análise completa é necessária.
+     */
+    private boolean moveDeclaracoesVariaveis(int indiceFuncaoAlterada, int linhasAdicionadas, int linhaFimAlterada)
+    {
+        List<NoDeclaracao> declaracoes = asa.getListaDeclaracoesGlobais();
+
+        for (int i = indiceFuncaoAlterada + 1; i < declaracoes.size(); i++)
+        {
+            NoDeclaracao declaracao = declaracoes.get(i);
+
+            if (!(declaracao instanceof NoDeclaracaoFuncao))
+            {
+                if (linhasAdicionadas != 0 || declaracao.getTrechoCodigoFonteTipoDado().getLinha() == linhaFimAlterada)
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void analisarSemanticamente(ObservadorAnaliseAlgoritmo observador)
+    {
+        AnalisadorSemantico analisadorSemantico = new AnalisadorSemantico();
+        analisadorSemantico.adicionarObservador(observador);
+        analisadorSemantico.setCacheAnaliseFuncoes(cacheAnaliseFuncoes);
+        analisadorSemantico.analisar(asa);
+    }
+
+    /**
+     * Obtém o código fonte atual da sessão, com todas as alterações aplicadas.
+     *
+     * @return     o código fonte atual
+     */
+    public String getCodigo()
+    {
+        return codigo;
+    }
+
+    /**
+     * Obtém a ASA do código fonte atual. Entre duas análises incrementais a mesma instância
+     * é reaproveitada, tendo apenas as declarações de função alteradas substituídas.
+     *
+     * @return     a ASA do código fonte atual
+     */
+    public ArvoreSintaticaAbstrataPrograma getArvoreSintaticaAbstrata()
+    {
+        return asa;
+    }
+
+    /**
+     * Obtém o resultado da última análise realizada.
+     *
+     * @return     o resultado da última análise
+     */
+    public ResultadoAnalise getResultadoAnalise()
+    {
+        return resultadoAnalise;
+    }
+
+    /**
+     * Obtém a quantidade de funções que não precisaram ser analisadas semanticamente outra
+     * vez na última análise.
+     *
+     * @return     a quantidade de funções cuja análise semântica foi reaproveitada
+     */
+    public int getQuantidadeFuncoesReaproveitadas()
+    {
+        return cacheAnaliseFuncoes.getQuantidadeFuncoesReaproveitadas();
+    }
+
+    /**
+     * Informa se a última análise foi realizada de forma incremental.
+     *
+     * @return     {@code true} se apenas parte do código foi analisada sintaticamente
+     */
+    public boolean isUltimaAnaliseIncremental()
+    {
+        return ultimaAnaliseIncremental;
+    }
+
+    private static List<RegiaoFuncao> localizarRegioes(ArvoreSintaticaAbstrataPrograma asa, List<Token> tokens)
+    {
+        List<RegiaoFuncao> regioes = localizarRegioes(tokens, 0, 1);
+        List<NoDeclaracao> declaracoes = asa.getListaDeclaracoesGlobais();
+
+        int indiceRegiao = 0;
+
+        for (int i = 0; i < declaracoes.size(); i++)
+        {
+            if (declaracoes.get(i) instanceof NoDeclaracaoFuncao)
+            {
+                if (indiceRegiao >= regioes.size())
+                {
+                    return null;
+                }
+
+                regioes.get(indiceRegiao++).indiceDeclaracao = i;
+            }
+        }
+
+        return (indiceRegiao == regioes.size()) ? regioes : null;
+    }
+
+    /**
+     * Localiza as declarações de função no nível de escopo informado a partir dos tokens.
+     *
+     * @param tokens           os tokens a serem percorridos
+     * @param deslocamento     valor somado às posições dos tokens (usado quando os tokens
+     *                         foram gerados a partir de um trecho do código fonte)
+     * @param nivelFuncoes     o nível de chaves onde as funções são declaradas
+     */
+    private static List<RegiaoFuncao> localizarRegioes(List<Token> tokens, int deslocamento, int nivelFuncoes)
+    {
+        List<RegiaoFuncao> regioes = new ArrayList<>();
+
+        if (tokens == null)
+        {
+            return regioes;
+        }
+
+        RegiaoFuncao regiao = null;
+        int nivel = 0;
+
+        for (Token token : tokens)
+        {
+            if (token.getChannel() != Token.DEFAULT_CHANNEL || token.getType() == Token.EOF)
+            {
+                continue;
+            }
+
+            if (token.getType() == PortugolParser.PR_FUNCAO && nivel == nivelFuncoes)
+            {
+                regiao = new RegiaoFuncao();
+                regiao.inicio = ((CommonToken) token).getStartIndex() + deslocamento;
+                regiao.linha = token.getLine();
+                regiao.abreChaves = -1;
+            }
+            else if ("{".equals(token.getText()))
+            {
+                nivel++;
+
+                if (regiao != null && regiao.abreChaves < 0)
+                {
+                    regiao.abreChaves = ((CommonToken) token).getStartIndex() + deslocamento;
+                }
+            }
+            else if ("}".equals(token.getText()))
+            {
+                nivel--;
+
+                if (regiao != null && nivel == nivelFuncoes)
+                {
+                    regiao.fechaChaves = ((CommonToken) token).getStartIndex() + deslocamento;
+                    regiao.linhaFechaChaves = token.getLine();
+                    regioes.add(regiao);
+                    regiao = null;
+                }
+            }
+        }
+
+        return regioes;
+    }
+
+    private static int calcularColuna(String codigo, int posicao)
+    {
+        return posicao - (codigo.lastIndexOf('\n', posicao - 1) + 1);
+    }
+
+    private static int contarLinhas(String texto)
+    {
+        int linhas = 0;
+
+        for (int i = 0; i < texto.length(); i++)
+        {
+            if (texto.charAt(i) == '\n')
+            {
+                linhas++;
+            }
+        }
+
+        return linhas;
+    }
+
+    private static final class RegiaoFuncao
+    {
+        private int inicio;
+        private int abreChaves;
+        private int fechaChaves;
+        private int linha;
+        private int linhaFechaChaves;
+        private int indiceDeclaracao;
+
+        private RegiaoFuncao deslocar(int deslocamento)
+        {
+            RegiaoFuncao regiao = new RegiaoFuncao();
+
+            regiao.inicio = inicio + deslocamento;
+            regiao.abreChaves = abreChaves + deslocamento;
+            regiao.fechaChaves = fechaChaves + deslocamento;
+            regiao.linha = linha;
+            regiao.linhaFechaChaves = linhaFechaChaves;
+            regiao.indiceDeclaracao = indiceDeclaracao;
+
+            return regiao;
+        }
+    }
+
+    private static final class DetectorErroSintatico implements ObservadorAnaliseSintatica
+    {
+        private boolean encontrouErro;
+
+        @Override
+        public void tratarErroSintatico(ErroSintatico erroSintatico)
+        {
+            encontrouErro = true;
+        }
+
+        public boolean encontrouErro()
+        {
+            return encontrouErro;
+        }
+
+        public void limpar()
+        {
+            encontrouErro = false;
+        }
+    }
+}
@@ -60,9 +60,14 @@ import br.univali.portugol.nucleo.mensagens.ErroSemantico;
 import br.univali.portugol.nucleo.simbolos.*;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Esta classe percorre a ASA gerada a partir do código fonte para detectar
@@ -78,6 +83,15 @@ public final class AnalisadorSemantico implements VisitanteASA
 {
     private static final List<String> FUNCOES_RESERVADAS = getLista();
 
+    /**
+     * Quantidade mínima de funções no programa para que os seus blocos sejam
+     * analisados em paralelo. Em programas menores o custo de distribuir as
+     * tarefas supera o ganho obtido.
+     */
+    private static final int QUANTIDADE_MINIMA_FUNCOES_PARALELAS = 8;
+
+    private static final ForkJoinPool POOL_ANALISE = new ForkJoinPool();
+
     private final Memoria memoria;
     private final List<ObservadorAnaliseSemantica> observadores;
     private final Map<String, MetaDadosBiblioteca> metaDadosBibliotecas;
@@ -92,6 +106,11 @@ public final class AnalisadorSemantico implements VisitanteASA
     private boolean declarandoMatriz;
     private boolean passandoReferencia = false;
     private boolean passandoParametro = false;
+    private long tempoCarregamentoBibliotecas;
+
+    private final AnaliseFuncao analiseFuncao;
+    private int quantidadeMinimaFuncoesParalelas = QUANTIDADE_MINIMA_FUNCOES_PARALELAS;
+    private CacheAnaliseFuncoes cacheAnaliseFuncoes;
 
     public final static String FUNCAO_LEIA = "leia";
     public final static String FUNCAO_ESCREVA = "escreva";
@@ -102,6 +121,47 @@ public final class AnalisadorSemantico implements VisitanteASA
         memoria = new Memoria();
         metaDadosBibliotecas = new TreeMap<>();
         observadores = new ArrayList<>();
+        analiseFuncao = null;
+    }
+
+    /**
+     * Cria um analisador para os blocos de uma única função. O analisador criado
+     * compartilha o escopo global e as bibliotecas do analisador principal, mas
+     * não altera nenhum estado compartilhado: a inicialização dos símbolos globais,
+     * as referências e as mensagens ficam registradas na análise da função até
+     * serem aplicadas pelo analisador principal.
+     */
+    private AnalisadorSemantico(AnalisadorSemantico principal, AnaliseFuncao analiseFuncao)
+    {
+        this.memoria = principal.memoria.compartilharEscopoGlobal();
+        this.metaDadosBibliotecas = principal.metaDadosBibliotecas;
+        this.observadores = new ArrayList<>();
+        this.observadores.add(analiseFuncao);
+        this.asa = principal.asa;
+        this.analiseFuncao = analiseFuncao;
+    }
+
+    /**
+     * Define a quantidade mínima de funções que o programa deve ter para que os
+     * blocos das funções sejam analisados em paralelo. Utilizado nos testes para
+     * comparar a análise paralela com a sequencial.
+     */
+    void setQuantidadeMinimaFuncoesParalelas(int quantidadeMinimaFuncoesParalelas)
+    {
+        this.quantidadeMinimaFuncoesParalelas = quantidadeMinimaFuncoesParalelas;
+    }
+
+    /**
+     * Define o cache onde a análise de cada função é guardada. Quando definido, as
+     * funções que não foram alteradas desde a análise anterior, e que não dependem
+     * de funções alteradas, não são analisadas novamente.
+     *
+     * @param cacheAnaliseFuncoes o cache das análises das funções, ou {@code null}
+     * para analisar todas as funções
+     */
+    public void setCacheAnaliseFuncoes(CacheAnaliseFuncoes cacheAnaliseFuncoes)
+    {
+        this.cacheAnaliseFuncoes = cacheAnaliseFuncoes;
     }
 
     /**
@@ -137,6 +197,17 @@ public final class AnalisadorSemantico implements VisitanteASA
         observadores.remove(observadorAnaliseSemantica);
     }
 
+    /**
+     * Obtém o tempo gasto carregando os metadados das bibliotecas incluídas no programa
+     * durante a última análise.
+     *
+     * @return o tempo em nanossegundos
+     */
+    public long getTempoCarregamentoBibliotecas()
+    {
+        return tempoCarregamentoBibliotecas;
+    }
+
     private void notificarAviso(AvisoAnalise aviso)
     {
         for (ObservadorAnaliseSemantica observadorAnaliseSemantica : observadores)
@@ -166,6 +237,8 @@ public final class AnalisadorSemantico implements VisitanteASA
     public void analisar(ArvoreSintaticaAbstrata asa)
     {
         this.asa = asa;
+        this.tempoCarregamentoBibliotecas = 0;
+
         if (asa != null)
         {
             try
@@ -198,24 +271,269 @@ public final class AnalisadorSemantico implements VisitanteASA
         declarandoSimbolosGlobais = false;
 
         // Executa a segunda vez para analizar os blocos das funções
+        List<NoDeclaracaoFuncao> funcoes = new ArrayList<>();
+
         for (NoDeclaracao declaracao : asap.getListaDeclaracoesGlobais())
         {
-            declaracao.aceitar(this);
+            if (declaracao instanceof NoDeclaracaoFuncao)
+            {
+                funcoes.add((NoDeclaracaoFuncao) declaracao);
+            }
+        }
+
+        if (cacheAnaliseFuncoes != null)
+        {
+            analisarFuncoesIncrementalmente(asap, funcoes);
+        }
+        else if (funcoes.size() >= quantidadeMinimaFuncoesParalelas)
+        {
+            analisarFuncoesEmParalelo(funcoes);
+        }
+        else
+        {
+            for (NoDeclaracao declaracao : asap.getListaDeclaracoesGlobais())
+            {
+                declaracao.aceitar(this);
+            }
         }
 
         return null;
     }
 
+    /**
+     * Analisa os blocos das funções em paralelo, cada uma com o seu próprio
+     * analisador, e depois aplica os resultados na ordem em que as funções foram
+     * declaradas, de forma que os erros, avisos e referências sejam os mesmos da
+     * análise sequencial.
+     * <p>
+     * Na análise sequencial, uma função enxerga as variáveis globais que foram
+     * inicializadas pelas funções anteriores. Por isso, cada função é analisada
+     * considerando apenas a inicialização feita na declaração das variáveis globais,
+     * e é analisada novamente (já com o estado correto) se consultou a inicialização
+     * de uma variável global que alguma função anterior inicializou.
+     */
+    private List<AnaliseFuncao> analisarFuncoesEmParalelo(List<NoDeclaracaoFuncao> funcoes) throws ExcecaoVisitaASA
+    {
+        final List<AnaliseFuncao> analises = new ArrayList<>(funcoes.size());
+        final Set<Simbolo> globaisInicializados = Collections.newSetFromMap(new IdentityHashMap<Simbolo, Boolean>());
+
+        for (NoDeclaracaoFuncao funcao : funcoes)
+        {
+            analises.add(new AnaliseFuncao(this, funcao, globaisInicializados));
+        }
+
+        POOL_ANALISE.invoke(new RecursiveAction()
+        {
+            @Override
+            protected void compute()
+            {
+                invokeAll(analises);
+            }
+        });
+
+        for (int i = 0; i < analises.size(); i++)
+        {
+            AnaliseFuncao analise = analises.get(i);
+
+            if (analise.precisaSerRefeita(globaisInicializados))
+            {
+                analise = new AnaliseFuncao(this, analise.declaracaoFuncao, globaisInicializados);
+                analise.analisar();
+                analises.set(i, analise);
+            }
+
+            analise.aplicar(this);
+            globaisInicializados.addAll(analise.getGlobaisInicializados());
+        }
+
+        for (Simbolo simbolo : globaisInicializados)
+        {
+            simbolo.setInicializado(true);
+        }
+
+        return analises;
+    }
+
+    /**
+     * Analisa os blocos das funções reaproveitando as análises guardadas no
+     * {@link CacheAnaliseFuncoes}. Uma função só é analisada novamente se a sua
+     * declaração foi substituída, se referencia uma função que foi substituída,
+     * ou se a inicialização das variáveis globais que ela consultou mudou por
+     * causa das funções anteriores. Os resultados são aplicados na ordem de
+     * declaração, da mesma forma que na análise paralela.
+     * <p>
+     * Se as declarações globais ou a assinatura de alguma função mudaram, nenhuma
+     * análise é reaproveitada.
+     */
+    private void analisarFuncoesIncrementalmente(ArvoreSintaticaAbstrataPrograma asap, List<NoDeclaracaoFuncao> funcoes) throws ExcecaoVisitaASA
+    {
+        List<Object> estruturaGlobal = CacheAnaliseFuncoes.calcularEstruturaGlobal(asap);
+        Map<NoDeclaracaoFuncao, AnaliseFuncao> anteriores = cacheAnaliseFuncoes.obterAnalises(estruturaGlobal);
+
+        // Se a análise for interrompida por um erro, a próxima análise não reaproveita nada
+        cacheAnaliseFuncoes.limpar();
+
+        if (anteriores.isEmpty() && funcoes.size() >= quantidadeMinimaFuncoesParalelas)
+        {
+            cacheAnaliseFuncoes.atualizar(estruturaGlobal, analisarFuncoesEmParalelo(funcoes), 0);
+
+            return;
+        }
+
+        Set<NoDeclaracaoFuncao> declaracoesFuncoes = Collections.newSetFromMap(new IdentityHashMap<NoDeclaracaoFuncao, Boolean>());
+        declaracoesFuncoes.addAll(funcoes);
+
+        Set<Simbolo> globaisInicializados = Collections.newSetFromMap(new IdentityHashMap<Simbolo, Boolean>());
+        List<AnaliseFuncao> analises = new ArrayList<>(funcoes.size());
+        int reaproveitadas = 0;
+
+        for (NoDeclaracaoFuncao funcao : funcoes)
+        {
+            AnaliseFuncao analise = anteriores.get(funcao);
+            List<Simbolo> inicializados = (analise != null) ? obterGlobaisReaproveitados(analise, declaracoesFuncoes, globaisInicializados) : null;
+
+            if (inicializados != null)
+            {
+                reaproveitadas++;
+            }
+            else
+            {
+                analise = new AnaliseFuncao(this, funcao, globaisInicializados);
+                analise.analisar();
+                inicializados = analise.getGlobaisInicializados();
+            }
+
+            analise.aplicar(this);
+            globaisInicializados.addAll(inicializados);
+            analises.add(analise);
+        }
+
+        for (Simbolo simbolo : globaisInicializados)
+        {
+            simbolo.setInicializado(true);
+        }
+
+        cacheAnaliseFuncoes.atualizar(estruturaGlobal, analises, reaproveitadas);
+    }
+
+    /**
+     * Verifica se uma análise anterior pode ser reaproveitada no estado atual da
+     * análise.
+     *
+     * @return os símbolos globais que a função inicializa, ou {@code null} se a
+     * função precisa ser analisada novamente
+     */
+    private List<Simbolo> obterGlobaisReaproveitados(AnaliseFuncao analise, Set<NoDeclaracaoFuncao> funcoes, Set<Simbolo> globaisInicializados)
+    {
+        if (analise.erro != null)
+        {
+            return null;
+        }
+
+        for (NoDeclaracao declaracao : analise.declaracoesReferenciadas)
+        {
+            if (declaracao instanceof NoDeclaracaoFuncao && !funcoes.contains(declaracao))
+            {
+                return null;
+            }
+        }
+
+        for (Map.Entry<NoDeclaracao, Boolean> consulta : analise.globaisConsultados.entrySet())
+        {
+            Simbolo simbolo = obterSimboloGlobal(consulta.getKey());
+
+            if (simbolo == null || (simbolo.inicializado() || globaisInicializados.contains(simbolo)) != consulta.getValue())
+            {
+                return null;
+            }
+        }
+
+        List<Simbolo> inicializados = new ArrayList<>();
+
+        for (NoDeclaracao declaracao : analise.globaisDefinidos)
+        {
+            Simbolo simbolo = obterSimboloGlobal(declaracao);
+
+            if (simbolo == null)
+            {
+                return null;
+            }
+
+            inicializados.add(simbolo);
+        }
+
+        return inicializados;
+    }
+
+    private Simbolo obterSimboloGlobal(NoDeclaracao declaracao)
+    {
+        try
+        {
+            Simbolo simbolo = memoria.getSimbolo(declaracao.getNome());
+
+            return (simbolo.getOrigemDoSimbolo() == declaracao && memoria.isGlobal(simbolo)) ? simbolo : null;
+        }
+        catch (ExcecaoSimboloNaoDeclarado excecao)
+        {
+            return null;
+        }
+    }
+
+    private boolean estaInicializado(Simbolo simbolo, boolean registrarDependencia)
+    {
+        if (analiseFuncao != null && memoria.isGlobal(simbolo))
+        {
+            return analiseFuncao.estaInicializado(simbolo, registrarDependencia);
+        }
+
+        return simbolo.inicializado();
+    }
+
+    private void definirInicializado(Simbolo simbolo, boolean inicializado)
+    {
+        if (analiseFuncao != null && memoria.isGlobal(simbolo))
+        {
+            analiseFuncao.definirInicializado(simbolo, inicializado);
+        }
+        else
+        {
+            simbolo.setInicializado(inicializado);
+        }
+    }
+
+    /**
+     * Guarda na expressão o tipo de dado determinado pela análise, para que não precise
+     * ser descoberto novamente durante a execução.
+     */
+    private TipoDado anotarTipo(NoExpressao expressao, TipoDado tipo)
+    {
+        expressao.setTipoResultado(tipo);
+
+        return tipo;
+    }
+
+    private void vincularReferencia(NoDeclaracao declaracao, NoReferencia referencia)
+    {
+        if (analiseFuncao != null)
+        {
+            analiseFuncao.vincularReferencia(declaracao, referencia);
+        }
+        else
+        {
+            declaracao.adicionarReferencia(referencia);
+        }
+    }
+
     @Override
     public Object visitar(NoCadeia noCadeia) throws ExcecaoVisitaASA
     {
-        return TipoDado.CADEIA;
+        return anotarTipo(noCadeia, TipoDado.CADEIA);
     }
 
     @Override
     public Object visitar(NoCaracter noCaracter) throws ExcecaoVisitaASA
     {
-        return TipoDado.CARACTER;
+        return anotarTipo(noCaracter, TipoDado.CARACTER);
     }
 
     @Override
@@ -253,7 +571,7 @@ public final class AnalisadorSemantico implements VisitanteASA
         verificarModoAcesso(chamadaFuncao);
         verificarParametrosObsoletos(chamadaFuncao);
 
-        return obterTipoRetornoFuncao(chamadaFuncao);
+        return anotarTipo(chamadaFuncao, obterTipoRetornoFuncao(chamadaFuncao));
     }
 
     private void verificarModoAcesso(NoChamadaFuncao chamadaFuncao)
@@ -584,6 +902,12 @@ public final class AnalisadorSemantico implements VisitanteASA
                     else
                     {
                         notificarAviso(new AvisoValorExpressaoSeraConvertido(chamadaFuncao.getParametros().get(indice).getTrechoCodigoFonte(), chamadaFuncao, tipoPassado, tipoEsperado, obterNomeParametro(chamadaFuncao, indice)));
+
+                        // Nas funções do programa o valor é convertido pela variável do parâmetro
+                        if (chamadaFuncao.getEscopo() != null)
+                        {
+                            chamadaFuncao.getParametros().get(indice).setTipoConversao(tipoEsperado);
+                        }
                     }
                 }
                 catch (ExcecaoImpossivelDeterminarTipoDado excecao)
@@ -694,7 +1018,7 @@ public final class AnalisadorSemantico implements VisitanteASA
                         try
                         {
                             Simbolo variavel = memoria.getSimbolo(nome);
-                            variavel.setInicializado(true);
+                            definirInicializado(variavel, true);
                         }
                         catch (ExcecaoSimboloNaoDeclarado excecaoSimboloNaoDeclarado)
                         {
@@ -795,7 +1119,7 @@ public final class AnalisadorSemantico implements VisitanteASA
                     }
                     else
                     {
-                        simbolo.getOrigemDoSimbolo().adicionarReferencia(chamadaFuncao);
+                        vincularReferencia(simbolo.getOrigemDoSimbolo(), chamadaFuncao);
                     }
                 }
                 catch (ExcecaoSimboloNaoDeclarado ex)
@@ -1349,13 +1673,13 @@ public final class AnalisadorSemantico implements VisitanteASA
     @Override
     public Object visitar(NoInteiro noInteiro) throws ExcecaoVisitaASA
     {
-        return TipoDado.INTEIRO;
+        return anotarTipo(noInteiro, TipoDado.INTEIRO);
     }
 
     @Override
     public Object visitar(NoLogico noLogico) throws ExcecaoVisitaASA
     {
-        return TipoDado.LOGICO;
+        return anotarTipo(noLogico, TipoDado.LOGICO);
     }
 
     @Override
@@ -1383,7 +1707,7 @@ public final class AnalisadorSemantico implements VisitanteASA
                         }
                     }
                 }
-                return tipoMatriz;
+                return anotarTipo(noMatriz, tipoMatriz);
             }
             catch (Exception excecao)
             {
@@ -1411,7 +1735,7 @@ public final class AnalisadorSemantico implements VisitanteASA
             throw new ExcecaoVisitaASA(new ExcecaoImpossivelDeterminarTipoDado(), asa, noMenosUnario);
         }
 
-        return tipo;
+        return anotarTipo(noMenosUnario, tipo);
     }
 
     @Override
@@ -1423,7 +1747,7 @@ public final class AnalisadorSemantico implements VisitanteASA
             notificarErroSemantico(new ErroTiposIncompativeis(noNao, tipo, TipoDado.LOGICO));
             throw new ExcecaoVisitaASA(new ExcecaoImpossivelDeterminarTipoDado(), asa, noNao);
         }
-        return tipo;
+        return anotarTipo(noNao, tipo);
     }
 
     @Override
@@ -1464,8 +1788,8 @@ public final class AnalisadorSemantico implements VisitanteASA
                     {
                         simbolo = memoria.getSimbolo(referencia.getNome());
 
-                        inicializadoAnterior = simbolo.inicializado();
-                        simbolo.setInicializado(true);
+                        inicializadoAnterior = estaInicializado(simbolo, false);
+                        definirInicializado(simbolo, true);
                         if (simbolo instanceof Variavel)
                         {
 
@@ -1493,7 +1817,7 @@ public final class AnalisadorSemantico implements VisitanteASA
                         }
                         else if (simbolo instanceof Matriz)
                         {
-                            if (!simbolo.inicializado() && !(noOperacao.getOperandoDireito() instanceof NoMatriz))
+                            if (!estaInicializado(simbolo, true) && !(noOperacao.getOperandoDireito() instanceof NoMatriz))
                             {
                                 notificarErroSemantico(new ErroAoInicializarMatriz((Matriz) simbolo, noOperacao.getOperandoDireito().getTrechoCodigoFonte(), ((Matriz) simbolo).getNumeroLinhas(), ((Matriz) simbolo).getNumeroColunas()));
                             }
@@ -1564,7 +1888,7 @@ public final class AnalisadorSemantico implements VisitanteASA
 
         if (simbolo != null)
         {
-            simbolo.setInicializado(inicializadoAnterior);
+            definirInicializado(simbolo, inicializadoAnterior);
         }
 
         try
@@ -1587,6 +1911,8 @@ public final class AnalisadorSemantico implements VisitanteASA
             }
             catch (ExcecaoValorSeraConvertido excecao)
             {
+                // A conversão não é anotada porque o interpretador deixa para o símbolo
+                // atribuído tratar o valor
                 notificarAviso(new AvisoValorExpressaoSeraConvertido(noOperacao.getOperandoDireito().getTrechoCodigoFonte(), noOperacao, excecao.getTipoEntrada(), excecao.getTipoSaida()));
 
                 tipoDadoRetorno = excecao.getTipoSaida();
@@ -1605,10 +1931,10 @@ public final class AnalisadorSemantico implements VisitanteASA
 
         if (simbolo != null)
         {
-            simbolo.setInicializado(true);
+            definirInicializado(simbolo, true);
         }
 
-        return tipoDadoRetorno;
+        return anotarTipo(noOperacao, tipoDadoRetorno);
     }
 
     @Override
@@ -1716,7 +2042,7 @@ public final class AnalisadorSemantico implements VisitanteASA
             notificarErroSemantico(new ErroTiposIncompativeis(noOperacaoBitwiseNao, tipo, TipoDado.LOGICO));
             throw new ExcecaoVisitaASA(new ExcecaoImpossivelDeterminarTipoDado(), asa, noOperacaoBitwiseNao);
         }
-        return tipo;
+        return anotarTipo(noOperacaoBitwiseNao, tipo);
     }
 
     @Override
@@ -1794,7 +2120,7 @@ public final class AnalisadorSemantico implements VisitanteASA
     @Override
     public Object visitar(NoReal noReal) throws ExcecaoVisitaASA
     {
-        return TipoDado.REAL;
+        return anotarTipo(noReal, TipoDado.REAL);
     }
 
     @Override
@@ -1828,10 +2154,10 @@ public final class AnalisadorSemantico implements VisitanteASA
             }
             else
             {
-                ((Matriz) simbolo).getOrigemDoSimbolo().adicionarReferencia(noReferenciaMatriz);
+                vincularReferencia(simbolo.getOrigemDoSimbolo(), noReferenciaMatriz);
             }
 
-            return simbolo.getTipoDado();
+            return anotarTipo(noReferenciaMatriz, simbolo.getTipoDado());
         }
         catch (ExcecaoSimboloNaoDeclarado excecaoSimboloNaoDeclarado)
         {
@@ -1848,7 +2174,7 @@ public final class AnalisadorSemantico implements VisitanteASA
         {
             try
             {
-                return analisarReferenciaVariavelPrograma(noReferenciaVariavel);
+                return anotarTipo(noReferenciaVariavel, analisarReferenciaVariavelPrograma(noReferenciaVariavel));
             }
             catch (ExcecaoImpossivelDeterminarTipoDado ex)
             {
@@ -1857,7 +2183,7 @@ public final class AnalisadorSemantico implements VisitanteASA
         }
         else
         {
-            return analisarReferenciaVariavelBiblioteca(noReferenciaVariavel);
+            return anotarTipo(noReferenciaVariavel, analisarReferenciaVariavelBiblioteca(noReferenciaVariavel));
         }
     }
 
@@ -1891,10 +2217,10 @@ public final class AnalisadorSemantico implements VisitanteASA
             }
             else
             {
-                ((Vetor) simbolo).getOrigemDoSimbolo().adicionarReferencia(noReferenciaVetor);
+                vincularReferencia(simbolo.getOrigemDoSimbolo(), noReferenciaVetor);
             }
 
-            return simbolo.getTipoDado();
+            return anotarTipo(noReferenciaVetor, simbolo.getTipoDado());
         }
         catch (ExcecaoSimboloNaoDeclarado excecaoSimboloNaoDeclarado)
         {
@@ -1921,6 +2247,7 @@ public final class AnalisadorSemantico implements VisitanteASA
             catch (ExcecaoValorSeraConvertido e)
             {
                 notificarAviso(new AvisoValorExpressaoSeraConvertido(noRetorne, e.getTipoEntrada(), e.getTipoSaida(), funcaoAtual.getNome()));
+                noRetorne.getExpressao().setTipoConversao(e.getTipoSaida());
                 tipoRetornoFuncao = e.getTipoSaida();
             }
             catch (ExcecaoImpossivelDeterminarTipoDado ex)
@@ -1974,7 +2301,7 @@ public final class AnalisadorSemantico implements VisitanteASA
                         throw new ExcecaoVisitaASA(new ExcecaoImpossivelDeterminarTipoDado(), asa, noVetor);
                     }
                 }
-                return tipoDadoVetor;
+                return anotarTipo(noVetor, tipoDadoVetor);
             }
             catch (Exception excecao)
             {
@@ -2096,13 +2423,13 @@ public final class AnalisadorSemantico implements VisitanteASA
         {
             try
             {
-                return tabelaCompatibilidadeTipos.obterTipoRetornoOperacao(noOperacao.getClass(), operandoEsquerdo, operandoDireito);
+                return anotarTipo(noOperacao, tabelaCompatibilidadeTipos.obterTipoRetornoOperacao(noOperacao.getClass(), operandoEsquerdo, operandoDireito));
             }
             catch (ExcecaoValorSeraConvertido excecao)
             {
                 notificarAviso(new AvisoValorExpressaoSeraConvertido(noOperacao, excecao.getTipoEntrada(), excecao.getTipoSaida()));
 
-                return excecao.getTipoSaida();
+                return anotarTipo(noOperacao, excecao.getTipoSaida());
             }
             catch (ExcecaoImpossivelDeterminarTipoDado excecao)
             {
@@ -2186,7 +2513,17 @@ public final class AnalisadorSemantico implements VisitanteASA
             }
             catch (ExcecaoSimboloNaoDeclarado excecao)
             {
-                MetaDadosBiblioteca metaDadosBiblioteca = GerenciadorBibliotecas.getInstance().obterMetaDadosBiblioteca(nome);
+                long inicioCarregamento = System.nanoTime();
+                MetaDadosBiblioteca metaDadosBiblioteca;
+
+                try
+                {
+                    metaDadosBiblioteca = GerenciadorBibliotecas.getInstance().obterMetaDadosBiblioteca(nome);
+                }
+                finally
+                {
+                    tempoCarregamentoBibliotecas += System.nanoTime() - inicioCarregamento;
+                }
 
                 if (metaDadosBibliotecas.containsKey(nome))
                 {
@@ -2232,7 +2569,7 @@ public final class AnalisadorSemantico implements VisitanteASA
         {
             Simbolo simbolo = memoria.getSimbolo(noReferenciaVariavel.getNome());
 
-            if (!simbolo.inicializado())
+            if (!estaInicializado(simbolo, true))
             {
                 notificarErroSemantico(new ErroSimboloNaoInicializado(noReferenciaVariavel, simbolo));
             }
@@ -2243,11 +2580,11 @@ public final class AnalisadorSemantico implements VisitanteASA
             }
             else if (simbolo instanceof Variavel)
             {
-                ((Variavel) simbolo).getOrigemDoSimbolo().adicionarReferencia(noReferenciaVariavel);
+                vincularReferencia(simbolo.getOrigemDoSimbolo(), noReferenciaVariavel);
             }
             else if (simbolo instanceof Vetor)
             {
-                simbolo.getOrigemDoSimbolo().adicionarReferencia(noReferenciaVariavel);
+                vincularReferencia(simbolo.getOrigemDoSimbolo(), noReferenciaVariavel);
             }
 
             return simbolo.getTipoDado();
@@ -2371,4 +2708,201 @@ public final class AnalisadorSemantico implements VisitanteASA
     {
         throw new ExcecaoVisitaASA("Erro", new ErroComandoNaoSuportado(noVaPara.getTrechoCodigoFonte()), asa, noVaPara);
     }
+
+    /**
+     * Análise isolada dos blocos de uma função. Guarda tudo o que a análise
+     * sequencial alteraria no estado compartilhado (mensagens, referências e
+     * inicialização das variáveis globais) para que seja aplicado depois, na
+     * ordem de declaração das funções.
+     */
+    static final class AnaliseFuncao extends RecursiveAction implements ObservadorAnaliseSemantica
+    {
+        private final NoDeclaracaoFuncao declaracaoFuncao;
+        private AnalisadorSemantico analisador;
+
+        private final Set<Simbolo> globaisIniciais = Collections.newSetFromMap(new IdentityHashMap<Simbolo, Boolean>());
+        private final Map<Simbolo, Boolean> inicializacaoGlobais = new IdentityHashMap<>();
+        private final Map<Simbolo, Boolean> consultasGlobais = new IdentityHashMap<>();
+        private final Set<Simbolo> dependencias = Collections.newSetFromMap(new IdentityHashMap<Simbolo, Boolean>());
+
+        /**
+         * Estado das variáveis globais consultadas e inicializadas pela função,
+         * identificadas pelas suas declarações, que são preservadas entre as
+         * análises de um mesmo programa. Utilizados pelo {@link CacheAnaliseFuncoes}.
+         */
+        private final Map<NoDeclaracao, Boolean> globaisConsultados = new IdentityHashMap<>();
+        private final List<NoDeclaracao> globaisDefinidos = new ArrayList<>();
+
+        private final List<Object> mensagens = new ArrayList<>();
+        private final List<NoDeclaracao> declaracoesReferenciadas = new ArrayList<>();
+        private final List<NoReferencia> referencias = new ArrayList<>();
+
+        private Throwable erro;
+
+        AnaliseFuncao(AnalisadorSemantico principal, NoDeclaracaoFuncao declaracaoFuncao, Set<Simbolo> globaisInicializados)
+        {
+            this.declaracaoFuncao = declaracaoFuncao;
+            this.analisador = new AnalisadorSemantico(principal, this);
+            this.globaisIniciais.addAll(globaisInicializados);
+        }
+
+        @Override
+        protected void compute()
+        {
+            analisar();
+        }
+
+        NoDeclaracaoFuncao getDeclaracaoFuncao()
+        {
+            return declaracaoFuncao;
+        }
+
+        void analisar()
+        {
+            try
+            {
+                declaracaoFuncao.aceitar(analisador);
+            }
+            catch (Exception | StackOverflowError excecao)
+            {
+                erro = excecao;
+            }
+            finally
+            {
+                // O analisador mantém a memória da análise, que não é mais necessária
+                analisador = null;
+            }
+
+            for (Map.Entry<Simbolo, Boolean> consulta : consultasGlobais.entrySet())
+            {
+                globaisConsultados.put(consulta.getKey().getOrigemDoSimbolo(), consulta.getValue());
+            }
+
+            for (Simbolo simbolo : getGlobaisInicializados())
+            {
+                globaisDefinidos.add(simbolo.getOrigemDoSimbolo());
+            }
+        }
+
+        boolean estaInicializado(Simbolo simbolo, boolean registrarDependencia)
+        {
+            Boolean inicializado = inicializacaoGlobais.get(simbolo);
+
+            if (inicializado == null)
+            {
+                inicializado = globaisIniciais.contains(simbolo) || simbolo.inicializado();
+
+                if (!consultasGlobais.containsKey(simbolo))
+                {
+                    consultasGlobais.put(simbolo, inicializado);
+                }
+            }
+
+            if (!inicializado && registrarDependencia)
+            {
+                dependencias.add(simbolo);
+            }
+
+            return inicializado;
+        }
+
+        void definirInicializado(Simbolo simbolo, boolean inicializado)
+        {
+            inicializacaoGlobais.put(simbolo, inicializado);
+        }
+
+        void vincularReferencia(NoDeclaracao declaracao, NoReferencia referencia)
+        {
+            declaracoesReferenciadas.add(declaracao);
+            referencias.add(referencia);
+        }
+
+        /**
+         * Verifica se o resultado desta análise pode ser diferente do obtido na
+         * análise sequencial. Isto acontece quando a função consultou uma variável
+         * global não inicializada que foi inicializada por uma função anterior, ou
+         * quando a pilha da thread do pool não foi suficiente para a análise.
+         */
+        boolean precisaSerRefeita(Set<Simbolo> globaisInicializados)
+        {
+            if (erro instanceof StackOverflowError)
+            {
+                return true;
+            }
+
+            for (Simbolo simbolo : dependencias)
+            {
+                if (globaisInicializados.contains(simbolo))
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        List<Simbolo> getGlobaisInicializados()
+        {
+            List<Simbolo> inicializados = new ArrayList<>();
+
+            for (Map.Entry<Simbolo, Boolean> entrada : inicializacaoGlobais.entrySet())
+            {
+                if (entrada.getValue())
+                {
+                    inicializados.add(entrada.getKey());
+                }
+            }
+
+            return inicializados;
+        }
+
+        void aplicar(AnalisadorSemantico principal) throws ExcecaoVisitaASA
+        {
+            for (Object mensagem : mensagens)
+            {
+                if (mensagem instanceof ErroSemantico)
+                {
+                    principal.notificarErroSemantico((ErroSemantico) mensagem);
+                }
+                else
+                {
+                    principal.notificarAviso((AvisoAnalise) mensagem);
+                }
+            }
+
+            for (int indice = 0; indice < referencias.size(); indice++)
+            {
+                declaracoesReferenciadas.get(indice).adicionarReferencia(referencias.get(indice));
+            }
+
+            if (erro instanceof ExcecaoVisitaASA)
+            {
+                throw (ExcecaoVisitaASA) erro;
+            }
+            else if (erro instanceof RuntimeException)
+            {
+                throw (RuntimeException) erro;
+            }
+            else if (erro instanceof Error)
+            {
+                throw (Error) erro;
+            }
+            else if (erro != null)
+            {
+                throw new ExcecaoVisitaASA(erro, principal.asa, declaracaoFuncao);
+            }
+        }
+
+        @Override
+        public void tratarErroSemantico(ErroSemantico erroSemantico)
+        {
+            mensagens.add(erroSemantico);
+        }
+
+        @Override
+        public void tratarAviso(AvisoAnalise aviso)
+        {
+            mensagens.add(aviso);
+        }
+    }
 }
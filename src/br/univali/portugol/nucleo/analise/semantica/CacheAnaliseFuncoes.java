@@ -0,0 +1,116 @@
+package br.univali.portugol.nucleo.analise.semantica;
+
+import br.univali.portugol.nucleo.analise.semantica.AnalisadorSemantico.AnaliseFuncao;
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.NoDeclaracao;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoParametro;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guarda a análise dos blocos de cada função feita pelo {@link AnalisadorSemantico}, para
+ * que as próximas análises do mesmo programa reaproveitem as funções que não foram
+ * alteradas.
+ * <p>
+ * As análises são associadas às declarações de função da ASA. Uma função é analisada
+ * novamente quando a sua declaração foi substituída, quando referencia uma função cuja
+ * declaração foi substituída, ou quando uma função anterior passou a inicializar (ou
+ * deixou de inicializar) uma variável global que ela consulta. Se alguma declaração
+ * global que não é uma função for substituída, ou se a assinatura de alguma função
+ * mudar, nenhuma análise é reaproveitada.
+ * <p>
+ * A ASA deve ser analisada com as referências das declarações já descartadas, como faz a
+ * {@link br.univali.portugol.nucleo.analise.SessaoAnalise}.
+ *
+ * @see AnalisadorSemantico#setCacheAnaliseFuncoes(CacheAnaliseFuncoes)
+ */
+public final class CacheAnaliseFuncoes
+{
+    private List<Object> estruturaGlobal = Collections.emptyList();
+    private Map<NoDeclaracaoFuncao, AnaliseFuncao> analises = Collections.emptyMap();
+    private int quantidadeFuncoesReaproveitadas;
+
+    /**
+     * Descarta todas as análises guardadas.
+     */
+    public void limpar()
+    {
+        estruturaGlobal = Collections.emptyList();
+        analises = Collections.emptyMap();
+        quantidadeFuncoesReaproveitadas = 0;
+    }
+
+    /**
+     * @return a quantidade de funções cuja análise foi reaproveitada na última análise
+     */
+    public int getQuantidadeFuncoesReaproveitadas()
+    {
+        return quantidadeFuncoesReaproveitadas;
+    }
+
+    /**
+     * Obtém as análises guardadas, caso tenham sido feitas sobre uma ASA com a mesma
+     * estrutura global.
+     */
+    Map<NoDeclaracaoFuncao, AnaliseFuncao> obterAnalises(List<Object> estruturaGlobal)
+    {
+        return this.estruturaGlobal.equals(estruturaGlobal) ? analises : Collections.<NoDeclaracaoFuncao, AnaliseFuncao>emptyMap();
+    }
+
+    void atualizar(List<Object> estruturaGlobal, List<AnaliseFuncao> analises, int quantidadeFuncoesReaproveitadas)
+    {
+        Map<NoDeclaracaoFuncao, AnaliseFuncao> novasAnalises = new IdentityHashMap<>();
+
+        for (AnaliseFuncao analise : analises)
+        {
+            novasAnalises.put(analise.getDeclaracaoFuncao(), analise);
+        }
+
+        this.estruturaGlobal = estruturaGlobal;
+        this.analises = novasAnalises;
+        this.quantidadeFuncoesReaproveitadas = quantidadeFuncoesReaproveitadas;
+    }
+
+    /**
+     * Descreve as declarações globais das quais a análise das funções depende. As
+     * declarações que não são funções são comparadas pela identidade, pois não são
+     * analisadas novamente, e as funções são comparadas pelas suas assinaturas.
+     */
+    static List<Object> calcularEstruturaGlobal(ArvoreSintaticaAbstrataPrograma asa)
+    {
+        List<Object> estrutura = new ArrayList<>();
+        estrutura.addAll(asa.getListaInclusoesBibliotecas());
+
+        for (NoDeclaracao declaracao : asa.getListaDeclaracoesGlobais())
+        {
+            if (declaracao instanceof NoDeclaracaoFuncao)
+            {
+                estrutura.add(calcularAssinatura((NoDeclaracaoFuncao) declaracao));
+            }
+            else
+            {
+                estrutura.add(declaracao);
+            }
+        }
+
+        return estrutura;
+    }
+
+    private static String calcularAssinatura(NoDeclaracaoFuncao funcao)
+    {
+        StringBuilder assinatura = new StringBuilder();
+        assinatura.append(funcao.getTipoDado()).append(' ').append(funcao.getQuantificador()).append(' ').append(funcao.getNome()).append('(');
+
+        for (NoDeclaracaoParametro parametro : funcao.getParametros())
+        {
+            assinatura.append(parametro.getTipoDado()).append(' ').append(parametro.getQuantificador()).append(' ');
+            assinatura.append(parametro.getModoAcesso()).append(' ').append(parametro.getNome()).append(',');
+        }
+
+        return assinatura.append(')').toString();
+    }
+}
@@ -13,15 +13,17 @@ import br.univali.portugol.nucleo.analise.sintatica.tradutores.TradutorMissingTo
 import br.univali.portugol.nucleo.analise.sintatica.tradutores.TradutorNoViableAltException;
 import br.univali.portugol.nucleo.analise.sintatica.tradutores.TradutorUnwantedTokenException;
 import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrata;
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.NoDeclaracao;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
 import br.univali.portugol.nucleo.mensagens.ErroSintatico;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Stack;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.antlr.runtime.ANTLRStringStream;
-import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.EarlyExitException;
 import org.antlr.runtime.FailedPredicateException;
 import org.antlr.runtime.MismatchedNotSetException;
@@ -32,6 +34,7 @@ import org.antlr.runtime.MismatchedTreeNodeException;
 import org.antlr.runtime.MissingTokenException;
 import org.antlr.runtime.NoViableAltException;
 import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.Token;
 import org.antlr.runtime.UnwantedTokenException;
 
 /**
@@ -54,8 +57,6 @@ public final class AnalisadorSintatico implements ObservadorParsing
 {
     public static enum TipoToken { PALAVRA_RESERVADA, OPERADOR, TIPO_PRIMITIVO, OUTRO, NAO_MAPEADO, ID };
     
-    private static final Pattern padraoEscopoPrograma = Pattern.compile("[^programa]*programa[^{]*\\{");
-    
     private static final List<String> palavrasReservadas = Arrays.asList(new String[]
     {
         "PR_BIBLIOTECA", "PR_CADEIA", "PR_CARACTER", "PR_CASO", "PR_CONST", "PR_CONTRARIO",
@@ -97,112 +98,263 @@ public final class AnalisadorSintatico implements ObservadorParsing
         "se", "para", "enquanto", "facaEnquanto", "escolha"
     });
     
-    private String codigoFonte;
-    private List<ObservadorAnaliseSintatica> observadores;
-    private TradutorEarlyExitException tradutorEarlyExitException;
-    private TradutorFailedPredicateException tradutorFailedPredicateException;
-    private TradutorMismatchedRangeException tradutorMismatchedRangeException;
-    private TradutorMismatchedSetException tradutorMismatchedSetException;
-    private TradutorMismatchedNotSetException tradutorMismatchedNotSetException;
-    private TradutorMismatchedTokenException tradutorMismatchedTokenException;
-    private TradutorMissingTokenException tradutorMissingTokenException;
-    private TradutorUnwantedTokenException tradutorUnwantedTokenException;
-    private TradutorMismatchedTreeNodeException tradutorMismatchedTreeNodeException;
-    private TradutorNoViableAltException tradutorNoViableAltException;
+    private static final TradutorEarlyExitException tradutorEarlyExitException = new TradutorEarlyExitException();
+    private static final TradutorFailedPredicateException tradutorFailedPredicateException = new TradutorFailedPredicateException();
+    private static final TradutorMismatchedRangeException tradutorMismatchedRangeException = new TradutorMismatchedRangeException();
+    private static final TradutorMismatchedSetException tradutorMismatchedSetException = new TradutorMismatchedSetException();
+    private static final TradutorMismatchedNotSetException tradutorMismatchedNotSetException = new TradutorMismatchedNotSetException();
+    private static final TradutorMismatchedTokenException tradutorMismatchedTokenException = new TradutorMismatchedTokenException();
+    private static final TradutorMissingTokenException tradutorMissingTokenException = new TradutorMissingTokenException();
+    private static final TradutorUnwantedTokenException tradutorUnwantedTokenException = new TradutorUnwantedTokenException();
+    private static final TradutorMismatchedTreeNodeException tradutorMismatchedTreeNodeException = new TradutorMismatchedTreeNodeException();
+    private static final TradutorNoViableAltException tradutorNoViableAltException = new TradutorNoViableAltException();
+
+    private static final int TOKEN_ABRE_CHAVES = PortugolParser.T__79;
+    private static final int TOKEN_FECHA_CHAVES = PortugolParser.T__82;
+
+    private volatile String codigoFonte;
+    private volatile List<Token> tokens;
+    private volatile long tempoAnaliseLexica;
+    private volatile long tempoAnaliseSintatica;
+    private final List<ObservadorAnaliseSintatica> observadores;
 
     public AnalisadorSintatico()
     {
-        observadores = new ArrayList<>();
-        tradutorEarlyExitException = new TradutorEarlyExitException();
-        tradutorFailedPredicateException = new TradutorFailedPredicateException();
-        tradutorMismatchedRangeException = new TradutorMismatchedRangeException();
-        tradutorMismatchedSetException = new TradutorMismatchedSetException();
-        tradutorMismatchedNotSetException = new TradutorMismatchedNotSetException();
-        tradutorMismatchedTokenException = new TradutorMismatchedTokenException();
-        tradutorMissingTokenException = new TradutorMissingTokenException();
-        tradutorUnwantedTokenException = new TradutorUnwantedTokenException();
-        tradutorMismatchedTreeNodeException = new TradutorMismatchedTreeNodeException();
-        tradutorNoViableAltException = new TradutorNoViableAltException();
+        observadores = new CopyOnWriteArrayList<>();
     }
 
     /**
+     * Realiza o parsing do código fonte e gera a ASA. Os objetos do ANTLR utilizados no parsing
+     * são obtidos de um pool e reaproveitados entre as análises, e este método pode ser chamado
+     * por várias threads ao mesmo tempo.
      * 
      * @param codigoFonte     o código fonte no qual será realizado o parsing e a análise.
      * @return     a ASA resultante do parsing do código fonte.
      * @since 1.0
      */
-    public synchronized ArvoreSintaticaAbstrata analisar(String codigoFonte)
+    public ArvoreSintaticaAbstrata analisar(final String codigoFonte)
     {
+        this.codigoFonte = codigoFonte;
+
+        ObservadorParsing observador = criarObservadorParsing(codigoFonte);
+        ParserReutilizavel parser = ParserReutilizavel.obter(new ANTLRStringStream(codigoFonte));
+
         try
         {
-            this.codigoFonte = codigoFonte;
-            
-            ANTLRStringStream antlrStringStream = new ANTLRStringStream(codigoFonte);
-            PortugolLexer portugolLexer = new PortugolLexer(antlrStringStream);
-            CommonTokenStream commonTokenStream = new CommonTokenStream(portugolLexer);
-            PortugolParser portugolParser = new PortugolParser(commonTokenStream);
+            parser.getParser().adicionarObservadorParsing(observador);
+
+            // Gera todos os tokens antes do parsing para medir as duas etapas separadamente.
+            // Isto inclui os tokens após o escopo do programa, que o parser não chega a consumir
+            long inicio = System.nanoTime();
+            parser.getFluxoTokens().fill();
+
+            long fimAnaliseLexica = System.nanoTime();
+            ArvoreSintaticaAbstrata asa = parser.getParser().parse();
+
+            tempoAnaliseLexica = fimAnaliseLexica - inicio;
+            tempoAnaliseSintatica = System.nanoTime() - fimAnaliseLexica;
+
+            List<Token> tokensAnalisados = new ArrayList<Token>(parser.getFluxoTokens().getTokens());
+            this.tokens = tokensAnalisados;
+
+            verificarCaracteresAposEscopoPrograma(tokensAnalisados, codigoFonte);
 
-            portugolParser.adicionarObservadorParsing(this);
-            ArvoreSintaticaAbstrata asa = portugolParser.parse();
-            
-            verificarCaracteresAposEscopoPrograma(codigoFonte);
-            
             return asa;
         }
         catch (RecognitionException excecao)
         {
-            excecao.printStackTrace(System.out);
+            notificarErroNaoRecuperado(excecao, parser.getParser(), "programa", codigoFonte);
             return null;
         }
+        finally
+        {
+            parser.liberar(observador);
+        }
     }
     
-    private void verificarCaracteresAposEscopoPrograma(String codigoFonte)
+    /**
+     * Analisa somente o trecho do código fonte que contém uma declaração de função. Os tokens
+     * gerados recebem a mesma linha e coluna que teriam em uma análise do código fonte completo,
+     * portanto a declaração retornada é equivalente à obtida pelo método {@link #analisar(java.lang.String) }.
+     * <p>
+     * A existência de código após o escopo do programa não é verificada, pois não depende do
+     * conteúdo de uma declaração de função que foi analisada sem erros.
+     * 
+     * @param codigoFonte   o código fonte completo
+     * @param inicio        a posição do primeiro caractere da declaração (a palavra reservada "funcao")
+     * @param fim           a posição seguinte ao fecha chaves da declaração
+     * @param linha         a linha onde a declaração se inicia
+     * @param coluna        a coluna onde a declaração se inicia
+     * @return              a declaração da função, ou {@code null} caso o trecho não contenha exatamente
+     *                      uma declaração de função
+     */
+    public NoDeclaracaoFuncao analisarDeclaracaoFuncao(String codigoFonte, int inicio, int fim, int linha, int coluna)
     {
-        Matcher m = padraoEscopoPrograma.matcher(codigoFonte);
-        
-        if (m.find())
+        this.codigoFonte = codigoFonte;
+
+        ANTLRStringStream antlrStringStream = new ANTLRStringStream(codigoFonte.substring(inicio, fim));
+        antlrStringStream.setLine(linha);
+        antlrStringStream.setCharPositionInLine(coluna);
+
+        ObservadorParsing observador = criarObservadorParsing(codigoFonte);
+        ParserReutilizavel parser = ParserReutilizavel.obter(antlrStringStream);
+
+        try
         {
-            int escopo = 1;
-            int posicao = -1;            
+            ArvoreSintaticaAbstrataPrograma asa = new ArvoreSintaticaAbstrataPrograma();
+            asa.setListaDeclaracoesGlobais(new ArrayList<NoDeclaracao>());
+
+            parser.getParser().adicionarObservadorParsing(observador);
+            parser.getParser().declaracaoFuncao(asa);
+            
+            boolean consumiuTrecho = (parser.getFluxoTokens().LA(1) == Token.EOF);
+            
+            this.tokens = new ArrayList<Token>(parser.getFluxoTokens().getTokens());
             
-            for (int i = m.end(); i < codigoFonte.length(); i++)
+            if (consumiuTrecho && asa.getListaDeclaracoesGlobais().size() == 1)
             {
-                if (codigoFonte.charAt(i) == '{')
-                {
-                    escopo++;
-                }
-                else if (codigoFonte.charAt(i) == '}')
-                {
-                    escopo--;
-                    
-                    if (escopo == 0)
-                    {
-                        posicao = i + 1;
-                        break;
-                    }
-                }
+                return (NoDeclaracaoFuncao) asa.getListaDeclaracoesGlobais().get(0);
             }
             
-            if (posicao > 0)
-            {                
+            return null;
+        }
+        catch (RecognitionException excecao)
+        {
+            notificarErroNaoRecuperado(excecao, parser.getParser(), "declaracaoFuncao", codigoFonte);
+            return null;
+        }
+        finally
+        {
+            parser.liberar(observador);
+        }
+    }
+
+    /**
+     * Notifica um erro de parsing do qual o parser não conseguiu se recuperar. O erro é
+     * traduzido da mesma forma que os erros recuperados durante o parsing, considerando
+     * o contexto da regra que estava sendo analisada.
+     */
+    private void notificarErroNaoRecuperado(RecognitionException erro, PortugolParser parser, String contexto, String codigoFonte)
+    {
+        Stack<String> pilhaContexto = new Stack<>();
+        pilhaContexto.push(contexto);
+
+        String[] tokens = parser.getTokenNames();
+        String mensagemPadrao = parser.getErrorHeader(erro) + " - " + parser.getErrorMessage(erro, tokens);
+
+        notificarErroSintatico(traduzirErroParsing(erro, tokens, pilhaContexto, mensagemPadrao, codigoFonte));
+    }
+
+    /**
+     * Cria o observador que traduz os erros de parsing de uma única análise. Cada análise
+     * possui o seu próprio observador, para que análises simultâneas não compartilhem o
+     * código fonte utilizado na tradução dos erros.
+     */
+    private ObservadorParsing criarObservadorParsing(final String codigoFonte)
+    {
+        return new ObservadorParsing()
+        {
+            @Override
+            public void tratarErroParsing(RecognitionException erro, String[] tokens, Stack<String> pilhaContexto, String mensagemPadrao)
+            {
+                notificarErroSintatico(traduzirErroParsing(erro, tokens, pilhaContexto, mensagemPadrao, codigoFonte));
+            }
+        };
+    }
+    
+    /**
+     * Obtém o tempo gasto na separação do código fonte em tokens durante a última
+     * chamada a {@link #analisar(java.lang.String) }.
+     *
+     * @return o tempo em nanossegundos
+     */
+    public long getTempoAnaliseLexica()
+    {
+        return tempoAnaliseLexica;
+    }
+
+    /**
+     * Obtém o tempo gasto na construção da ASA durante a última chamada a
+     * {@link #analisar(java.lang.String) }, sem incluir a análise léxica.
+     *
+     * @return o tempo em nanossegundos
+     */
+    public long getTempoAnaliseSintatica()
+    {
+        return tempoAnaliseSintatica;
+    }
+
+    /**
+     * Obtém os tokens gerados pela última análise realizada por este analisador, incluindo os
+     * tokens ocultos (espaços e comentários).
+     * 
+     * @return  os tokens da última análise
+     */
+    public List<Token> getTokens()
+    {
+        return tokens;
+    }
+    
+    /**
+     * Verifica se existe código após o fecha chaves do escopo do programa percorrendo os tokens
+     * gerados pelo lexer, sem percorrer novamente o código fonte. Espaços e comentários são
+     * permitidos; qualquer outro token, ou caractere que o lexer não reconheceu, gera um erro.
+     */
+    private void verificarCaracteresAposEscopoPrograma(List<Token> tokens, String codigoFonte)
+    {
+        int indice = 0;
+
+        while (indice < tokens.size() && tokens.get(indice).getType() != PortugolParser.PR_PROGRAMA)
+        {
+            indice++;
+        }
+
+        while (indice < tokens.size() && tokens.get(indice).getType() != TOKEN_ABRE_CHAVES)
+        {
+            indice++;
+        }
+
+        int escopo = 0;
+        int posicao = -1;
+
+        for (; indice < tokens.size(); indice++)
+        {
+            int tipo = tokens.get(indice).getType();
+
+            if (tipo == TOKEN_ABRE_CHAVES)
+            {
+                escopo++;
+            }
+            else if (tipo == TOKEN_FECHA_CHAVES && --escopo == 0)
+            {
+                posicao = ((CommonToken) tokens.get(indice)).getStopIndex() + 1;
+                break;
+            }
+        }
+
+        if (posicao < 0)
+        {
+            return;
+        }
+
+        int proximaPosicao = posicao;
+
+        for (indice = indice + 1; indice < tokens.size(); indice++)
+        {
+            CommonToken token = (CommonToken) tokens.get(indice);
+
+            boolean caracteresIgnorados = token.getStartIndex() != proximaPosicao;
+            boolean codigo = token.getType() != Token.EOF && token.getChannel() != Token.HIDDEN_CHANNEL;
+
+            if (caracteresIgnorados || codigo)
+            {
                 String texto = codigoFonte.substring(posicao, codigoFonte.length());
-                
-                if (texto.trim().length() > 0)
-                {          
-                    String tempTexto;
-                    
-                    tempTexto = texto.replace("\r", "");
-                    tempTexto = tempTexto.replace("\n", "");
-                    tempTexto = tempTexto.replace("\t", "");
-                    tempTexto = tempTexto.replace(" ", "");
-                    tempTexto = tempTexto.trim();
-                    
-                    if (!tempTexto.startsWith("/*") && !tempTexto.endsWith("*/"))
-                    {
-                        notificarErroSintatico(new ErroExpressoesForaEscopoPrograma(texto, posicao, codigoFonte, ErroExpressoesForaEscopoPrograma.Local.DEPOIS));
-                    }
-                }
+                notificarErroSintatico(new ErroExpressoesForaEscopoPrograma(texto, posicao, codigoFonte, ErroExpressoesForaEscopoPrograma.Local.DEPOIS));
+
+                return;
             }
+
+            proximaPosicao = token.getStopIndex() + 1;
         }
     }    
 
@@ -227,11 +379,6 @@ public final class AnalisadorSintatico implements ObservadorParsing
      */
     public ErroSintatico traduzirErroParsing(RecognitionException erro, String[] tokens, Stack<String> pilhaContexto, String mensagemPadrao, String codigoFonte)
     {
-        System.out.println("Traduzindo erro sintático: " + erro.getClass().getName());
-        System.out.println(mensagemPadrao);
-        System.out.println("Contexto atual: " + pilhaContexto.peek());
-        System.out.println();
-        
         if (erro instanceof EarlyExitException)
         {
             return tradutorEarlyExitException.traduzirErroParsing((EarlyExitException) erro, tokens, pilhaContexto, mensagemPadrao, codigoFonte);
@@ -0,0 +1,98 @@
+package br.univali.portugol.nucleo.analise.sintatica;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.CommonTokenStream;
+
+/**
+ * Conjunto de lexer, fluxo de tokens e parser do ANTLR que pode ser reaproveitado entre
+ * várias análises sintáticas, evitando recriar os objetos (e as tabelas de decisão do
+ * parser) a cada análise.
+ * <p>
+ * As instâncias ficam em um pool compartilhado sem bloqueios. Enquanto uma instância
+ * está em uso ela pertence exclusivamente à thread que a obteve, por isso várias análises
+ * podem ser feitas ao mesmo tempo sem sincronização.
+ *
+ * @see AnalisadorSintatico
+ */
+final class ParserReutilizavel
+{
+    private static final int CAPACIDADE_POOL = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final ConcurrentLinkedQueue<ParserReutilizavel> pool = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger quantidadeDisponivel = new AtomicInteger();
+
+    private final PortugolLexer lexer;
+    private final CommonTokenStream fluxoTokens;
+    private final PortugolParser parser;
+
+    private ParserReutilizavel()
+    {
+        lexer = new PortugolLexer();
+        fluxoTokens = new CommonTokenStream(lexer);
+        parser = new PortugolParser(fluxoTokens);
+    }
+
+    /**
+     * Obtém uma instância do pool (ou cria uma nova, caso o pool esteja vazio) preparada
+     * para analisar o código fonte informado. A instância deve ser devolvida ao pool através
+     * do método {@link #liberar(br.univali.portugol.nucleo.analise.sintatica.ObservadorParsing) }
+     * ao final da análise.
+     *
+     * @param codigoFonte     o fluxo de caracteres a ser analisado
+     * @return                uma instância pronta para a análise
+     */
+    static ParserReutilizavel obter(CharStream codigoFonte)
+    {
+        ParserReutilizavel instancia = pool.poll();
+
+        if (instancia != null)
+        {
+            quantidadeDisponivel.decrementAndGet();
+        }
+        else
+        {
+            instancia = new ParserReutilizavel();
+        }
+
+        instancia.lexer.setCharStream(codigoFonte);
+        instancia.fluxoTokens.setTokenSource(instancia.lexer);
+        instancia.parser.setTokenStream(instancia.fluxoTokens);
+
+        return instancia;
+    }
+
+    PortugolParser getParser()
+    {
+        return parser;
+    }
+
+    CommonTokenStream getFluxoTokens()
+    {
+        return fluxoTokens;
+    }
+
+    /**
+     * Devolve esta instância ao pool, descartando os tokens e o código fonte da última
+     * análise para que não fiquem retidos em memória. Se o pool já estiver cheio a
+     * instância é descartada.
+     *
+     * @param observador     o observador registrado no parser durante a análise
+     */
+    void liberar(ObservadorParsing observador)
+    {
+        parser.removerObservadorParsing(observador);
+        lexer.setCharStream(null);
+        fluxoTokens.setTokenSource(lexer);
+
+        if (quantidadeDisponivel.incrementAndGet() <= CAPACIDADE_POOL)
+        {
+            pool.offer(this);
+        }
+        else
+        {
+            quantidadeDisponivel.decrementAndGet();
+        }
+    }
+}
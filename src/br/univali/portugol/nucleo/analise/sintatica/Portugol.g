@@ -44,6 +44,16 @@ grammar Portugol;
 		observadores.remove(observador);
 	}
 
+	@Override
+	public void reset()
+	{
+		super.reset();
+		
+		gerarArvore = true;
+		quantidadeErros = 0;
+		pilhaContexto.clear();
+	}
+
 	@Override
 	public void displayRecognitionError(String[] tokenNames, RecognitionException e)
 	{
@@ -166,6 +166,16 @@ public class PortugolParser extends Parser
         observadores.remove(observador);
     }
 
+    @Override
+    public void reset()
+    {
+        super.reset();
+
+        gerarArvore = true;
+        quantidadeErros = 0;
+        pilhaContexto.clear();
+    }
+
     @Override
     public void displayRecognitionError(String[] tokenNames, RecognitionException e)
     {
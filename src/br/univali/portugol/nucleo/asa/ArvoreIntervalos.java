@@ -0,0 +1,158 @@
+package br.univali.portugol.nucleo.asa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Árvore de intervalos estática. Os intervalos são semiabertos ({@code [inicio, fim)}) e,
+ * depois de construída, a árvore responde quais intervalos contêm um ponto em
+ * O(log n + k), onde k é a quantidade de intervalos encontrados.
+ * <p>
+ * A árvore é armazenada de forma implícita em vetores ordenados pelo início dos
+ * intervalos: o nó de cada faixa do vetor é o elemento do meio, e cada nó guarda o
+ * maior fim entre os intervalos da sua subárvore, o que permite descartar subárvores
+ * inteiras durante a busca.
+ *
+ * @param <T> o tipo do valor associado a cada intervalo
+ */
+final class ArvoreIntervalos<T>
+{
+    private final long[] inicios;
+    private final long[] fins;
+    private final long[] maioresFins;
+    private final Object[] valores;
+
+    private ArvoreIntervalos(List<Intervalo<T>> intervalos)
+    {
+        int quantidade = intervalos.size();
+
+        inicios = new long[quantidade];
+        fins = new long[quantidade];
+        maioresFins = new long[quantidade];
+        valores = new Object[quantidade];
+
+        for (int i = 0; i < quantidade; i++)
+        {
+            Intervalo<T> intervalo = intervalos.get(i);
+
+            inicios[i] = intervalo.inicio;
+            fins[i] = intervalo.fim;
+            valores[i] = intervalo.valor;
+        }
+
+        calcularMaioresFins(0, quantidade - 1);
+    }
+
+    private long calcularMaioresFins(int primeiro, int ultimo)
+    {
+        if (primeiro > ultimo)
+        {
+            return Long.MIN_VALUE;
+        }
+
+        int meio = (primeiro + ultimo) >>> 1;
+        long maior = Math.max(fins[meio], Math.max(calcularMaioresFins(primeiro, meio - 1), calcularMaioresFins(meio + 1, ultimo)));
+
+        maioresFins[meio] = maior;
+
+        return maior;
+    }
+
+    /**
+     * Obtém os valores de todos os intervalos que contêm o ponto informado, na ordem de
+     * início dos intervalos.
+     *
+     * @param ponto     o ponto pesquisado
+     * @return          os valores dos intervalos que contêm o ponto
+     */
+    List<T> consultar(long ponto)
+    {
+        List<T> encontrados = new ArrayList<>(2);
+        consultar(0, inicios.length - 1, ponto, encontrados);
+
+        return encontrados;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consultar(int primeiro, int ultimo, long ponto, List<T> encontrados)
+    {
+        if (primeiro > ultimo)
+        {
+            return;
+        }
+
+        int meio = (primeiro + ultimo) >>> 1;
+
+        if (maioresFins[meio] <= ponto)
+        {
+            return;
+        }
+
+        consultar(primeiro, meio - 1, ponto, encontrados);
+
+        if (inicios[meio] <= ponto)
+        {
+            if (ponto < fins[meio])
+            {
+                encontrados.add((T) valores[meio]);
+            }
+
+            consultar(meio + 1, ultimo, ponto, encontrados);
+        }
+    }
+
+    int getQuantidade()
+    {
+        return valores.length;
+    }
+
+    /**
+     * Acumula os intervalos e constrói a árvore ao final.
+     *
+     * @param <T> o tipo do valor associado a cada intervalo
+     */
+    static final class Construtor<T>
+    {
+        private final List<Intervalo<T>> intervalos = new ArrayList<>();
+
+        void adicionar(long inicio, long fim, T valor)
+        {
+            if (inicio < fim)
+            {
+                intervalos.add(new Intervalo<>(inicio, fim, valor));
+            }
+        }
+
+        ArvoreIntervalos<T> construir()
+        {
+            List<Intervalo<T>> ordenados = new ArrayList<>(intervalos);
+
+            Collections.sort(ordenados, new Comparator<Intervalo<T>>()
+            {
+                @Override
+                public int compare(Intervalo<T> a, Intervalo<T> b)
+                {
+                    return Long.compare(a.inicio, b.inicio);
+                }
+            });
+
+            return new ArvoreIntervalos<>(ordenados);
+        }
+    }
+
+    private static final class Intervalo<T>
+    {
+        private final long inicio;
+        private final long fim;
+        private final T valor;
+
+        Intervalo(long inicio, long fim, T valor)
+        {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.valor = valor;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package br.univali.portugol.nucleo.asa;
+
+/**
+ * Exceção disparada quando não é possível gravar ou recuperar uma ASA no formato
+ * binário utilizado pelo {@link SerializadorASA}.
+ *
+ * @version 1.0
+ * @see SerializadorASA
+ */
+public final class ExcecaoSerializacaoASA extends Exception
+{
+    /**
+     *
+     * @param mensagem     a descrição da exceção ocorrida
+     * @since 1.0
+     */
+    public ExcecaoSerializacaoASA(String mensagem)
+    {
+        super(mensagem);
+    }
+
+    /**
+     *
+     * @param mensagem     a descrição da exceção ocorrida
+     * @param causa        o erro que originou a exceção
+     * @since 1.0
+     */
+    public ExcecaoSerializacaoASA(String mensagem, Throwable causa)
+    {
+        super(mensagem, causa);
+    }
+}
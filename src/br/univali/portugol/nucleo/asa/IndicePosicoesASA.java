@@ -0,0 +1,281 @@
+package br.univali.portugol.nucleo.asa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice das posições dos símbolos de uma ASA no código fonte.
+ * <p>
+ * O índice é construído uma única vez, percorrendo a ASA, e guarda os trechos dos nomes
+ * de todas as declarações e referências em uma árvore de intervalos. Com isso é possível
+ * descobrir qual símbolo está em uma determinada linha e coluna em O(log n), sem
+ * percorrer a ASA novamente. Além disso, o índice guarda, para cada declaração, as
+ * posições de todas as suas ocorrências (a própria declaração e suas referências) já
+ * ordenadas, o que permite renomear um símbolo com uma única passada pelo código fonte.
+ * <p>
+ * As linhas e colunas seguem a mesma convenção da classe {@link TrechoCodigoFonte}.
+ * O índice não é atualizado caso a ASA seja modificada depois da sua construção.
+ */
+public final class IndicePosicoesASA
+{
+    private final ArvoreIntervalos<No> arvore;
+    private final Map<NoDeclaracao, List<TrechoCodigoFonte>> ocorrencias;
+
+    /**
+     * Constrói o índice de posições da ASA informada. A ASA deve ter passado pela análise
+     * semântica para que as referências estejam ligadas às suas declarações.
+     *
+     * @param asa     a ASA a ser indexada
+     * @throws ExcecaoVisitaASA     caso ocorra um erro ao percorrer a ASA
+     */
+    public IndicePosicoesASA(ArvoreSintaticaAbstrataPrograma asa) throws ExcecaoVisitaASA
+    {
+        Indexador indexador = new Indexador();
+        asa.aceitar(indexador);
+
+        this.arvore = indexador.construtor.construir();
+        this.ocorrencias = new IdentityHashMap<>(indexador.declaracoes.size());
+
+        for (NoDeclaracao declaracao : indexador.declaracoes)
+        {
+            ocorrencias.put(declaracao, ordenarOcorrencias(declaracao));
+        }
+    }
+
+    /**
+     * Obtém o nó (declaração ou referência) cujo nome ocupa a posição informada.
+     *
+     * @param linha      a linha da posição
+     * @param coluna     a coluna da posição
+     * @return           o nó encontrado ou {@code null} se não houver nenhum símbolo na posição
+     */
+    public No obterSimbolo(int linha, int coluna)
+    {
+        List<No> encontrados = arvore.consultar(chave(linha, coluna));
+
+        if (encontrados.isEmpty())
+        {
+            return null;
+        }
+
+        // Os nós são retornados na ordem em que iniciam, então o último é o mais interno
+        return encontrados.get(encontrados.size() - 1);
+    }
+
+    /**
+     * Obtém a declaração do símbolo que está na posição informada. Se a posição contiver
+     * uma referência, retorna a declaração referenciada.
+     *
+     * @param linha      a linha da posição
+     * @param coluna     a coluna da posição
+     * @return           a declaração do símbolo ou {@code null} se não houver nenhum símbolo
+     *                   na posição ou se o símbolo pertencer a uma biblioteca
+     */
+    public NoDeclaracao obterDeclaracao(int linha, int coluna)
+    {
+        No simbolo = obterSimbolo(linha, coluna);
+
+        if (simbolo instanceof NoDeclaracao)
+        {
+            return (NoDeclaracao) simbolo;
+        }
+
+        if (simbolo instanceof NoReferencia)
+        {
+            return ((NoReferencia) simbolo).getOrigemDaReferencia();
+        }
+
+        return null;
+    }
+
+    /**
+     * Obtém os trechos do código fonte onde o nome da declaração aparece, incluindo a
+     * própria declaração, ordenados pela posição no código fonte e sem repetições.
+     *
+     * @param declaracao     uma declaração indexada
+     * @return               os trechos das ocorrências ou uma lista vazia se a declaração
+     *                       não pertencer à ASA indexada
+     */
+    public List<TrechoCodigoFonte> obterOcorrencias(NoDeclaracao declaracao)
+    {
+        List<TrechoCodigoFonte> trechos = ocorrencias.get(declaracao);
+
+        if (trechos == null)
+        {
+            return Collections.emptyList();
+        }
+
+        return trechos;
+    }
+
+    private static List<TrechoCodigoFonte> ordenarOcorrencias(NoDeclaracao declaracao)
+    {
+        List<NoReferencia> referencias = declaracao.getReferencias();
+        TrechoCodigoFonte[] trechos = new TrechoCodigoFonte[referencias.size() + 1];
+        long[] chaves = new long[trechos.length];
+        int quantidade = 0;
+
+        chaves[quantidade] = chave(declaracao.getTrechoCodigoFonteNome());
+        trechos[quantidade++] = declaracao.getTrechoCodigoFonteNome();
+
+        for (NoReferencia referencia : referencias)
+        {
+            if (referencia.getTrechoCodigoFonteNome() != null)
+            {
+                chaves[quantidade] = chave(referencia.getTrechoCodigoFonteNome());
+                trechos[quantidade++] = referencia.getTrechoCodigoFonteNome();
+            }
+        }
+
+        // Ordena os índices pelas chaves e descarta as posições repetidas, que aparecem
+        // quando a análise semântica liga a inicialização de uma variável à sua declaração
+        Integer[] ordem = new Integer[quantidade];
+
+        for (int i = 0; i < quantidade; i++)
+        {
+            ordem[i] = i;
+        }
+
+        Arrays.sort(ordem, new ComparadorChaves(chaves));
+
+        List<TrechoCodigoFonte> ordenados = new ArrayList<>(quantidade);
+        long anterior = -1;
+
+        for (Integer indice : ordem)
+        {
+            if (chaves[indice] != anterior)
+            {
+                ordenados.add(trechos[indice]);
+                anterior = chaves[indice];
+            }
+        }
+
+        return Collections.unmodifiableList(ordenados);
+    }
+
+    private static long chave(TrechoCodigoFonte trecho)
+    {
+        return chave(trecho.getLinha(), trecho.getColuna());
+    }
+
+    private static long chave(int linha, int coluna)
+    {
+        return ((long) linha << 32) | (coluna & 0xFFFFFFFFL);
+    }
+
+    private static final class ComparadorChaves implements Comparator<Integer>
+    {
+        private final long[] chaves;
+
+        ComparadorChaves(long[] chaves)
+        {
+            this.chaves = chaves;
+        }
+
+        @Override
+        public int compare(Integer a, Integer b)
+        {
+            return Long.compare(chaves[a], chaves[b]);
+        }
+    }
+
+    private static final class Indexador extends VisitanteASAPadrao
+    {
+        private final ArvoreIntervalos.Construtor<No> construtor = new ArvoreIntervalos.Construtor<>();
+        private final List<NoDeclaracao> declaracoes = new ArrayList<>();
+
+        private void indexar(No no, TrechoCodigoFonte trecho)
+        {
+            if (trecho != null)
+            {
+                construtor.adicionar(chave(trecho), chave(trecho.getLinha(), trecho.getColuna() + trecho.getTamanhoTexto()), no);
+            }
+        }
+
+        private void indexarDeclaracao(NoDeclaracao declaracao)
+        {
+            if (declaracao.getTrechoCodigoFonteNome() != null)
+            {
+                indexar(declaracao, declaracao.getTrechoCodigoFonteNome());
+                declaracoes.add(declaracao);
+            }
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoFuncao declaracaoFuncao) throws ExcecaoVisitaASA
+        {
+            indexarDeclaracao(declaracaoFuncao);
+
+            return super.visitar(declaracaoFuncao);
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoParametro noDeclaracaoParametro) throws ExcecaoVisitaASA
+        {
+            indexarDeclaracao(noDeclaracaoParametro);
+
+            return super.visitar(noDeclaracaoParametro);
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoVariavel noDeclaracaoVariavel) throws ExcecaoVisitaASA
+        {
+            indexarDeclaracao(noDeclaracaoVariavel);
+
+            return super.visitar(noDeclaracaoVariavel);
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoVetor noDeclaracaoVetor) throws ExcecaoVisitaASA
+        {
+            indexarDeclaracao(noDeclaracaoVetor);
+
+            return super.visitar(noDeclaracaoVetor);
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoMatriz noDeclaracaoMatriz) throws ExcecaoVisitaASA
+        {
+            indexarDeclaracao(noDeclaracaoMatriz);
+
+            return super.visitar(noDeclaracaoMatriz);
+        }
+
+        @Override
+        public Object visitar(NoChamadaFuncao chamadaFuncao) throws ExcecaoVisitaASA
+        {
+            indexar(chamadaFuncao, chamadaFuncao.getTrechoCodigoFonteNome());
+
+            return super.visitar(chamadaFuncao);
+        }
+
+        @Override
+        public Object visitar(NoReferenciaVariavel noReferenciaVariavel) throws ExcecaoVisitaASA
+        {
+            indexar(noReferenciaVariavel, noReferenciaVariavel.getTrechoCodigoFonteNome());
+
+            return super.visitar(noReferenciaVariavel);
+        }
+
+        @Override
+        public Object visitar(NoReferenciaVetor noReferenciaVetor) throws ExcecaoVisitaASA
+        {
+            indexar(noReferenciaVetor, noReferenciaVetor.getTrechoCodigoFonteNome());
+
+            return super.visitar(noReferenciaVetor);
+        }
+
+        @Override
+        public Object visitar(NoReferenciaMatriz noReferenciaMatriz) throws ExcecaoVisitaASA
+        {
+            indexar(noReferenciaMatriz, noReferenciaMatriz.getTrechoCodigoFonteNome());
+
+            return super.visitar(noReferenciaMatriz);
+        }
+    }
+}
@@ -48,7 +48,8 @@ public abstract class No
 
     protected No(NoBloco pai)
     {
-        pontoParada = new PontoParada(this);//todos os nós têm pontos de parada desativados por padrão
+        // todos os nós têm pontos de parada desativados por padrão. O objeto do ponto de parada
+        // só é criado quando o ponto é ativado pela primeira vez
         setPai(pai);
     }
 
@@ -66,7 +67,7 @@ public abstract class No
      */
     public boolean ehParavel(Depurador.Estado estado)
     {
-        return pontoParada.estaAtivo() && estado == Depurador.Estado.BREAK_POINT;
+        return pontoDeParadaEstaAtivo() && estado == Depurador.Estado.BREAK_POINT;
     }
 
     protected boolean temPai()
@@ -85,11 +86,21 @@ public abstract class No
 
     public void definirPontoParada(boolean ativado)
     {
+        if (pontoParada == null)
+        {
+            if (!ativado)
+            {
+                return;
+            }
+
+            pontoParada = new PontoParada(this);
+        }
+
         pontoParada.setAtivo(ativado);
     }
 
     public boolean pontoDeParadaEstaAtivo()
     {
-        return pontoParada.estaAtivo();
+        return pontoParada != null && pontoParada.estaAtivo();
     }
 }
@@ -147,4 +147,13 @@ public abstract class NoDeclaracao extends NoBloco
         referencias.add(referencia);
         referencia.setOrigemDaReferencia(this);
     }
+
+    /**
+     * Remove todas as referências associadas a esta declaração. Utilizado antes de
+     * submeter novamente uma ASA já analisada ao analisador semântico.
+     */
+    public final void limparReferencias()
+    {
+        referencias.clear();
+    }
 }
@@ -37,10 +37,63 @@ import br.univali.portugol.nucleo.execucao.Depurador;
  */
 public abstract class NoExpressao extends NoBloco
 {
+    private TipoDado tipoResultado;
+    private TipoDado tipoConversao;
+
     public NoExpressao()
     {
     }
 
+    /**
+     * Obtém o tipo de dado do valor desta expressão, determinado pelo analisador
+     * semântico.
+     *
+     * @return o tipo de dado desta expressão ou {@code null} se a expressão ainda não foi
+     * analisada ou se o seu tipo não pôde ser determinado
+     */
+    public TipoDado getTipoResultado()
+    {
+        return tipoResultado;
+    }
+
+    public void setTipoResultado(TipoDado tipoResultado)
+    {
+        this.tipoResultado = tipoResultado;
+    }
+
+    /**
+     * Obtém o tipo de dado para o qual o interpretador converte implicitamente o valor
+     * desta expressão, por meio do {@code ConversorTipos}. O analisador semântico anota a
+     * conversão apenas onde o interpretador a aplica: nos argumentos passados por valor
+     * para funções de bibliotecas, como um {@code inteiro} passado para um parâmetro
+     * {@code real}, e nas expressões dos comandos {@code retorne}.
+     * <p>
+     * As atribuições e os argumentos das funções do programa também geram o aviso de
+     * que o valor será convertido, mas não são anotados, pois a conversão é feita pela
+     * variável que recebe o valor.
+     *
+     * @return o tipo de dado de destino ou {@code null} se o valor não é convertido pelo
+     * interpretador
+     */
+    public TipoDado getTipoConversao()
+    {
+        return tipoConversao;
+    }
+
+    public void setTipoConversao(TipoDado tipoConversao)
+    {
+        this.tipoConversao = tipoConversao;
+    }
+
+    /**
+     * @return o tipo de dado do valor desta expressão depois da conversão implícita, se
+     * houver
+     */
+    public TipoDado getTipoEfetivo()
+    {
+        return (tipoConversao != null) ? tipoConversao : tipoResultado;
+    }
+
     /**
      * Obtém o trecho do código fonte no qual esta expressão se encontra.
      *
@@ -0,0 +1,1558 @@
+package br.univali.portugol.nucleo.asa;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grava e recupera uma {@link ArvoreSintaticaAbstrataPrograma} em um formato binário compacto.
+ * <p>
+ * O formato é composto por um cabeçalho (assinatura e versão), pelas inclusões de bibliotecas,
+ * pelas declarações globais percorridas em pré-ordem e, ao final, por uma tabela que associa
+ * cada declaração às referências encontradas pelo analisador semântico. Cada expressão leva
+ * também o seu tipo e a sua conversão implícita, anotados pelo analisador semântico. Desta
+ * forma, a ASA recuperada pode ser executada diretamente, sem uma nova análise do código fonte.
+ * <p>
+ * Sempre que a estrutura de algum nó for alterada, ou quando as enumerações {@link Tipo} ou
+ * {@link TipoDado} forem reordenadas, a constante {@link #VERSAO} deve ser incrementada para
+ * invalidar os arquivos gravados anteriormente.
+ *
+ * @version 1.0
+ */
+public final class SerializadorASA
+{
+    /**
+     * Assinatura gravada no início de todo arquivo ("PASA").
+     */
+    public static final int ASSINATURA = 0x50415341;
+
+    /**
+     * Versão atual do formato binário.
+     */
+    public static final short VERSAO = 2;
+
+    private static final int MARCA_FINAL = ~ASSINATURA;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final byte TRECHO_AUSENTE = 0;
+    private static final byte TRECHO_VAZIO = 1;
+    private static final byte TRECHO_PRESENTE = 2;
+
+    private enum Tipo
+    {
+        NULO, CADEIA, CARACTER, CASO, CHAMADA_FUNCAO, CONTINUE, DECLARACAO_FUNCAO, DECLARACAO_MATRIZ,
+        DECLARACAO_VARIAVEL, DECLARACAO_VETOR, DECLARACAO_PARAMETRO, ENQUANTO, ESCOLHA, FACA_ENQUANTO,
+        INTEIRO, LOGICO, MATRIZ, MENOS_UNARIO, NAO, BITWISE_NAO, IGUALDADE, DIFERENCA, ATRIBUICAO, E, OU,
+        MAIOR, MAIOR_IGUAL, MENOR, MENOR_IGUAL, SOMA, SUBTRACAO, DIVISAO, MULTIPLICACAO, MODULO,
+        BITWISE_LEFT_SHIFT, BITWISE_RIGHT_SHIFT, BITWISE_E, BITWISE_OU, BITWISE_XOR, PARA, PARE, REAL,
+        REFERENCIA_MATRIZ, REFERENCIA_VARIAVEL, REFERENCIA_VETOR, RETORNE, SE, VETOR
+    }
+
+    private static final Tipo[] TIPOS = Tipo.values();
+    private static final TipoDado[] TIPOS_DADO = TipoDado.values();
+
+    private SerializadorASA()
+    {
+
+    }
+
+    /**
+     * Grava a ASA no canal informado. O canal não é fechado ao término da gravação.
+     *
+     * @param asa       a ASA a ser gravada. Deve ter sido verificada pelo analisador semântico
+     *                  para que as referências das declarações sejam preservadas.
+     * @param canal     o canal de destino.
+     * @throws ExcecaoSerializacaoASA     caso ocorra um erro de E/S ou a ASA contenha nós não suportados.
+     * @since 1.0
+     */
+    public static void serializar(ArvoreSintaticaAbstrataPrograma asa, WritableByteChannel canal) throws ExcecaoSerializacaoASA
+    {
+        try
+        {
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), 8192));
+            new Escritor(asa, saida).escrever();
+            saida.flush();
+        }
+        catch (IOException excecao)
+        {
+            throw new ExcecaoSerializacaoASA("Não foi possível gravar a ASA", excecao);
+        }
+        catch (ExcecaoVisitaASA excecao)
+        {
+            throw new ExcecaoSerializacaoASA(excecao.getMessage(), excecao);
+        }
+    }
+
+    /**
+     * Recupera uma ASA previamente gravada com {@link #serializar(ArvoreSintaticaAbstrataPrograma, WritableByteChannel)}.
+     *
+     * @param canal     o canal de origem.
+     * @return          a ASA recuperada, com as referências já vinculadas às suas declarações.
+     * @throws ExcecaoSerializacaoASA     caso o conteúdo esteja corrompido, incompleto ou em uma versão diferente.
+     * @since 1.0
+     */
+    public static ArvoreSintaticaAbstrataPrograma desserializar(ReadableByteChannel canal) throws ExcecaoSerializacaoASA
+    {
+        try
+        {
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(Channels.newInputStream(canal), 8192));
+
+            return new Leitor(entrada).ler();
+        }
+        catch (EOFException excecao)
+        {
+            throw new ExcecaoSerializacaoASA("O conteúdo da ASA está incompleto", excecao);
+        }
+        catch (IOException excecao)
+        {
+            throw new ExcecaoSerializacaoASA("Não foi possível ler a ASA", excecao);
+        }
+        catch (RuntimeException excecao)
+        {
+            throw new ExcecaoSerializacaoASA("O conteúdo da ASA está corrompido", excecao);
+        }
+    }
+
+    private static final class Escritor implements VisitanteASA
+    {
+        private final ArvoreSintaticaAbstrataPrograma asa;
+        private final DataOutputStream saida;
+
+        private final List<NoDeclaracao> declaracoes = new ArrayList<>();
+        private final Map<NoReferencia, Integer> referencias = new IdentityHashMap<>();
+
+        public Escritor(ArvoreSintaticaAbstrataPrograma asa, DataOutputStream saida)
+        {
+            this.asa = asa;
+            this.saida = saida;
+        }
+
+        public void escrever() throws IOException, ExcecaoVisitaASA
+        {
+            saida.writeInt(ASSINATURA);
+            saida.writeShort(VERSAO);
+
+            asa.aceitar(this);
+
+            escreverTabelaReferencias();
+
+            saida.writeInt(MARCA_FINAL);
+        }
+
+        private void escreverTabelaReferencias() throws IOException
+        {
+            saida.writeInt(declaracoes.size());
+
+            List<Integer> indices = new ArrayList<>();
+
+            for (NoDeclaracao declaracao : declaracoes)
+            {
+                indices.clear();
+
+                for (NoReferencia referencia : declaracao.getReferencias())
+                {
+                    // O analisador semântico cria algumas referências sintéticas que não fazem parte da árvore
+                    Integer indice = referencias.get(referencia);
+
+                    if (indice != null)
+                    {
+                        indices.add(indice);
+                    }
+                }
+
+                saida.writeInt(indices.size());
+
+                for (Integer indice : indices)
+                {
+                    saida.writeInt(indice);
+                }
+            }
+        }
+
+        @Override
+        public Object visitar(ArvoreSintaticaAbstrataPrograma asap) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                List<NoInclusaoBiblioteca> inclusoes = asap.getListaInclusoesBibliotecas();
+
+                saida.writeInt(inclusoes != null ? inclusoes.size() : -1);
+
+                if (inclusoes != null)
+                {
+                    for (NoInclusaoBiblioteca inclusao : inclusoes)
+                    {
+                        inclusao.aceitar(this);
+                    }
+                }
+
+                List<NoDeclaracao> globais = asap.getListaDeclaracoesGlobais();
+
+                saida.writeInt(globais != null ? globais.size() : -1);
+
+                if (globais != null)
+                {
+                    for (NoDeclaracao declaracao : globais)
+                    {
+                        escreverNo(declaracao);
+                    }
+                }
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, null);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoInclusaoBiblioteca noInclusaoBiblioteca) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                escreverTexto(noInclusaoBiblioteca.getNome());
+                escreverTexto(noInclusaoBiblioteca.getAlias());
+                escreverTrecho(noInclusaoBiblioteca.getTrechoCodigoFonte());
+                escreverTrecho(noInclusaoBiblioteca.getTrechoCodigoFonteNome());
+                escreverTrecho(noInclusaoBiblioteca.getTrechoCodigoFonteAlias());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noInclusaoBiblioteca);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoCadeia noCadeia) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarValor(Tipo.CADEIA, noCadeia);
+                escreverTexto(noCadeia.getValor());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noCadeia);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoCaracter noCaracter) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarValor(Tipo.CARACTER, noCaracter);
+                saida.writeChar(noCaracter.getValor());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noCaracter);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoInteiro noInteiro) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarValor(Tipo.INTEIRO, noInteiro);
+                saida.writeInt(noInteiro.getValor());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noInteiro);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoLogico noLogico) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarValor(Tipo.LOGICO, noLogico);
+                saida.writeBoolean(noLogico.getValor());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noLogico);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoReal noReal) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarValor(Tipo.REAL, noReal);
+                saida.writeDouble(noReal.getValor());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noReal);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoVetor noVetor) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.VETOR, noVetor);
+                escreverTrecho(noVetor.montarTrechoCodigoFonte());
+                escreverValores(noVetor.getValores(), noVetor);
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noVetor);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoMatriz noMatriz) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.MATRIZ, noMatriz);
+                escreverTrecho(noMatriz.montarTrechoCodigoFonte());
+
+                List<List<Object>> linhas = noMatriz.getValores();
+
+                saida.writeInt(linhas != null ? linhas.size() : -1);
+
+                if (linhas != null)
+                {
+                    for (List<Object> linha : linhas)
+                    {
+                        escreverValores(linha, noMatriz);
+                    }
+                }
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noMatriz);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoCaso noCaso) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.CASO, noCaso);
+                escreverNo(noCaso.getExpressao());
+                escreverBlocos(noCaso.getBlocos());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noCaso);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoEscolha noEscolha) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.ESCOLHA, noEscolha);
+                escreverNo(noEscolha.getExpressao());
+                escreverBlocos(noEscolha.getCasos());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noEscolha);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoChamadaFuncao chamadaFuncao) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarReferencia(Tipo.CHAMADA_FUNCAO, chamadaFuncao);
+                escreverBlocos(chamadaFuncao.getParametros());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, chamadaFuncao);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoReferenciaVariavel noReferenciaVariavel) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarReferencia(Tipo.REFERENCIA_VARIAVEL, noReferenciaVariavel);
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noReferenciaVariavel);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoReferenciaVetor noReferenciaVetor) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarReferencia(Tipo.REFERENCIA_VETOR, noReferenciaVetor);
+                escreverNo(noReferenciaVetor.getIndice());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noReferenciaVetor);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoReferenciaMatriz noReferenciaMatriz) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarReferencia(Tipo.REFERENCIA_MATRIZ, noReferenciaMatriz);
+                escreverNo(noReferenciaMatriz.getLinha());
+                escreverNo(noReferenciaMatriz.getColuna());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noReferenciaMatriz);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoContinue noContinue) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.CONTINUE, noContinue);
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noContinue);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoPare noPare) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.PARE, noPare);
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noPare);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoFuncao declaracaoFuncao) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarDeclaracao(Tipo.DECLARACAO_FUNCAO, declaracaoFuncao);
+                saida.writeByte(declaracaoFuncao.getQuantificador().ordinal());
+                escreverBlocos(declaracaoFuncao.getParametros());
+                escreverBlocos(declaracaoFuncao.getBlocos());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, declaracaoFuncao);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoParametro noDeclaracaoParametro) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarDeclaracao(Tipo.DECLARACAO_PARAMETRO, noDeclaracaoParametro);
+                saida.writeByte(noDeclaracaoParametro.getQuantificador().ordinal());
+                saida.writeByte(noDeclaracaoParametro.getModoAcesso().ordinal());
+                saida.writeInt(noDeclaracaoParametro.getIndice());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noDeclaracaoParametro);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoVariavel noDeclaracaoVariavel) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarDeclaracao(Tipo.DECLARACAO_VARIAVEL, noDeclaracaoVariavel);
+                escreverNo(noDeclaracaoVariavel.getInicializacao());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noDeclaracaoVariavel);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoVetor noDeclaracaoVetor) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarDeclaracao(Tipo.DECLARACAO_VETOR, noDeclaracaoVetor);
+                escreverNo(noDeclaracaoVetor.getTamanho());
+                escreverNo(noDeclaracaoVetor.getInicializacao());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noDeclaracaoVetor);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoMatriz noDeclaracaoMatriz) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciarDeclaracao(Tipo.DECLARACAO_MATRIZ, noDeclaracaoMatriz);
+                escreverNo(noDeclaracaoMatriz.getNumeroLinhas());
+                escreverNo(noDeclaracaoMatriz.getNumeroColunas());
+                escreverNo(noDeclaracaoMatriz.getInicializacao());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noDeclaracaoMatriz);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoEnquanto noEnquanto) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.ENQUANTO, noEnquanto);
+                escreverNo(noEnquanto.getCondicao());
+                escreverBlocos(noEnquanto.getBlocos());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noEnquanto);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoFacaEnquanto noFacaEnquanto) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.FACA_ENQUANTO, noFacaEnquanto);
+                escreverNo(noFacaEnquanto.getCondicao());
+                escreverBlocos(noFacaEnquanto.getBlocos());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noFacaEnquanto);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoPara noPara) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.PARA, noPara);
+                escreverNo(noPara.getInicializacao());
+                escreverNo(noPara.getCondicao());
+                escreverNo(noPara.getIncremento());
+                escreverBlocos(noPara.getBlocos());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noPara);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoSe noSe) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.SE, noSe);
+                escreverNo(noSe.getCondicao());
+                escreverBlocos(noSe.getBlocosVerdadeiros());
+                escreverBlocos(noSe.getBlocosFalsos());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noSe);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoRetorne noRetorne) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                // O trecho do retorne é recalculado a partir da expressão, não utiliza o trecho herdado de NoBloco
+                saida.writeByte(Tipo.RETORNE.ordinal());
+                escreverTrecho(noRetorne.getTrechoCodigoFonte());
+                escreverNo(noRetorne.getExpressao());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noRetorne);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoMenosUnario noMenosUnario) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.MENOS_UNARIO, noMenosUnario);
+                escreverTrecho(noMenosUnario.getTrechoCodigoFonteMenos());
+                escreverNo(noMenosUnario.getExpressao());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noMenosUnario);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoNao noNao) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.NAO, noNao);
+                escreverNo(noNao.getExpressao());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noNao);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoBitwiseNao noOperacaoBitwiseNao) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(Tipo.BITWISE_NAO, noOperacaoBitwiseNao);
+                escreverNo(noOperacaoBitwiseNao.getExpressao());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, noOperacaoBitwiseNao);
+            }
+
+            return null;
+        }
+
+        @Override
+        public Object visitar(NoOperacaoLogicaIgualdade noOperacaoLogicaIgualdade) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.IGUALDADE, noOperacaoLogicaIgualdade);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoLogicaDiferenca noOperacaoLogicaDiferenca) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.DIFERENCA, noOperacaoLogicaDiferenca);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoAtribuicao noOperacaoAtribuicao) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.ATRIBUICAO, noOperacaoAtribuicao);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoLogicaE noOperacaoLogicaE) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.E, noOperacaoLogicaE);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoLogicaOU noOperacaoLogicaOU) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.OU, noOperacaoLogicaOU);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoLogicaMaior noOperacaoLogicaMaior) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.MAIOR, noOperacaoLogicaMaior);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoLogicaMaiorIgual noOperacaoLogicaMaiorIgual) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.MAIOR_IGUAL, noOperacaoLogicaMaiorIgual);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoLogicaMenor noOperacaoLogicaMenor) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.MENOR, noOperacaoLogicaMenor);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoLogicaMenorIgual noOperacaoLogicaMenorIgual) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.MENOR_IGUAL, noOperacaoLogicaMenorIgual);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoSoma noOperacaoSoma) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.SOMA, noOperacaoSoma);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoSubtracao noOperacaoSubtracao) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.SUBTRACAO, noOperacaoSubtracao);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoDivisao noOperacaoDivisao) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.DIVISAO, noOperacaoDivisao);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoMultiplicacao noOperacaoMultiplicacao) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.MULTIPLICACAO, noOperacaoMultiplicacao);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoModulo noOperacaoModulo) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.MODULO, noOperacaoModulo);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoBitwiseLeftShift noOperacaoBitwiseLeftShift) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.BITWISE_LEFT_SHIFT, noOperacaoBitwiseLeftShift);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoBitwiseRightShift noOperacaoBitwiseRightShift) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.BITWISE_RIGHT_SHIFT, noOperacaoBitwiseRightShift);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoBitwiseE noOperacaoBitwiseE) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.BITWISE_E, noOperacaoBitwiseE);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoBitwiseOu noOperacaoBitwiseOu) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.BITWISE_OU, noOperacaoBitwiseOu);
+        }
+
+        @Override
+        public Object visitar(NoOperacaoBitwiseXOR noOperacaoBitwiseXOR) throws ExcecaoVisitaASA
+        {
+            return escreverOperacao(Tipo.BITWISE_XOR, noOperacaoBitwiseXOR);
+        }
+
+        @Override
+        public Object visitar(NoTitulo noTitulo) throws ExcecaoVisitaASA
+        {
+            throw new ExcecaoVisitaASA("O nó 'titulo' não é suportado pelo serializador", asa, noTitulo);
+        }
+
+        @Override
+        public Object visitar(NoVaPara noVaPara) throws ExcecaoVisitaASA
+        {
+            throw new ExcecaoVisitaASA("O nó 'vá para' não é suportado pelo serializador", asa, noVaPara);
+        }
+
+        private Object escreverOperacao(Tipo tipo, NoOperacao operacao) throws ExcecaoVisitaASA
+        {
+            try
+            {
+                iniciar(tipo, operacao);
+                escreverTrecho(operacao.getTrechoCodigoFonteOperador());
+                escreverNo(operacao.getOperandoEsquerdo());
+                escreverNo(operacao.getOperandoDireito());
+            }
+            catch (IOException excecao)
+            {
+                throw erro(excecao, operacao);
+            }
+
+            return null;
+        }
+
+        private void iniciar(Tipo tipo, NoBloco no) throws IOException
+        {
+            saida.writeByte(tipo.ordinal());
+            escreverTrecho(no.trechoCodigoFonte);
+        }
+
+        private void iniciarValor(Tipo tipo, NoValor<?> no) throws IOException
+        {
+            iniciar(tipo, no);
+            escreverTrecho(no.montarTrechoCodigoFonte());
+        }
+
+        private void iniciarDeclaracao(Tipo tipo, NoDeclaracao declaracao) throws IOException
+        {
+            iniciar(tipo, declaracao);
+
+            declaracoes.add(declaracao);
+
+            escreverTexto(declaracao.getNome());
+            saida.writeByte(declaracao.getTipoDado() != null ? declaracao.getTipoDado().ordinal() : -1);
+            saida.writeBoolean(declaracao.constante());
+            escreverTrecho(declaracao.getTrechoCodigoFonteNome());
+            escreverTrecho(declaracao.getTrechoCodigoFonteTipoDado());
+        }
+
+        private void iniciarReferencia(Tipo tipo, NoReferencia referencia) throws IOException
+        {
+            iniciar(tipo, referencia);
+
+            referencias.put(referencia, referencias.size());
+
+            escreverTexto(referencia.getEscopo());
+            escreverTexto(referencia.getNome());
+            escreverTrecho(referencia.getTrechoCodigoFonteNome());
+        }
+
+        private void escreverNo(No no) throws ExcecaoVisitaASA, IOException
+        {
+            if (no == null)
+            {
+                saida.writeByte(Tipo.NULO.ordinal());
+            }
+            else
+            {
+                no.aceitar(this);
+
+                if (no instanceof NoExpressao)
+                {
+                    escreverTipoDado(((NoExpressao) no).getTipoResultado());
+                    escreverTipoDado(((NoExpressao) no).getTipoConversao());
+                }
+            }
+        }
+
+        private void escreverTipoDado(TipoDado tipoDado) throws IOException
+        {
+            saida.writeByte(tipoDado != null ? tipoDado.ordinal() : -1);
+        }
+
+        private void escreverBlocos(List<? extends No> nos) throws ExcecaoVisitaASA, IOException
+        {
+            saida.writeInt(nos != null ? nos.size() : -1);
+
+            if (nos != null)
+            {
+                for (No no : nos)
+                {
+                    escreverNo(no);
+                }
+            }
+        }
+
+        private void escreverValores(List<Object> valores, No no) throws ExcecaoVisitaASA, IOException
+        {
+            saida.writeInt(valores != null ? valores.size() : -1);
+
+            if (valores != null)
+            {
+                for (Object valor : valores)
+                {
+                    if (valor != null && !(valor instanceof No))
+                    {
+                        throw new ExcecaoVisitaASA("A ASA contém valores já avaliados e não pode ser serializada", asa, no);
+                    }
+
+                    escreverNo((No) valor);
+                }
+            }
+        }
+
+        private void escreverTrecho(TrechoCodigoFonte trecho) throws IOException
+        {
+            if (trecho == null)
+            {
+                saida.writeByte(TRECHO_AUSENTE);
+            }
+            else if (trecho == NoBloco.TRECHO_NULO)
+            {
+                saida.writeByte(TRECHO_VAZIO);
+            }
+            else
+            {
+                saida.writeByte(TRECHO_PRESENTE);
+                saida.writeInt(trecho.getLinha());
+                saida.writeInt(trecho.getColuna());
+                saida.writeInt(trecho.getTamanhoTexto());
+            }
+        }
+
+        private void escreverTexto(String texto) throws IOException
+        {
+            if (texto == null)
+            {
+                saida.writeInt(-1);
+            }
+            else
+            {
+                byte[] bytes = texto.getBytes(UTF8);
+
+                saida.writeInt(bytes.length);
+                saida.write(bytes);
+            }
+        }
+
+        private ExcecaoVisitaASA erro(IOException excecao, No no)
+        {
+            return new ExcecaoVisitaASA(excecao, asa, no);
+        }
+    }
+
+    private static final class Leitor
+    {
+        private final DataInputStream entrada;
+
+        private final List<NoDeclaracao> declaracoes = new ArrayList<>();
+        private final List<NoReferencia> referencias = new ArrayList<>();
+
+        public Leitor(DataInputStream entrada)
+        {
+            this.entrada = entrada;
+        }
+
+        public ArvoreSintaticaAbstrataPrograma ler() throws IOException, ExcecaoSerializacaoASA
+        {
+            if (entrada.readInt() != ASSINATURA)
+            {
+                throw new ExcecaoSerializacaoASA("O conteúdo informado não é uma ASA serializada");
+            }
+
+            short versao = entrada.readShort();
+
+            if (versao != VERSAO)
+            {
+                throw new ExcecaoSerializacaoASA(String.format("A versão da ASA serializada (%d) é diferente da versão suportada (%d)", versao, VERSAO));
+            }
+
+            ArvoreSintaticaAbstrataPrograma asa = new ArvoreSintaticaAbstrataPrograma();
+
+            int quantidadeInclusoes = entrada.readInt();
+
+            if (quantidadeInclusoes >= 0)
+            {
+                List<NoInclusaoBiblioteca> inclusoes = new ArrayList<>(quantidadeInclusoes);
+
+                for (int i = 0; i < quantidadeInclusoes; i++)
+                {
+                    inclusoes.add(lerInclusao());
+                }
+
+                asa.setListaInclusoesBibliotecas(inclusoes);
+            }
+
+            asa.setListaDeclaracoesGlobais(this.<NoDeclaracao>lerLista());
+
+            lerTabelaReferencias();
+
+            if (entrada.readInt() != MARCA_FINAL)
+            {
+                throw new ExcecaoSerializacaoASA("O conteúdo da ASA está corrompido");
+            }
+
+            return asa;
+        }
+
+        private void lerTabelaReferencias() throws IOException, ExcecaoSerializacaoASA
+        {
+            int quantidadeDeclaracoes = entrada.readInt();
+
+            if (quantidadeDeclaracoes != declaracoes.size())
+            {
+                throw new ExcecaoSerializacaoASA("A tabela de referências não corresponde às declarações da ASA");
+            }
+
+            for (NoDeclaracao declaracao : declaracoes)
+            {
+                int quantidadeReferencias = entrada.readInt();
+
+                for (int i = 0; i < quantidadeReferencias; i++)
+                {
+                    declaracao.adicionarReferencia(referencias.get(entrada.readInt()));
+                }
+            }
+        }
+
+        private NoInclusaoBiblioteca lerInclusao() throws IOException
+        {
+            NoInclusaoBiblioteca inclusao = new NoInclusaoBiblioteca();
+
+            inclusao.setNome(lerTexto());
+            inclusao.setAlias(lerTexto());
+            inclusao.setTrechoCodigoFonte(lerTrecho());
+            inclusao.setTrechoCodigoFonteNome(lerTrecho());
+            inclusao.setTrechoCodigoFonteAlias(lerTrecho());
+
+            return inclusao;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends No> T lerNo() throws IOException, ExcecaoSerializacaoASA
+        {
+            Tipo tipo = TIPOS[entrada.readByte()];
+
+            if (tipo == Tipo.NULO)
+            {
+                return null;
+            }
+
+            if (tipo == Tipo.RETORNE)
+            {
+                TrechoCodigoFonte trecho = lerTrecho();
+
+                return (T) new NoRetorne(trecho, this.<NoExpressao>lerNo());
+            }
+
+            TrechoCodigoFonte trecho = lerTrecho();
+            NoBloco no;
+
+            switch (tipo)
+            {
+                case CADEIA:
+                {
+                    TrechoCodigoFonte trechoValor = lerTrecho();
+                    NoCadeia noCadeia = new NoCadeia(lerTexto());
+                    noCadeia.setTrechoCodigoFonte(trechoValor);
+                    no = noCadeia;
+                    break;
+                }
+
+                case CARACTER:
+                {
+                    TrechoCodigoFonte trechoValor = lerTrecho();
+                    NoCaracter noCaracter = new NoCaracter(entrada.readChar());
+                    noCaracter.setTrechoCodigoFonte(trechoValor);
+                    no = noCaracter;
+                    break;
+                }
+
+                case INTEIRO:
+                {
+                    TrechoCodigoFonte trechoValor = lerTrecho();
+                    NoInteiro noInteiro = new NoInteiro(entrada.readInt());
+                    noInteiro.setTrechoCodigoFonte(trechoValor);
+                    no = noInteiro;
+                    break;
+                }
+
+                case LOGICO:
+                {
+                    TrechoCodigoFonte trechoValor = lerTrecho();
+                    NoLogico noLogico = new NoLogico(entrada.readBoolean());
+                    noLogico.setTrechoCodigoFonte(trechoValor);
+                    no = noLogico;
+                    break;
+                }
+
+                case REAL:
+                {
+                    TrechoCodigoFonte trechoValor = lerTrecho();
+                    NoReal noReal = new NoReal(entrada.readDouble());
+                    noReal.setTrechoCodigoFonte(trechoValor);
+                    no = noReal;
+                    break;
+                }
+
+                case VETOR:
+                {
+                    TrechoCodigoFonte trechoValor = lerTrecho();
+                    NoVetor noVetor = new NoVetor(lerValores());
+                    noVetor.setTrechoCodigoFonte(trechoValor);
+                    no = noVetor;
+                    break;
+                }
+
+                case MATRIZ:
+                {
+                    TrechoCodigoFonte trechoValor = lerTrecho();
+                    int quantidadeLinhas = entrada.readInt();
+                    List<List<Object>> linhas = null;
+
+                    if (quantidadeLinhas >= 0)
+                    {
+                        linhas = new ArrayList<>(quantidadeLinhas);
+
+                        for (int i = 0; i < quantidadeLinhas; i++)
+                        {
+                            linhas.add(lerValores());
+                        }
+                    }
+
+                    NoMatriz noMatriz = new NoMatriz(linhas);
+                    noMatriz.setTrechoCodigoFonte(trechoValor);
+                    no = noMatriz;
+                    break;
+                }
+
+                case CASO:
+                {
+                    NoCaso noCaso = new NoCaso(this.<NoExpressao>lerNo());
+                    noCaso.setBlocos(this.<NoBloco>lerLista());
+                    no = noCaso;
+                    break;
+                }
+
+                case ESCOLHA:
+                {
+                    NoEscolha noEscolha = new NoEscolha(this.<NoExpressao>lerNo());
+                    noEscolha.setCasos(this.<NoCaso>lerLista());
+                    no = noEscolha;
+                    break;
+                }
+
+                case CHAMADA_FUNCAO:
+                {
+                    int indice = reservarReferencia();
+                    String escopo = lerTexto();
+                    String nome = lerTexto();
+                    TrechoCodigoFonte trechoNome = lerTrecho();
+                    NoChamadaFuncao chamadaFuncao = new NoChamadaFuncao(escopo, nome);
+                    chamadaFuncao.setParametros(this.<NoExpressao>lerLista());
+                    no = registrarReferencia(indice, chamadaFuncao, trechoNome);
+                    break;
+                }
+
+                case REFERENCIA_VARIAVEL:
+                {
+                    int indice = reservarReferencia();
+                    String escopo = lerTexto();
+                    String nome = lerTexto();
+                    TrechoCodigoFonte trechoNome = lerTrecho();
+                    no = registrarReferencia(indice, new NoReferenciaVariavel(escopo, nome), trechoNome);
+                    break;
+                }
+
+                case REFERENCIA_VETOR:
+                {
+                    int indice = reservarReferencia();
+                    String escopo = lerTexto();
+                    String nome = lerTexto();
+                    TrechoCodigoFonte trechoNome = lerTrecho();
+                    NoExpressao indiceVetor = lerNo();
+                    no = registrarReferencia(indice, new NoReferenciaVetor(escopo, nome, indiceVetor), trechoNome);
+                    break;
+                }
+
+                case REFERENCIA_MATRIZ:
+                {
+                    int indice = reservarReferencia();
+                    String escopo = lerTexto();
+                    String nome = lerTexto();
+                    TrechoCodigoFonte trechoNome = lerTrecho();
+                    NoExpressao linha = lerNo();
+                    NoExpressao coluna = lerNo();
+                    no = registrarReferencia(indice, new NoReferenciaMatriz(escopo, nome, linha, coluna), trechoNome);
+                    break;
+                }
+
+                case CONTINUE:
+                {
+                    no = new NoContinue();
+                    break;
+                }
+
+                case PARE:
+                {
+                    no = new NoPare();
+                    break;
+                }
+
+                case DECLARACAO_FUNCAO:
+                {
+                    int indice = reservarDeclaracao();
+                    CabecalhoDeclaracao cabecalho = lerCabecalhoDeclaracao();
+                    Quantificador quantificador = Quantificador.values()[entrada.readByte()];
+                    NoDeclaracaoFuncao declaracaoFuncao = new NoDeclaracaoFuncao(cabecalho.nome, cabecalho.tipoDado, quantificador);
+                    registrarDeclaracao(indice, declaracaoFuncao, cabecalho);
+                    declaracaoFuncao.setParametros(this.<NoDeclaracaoParametro>lerLista());
+                    declaracaoFuncao.setBlocos(this.<NoBloco>lerLista());
+                    no = declaracaoFuncao;
+                    break;
+                }
+
+                case DECLARACAO_PARAMETRO:
+                {
+                    int indice = reservarDeclaracao();
+                    CabecalhoDeclaracao cabecalho = lerCabecalhoDeclaracao();
+                    Quantificador quantificador = Quantificador.values()[entrada.readByte()];
+                    ModoAcesso modoAcesso = ModoAcesso.values()[entrada.readByte()];
+                    NoDeclaracaoParametro declaracaoParametro = new NoDeclaracaoParametro(cabecalho.nome, cabecalho.tipoDado, quantificador, modoAcesso);
+                    declaracaoParametro.setIndice(entrada.readInt());
+                    no = registrarDeclaracao(indice, declaracaoParametro, cabecalho);
+                    break;
+                }
+
+                case DECLARACAO_VARIAVEL:
+                {
+                    int indice = reservarDeclaracao();
+                    CabecalhoDeclaracao cabecalho = lerCabecalhoDeclaracao();
+                    NoDeclaracaoVariavel declaracaoVariavel = new NoDeclaracaoVariavel(cabecalho.nome, cabecalho.tipoDado, cabecalho.constante);
+                    registrarDeclaracao(indice, declaracaoVariavel, cabecalho);
+                    declaracaoVariavel.setInicializacao(this.<NoExpressao>lerNo());
+                    no = declaracaoVariavel;
+                    break;
+                }
+
+                case DECLARACAO_VETOR:
+                {
+                    int indice = reservarDeclaracao();
+                    CabecalhoDeclaracao cabecalho = lerCabecalhoDeclaracao();
+                    NoExpressao tamanho = lerNo();
+                    NoDeclaracaoVetor declaracaoVetor = new NoDeclaracaoVetor(cabecalho.nome, cabecalho.tipoDado, tamanho, cabecalho.constante);
+                    registrarDeclaracao(indice, declaracaoVetor, cabecalho);
+                    declaracaoVetor.setInicializacao(this.<NoExpressao>lerNo());
+                    no = declaracaoVetor;
+                    break;
+                }
+
+                case DECLARACAO_MATRIZ:
+                {
+                    int indice = reservarDeclaracao();
+                    CabecalhoDeclaracao cabecalho = lerCabecalhoDeclaracao();
+                    NoExpressao numeroLinhas = lerNo();
+                    NoExpressao numeroColunas = lerNo();
+                    NoDeclaracaoMatriz declaracaoMatriz = new NoDeclaracaoMatriz(cabecalho.nome, cabecalho.tipoDado, numeroLinhas, numeroColunas, cabecalho.constante);
+                    registrarDeclaracao(indice, declaracaoMatriz, cabecalho);
+                    declaracaoMatriz.setInicializacao(this.<NoExpressao>lerNo());
+                    no = declaracaoMatriz;
+                    break;
+                }
+
+                case ENQUANTO:
+                {
+                    NoEnquanto noEnquanto = new NoEnquanto(this.<NoExpressao>lerNo());
+                    noEnquanto.setBlocos(this.<NoBloco>lerLista());
+                    no = noEnquanto;
+                    break;
+                }
+
+                case FACA_ENQUANTO:
+                {
+                    NoFacaEnquanto noFacaEnquanto = new NoFacaEnquanto(this.<NoExpressao>lerNo());
+                    noFacaEnquanto.setBlocos(this.<NoBloco>lerLista());
+                    no = noFacaEnquanto;
+                    break;
+                }
+
+                case PARA:
+                {
+                    NoPara noPara = new NoPara();
+                    noPara.setInicializacao(this.<NoBloco>lerNo());
+                    NoExpressao condicao = lerNo();
+                    noPara.setCondicao(condicao);
+
+                    if (condicao != null)
+                    {
+                        condicao.setPai(noPara);
+                    }
+
+                    noPara.setIncremento(this.<NoExpressao>lerNo());
+                    noPara.setBlocos(this.<NoBloco>lerLista());
+                    no = noPara;
+                    break;
+                }
+
+                case SE:
+                {
+                    NoSe noSe = new NoSe(this.<NoExpressao>lerNo());
+                    noSe.setBlocosVerdadeiros(this.<NoBloco>lerLista());
+                    noSe.setBlocosFalsos(this.<NoBloco>lerLista());
+                    no = noSe;
+                    break;
+                }
+
+                case MENOS_UNARIO:
+                {
+                    TrechoCodigoFonte trechoMenos = lerTrecho();
+                    NoMenosUnario noMenosUnario = new NoMenosUnario(this.<NoExpressao>lerNo());
+                    noMenosUnario.setTrechoCodigoFonteMenos(trechoMenos);
+                    no = noMenosUnario;
+                    break;
+                }
+
+                case NAO:
+                {
+                    no = new NoNao(this.<NoExpressao>lerNo());
+                    break;
+                }
+
+                case BITWISE_NAO:
+                {
+                    no = new NoBitwiseNao(this.<NoExpressao>lerNo());
+                    break;
+                }
+
+                default:
+                {
+                    no = lerOperacao(tipo);
+                    break;
+                }
+            }
+
+            no.trechoCodigoFonte = trecho;
+
+            if (no instanceof NoExpressao)
+            {
+                ((NoExpressao) no).setTipoResultado(lerTipoDado());
+                ((NoExpressao) no).setTipoConversao(lerTipoDado());
+            }
+
+            return (T) no;
+        }
+
+        private TipoDado lerTipoDado() throws IOException
+        {
+            byte ordinal = entrada.readByte();
+
+            return (ordinal >= 0) ? TIPOS_DADO[ordinal] : null;
+        }
+
+        private NoOperacao lerOperacao(Tipo tipo) throws IOException, ExcecaoSerializacaoASA
+        {
+            TrechoCodigoFonte trechoOperador = lerTrecho();
+            NoExpressao esquerdo = lerNo();
+            NoExpressao direito = lerNo();
+            NoOperacao operacao;
+
+            switch (tipo)
+            {
+                case IGUALDADE: operacao = new NoOperacaoLogicaIgualdade(esquerdo, direito); break;
+                case DIFERENCA: operacao = new NoOperacaoLogicaDiferenca(esquerdo, direito); break;
+                case ATRIBUICAO: operacao = new NoOperacaoAtribuicao(esquerdo, direito); break;
+                case E: operacao = new NoOperacaoLogicaE(esquerdo, direito); break;
+                case OU: operacao = new NoOperacaoLogicaOU(esquerdo, direito); break;
+                case MAIOR: operacao = new NoOperacaoLogicaMaior(esquerdo, direito); break;
+                case MAIOR_IGUAL: operacao = new NoOperacaoLogicaMaiorIgual(esquerdo, direito); break;
+                case MENOR: operacao = new NoOperacaoLogicaMenor(esquerdo, direito); break;
+                case MENOR_IGUAL: operacao = new NoOperacaoLogicaMenorIgual(esquerdo, direito); break;
+                case SOMA: operacao = new NoOperacaoSoma(esquerdo, direito); break;
+                case SUBTRACAO: operacao = new NoOperacaoSubtracao(esquerdo, direito); break;
+                case DIVISAO: operacao = new NoOperacaoDivisao(esquerdo, direito); break;
+                case MULTIPLICACAO: operacao = new NoOperacaoMultiplicacao(esquerdo, direito); break;
+                case MODULO: operacao = new NoOperacaoModulo(esquerdo, direito); break;
+                case BITWISE_LEFT_SHIFT: operacao = new NoOperacaoBitwiseLeftShift(esquerdo, direito); break;
+                case BITWISE_RIGHT_SHIFT: operacao = new NoOperacaoBitwiseRightShift(esquerdo, direito); break;
+                case BITWISE_E: operacao = new NoOperacaoBitwiseE(esquerdo, direito); break;
+                case BITWISE_OU: operacao = new NoOperacaoBitwiseOu(esquerdo, direito); break;
+                case BITWISE_XOR: operacao = new NoOperacaoBitwiseXOR(esquerdo, direito); break;
+
+                default: throw new ExcecaoSerializacaoASA(String.format("Tipo de nó desconhecido: %s", tipo));
+            }
+
+            operacao.setTrechoCodigoFonteOperador(trechoOperador);
+
+            return operacao;
+        }
+
+        private <T extends No> List<T> lerLista() throws IOException, ExcecaoSerializacaoASA
+        {
+            int quantidade = entrada.readInt();
+
+            if (quantidade < 0)
+            {
+                return null;
+            }
+
+            List<T> nos = new ArrayList<>(quantidade);
+
+            for (int i = 0; i < quantidade; i++)
+            {
+                nos.add(this.<T>lerNo());
+            }
+
+            return nos;
+        }
+
+        private List<Object> lerValores() throws IOException, ExcecaoSerializacaoASA
+        {
+            int quantidade = entrada.readInt();
+
+            if (quantidade < 0)
+            {
+                return null;
+            }
+
+            List<Object> valores = new ArrayList<>(quantidade);
+
+            for (int i = 0; i < quantidade; i++)
+            {
+                valores.add(lerNo());
+            }
+
+            return valores;
+        }
+
+        private int reservarDeclaracao()
+        {
+            declaracoes.add(null);
+
+            return declaracoes.size() - 1;
+        }
+
+        private NoDeclaracao registrarDeclaracao(int indice, NoDeclaracao declaracao, CabecalhoDeclaracao cabecalho)
+        {
+            declaracao.setTrechoCodigoFonteNome(cabecalho.trechoNome);
+            declaracao.setTrechoCodigoFonteTipoDado(cabecalho.trechoTipoDado);
+            declaracoes.set(indice, declaracao);
+
+            return declaracao;
+        }
+
+        private int reservarReferencia()
+        {
+            referencias.add(null);
+
+            return referencias.size() - 1;
+        }
+
+        private NoReferencia registrarReferencia(int indice, NoReferencia referencia, TrechoCodigoFonte trechoNome)
+        {
+            referencia.setTrechoCodigoFonteNome(trechoNome);
+            referencias.set(indice, referencia);
+
+            return referencia;
+        }
+
+        private CabecalhoDeclaracao lerCabecalhoDeclaracao() throws IOException
+        {
+            CabecalhoDeclaracao cabecalho = new CabecalhoDeclaracao();
+
+            cabecalho.nome = lerTexto();
+
+            byte tipoDado = entrada.readByte();
+
+            cabecalho.tipoDado = (tipoDado >= 0) ? TipoDado.values()[tipoDado] : null;
+            cabecalho.constante = entrada.readBoolean();
+            cabecalho.trechoNome = lerTrecho();
+            cabecalho.trechoTipoDado = lerTrecho();
+
+            return cabecalho;
+        }
+
+        private TrechoCodigoFonte lerTrecho() throws IOException
+        {
+            byte tipo = entrada.readByte();
+
+            switch (tipo)
+            {
+                case TRECHO_AUSENTE: return null;
+                case TRECHO_VAZIO: return NoBloco.TRECHO_NULO;
+                case TRECHO_PRESENTE: return new TrechoCodigoFonte(entrada.readInt(), entrada.readInt(), entrada.readInt());
+
+                default: throw new IOException(String.format("Trecho de código fonte inválido: %d", tipo));
+            }
+        }
+
+        private String lerTexto() throws IOException
+        {
+            int tamanho = entrada.readInt();
+
+            if (tamanho < 0)
+            {
+                return null;
+            }
+
+            byte[] bytes = new byte[tamanho];
+            entrada.readFully(bytes);
+
+            return new String(bytes, UTF8);
+        }
+    }
+
+    private static final class CabecalhoDeclaracao
+    {
+        private String nome;
+        private TipoDado tipoDado;
+        private boolean constante;
+        private TrechoCodigoFonte trechoNome;
+        private TrechoCodigoFonte trechoTipoDado;
+    }
+}
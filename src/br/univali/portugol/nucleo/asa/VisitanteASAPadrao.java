@@ -0,0 +1,435 @@
+package br.univali.portugol.nucleo.asa;
+
+import java.util.List;
+
+/**
+ * Visitante que percorre todos os nós da ASA em pré-ordem sem realizar nenhuma ação.
+ * <p>
+ * As subclasses sobrescrevem apenas os nós que lhes interessam e chamam o método da
+ * superclasse quando desejarem continuar o percurso pelos nós filhos.
+ */
+public abstract class VisitanteASAPadrao implements VisitanteASA
+{
+    @Override
+    public Object visitar(ArvoreSintaticaAbstrataPrograma asap) throws ExcecaoVisitaASA
+    {
+        if (asap.getListaInclusoesBibliotecas() != null)
+        {
+            for (NoInclusaoBiblioteca inclusao : asap.getListaInclusoesBibliotecas())
+            {
+                inclusao.aceitar(this);
+            }
+        }
+
+        visitarLista(asap.getListaDeclaracoesGlobais());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoCadeia noCadeia) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoCaracter noCaracter) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoCaso noCaso) throws ExcecaoVisitaASA
+    {
+        visitarNo(noCaso.getExpressao());
+        visitarLista(noCaso.getBlocos());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoChamadaFuncao chamadaFuncao) throws ExcecaoVisitaASA
+    {
+        visitarLista(chamadaFuncao.getParametros());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoContinue noContinue) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoFuncao declaracaoFuncao) throws ExcecaoVisitaASA
+    {
+        visitarLista(declaracaoFuncao.getParametros());
+        visitarLista(declaracaoFuncao.getBlocos());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoMatriz noDeclaracaoMatriz) throws ExcecaoVisitaASA
+    {
+        visitarNo(noDeclaracaoMatriz.getNumeroLinhas());
+        visitarNo(noDeclaracaoMatriz.getNumeroColunas());
+        visitarNo(noDeclaracaoMatriz.getInicializacao());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoVariavel noDeclaracaoVariavel) throws ExcecaoVisitaASA
+    {
+        visitarNo(noDeclaracaoVariavel.getInicializacao());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoVetor noDeclaracaoVetor) throws ExcecaoVisitaASA
+    {
+        visitarNo(noDeclaracaoVetor.getTamanho());
+        visitarNo(noDeclaracaoVetor.getInicializacao());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoEnquanto noEnquanto) throws ExcecaoVisitaASA
+    {
+        visitarNo(noEnquanto.getCondicao());
+        visitarLista(noEnquanto.getBlocos());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoEscolha noEscolha) throws ExcecaoVisitaASA
+    {
+        visitarNo(noEscolha.getExpressao());
+        visitarLista(noEscolha.getCasos());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoFacaEnquanto noFacaEnquanto) throws ExcecaoVisitaASA
+    {
+        visitarLista(noFacaEnquanto.getBlocos());
+        visitarNo(noFacaEnquanto.getCondicao());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoInteiro noInteiro) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoLogico noLogico) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoMatriz noMatriz) throws ExcecaoVisitaASA
+    {
+        if (noMatriz.getValores() != null)
+        {
+            for (List<Object> linha : noMatriz.getValores())
+            {
+                visitarValores(linha);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoMenosUnario noMenosUnario) throws ExcecaoVisitaASA
+    {
+        visitarNo(noMenosUnario.getExpressao());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoNao noNao) throws ExcecaoVisitaASA
+    {
+        visitarNo(noNao.getExpressao());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoOperacaoLogicaIgualdade noOperacaoLogicaIgualdade) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoLogicaIgualdade);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoLogicaDiferenca noOperacaoLogicaDiferenca) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoLogicaDiferenca);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoAtribuicao noOperacaoAtribuicao) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoAtribuicao);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoLogicaE noOperacaoLogicaE) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoLogicaE);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoLogicaOU noOperacaoLogicaOU) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoLogicaOU);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoLogicaMaior noOperacaoLogicaMaior) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoLogicaMaior);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoLogicaMaiorIgual noOperacaoLogicaMaiorIgual) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoLogicaMaiorIgual);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoLogicaMenor noOperacaoLogicaMenor) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoLogicaMenor);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoLogicaMenorIgual noOperacaoLogicaMenorIgual) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoLogicaMenorIgual);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoSoma noOperacaoSoma) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoSoma);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoSubtracao noOperacaoSubtracao) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoSubtracao);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoDivisao noOperacaoDivisao) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoDivisao);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoMultiplicacao noOperacaoMultiplicacao) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoMultiplicacao);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoModulo noOperacaoModulo) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoModulo);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoBitwiseLeftShift noOperacaoBitwiseLeftShift) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoBitwiseLeftShift);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoBitwiseRightShift noOperacaoBitwiseRightShift) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoBitwiseRightShift);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoBitwiseE noOperacaoBitwiseE) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoBitwiseE);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoBitwiseOu noOperacaoBitwiseOu) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoBitwiseOu);
+    }
+
+    @Override
+    public Object visitar(NoOperacaoBitwiseXOR noOperacaoBitwiseXOR) throws ExcecaoVisitaASA
+    {
+        return visitarOperacao(noOperacaoBitwiseXOR);
+    }
+
+    @Override
+    public Object visitar(NoBitwiseNao noOperacaoBitwiseNao) throws ExcecaoVisitaASA
+    {
+        visitarNo(noOperacaoBitwiseNao.getExpressao());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoPara noPara) throws ExcecaoVisitaASA
+    {
+        visitarNo(noPara.getInicializacao());
+        visitarNo(noPara.getCondicao());
+        visitarNo(noPara.getIncremento());
+        visitarLista(noPara.getBlocos());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoPare noPare) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoReal noReal) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoReferenciaMatriz noReferenciaMatriz) throws ExcecaoVisitaASA
+    {
+        visitarNo(noReferenciaMatriz.getLinha());
+        visitarNo(noReferenciaMatriz.getColuna());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoReferenciaVariavel noReferenciaVariavel) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoReferenciaVetor noReferenciaVetor) throws ExcecaoVisitaASA
+    {
+        visitarNo(noReferenciaVetor.getIndice());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoRetorne noRetorne) throws ExcecaoVisitaASA
+    {
+        visitarNo(noRetorne.getExpressao());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoSe noSe) throws ExcecaoVisitaASA
+    {
+        visitarNo(noSe.getCondicao());
+        visitarLista(noSe.getBlocosVerdadeiros());
+        visitarLista(noSe.getBlocosFalsos());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoTitulo noTitulo) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoVaPara noVaPara) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoVetor noVetor) throws ExcecaoVisitaASA
+    {
+        visitarValores(noVetor.getValores());
+
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoDeclaracaoParametro noDeclaracaoParametro) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    @Override
+    public Object visitar(NoInclusaoBiblioteca noInclusaoBiblioteca) throws ExcecaoVisitaASA
+    {
+        return null;
+    }
+
+    /**
+     * Visita os dois operandos de uma operação. Todos os nós de operação são encaminhados
+     * para este método, o que permite tratá-los de forma uniforme.
+     *
+     * @param operacao     a operação visitada
+     * @return             {@code null}
+     * @throws ExcecaoVisitaASA     caso ocorra um erro ao visitar os operandos
+     */
+    protected Object visitarOperacao(NoOperacao operacao) throws ExcecaoVisitaASA
+    {
+        visitarNo(operacao.getOperandoEsquerdo());
+        visitarNo(operacao.getOperandoDireito());
+
+        return null;
+    }
+
+    protected final void visitarNo(No no) throws ExcecaoVisitaASA
+    {
+        if (no != null)
+        {
+            no.aceitar(this);
+        }
+    }
+
+    protected final void visitarLista(List<? extends No> nos) throws ExcecaoVisitaASA
+    {
+        if (nos != null)
+        {
+            for (No no : nos)
+            {
+                visitarNo(no);
+            }
+        }
+    }
+
+    private void visitarValores(List<Object> valores) throws ExcecaoVisitaASA
+    {
+        if (valores != null)
+        {
+            for (Object valor : valores)
+            {
+                if (valor instanceof No)
+                {
+                    visitarNo((No) valor);
+                }
+            }
+        }
+    }
+}
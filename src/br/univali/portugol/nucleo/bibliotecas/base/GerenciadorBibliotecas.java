@@ -10,6 +10,7 @@ import br.univali.portugol.nucleo.bibliotecas.base.anotacoes.DocumentacaoFuncao;
 import br.univali.portugol.nucleo.bibliotecas.base.anotacoes.DocumentacaoParametro;
 import br.univali.portugol.nucleo.bibliotecas.base.anotacoes.NaoExportar;
 import br.univali.portugol.nucleo.bibliotecas.base.anotacoes.PropriedadesBiblioteca;
+import br.univali.portugol.nucleo.metricas.MetricasNucleo;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -188,6 +189,7 @@ public final class GerenciadorBibliotecas
                     }
                     
                     memoriaPrograma.put(nome, biblioteca);
+                    MetricasNucleo.getInstance().bibliotecaReservada();
                 }
                 
                 return memoriaPrograma.get(nome);
@@ -224,6 +226,7 @@ public final class GerenciadorBibliotecas
                     {
                         biblioteca.finalizar();
                         memoriaPrograma.remove(biblioteca.getNome());
+                        MetricasNucleo.getInstance().bibliotecaLiberada();
                     }
                     
                     if (memoriaPrograma.isEmpty())
@@ -21,7 +21,7 @@ public class Depurador extends Interpretador implements ObservadorMemoria
         PARADO//esperando o usuário iniciar a execução
     }
     
-    private final List<ObservadorExecucao> observadores = new ArrayList<>();
+    private final DistribuidorEventosExecucao eventos;
 
     private Programa programa;
     private Estado estado = Estado.PARADO;
@@ -54,10 +54,7 @@ public class Depurador extends Interpretador implements ObservadorMemoria
     {
         if (linha >= 0)
         {
-            for (ObservadorExecucao observador : observadores)
-            {
-                observador.highlightLinha(linha);
-            }
+            eventos.destacarLinha(linha);
         }
     }
 
@@ -68,11 +65,8 @@ public class Depurador extends Interpretador implements ObservadorMemoria
             int linha = trechoCodigoFonte.getLinha();
             int coluna = trechoCodigoFonte.getColuna();
             int tamanho = trechoCodigoFonte.getTamanhoTexto();
-            
-            for (ObservadorExecucao observador : observadores)
-            {
-                observador.highlightDetalhadoAtual(linha, coluna, tamanho);
-            }
+
+            eventos.destacarTrecho(linha, coluna, tamanho);
         }
     }
 
@@ -217,10 +211,7 @@ public class Depurador extends Interpretador implements ObservadorMemoria
 
     public void disparaSimbolosAlterados(List<Simbolo> simbolos)
     {
-        for (ObservadorExecucao l : observadores)
-        {
-            l.simbolosAlterados(simbolos);
-        }
+        eventos.simbolosAlterados(simbolos);
     }
 
     /**
@@ -233,7 +224,7 @@ public class Depurador extends Interpretador implements ObservadorMemoria
      */
     public void adicionarObservadoresExecucao(List<ObservadorExecucao> observadores)
     {
-        this.observadores.addAll(observadores);
+        eventos.adicionarObservadores(observadores);
     }
 
     /**
@@ -249,27 +240,34 @@ public class Depurador extends Interpretador implements ObservadorMemoria
      */
     public void removerObservadoresExecucao(List<ObservadorExecucao> observadores)
     {
-        this.observadores.removeAll(observadores);
+        eventos.removerObservadores(observadores);
     }    
     
     @Override
     public void executar(Programa programa, String[] parametros) throws ErroExecucao, InterruptedException
     {
-        if (!observadores.isEmpty())
+        if (eventos.possuiObservadores())
         {
             this.programa = programa;
+            eventos.iniciar();
 
-            if (estado != Estado.BREAK_POINT)
+            try
             {
-                destacarFuncaoInicial();
-            }
-            super.executar(programa, parametros);
+                if (estado != Estado.BREAK_POINT)
+                {
+                    destacarFuncaoInicial();
+                }
+                super.executar(programa, parametros);
 
-            if (estado != Estado.BREAK_POINT)
+                if (estado != Estado.BREAK_POINT)
+                {
+                    destacarFuncaoInicial();
+                }
+            }
+            finally
             {
-                destacarFuncaoInicial();
+                eventos.encerrar();
             }
-
         }
         else
         {
@@ -322,6 +320,17 @@ public class Depurador extends Interpretador implements ObservadorMemoria
 
     public Depurador()
     {
+        this(new DistribuidorEventosExecucao());
+    }
+
+    /**
+     *
+     * @param eventos o distribuidor que entrega os eventos da depuração aos
+     * observadores da execução
+     */
+    public Depurador(DistribuidorEventosExecucao eventos)
+    {
+        this.eventos = eventos;
         this.memoria.adicionarObservador(Depurador.this);
     }
 
@@ -617,9 +626,41 @@ public class Depurador extends Interpretador implements ObservadorMemoria
         return super.visitar(no);
     }
 
+    private boolean podeParar(NoBloco no)
+    {
+        // No estado BREAK_POINT um nó só é parável se tiver um ponto de parada ativo,
+        // então, se nenhuma linha possui ponto de parada, não é preciso consultar o nó
+        if (estado == Estado.BREAK_POINT && !programa.possuiPontosDeParadaAtivos())
+        {
+            return false;
+        }
+
+        return no.ehParavel(estado);
+    }
+
+    @Override
+    protected boolean podeOmitirVisita(NoBloco no)
+    {
+        return !podeParar(no);
+    }
+
+    @Override
+    protected boolean podeOmitirVisitas(List<? extends NoBloco> nos)
+    {
+        for (NoBloco no : nos)
+        {
+            if (podeParar(no))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private void realizarParada(NoBloco no, TrechoCodigoFonte trechoCodigoFonte) throws ExcecaoVisitaASA
     {
-        if (no.ehParavel(this.estado) || funcaoInicial(no))
+        if (podeParar(no) || funcaoInicial(no))
         {
             if ( this.estado == Estado.STEP_INTO){
             
@@ -629,6 +670,18 @@ public class Depurador extends Interpretador implements ObservadorMemoria
             {
                 disparaDestacar((trechoCodigoFonte != null) ? trechoCodigoFonte.getLinha() : -1);
             }
+            try
+            {
+                // Garante que os observadores estejam atualizados enquanto o programa estiver parado.
+                // A espera é feita fora do bloco sincronizado para que um observador possa chamar o
+                // método continuar() durante a entrega dos eventos
+                eventos.aguardarEntrega();
+            }
+            catch (InterruptedException ex)
+            {
+                throw new ExcecaoVisitaASA(ex, this.programa.getArvoreSintaticaAbstrata(), no);
+            }
+
             synchronized (this)
             {
                 try
@@ -646,18 +699,12 @@ public class Depurador extends Interpretador implements ObservadorMemoria
     @Override
     public void simboloAdicionado(Simbolo simbolo)
     {
-        for (ObservadorExecucao l : observadores)
-        {
-            l.simboloDeclarado(simbolo);
-        }
+        eventos.simboloDeclarado(simbolo);
     }
 
     @Override
     public void simboloRemovido(Simbolo simbolo)
     {
-        for (ObservadorExecucao l : observadores)
-        {
-            l.simboloRemovido(simbolo);
-        }
+        eventos.simboloRemovido(simbolo);
     }
 }
@@ -0,0 +1,440 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.simbolos.Matriz;
+import br.univali.portugol.nucleo.simbolos.Simbolo;
+import br.univali.portugol.nucleo.simbolos.Variavel;
+import br.univali.portugol.nucleo.simbolos.Vetor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Entrega os eventos de depuração aos {@link ObservadorExecucao} em uma thread separada,
+ * para que um observador lento não atrase a execução do programa.
+ * <p>
+ * Os eventos produzidos pelo interpretador são colocados em uma fila circular de tamanho
+ * limitado e entregues, na mesma ordem em que foram produzidos, em lotes. Cada lote reúne
+ * os eventos produzidos durante um intervalo de quadro. Alterações repetidas de um mesmo
+ * símbolo que ainda não foram entregues são agrupadas em um único evento: como os
+ * observadores consultam o valor atual do símbolo, a última alteração já contém as
+ * anteriores. Como a ordem da fila é preservada, a ordem dos eventos de cada símbolo
+ * (declaração, alterações e remoção) também é.
+ * <p>
+ * Quando a fila fica cheia, a {@link PoliticaFilaCheia} define o que acontece com as
+ * alterações de símbolos. Os demais eventos (destaques, declarações e remoções) só são
+ * descartados quando o programa é interrompido enquanto aguarda espaço na fila, ou quando a
+ * thread de entrega terminou, pois nesses casos não há mais quem os receba. Assim, um
+ * observador travado ou com erro nunca impede que o programa seja interrompido.
+ * <p>
+ * Os eventos levam os próprios símbolos do programa, e não cópias, para que a entrega não
+ * dependa do tamanho dos vetores e matrizes. Como a fila garante que as alterações feitas
+ * antes de um evento são visíveis na thread de entrega, o observador lê um valor igual ou
+ * mais recente que o do momento em que o evento foi produzido. Na thread de entrega, os
+ * observadores podem usar apenas os métodos de leitura que suportam a execução simultânea
+ * do programa: {@link Variavel#getValor()}, {@link Vetor#getValor(int)},
+ * {@link Vetor#obterJanela(int, int)}, {@link Vetor#obterValores()},
+ * {@link Matriz#getValor(int, int)}, {@link Matriz#obterJanela(int, int, int, int)},
+ * {@link Matriz#obterValores()} e os métodos {@code consumirModificacoes}. Os observadores
+ * nunca devem alterar os símbolos.
+ */
+public final class DistribuidorEventosExecucao
+{
+    private static final Logger LOGGER = Logger.getLogger(DistribuidorEventosExecucao.class.getName());
+
+    public static final int CAPACIDADE_PADRAO = 4096;
+    public static final long INTERVALO_QUADRO_PADRAO = 16;
+
+    /**
+     * Intervalo, em milissegundos, em que o produtor verifica se a thread de entrega ainda
+     * está ativa enquanto aguarda espaço na fila ou a entrega de um marco.
+     */
+    private static final long INTERVALO_VERIFICACAO_ENTREGA = 100;
+
+    /**
+     * Define o que acontece com uma alteração de símbolo quando a fila de eventos está cheia.
+     */
+    public static enum PoliticaFilaCheia
+    {
+        /**
+         * A alteração é descartada e o programa continua executando sem esperar.
+         */
+        DESCARTAR,
+
+        /**
+         * O programa aguarda até que os observadores liberem espaço na fila.
+         */
+        BLOQUEAR
+    }
+
+    private static enum TipoEvento
+    {
+        DESTACAR_LINHA, DESTACAR_TRECHO, SIMBOLOS_ALTERADOS, SIMBOLO_DECLARADO, SIMBOLO_REMOVIDO, MARCO, FIM
+    }
+
+    private final List<ObservadorExecucao> observadores = new CopyOnWriteArrayList<>();
+    private final Set<Simbolo> alteracoesPendentes = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<Simbolo, Boolean>()));
+    private final BlockingQueue<Evento> fila;
+    private final long intervaloQuadro;
+    private final PoliticaFilaCheia politica;
+
+    private volatile Thread thread;
+
+    public DistribuidorEventosExecucao()
+    {
+        this(CAPACIDADE_PADRAO, INTERVALO_QUADRO_PADRAO, PoliticaFilaCheia.BLOQUEAR);
+    }
+
+    /**
+     *
+     * @param capacidade a quantidade máxima de eventos aguardando entrega
+     * @param intervaloQuadro o intervalo, em milissegundos, durante o qual os eventos são
+     * acumulados antes de serem entregues. Com 0 os eventos são entregues assim que
+     * produzidos
+     * @param politica o que fazer com as alterações de símbolos quando a fila está cheia
+     */
+    public DistribuidorEventosExecucao(int capacidade, long intervaloQuadro, PoliticaFilaCheia politica)
+    {
+        if (capacidade < 2)
+        {
+            throw new IllegalArgumentException("A fila de eventos deve ter capacidade para ao menos 2 eventos");
+        }
+
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.intervaloQuadro = TimeUnit.MILLISECONDS.toNanos(Math.max(0, intervaloQuadro));
+        this.politica = politica;
+    }
+
+    public void adicionarObservadores(List<ObservadorExecucao> observadores)
+    {
+        this.observadores.addAll(observadores);
+    }
+
+    public void removerObservadores(List<ObservadorExecucao> observadores)
+    {
+        this.observadores.removeAll(observadores);
+    }
+
+    public boolean possuiObservadores()
+    {
+        return !observadores.isEmpty();
+    }
+
+    /**
+     * Inicia a thread de entrega dos eventos. Deve ser chamado antes de qualquer evento
+     * ser produzido.
+     */
+    public synchronized void iniciar()
+    {
+        if (thread == null)
+        {
+            thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    entregarEventos();
+                }
+            }, "Portugol Núcleo (Eventos de depuração)");
+
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Entrega todos os eventos pendentes e encerra a thread de entrega.
+     *
+     * @throws InterruptedException se a thread atual for interrompida enquanto aguarda
+     */
+    public void encerrar() throws InterruptedException
+    {
+        Thread atual;
+
+        synchronized (this)
+        {
+            atual = thread;
+            thread = null;
+        }
+
+        if (atual != null)
+        {
+            try
+            {
+                if (aguardarEspaco(new Evento(TipoEvento.FIM), atual))
+                {
+                    atual.join();
+                }
+            }
+            catch (InterruptedException excecao)
+            {
+                // A execução foi interrompida, os eventos pendentes são descartados
+                atual.interrupt();
+                throw excecao;
+            }
+        }
+    }
+
+    /**
+     * Aguarda até que todos os eventos produzidos até o momento tenham sido entregues aos
+     * observadores. É usado antes de pausar a execução, para que os observadores exibam o
+     * estado atual do programa. Se a thread de entrega terminar, retorna sem aguardar.
+     *
+     * @throws InterruptedException se a thread atual for interrompida enquanto aguarda
+     */
+    public void aguardarEntrega() throws InterruptedException
+    {
+        Thread entrega = thread;
+
+        if (entrega == null)
+        {
+            return;
+        }
+
+        Evento marco = new Evento(TipoEvento.MARCO);
+        marco.entregue = new CountDownLatch(1);
+
+        if (aguardarEspaco(marco, entrega))
+        {
+            while (!marco.entregue.await(INTERVALO_VERIFICACAO_ENTREGA, TimeUnit.MILLISECONDS))
+            {
+                if (!entrega.isAlive())
+                {
+                    return;
+                }
+            }
+        }
+    }
+
+    public void destacarLinha(int linha)
+    {
+        Evento evento = new Evento(TipoEvento.DESTACAR_LINHA);
+        evento.linha = linha;
+
+        enfileirar(evento);
+    }
+
+    public void destacarTrecho(int linha, int coluna, int tamanho)
+    {
+        Evento evento = new Evento(TipoEvento.DESTACAR_TRECHO);
+        evento.linha = linha;
+        evento.coluna = coluna;
+        evento.tamanho = tamanho;
+
+        enfileirar(evento);
+    }
+
+    public void simbolosAlterados(List<Simbolo> simbolos)
+    {
+        List<Simbolo> novos = new ArrayList<>(simbolos.size());
+
+        for (Simbolo simbolo : simbolos)
+        {
+            if (alteracoesPendentes.add(simbolo))
+            {
+                novos.add(simbolo);
+            }
+        }
+
+        if (novos.isEmpty())
+        {
+            return;
+        }
+
+        Evento evento = new Evento(TipoEvento.SIMBOLOS_ALTERADOS);
+        evento.simbolos = novos;
+
+        if (thread == null)
+        {
+            entregar(evento);
+        }
+        else
+        {
+            boolean enfileirado = (politica == PoliticaFilaCheia.BLOQUEAR) ? colocarNaFila(evento) : fila.offer(evento);
+
+            if (!enfileirado)
+            {
+                alteracoesPendentes.removeAll(novos);
+            }
+        }
+    }
+
+    public void simboloDeclarado(Simbolo simbolo)
+    {
+        Evento evento = new Evento(TipoEvento.SIMBOLO_DECLARADO);
+        evento.simbolo = simbolo;
+
+        enfileirar(evento);
+    }
+
+    public void simboloRemovido(Simbolo simbolo)
+    {
+        Evento evento = new Evento(TipoEvento.SIMBOLO_REMOVIDO);
+        evento.simbolo = simbolo;
+
+        enfileirar(evento);
+    }
+
+    private void enfileirar(Evento evento)
+    {
+        if (thread == null)
+        {
+            entregar(evento);
+        }
+        else
+        {
+            colocarNaFila(evento);
+        }
+    }
+
+    /**
+     * Coloca o evento na fila, aguardando espaço se necessário. O evento é descartado se a
+     * thread atual for interrompida ou se a thread de entrega tiver terminado.
+     *
+     * @return {@code true} se o evento foi colocado na fila
+     */
+    private boolean colocarNaFila(Evento evento)
+    {
+        Thread entrega = thread;
+
+        if (entrega == null)
+        {
+            return false;
+        }
+
+        try
+        {
+            return aguardarEspaco(evento, entrega);
+        }
+        catch (InterruptedException excecao)
+        {
+            // A interrupção é tratada pelo interpretador no próximo nó visitado
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean aguardarEspaco(Evento evento, Thread entrega) throws InterruptedException
+    {
+        while (!fila.offer(evento, INTERVALO_VERIFICACAO_ENTREGA, TimeUnit.MILLISECONDS))
+        {
+            if (!entrega.isAlive())
+            {
+                LOGGER.log(Level.WARNING, "A thread de entrega dos eventos de depuração terminou, o evento foi descartado");
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void entregarEventos()
+    {
+        List<Evento> lote = new ArrayList<>();
+
+        try
+        {
+            while (true)
+            {
+                lote.add(fila.take());
+
+                long limite = System.nanoTime() + intervaloQuadro;
+
+                while (!terminaLote(lote.get(lote.size() - 1)))
+                {
+                    Evento evento = fila.poll(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                    if (evento == null)
+                    {
+                        break;
+                    }
+
+                    lote.add(evento);
+                }
+
+                fila.drainTo(lote);
+
+                for (Evento evento : lote)
+                {
+                    if (evento.tipo == TipoEvento.FIM)
+                    {
+                        return;
+                    }
+
+                    entregar(evento);
+                }
+
+                lote.clear();
+            }
+        }
+        catch (InterruptedException excecao)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean terminaLote(Evento evento)
+    {
+        return evento.tipo == TipoEvento.MARCO || evento.tipo == TipoEvento.FIM;
+    }
+
+    private void entregar(Evento evento)
+    {
+        if (evento.tipo == TipoEvento.MARCO)
+        {
+            evento.entregue.countDown();
+            return;
+        }
+
+        if (evento.tipo == TipoEvento.SIMBOLOS_ALTERADOS)
+        {
+            // Libera os símbolos antes da entrega, assim uma alteração feita enquanto os
+            // observadores são notificados gera um novo evento
+            alteracoesPendentes.removeAll(evento.simbolos);
+        }
+
+        for (ObservadorExecucao observador : observadores)
+        {
+            try
+            {
+                switch (evento.tipo)
+                {
+                    case DESTACAR_LINHA: observador.highlightLinha(evento.linha); break;
+                    case DESTACAR_TRECHO: observador.highlightDetalhadoAtual(evento.linha, evento.coluna, evento.tamanho); break;
+                    case SIMBOLOS_ALTERADOS: observador.simbolosAlterados(evento.simbolos); break;
+                    case SIMBOLO_DECLARADO: observador.simboloDeclarado(evento.simbolo); break;
+                    case SIMBOLO_REMOVIDO: observador.simboloRemovido(evento.simbolo); break;
+                }
+            }
+            catch (Throwable excecao)
+            {
+                // Um erro em um observador não pode encerrar a thread de entrega
+                LOGGER.log(Level.SEVERE, "Erro ao notificar um observador da execução", excecao);
+            }
+        }
+    }
+
+    private static final class Evento
+    {
+        private final TipoEvento tipo;
+        private int linha;
+        private int coluna;
+        private int tamanho;
+        private Simbolo simbolo;
+        private List<Simbolo> simbolos;
+        private CountDownLatch entregue;
+
+        Evento(TipoEvento tipo)
+        {
+            this.tipo = tipo;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package br.univali.portugol.nucleo.execucao;
+
+/**
+ * Contadores e tempos coletados pelo interpretador durante a execução de um programa.
+ * Os tempos são medidos em nanossegundos.
+ * <p>
+ * Os contadores são atualizados apenas pela thread que executa o programa e devem ser
+ * consultados após o término da execução.
+ *
+ * @see ResultadoExecucao#getEstatisticas()
+ */
+public final class EstatisticasExecucao
+{
+    /**
+     * Tamanho estimado de cada posição de um vetor ou matriz: uma referência para o
+     * valor armazenado.
+     */
+    public static final int BYTES_POR_ELEMENTO = 8;
+
+    long tempoInicializacaoBibliotecas;
+    long tempoFinalizacaoBibliotecas;
+    long comandosExecutados;
+    long chamadasFuncoes;
+    long chamadasFuncoesBibliotecas;
+    int profundidadeMaximaPilha;
+    long elementosVetoresMatrizes;
+    long caracteresEscritos;
+
+    /**
+     * @return o tempo gasto carregando e inicializando as bibliotecas incluídas no
+     * programa
+     */
+    public long getTempoInicializacaoBibliotecas()
+    {
+        return tempoInicializacaoBibliotecas;
+    }
+
+    /**
+     * @return o tempo gasto finalizando as bibliotecas ao término do programa
+     */
+    public long getTempoFinalizacaoBibliotecas()
+    {
+        return tempoFinalizacaoBibliotecas;
+    }
+
+    /**
+     * @return a quantidade de comandos executados, contando cada repetição dos comandos
+     * dentro de laços
+     */
+    public long getComandosExecutados()
+    {
+        return comandosExecutados;
+    }
+
+    /**
+     * @return a quantidade de chamadas às funções declaradas no programa, incluindo a
+     * função inicial
+     */
+    public long getChamadasFuncoes()
+    {
+        return chamadasFuncoes;
+    }
+
+    public long getChamadasFuncoesBibliotecas()
+    {
+        return chamadasFuncoesBibliotecas;
+    }
+
+    /**
+     * @return a maior quantidade de funções do programa empilhadas ao mesmo tempo
+     */
+    public int getProfundidadeMaximaPilha()
+    {
+        return profundidadeMaximaPilha;
+    }
+
+    /**
+     * Os vetores e matrizes passados por valor compartilham os valores do argumento e não
+     * são contados, assim como as cópias feitas quando um deles é alterado pela primeira
+     * vez. Os vetores e matrizes literais passados como argumento são contados, pois são
+     * criados na chamada.
+     *
+     * @return a quantidade de posições dos vetores e matrizes declarados
+     */
+    public long getElementosVetoresMatrizes()
+    {
+        return elementosVetoresMatrizes;
+    }
+
+    /**
+     * @return uma estimativa dos bytes alocados para os vetores e matrizes, calculada a
+     * partir de {@link #BYTES_POR_ELEMENTO}
+     */
+    public long getBytesVetoresMatrizes()
+    {
+        return elementosVetoresMatrizes * BYTES_POR_ELEMENTO;
+    }
+
+    /**
+     * @return a quantidade de caracteres escritos na saída pela função
+     * <code>escreva</code>
+     */
+    public long getCaracteresEscritos()
+    {
+        return caracteresEscritos;
+    }
+
+    void funcaoEmpilhada(int profundidade)
+    {
+        chamadasFuncoes++;
+
+        if (profundidade > profundidadeMaximaPilha)
+        {
+            profundidadeMaximaPilha = profundidade;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("comandos: %d, chamadas: %d, chamadas de biblioteca: %d, profundidade máxima: %d, bytes em vetores e matrizes: %d, caracteres escritos: %d, bibliotecas: %d ns (inicialização) / %d ns (finalização)",
+                comandosExecutados, chamadasFuncoes, chamadasFuncoesBibliotecas, profundidadeMaximaPilha, getBytesVetoresMatrizes(), caracteresEscritos, tempoInicializacaoBibliotecas, tempoFinalizacaoBibliotecas);
+    }
+}
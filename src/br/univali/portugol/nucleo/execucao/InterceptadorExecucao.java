@@ -0,0 +1,38 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.asa.NoChamadaFuncao;
+import br.univali.portugol.nucleo.bibliotecas.base.Biblioteca;
+import br.univali.portugol.nucleo.execucao.es.Entrada;
+import br.univali.portugol.nucleo.mensagens.ErroExecucao;
+
+/**
+ * Intercepta os pontos em que um programa recebe valores de fora do interpretador: a
+ * função <code>leia</code> e as chamadas às bibliotecas. Permite gravar estes valores e
+ * fornecê-los novamente em outra execução, tornando a execução reproduzível.
+ *
+ * @see Interpretador#setInterceptador(br.univali.portugol.nucleo.execucao.InterceptadorExecucao)
+ */
+public interface InterceptadorExecucao
+{
+    /**
+     * Chamado a cada execução da função <code>leia</code>.
+     *
+     * @param entrada a entrada de dados configurada no programa. Pode ser {@code null}
+     * @return a entrada de dados que será usada na leitura
+     */
+    public Entrada interceptarEntrada(Entrada entrada);
+
+    /**
+     * Chamado no lugar de {@link Biblioteca#chamarFuncao(br.univali.portugol.nucleo.asa.NoChamadaFuncao, java.lang.Object[])}.
+     * As implementações que não desejarem interceptar a chamada devem repassá-la para a
+     * biblioteca.
+     *
+     * @param biblioteca a biblioteca que contém a função
+     * @param chamada a chamada da função no programa
+     * @param parametros os valores dos parâmetros
+     * @return o valor de retorno da função
+     * @throws ErroExecucao se ocorrer um erro na função
+     * @throws InterruptedException se a execução for interrompida
+     */
+    public Object chamarFuncao(Biblioteca biblioteca, NoChamadaFuncao chamada, Object... parametros) throws ErroExecucao, InterruptedException;
+}
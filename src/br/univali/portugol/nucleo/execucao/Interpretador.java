@@ -1,21 +1,26 @@
 package br.univali.portugol.nucleo.execucao;
 
 import br.univali.portugol.nucleo.execucao.util.ConversorTipos;
+import br.univali.portugol.nucleo.execucao.util.FormatadorNumeros;
 import br.univali.portugol.nucleo.Programa;
 import br.univali.portugol.nucleo.asa.*;
 import br.univali.portugol.nucleo.bibliotecas.base.*;
 import br.univali.portugol.nucleo.execucao.erros.*;
 import br.univali.portugol.nucleo.execucao.es.*;
 import br.univali.portugol.nucleo.mensagens.ErroExecucao;
+import br.univali.portugol.nucleo.metricas.MetricasNucleo;
 import br.univali.portugol.nucleo.execucao.operacoes.aritmeticas.*;
 import br.univali.portugol.nucleo.execucao.operacoes.bitwise.*;
 import br.univali.portugol.nucleo.execucao.operacoes.logicas.*;
 import br.univali.portugol.nucleo.simbolos.*;
 import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public abstract class Interpretador implements VisitanteASA
 {
     private Programa programa;
+    private TabelaConstantes constantes;
     private boolean referencia = false;
     private ArvoreSintaticaAbstrata asa;
     private String ultimaReferenciaAcessada;
@@ -47,6 +52,46 @@ public abstract class Interpretador implements VisitanteASA
     private boolean lendo = false;
     private boolean leituraIgnorada = false;
 
+    private MonitorExecucao monitor = null;
+    private InterceptadorExecucao interceptador = null;
+
+    private final EstatisticasExecucao estatisticas = new EstatisticasExecucao();
+    private final StringBuilder textoNumero = new StringBuilder(32);
+
+    private NoBloco comandoAtual = null;
+
+    /**
+     * Define um monitor que será notificado sobre as funções e os comandos executados.
+     * Deve ser definido antes do início da execução.
+     *
+     * @param monitor o monitor da execução ou {@code null} para não monitorar
+     */
+    public void setMonitor(MonitorExecucao monitor)
+    {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Define um interceptador para as leituras de dados e as chamadas às bibliotecas.
+     *
+     * @param interceptador o interceptador ou {@code null} para não interceptar
+     */
+    public void setInterceptador(InterceptadorExecucao interceptador)
+    {
+        this.interceptador = interceptador;
+    }
+
+    /**
+     * Obtém os contadores e tempos coletados durante a execução. Devem ser consultados
+     * após o término da execução.
+     *
+     * @return as estatísticas desta execução
+     */
+    public EstatisticasExecucao getEstatisticas()
+    {
+        return estatisticas;
+    }
+
     public void executar(Programa programa, String[] parametros) throws ErroExecucao, InterruptedException
     {
         try
@@ -55,6 +100,12 @@ public abstract class Interpretador implements VisitanteASA
             {
                 this.programa = programa;
                 this.asa = programa.getArvoreSintaticaAbstrata();
+                this.constantes = programa.getTabelaConstantes();
+
+                if (monitor != null)
+                {
+                    monitor.execucaoIniciada();
+                }
 
                 asa.aceitar(this);
 
@@ -63,8 +114,14 @@ public abstract class Interpretador implements VisitanteASA
                     Funcao funcaoInicial = (Funcao) memoria.getSimbolo(programa.getFuncaoInicial());
 
                     chamadasFuncao.push(funcaoInicial.getNome());
+                    estatisticas.funcaoEmpilhada(chamadasFuncao.size());
                     memoria.empilharFuncao();
 
+                    if (monitor != null)
+                    {
+                        monitor.funcaoIniciada((NoDeclaracaoFuncao) funcaoInicial.getOrigemDoSimbolo());
+                    }
+
                     try
                     {
                         if (funcaoInicialValida(funcaoInicial))
@@ -84,6 +141,11 @@ public abstract class Interpretador implements VisitanteASA
                     }
                     finally
                     {
+                        if (monitor != null)
+                        {
+                            monitor.funcaoEncerrada((NoDeclaracaoFuncao) funcaoInicial.getOrigemDoSimbolo());
+                        }
+
                         memoria.desempilharFuncao();
                         chamadasFuncao.pop();
                     }
@@ -96,10 +158,14 @@ public abstract class Interpretador implements VisitanteASA
                 {
                     if (!bibliotecas.isEmpty())
                     {
+                        long inicioFinalizacao = System.nanoTime();
+
                         for (Biblioteca biblioteca : bibliotecas.values())
                         {
                             GerenciadorBibliotecas.getInstance().desregistrarBiblioteca(biblioteca, programa);
                         }
+
+                        estatisticas.tempoFinalizacaoBibliotecas += System.nanoTime() - inicioFinalizacao;
                     }
                 }
             }
@@ -129,6 +195,22 @@ public abstract class Interpretador implements VisitanteASA
             excecao.printStackTrace(System.err);
             throw new ErroExecucaoNaoTratado(excecao);
         }
+        finally
+        {
+            try
+            {
+                descarregarSaida();
+            }
+            catch (Exception excecao)
+            {
+                Logger.getLogger(Interpretador.class.getName()).log(Level.WARNING, "Não foi possível descarregar a saída do programa", excecao);
+            }
+
+            if (monitor != null)
+            {
+                monitor.execucaoEncerrada();
+            }
+        }
     }
 
     private boolean funcaoInicialValida(Funcao funcaoPrincipal)
@@ -238,54 +320,103 @@ public abstract class Interpretador implements VisitanteASA
                                 {
                                     NoDeclaracaoParametro declaracao = listaParametrosEsperados.get(i);
 
-                                    referencia = declaracao.getModoAcesso() == ModoAcesso.POR_REFERENCIA;
+                                    // Vetores e matrizes passados por valor também são obtidos como símbolos,
+                                    // para que o parâmetro compartilhe os valores em vez de copiá-los
+                                    referencia = declaracao.getModoAcesso() == ModoAcesso.POR_REFERENCIA || compartilhavel(declaracao, listaParametrosPassados.get(i));
                                     valoresParametrosPassados.add(listaParametrosPassados.get(i).aceitar(this));
                                     referencia = false;
                                 }
                             }
 
                             chamadasFuncao.push(noChamadaFuncao.getNome());
+                            estatisticas.funcaoEmpilhada(chamadasFuncao.size());
                             memoria.empilharFuncao();
 
-                            if (listaParametrosEsperados != null)
+                            List<Simbolo> parametrosCompartilhados = null;
+
+                            // Os compartilhamentos são liberados mesmo que a função seja interrompida por um erro,
+                            // para que o argumento não continue sendo copiado a cada escrita
+                            try
                             {
-                                for (int i = 0; i < listaParametrosEsperados.size(); i++)
+                                if (listaParametrosEsperados != null)
                                 {
-                                    NoDeclaracaoParametro declaracao = listaParametrosEsperados.get(i);
-                                    this.valorPassadoParametro = valoresParametrosPassados.get(i);
+                                    for (int i = 0; i < listaParametrosEsperados.size(); i++)
+                                    {
+                                        NoDeclaracaoParametro declaracao = listaParametrosEsperados.get(i);
+                                        this.valorPassadoParametro = valoresParametrosPassados.get(i);
+
+                                        Object parametro = declaracao.aceitar(this);
+
+                                        if (declaracao.getModoAcesso() == ModoAcesso.POR_VALOR && (parametro instanceof Vetor || parametro instanceof Matriz))
+                                        {
+                                            if (parametrosCompartilhados == null)
+                                            {
+                                                parametrosCompartilhados = new ArrayList<>(listaParametrosEsperados.size());
+                                            }
 
-                                    declaracao.aceitar(this);
+                                            parametrosCompartilhados.add((Simbolo) parametro);
+                                        }
+                                    }
                                 }
-                            }
-                            Object retorno = interpretarListaBlocos(funcao.getBlocos());
 
-                            if (retorno != null && !(retorno instanceof TipoDado))
-                            {
-                                if (retorno.getClass() != funcao.getTipoDado().getTipoJava())
+                                Object retorno;
+
+                                if (monitor == null)
                                 {
+                                    retorno = interpretarListaBlocos(funcao.getBlocos());
+                                }
+                                else
+                                {
+                                    NoDeclaracaoFuncao declaracaoFuncao = (NoDeclaracaoFuncao) funcao.getOrigemDoSimbolo();
+                                    monitor.funcaoIniciada(declaracaoFuncao);
+
                                     try
                                     {
-                                        retorno = ConversorTipos.converter(retorno, funcao.getTipoDado().getTipoJava());
+                                        retorno = interpretarListaBlocos(funcao.getBlocos());
                                     }
-                                    catch (ErroImpossivelConverterTipos ex)
+                                    finally
                                     {
-                                        int linha = noChamadaFuncao.getTrechoCodigoFonteNome().getLinha();
-                                        int coluna = noChamadaFuncao.getTrechoCodigoFonteNome().getColuna();
-
-                                        ex.setLinha(linha);
-                                        ex.setColuna(coluna);
+                                        monitor.funcaoEncerrada(declaracaoFuncao);
+                                    }
+                                }
 
-                                        throw new ExcecaoVisitaASA(ex, asa, noChamadaFuncao);
+                                // O retorne já aplica a conversão anotada pelo analisador semântico,
+                                // aqui são convertidos apenas os valores que diferem do tipo anotado
+                                if (retorno != null && !(retorno instanceof TipoDado))
+                                {
+                                    if (retorno.getClass() != funcao.getTipoDado().getTipoJava())
+                                    {
+                                        try
+                                        {
+                                            retorno = ConversorTipos.converter(retorno, funcao.getTipoDado());
+                                        }
+                                        catch (ErroImpossivelConverterTipos ex)
+                                        {
+                                            int linha = noChamadaFuncao.getTrechoCodigoFonteNome().getLinha();
+                                            int coluna = noChamadaFuncao.getTrechoCodigoFonteNome().getColuna();
+
+                                            ex.setLinha(linha);
+                                            ex.setColuna(coluna);
+
+                                            throw new ExcecaoVisitaASA(ex, asa, noChamadaFuncao);
+                                        }
                                     }
                                 }
-                            }
 
-                            memoria.desempilharFuncao();
-                            chamadasFuncao.pop();
+                                memoria.desempilharFuncao();
+                                chamadasFuncao.pop();
 
-                            candidataRecursividade = null;
+                                candidataRecursividade = null;
 
-                            return retorno;
+                                return retorno;
+                            }
+                            finally
+                            {
+                                if (parametrosCompartilhados != null)
+                                {
+                                    liberarCompartilhamentos(parametrosCompartilhados);
+                                }
+                            }
                         }
                     }
                 }
@@ -313,11 +444,12 @@ public abstract class Interpretador implements VisitanteASA
                             {
                                 referencia = false;
 
-                                parametros[indice] = param.get(indice).aceitar(this);
+                                NoExpressao argumento = param.get(indice);
+                                parametros[indice] = converterImplicitamente(argumento, argumento.aceitar(this));
 
                                 if (metaDadosParametro.getTipoDado() != TipoDado.TODOS && parametros[indice].getClass() != metaDadosParametro.getTipoDado().getTipoJava())
                                 {
-                                    parametros[indice] = ConversorTipos.converter(parametros[indice], metaDadosParametro.getTipoDado().getTipoJava());
+                                    parametros[indice] = ConversorTipos.converter(parametros[indice], metaDadosParametro.getTipoDado());
                                 }
                             }
                             else
@@ -328,12 +460,12 @@ public abstract class Interpretador implements VisitanteASA
                             }
                         }
 
-                        return biblioteca.chamarFuncao(noChamadaFuncao, parametros);
+                        return chamarFuncaoBiblioteca(biblioteca, noChamadaFuncao, parametros);
                     }
 
                     else
                     {
-                        return biblioteca.chamarFuncao(noChamadaFuncao);
+                        return chamarFuncaoBiblioteca(biblioteca, noChamadaFuncao);
                     }
                 }
                 catch (ErroCarregamentoBiblioteca excecao)
@@ -462,6 +594,20 @@ public abstract class Interpretador implements VisitanteASA
         throw new ExcecaoVisitaASA("Erro ao criar referência", asa, expressao);
     }
 
+    /**
+     * Entrega à saída de destino os valores acumulados quando a saída do programa é uma
+     * {@link SaidaBufferizada}.
+     */
+    private void descarregarSaida() throws Exception
+    {
+        Saida saida = programa.getSaida();
+
+        if (saida instanceof SaidaBufferizada)
+        {
+            ((SaidaBufferizada) saida).descarregar();
+        }
+    }
+
     private void limpar() throws Exception
     {
         if (programa.getSaida() != null)
@@ -504,6 +650,24 @@ public abstract class Interpretador implements VisitanteASA
         int numeroLinhas = (noDeclaracaoMatriz.getNumeroLinhas() == null) ? 0 : (Integer) noDeclaracaoMatriz.getNumeroLinhas().aceitar(this);
         int numeroColunas = (noDeclaracaoMatriz.getNumeroColunas() == null) ? 0 : (Integer) noDeclaracaoMatriz.getNumeroColunas().aceitar(this);
 
+        Object[][] valoresConstantes = constantes.obterValores(noDeclaracaoMatriz);
+
+        if (valoresConstantes != null && (numeroLinhas == 0 || (numeroLinhas == valoresConstantes.length && numeroColunas == valoresConstantes[0].length)) && podeOmitirVisita(noDeclaracaoMatriz.getInicializacao()))
+        {
+            Matriz matriz = new Matriz(nome, tipoDado, noDeclaracaoMatriz);
+
+            if (noDeclaracaoMatriz.constante())
+            {
+                matriz.compartilharConstantes(valoresConstantes);
+            }
+            else
+            {
+                matriz.copiarConstantes(valoresConstantes);
+            }
+
+            return declararMatriz(matriz, noDeclaracaoMatriz);
+        }
+
         List<List<Object>> valores = null;
         if (noDeclaracaoMatriz.getInicializacao() != null)
         {
@@ -528,7 +692,13 @@ public abstract class Interpretador implements VisitanteASA
             }
         }
 
+        return declararMatriz(matriz, noDeclaracaoMatriz);
+    }
+
+    private Object declararMatriz(Matriz matriz, NoDeclaracaoMatriz noDeclaracaoMatriz)
+    {
         matriz.setConstante(noDeclaracaoMatriz.constante());
+        estatisticas.elementosVetoresMatrizes += (long) matriz.getNumeroLinhas() * matriz.getNumeroColunas();
 
         memoria.adicionarSimbolo(matriz);
 
@@ -563,6 +733,25 @@ public abstract class Interpretador implements VisitanteASA
         TipoDado tipoDado = noDeclaracaoVetor.getTipoDado();
 
         int tamanho = (noDeclaracaoVetor.getTamanho() == null) ? 0 : (Integer) noDeclaracaoVetor.getTamanho().aceitar(this);
+        List<Object> valoresConstantes = constantes.obterValores(noDeclaracaoVetor);
+
+        if (valoresConstantes != null && (tamanho == 0 || tamanho == valoresConstantes.size()) && podeOmitirVisita(noDeclaracaoVetor.getInicializacao()))
+        {
+            Vetor vetor;
+
+            if (noDeclaracaoVetor.constante())
+            {
+                vetor = new Vetor(nome, tipoDado, noDeclaracaoVetor);
+                vetor.compartilharConstantes(valoresConstantes);
+            }
+            else
+            {
+                vetor = new Vetor(nome, tipoDado, noDeclaracaoVetor, valoresConstantes);
+            }
+
+            return declararVetor(vetor, noDeclaracaoVetor);
+        }
+
         List<Object> valores = null;
 
         if (noDeclaracaoVetor.getInicializacao() != null)
@@ -578,7 +767,7 @@ public abstract class Interpretador implements VisitanteASA
                 {
                     try
                     {
-                        valores.set(indice, ConversorTipos.converter(valores.get(indice), classeVetor));
+                        valores.set(indice, ConversorTipos.converter(valores.get(indice), tipoDado));
                     }
                     catch (ErroImpossivelConverterTipos erro)
                     {
@@ -612,7 +801,13 @@ public abstract class Interpretador implements VisitanteASA
             }
         }
 
+        return declararVetor(vetor, noDeclaracaoVetor);
+    }
+
+    private Object declararVetor(Vetor vetor, NoDeclaracaoVetor noDeclaracaoVetor)
+    {
         vetor.setConstante(noDeclaracaoVetor.constante());
+        estatisticas.elementosVetoresMatrizes += vetor.getTamanho();
 
         memoria.adicionarSimbolo(vetor);
 
@@ -658,6 +853,14 @@ public abstract class Interpretador implements VisitanteASA
         {
             for (NoBloco noBloco : blocos)
             {
+                estatisticas.comandosExecutados++;
+
+                if (monitor != null)
+                {
+                    monitor.blocoIniciado(noBloco);
+                }
+
+                comandoAtual = noBloco;
                 Object retorno = noBloco.aceitar(this);
 
                 if (!(noBloco instanceof NoExpressao) && retorno != null)
@@ -690,7 +893,22 @@ public abstract class Interpretador implements VisitanteASA
         List<NoCaso> casos = noEscolha.getCasos();
         Object valorEscolha = noEscolha.getExpressao().aceitar(this);
 
-        int indiceValorEscolhido = procurarIndiceValorEscolhido(valorEscolha, casos);
+        TabelaEscolha tabela = constantes.obterTabelaEscolha(noEscolha);
+        int indiceValorEscolhido;
+
+        if (tabela != null && tabela.aceita(valorEscolha) && podeOmitirVisitas(casos))
+        {
+            indiceValorEscolhido = tabela.procurarIndice(valorEscolha);
+        }
+        else
+        {
+            indiceValorEscolhido = procurarIndiceValorEscolhido(valorEscolha, casos);
+        }
+
+        if (monitor != null)
+        {
+            monitor.desvioRealizado(noEscolha, (indiceValorEscolhido >= 0) ? indiceValorEscolhido : casos.size());
+        }
 
         if (indiceValorEscolhido >= 0)
         {
@@ -716,16 +934,13 @@ public abstract class Interpretador implements VisitanteASA
 
     private int procurarIndiceValorEscolhido(Object valorEscolha, List<NoCaso> casos) throws ExcecaoVisitaASA
     {
-        for (NoCaso caso : casos)
+        for (int indice = 0; indice < casos.size(); indice++)
         {
-            if (caso.aceitar(this) == valorEscolha)
-            {
-                return casos.indexOf(caso);
-            }
+            Object valorCaso = casos.get(indice).aceitar(this);
 
-            if (caso.aceitar(this) == null)
+            if (valorCaso == null || valorCaso.equals(valorEscolha))
             {
-                return casos.indexOf(caso);
+                return indice;
             }
         }
         return -1;
@@ -768,29 +983,32 @@ public abstract class Interpretador implements VisitanteASA
     @Override
     public Object visitar(NoMatriz noMatriz) throws ExcecaoVisitaASA
     {
+        List<List<Object>> linhasMatriz = noMatriz.getValores();
+
+        if (linhasMatriz == null)
+        {
+            return null;
+        }
 
-        List<List<Object>> valores = noMatriz.getValores();
+        // Os valores são avaliados em novas listas, a ASA não pode ser alterada, pois é
+        // reaproveitada nas próximas execuções da declaração
+        List<List<Object>> valores = new ArrayList<>(linhasMatriz.size());
 
-        if (valores != null)
+        for (List<Object> linhaMatriz : linhasMatriz)
         {
-            int linhas = valores.size();
+            List<Object> linha = null;
 
-            for (int i = 0; i < linhas; i++)
+            if (linhaMatriz != null)
             {
-                List<Object> vetor = valores.get(i);
+                linha = new ArrayList<>(linhaMatriz.size());
 
-                int colunas = (vetor == null) ? 0 : vetor.size();
-
-                for (int j = 0; j < colunas; j++)
+                for (Object valor : linhaMatriz)
                 {
-                    Object valor = vetor.get(j);
-                    if (valor instanceof NoExpressao)
-                    {
-                        valor = ((NoExpressao) valor).aceitar(this);
-                    }
-                    vetor.set(j, valor);
+                    linha.add((valor instanceof NoExpressao) ? ((NoExpressao) valor).aceitar(this) : valor);
                 }
             }
+
+            valores.add(linha);
         }
 
         return valores;
@@ -960,6 +1178,12 @@ public abstract class Interpretador implements VisitanteASA
 
             String nome = noReferencia.getNome();
             Simbolo simbolo = extrairSimbolo(memoria.getSimbolo(nome));
+
+            if (atribuicao == comandoAtual && concatenacaoAcumulavel(atribuicao, simbolo))
+            {
+                return acumularConcatenacao((NoOperacaoSoma) atribuicao.getOperandoDireito(), (Variavel) simbolo);
+            }
+
             Object valor = atribuicao.getOperandoDireito().aceitar(this);
 
             if (noReferencia instanceof NoReferenciaVariavel)
@@ -985,6 +1209,161 @@ public abstract class Interpretador implements VisitanteASA
         }
     }
 
+    /**
+     * Verifica se a atribuição tem a forma <code>texto = texto + valor</code>, sendo
+     * <code>texto</code> uma variável do tipo cadeia. Neste caso, o valor pode ser
+     * acrescentado diretamente à variável, em vez de criar uma nova cadeia com todo o
+     * texto a cada atribuição, o que tornaria quadrática a montagem de uma cadeia dentro
+     * de um laço.
+     * <p>
+     * Para manter a ordem de avaliação, a variável já deve estar inicializada e o valor
+     * concatenado não pode alterá-la, por isso são aceitas apenas expressões sem chamadas
+     * de funções e sem atribuições.
+     */
+    private boolean concatenacaoAcumulavel(NoOperacaoAtribuicao atribuicao, Simbolo simbolo)
+    {
+        if (!(simbolo instanceof Variavel) || simbolo.getTipoDado() != TipoDado.CADEIA || !((Variavel) simbolo).contemCadeia())
+        {
+            return false;
+        }
+
+        if (!(atribuicao.getOperandoDireito() instanceof NoOperacaoSoma))
+        {
+            return false;
+        }
+
+        NoOperacaoSoma soma = (NoOperacaoSoma) atribuicao.getOperandoDireito();
+
+        if (!(soma.getOperandoEsquerdo() instanceof NoReferenciaVariavel))
+        {
+            return false;
+        }
+
+        NoReferenciaVariavel referencia = (NoReferenciaVariavel) soma.getOperandoEsquerdo();
+        NoReferencia destino = (NoReferencia) atribuicao.getOperandoEsquerdo();
+
+        return referencia.getEscopo() == null
+            && referencia.getNome().equals(destino.getNome())
+            && semEfeitosColaterais(soma.getOperandoDireito())
+            && podeOmitirVisita(soma)
+            && podeOmitirVisita(referencia);
+    }
+
+    private static boolean semEfeitosColaterais(NoExpressao expressao)
+    {
+        if (expressao instanceof NoValor)
+        {
+            return true;
+        }
+
+        if (expressao instanceof NoReferenciaVariavel)
+        {
+            return ((NoReferencia) expressao).getEscopo() == null;
+        }
+
+        if (expressao instanceof NoReferenciaVetor)
+        {
+            NoReferenciaVetor referencia = (NoReferenciaVetor) expressao;
+
+            return referencia.getEscopo() == null && semEfeitosColaterais(referencia.getIndice());
+        }
+
+        if (expressao instanceof NoReferenciaMatriz)
+        {
+            NoReferenciaMatriz referencia = (NoReferenciaMatriz) expressao;
+
+            return referencia.getEscopo() == null && semEfeitosColaterais(referencia.getLinha()) && semEfeitosColaterais(referencia.getColuna());
+        }
+
+        if (expressao instanceof NoMenosUnario)
+        {
+            return semEfeitosColaterais(((NoMenosUnario) expressao).getExpressao());
+        }
+
+        if (expressao instanceof NoOperacao && !(expressao instanceof NoOperacaoAtribuicao))
+        {
+            NoOperacao operacao = (NoOperacao) expressao;
+
+            return semEfeitosColaterais(operacao.getOperandoEsquerdo()) && semEfeitosColaterais(operacao.getOperandoDireito());
+        }
+
+        return false;
+    }
+
+    private Object acumularConcatenacao(NoOperacaoSoma soma, Variavel variavel) throws ExcecaoVisitaASA
+    {
+        Object valor = soma.getOperandoDireito().aceitar(this);
+
+        if (valor instanceof String)
+        {
+            variavel.concatenar((String) valor);
+        }
+        else if (valor instanceof Boolean)
+        {
+            variavel.concatenar(((Boolean) valor) ? "verdadeiro" : "falso");
+        }
+        else if (valor instanceof Character || valor instanceof Integer || valor instanceof Double)
+        {
+            textoNumero.setLength(0);
+
+            if (valor instanceof Character)
+            {
+                textoNumero.append((char) (Character) valor);
+            }
+            else if (valor instanceof Integer)
+            {
+                FormatadorNumeros.formatar((Integer) valor, textoNumero);
+            }
+            else
+            {
+                FormatadorNumeros.formatar((Double) valor, textoNumero);
+            }
+
+            variavel.concatenar(textoNumero);
+        }
+        else
+        {
+            // Tipos que a concatenação não trata diretamente seguem o caminho normal,
+            // para que o erro gerado seja o mesmo
+            try
+            {
+                variavel.setValor(operacaoSoma.executar(soma, variavel.getValor(), valor));
+            }
+            catch (ErroExecucao ex)
+            {
+                throw new ExcecaoVisitaASA(ex, asa, soma);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Verifica se um nó pode ser avaliado diretamente pelo interpretador, sem passar pelo
+     * método <code>visitar</code> correspondente. As subclasses que precisam visitar
+     * todos os nós, como o depurador ao executar passo a passo, devem sobrescrever este
+     * método.
+     *
+     * @param no o nó
+     * @return <code>true</code> se a visita ao nó pode ser omitida
+     */
+    protected boolean podeOmitirVisita(NoBloco no)
+    {
+        return true;
+    }
+
+    /**
+     * Verifica se as visitas a todos os nós de uma lista podem ser omitidas.
+     *
+     * @param nos os nós
+     * @return <code>true</code> se nenhum dos nós precisa ser visitado
+     * @see #podeOmitirVisita(NoBloco)
+     */
+    protected boolean podeOmitirVisitas(List<? extends NoBloco> nos)
+    {
+        return true;
+    }
+
     @Override
     public Object visitar(NoOperacaoLogicaE noOperacao) throws ExcecaoVisitaASA
     {
@@ -1237,7 +1616,9 @@ public abstract class Interpretador implements VisitanteASA
         try
         {
             String nome = noInclusaoBiblioteca.getNome();
+            long inicio = System.nanoTime();
             Biblioteca biblioteca = GerenciadorBibliotecas.getInstance().registrarBiblioteca(nome, this.programa);
+            estatisticas.tempoInicializacaoBibliotecas += System.nanoTime() - inicio;
 
             bibliotecas.put(nome, biblioteca);
 
@@ -1462,11 +1843,36 @@ public abstract class Interpretador implements VisitanteASA
         Object retorno = TipoDado.VAZIO;
         if (noRetorne.getExpressao() != null)
         {
-            retorno = noRetorne.getExpressao().aceitar(this);
+            retorno = converterImplicitamente(noRetorne.getExpressao(), noRetorne.getExpressao().aceitar(this));
         }
         throw new RetorneException(retorno);
     }
 
+    /**
+     * Aplica ao valor de uma expressão a conversão implícita anotada pelo analisador
+     * semântico. A conversão é escolhida pelos tipos anotados na expressão, sem inspecionar
+     * o valor, e só é aplicada se o valor tiver o tipo anotado. Os valores que diferem do
+     * tipo anotado, como os elementos inteiros de uma matriz real, são devolvidos sem
+     * alteração e continuam sendo convertidos pela verificação feita em tempo de execução.
+     */
+    private static Object converterImplicitamente(NoExpressao expressao, Object valor)
+    {
+        TipoDado origem = expressao.getTipoResultado();
+        TipoDado destino = expressao.getTipoConversao();
+
+        if (destino != null && origem != null && valor != null && valor.getClass() == origem.getTipoJava())
+        {
+            ConversorTipos.Conversao conversao = ConversorTipos.obterConversao(origem, destino);
+
+            if (conversao != null)
+            {
+                return conversao.converter(valor);
+            }
+        }
+
+        return valor;
+    }
+
     private class RetorneException extends RuntimeException
     {
         private Object valor;
@@ -1487,6 +1893,11 @@ public abstract class Interpretador implements VisitanteASA
     {
         boolean condicao = (Boolean) noSe.getCondicao().aceitar(this);
 
+        if (monitor != null)
+        {
+            monitor.desvioRealizado(noSe, condicao ? 0 : 1);
+        }
+
         List<NoBloco> blocos = (condicao) ? noSe.getBlocosVerdadeiros() : noSe.getBlocosFalsos();
 
         Object valorRetorno = interpretarListaBlocos(blocos);
@@ -1519,6 +1930,33 @@ public abstract class Interpretador implements VisitanteASA
         return valores;
     }
 
+    /**
+     * Verifica se o argumento é uma referência direta a um vetor ou matriz passado por
+     * valor, caso em que o parâmetro pode compartilhar os valores do argumento.
+     */
+    private static boolean compartilhavel(NoDeclaracaoParametro declaracao, NoExpressao argumento)
+    {
+        return declaracao.getModoAcesso() == ModoAcesso.POR_VALOR
+            && declaracao.getQuantificador() != Quantificador.VALOR
+            && argumento instanceof NoReferenciaVariavel
+            && ((NoReferenciaVariavel) argumento).getEscopo() == null;
+    }
+
+    private static void liberarCompartilhamentos(List<Simbolo> parametros)
+    {
+        for (Simbolo parametro : parametros)
+        {
+            if (parametro instanceof Vetor)
+            {
+                ((Vetor) parametro).liberarCompartilhamento();
+            }
+            else
+            {
+                ((Matriz) parametro).liberarCompartilhamento();
+            }
+        }
+    }
+
     @Override
     public Object visitar(NoDeclaracaoParametro noDeclaracaoParametro) throws ExcecaoVisitaASA
     {
@@ -1542,12 +1980,30 @@ public abstract class Interpretador implements VisitanteASA
                     }
                     case VETOR:
                     {
-                        simbolo = new Vetor(nome, tipoDado, noDeclaracaoParametro, (List<Object>) valorPassadoParametro);
+                        if (valorPassadoParametro instanceof Vetor)
+                        {
+                            simbolo = ((Vetor) valorPassadoParametro).compartilhar(nome, noDeclaracaoParametro);
+                        }
+                        else
+                        {
+                            Vetor vetor = new Vetor(nome, tipoDado, noDeclaracaoParametro, (List<Object>) valorPassadoParametro);
+                            estatisticas.elementosVetoresMatrizes += vetor.getTamanho();
+                            simbolo = vetor;
+                        }
                         break;
                     }
                     case MATRIZ:
                     {
-                        simbolo = new Matriz(nome, tipoDado, noDeclaracaoParametro, (List<List<Object>>) valorPassadoParametro);
+                        if (valorPassadoParametro instanceof Matriz)
+                        {
+                            simbolo = ((Matriz) valorPassadoParametro).compartilhar(nome, noDeclaracaoParametro);
+                        }
+                        else
+                        {
+                            Matriz matriz = new Matriz(nome, tipoDado, noDeclaracaoParametro, (List<List<Object>>) valorPassadoParametro);
+                            estatisticas.elementosVetoresMatrizes += (long) matriz.getNumeroLinhas() * matriz.getNumeroColunas();
+                            simbolo = matriz;
+                        }
                         break;
                     }
                 }
@@ -1569,6 +2025,8 @@ public abstract class Interpretador implements VisitanteASA
             {
                 Object valor = expressao.aceitar(this);
 
+                estatisticas.caracteresEscritos += contarCaracteres(valor);
+
                 if (valor instanceof String)
                 {
                     if (valor.equals("${show developers}"))
@@ -1645,6 +2103,46 @@ public abstract class Interpretador implements VisitanteASA
         }
     }
 
+    private int contarCaracteres(Object valor)
+    {
+        if (valor instanceof String)
+        {
+            return ((String) valor).length();
+        }
+        else if (valor instanceof Boolean)
+        {
+            return ((Boolean) valor) ? "verdadeiro".length() : "falso".length();
+        }
+        else if (valor instanceof Character)
+        {
+            return 1;
+        }
+        else if (valor instanceof Integer)
+        {
+            int numero = (Integer) valor;
+            int digitos = (numero < 0) ? 2 : 1;
+
+            while ((numero /= 10) != 0)
+            {
+                digitos++;
+            }
+
+            return digitos;
+        }
+        else if (valor instanceof Double)
+        {
+            textoNumero.setLength(0);
+
+            return FormatadorNumeros.formatar((Double) valor, textoNumero).length();
+        }
+        else if (valor != null)
+        {
+            return String.valueOf(valor).length();
+        }
+
+        return 0;
+    }
+
     protected synchronized void setLendo(boolean lendo)
     {
         this.lendo = lendo;
@@ -1665,11 +2163,44 @@ public abstract class Interpretador implements VisitanteASA
         return leituraIgnorada;
     }
     
+    private Object chamarFuncaoBiblioteca(Biblioteca biblioteca, NoChamadaFuncao noChamadaFuncao, Object... parametros) throws ErroExecucao, InterruptedException
+    {
+        estatisticas.chamadasFuncoesBibliotecas++;
+
+        MetricasNucleo metricas = MetricasNucleo.getInstance();
+
+        if (!metricas.isAtiva())
+        {
+            return chamarFuncaoBibliotecaInterceptada(biblioteca, noChamadaFuncao, parametros);
+        }
+
+        long inicio = System.nanoTime();
+
+        try
+        {
+            return chamarFuncaoBibliotecaInterceptada(biblioteca, noChamadaFuncao, parametros);
+        }
+        finally
+        {
+            metricas.funcaoBibliotecaChamada(biblioteca.getNome(), noChamadaFuncao.getNome(), System.nanoTime() - inicio);
+        }
+    }
+
+    private Object chamarFuncaoBibliotecaInterceptada(Biblioteca biblioteca, NoChamadaFuncao noChamadaFuncao, Object... parametros) throws ErroExecucao, InterruptedException
+    {
+        if (interceptador != null)
+        {
+            return interceptador.chamarFuncao(biblioteca, noChamadaFuncao, parametros);
+        }
+
+        return biblioteca.chamarFuncao(noChamadaFuncao, parametros);
+    }
+
     private void leia(NoChamadaFuncao chamadaFuncao) throws ExcecaoVisitaASA
     {
         setLendo(true);
         
-        final Entrada entrada = programa.getEntrada();
+        final Entrada entrada = (interceptador != null) ? interceptador.interceptarEntrada(programa.getEntrada()) : programa.getEntrada();
 
         try
         {
@@ -1693,6 +2224,9 @@ public abstract class Interpretador implements VisitanteASA
                         {
 
                             InputHandler mediador = new InputHandler();
+
+                            // O usuário precisa ver tudo o que foi escrito antes de digitar
+                            descarregarSaida();
                             entrada.solicitaEntrada(tipoDado, mediador);
 
                             // Se for verdadeiro, significa que a entrada é assíncrona,
@@ -0,0 +1,61 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+
+/**
+ * Recebe notificações do interpretador sobre as funções e os comandos executados.
+ * <p>
+ * As notificações são feitas na thread do programa, no meio da interpretação, por isso
+ * as implementações devem ser rápidas. Ao contrário do {@link ObservadorExecucao}, este
+ * monitor é usado por ferramentas de análise da execução, como o perfilador, e não pela
+ * interface com o usuário.
+ *
+ * @see Interpretador#setMonitor(br.univali.portugol.nucleo.execucao.MonitorExecucao)
+ */
+public interface MonitorExecucao
+{
+    /**
+     * Chamado quando o interpretador começa a executar os comandos do programa, antes da
+     * função inicial.
+     */
+    public void execucaoIniciada();
+
+    /**
+     * Chamado quando o interpretador termina de executar o programa, inclusive se a
+     * execução terminar com um erro.
+     */
+    public void execucaoEncerrada();
+
+    /**
+     * Chamado ao entrar em uma função declarada no programa.
+     *
+     * @param funcao a declaração da função
+     */
+    public void funcaoIniciada(NoDeclaracaoFuncao funcao);
+
+    /**
+     * Chamado ao sair de uma função declarada no programa, inclusive se a função for
+     * interrompida por um erro.
+     *
+     * @param funcao a declaração da função
+     */
+    public void funcaoEncerrada(NoDeclaracaoFuncao funcao);
+
+    /**
+     * Chamado antes da execução de cada comando de uma lista de blocos.
+     *
+     * @param bloco o comando que será executado
+     */
+    public void blocoIniciado(NoBloco bloco);
+
+    /**
+     * Chamado quando um desvio decide qual ramo será executado. No {@code se}, o ramo 0 é
+     * o verdadeiro e o ramo 1 é o falso. No {@code escolha}, o ramo é o índice do caso
+     * escolhido ou a quantidade de casos, se nenhum caso for escolhido.
+     *
+     * @param desvio o comando {@code se} ou {@code escolha}
+     * @param ramo o ramo escolhido
+     */
+    public void desvioRealizado(NoBloco desvio, int ramo);
+}
@@ -0,0 +1,101 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repassa as notificações do interpretador para vários monitores, para que ferramentas
+ * como o perfilador e o coletor de cobertura possam ser usadas na mesma execução.
+ */
+public final class MonitoresExecucao implements MonitorExecucao
+{
+    private final MonitorExecucao[] monitores;
+
+    private MonitoresExecucao(MonitorExecucao[] monitores)
+    {
+        this.monitores = monitores;
+    }
+
+    /**
+     * Combina os monitores informados em um único monitor, ignorando os nulos.
+     *
+     * @param monitores os monitores da execução
+     * @return {@code null} se nenhum monitor for informado, o próprio monitor se houver
+     * apenas um, ou um monitor que repassa as notificações para todos
+     */
+    public static MonitorExecucao combinar(MonitorExecucao... monitores)
+    {
+        List<MonitorExecucao> validos = new ArrayList<>(monitores.length);
+
+        for (MonitorExecucao monitor : monitores)
+        {
+            if (monitor != null)
+            {
+                validos.add(monitor);
+            }
+        }
+
+        switch (validos.size())
+        {
+            case 0: return null;
+            case 1: return validos.get(0);
+            default: return new MonitoresExecucao(validos.toArray(new MonitorExecucao[validos.size()]));
+        }
+    }
+
+    @Override
+    public void execucaoIniciada()
+    {
+        for (MonitorExecucao monitor : monitores)
+        {
+            monitor.execucaoIniciada();
+        }
+    }
+
+    @Override
+    public void execucaoEncerrada()
+    {
+        for (MonitorExecucao monitor : monitores)
+        {
+            monitor.execucaoEncerrada();
+        }
+    }
+
+    @Override
+    public void funcaoIniciada(NoDeclaracaoFuncao funcao)
+    {
+        for (MonitorExecucao monitor : monitores)
+        {
+            monitor.funcaoIniciada(funcao);
+        }
+    }
+
+    @Override
+    public void funcaoEncerrada(NoDeclaracaoFuncao funcao)
+    {
+        for (MonitorExecucao monitor : monitores)
+        {
+            monitor.funcaoEncerrada(funcao);
+        }
+    }
+
+    @Override
+    public void blocoIniciado(NoBloco bloco)
+    {
+        for (MonitorExecucao monitor : monitores)
+        {
+            monitor.blocoIniciado(bloco);
+        }
+    }
+
+    @Override
+    public void desvioRealizado(NoBloco desvio, int ramo)
+    {
+        for (MonitorExecucao monitor : monitores)
+        {
+            monitor.desvioRealizado(desvio, ramo);
+        }
+    }
+}
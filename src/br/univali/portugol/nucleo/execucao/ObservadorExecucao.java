@@ -52,6 +52,14 @@ public interface ObservadorExecucao
 
     public void highlightDetalhadoAtual(int linha, int coluna, int tamanho);
 
+    /**
+     * Notifica que os valores dos símbolos foram alterados. Quando o programa é executado
+     * com o depurador, este método é chamado na thread de entrega dos eventos, enquanto o
+     * programa continua executando.
+     *
+     * @param simbolos os símbolos alterados, que são os próprios símbolos do programa
+     * @see DistribuidorEventosExecucao os métodos que podem ser usados para ler os símbolos
+     */
     public void simbolosAlterados(List<Simbolo> simbolos);
 
     public void simboloDeclarado(Simbolo simbolo);
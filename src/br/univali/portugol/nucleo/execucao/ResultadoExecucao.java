@@ -1,6 +1,7 @@
 package br.univali.portugol.nucleo.execucao;
 
 import br.univali.portugol.nucleo.mensagens.ErroExecucao;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Esta classe contém informações referentes ao estado da execução do programa.
@@ -14,6 +15,8 @@ public final class ResultadoExecucao
     private ModoEncerramento modoEncerramento = ModoEncerramento.NORMAL;
     private ErroExecucao erro;
     private Object retorno;
+    private long tempoExecucaoNanos = 0L;
+    private EstatisticasExecucao estatisticas = new EstatisticasExecucao();
 
     /**
      * Obtém o tempo (em milissegundos) que o programa permaneceu rodando.
@@ -104,5 +107,43 @@ public final class ResultadoExecucao
     public void setRetorno(Object retorno)
     {
         this.retorno = retorno;
-    }    
+    }
+
+    /**
+     * Obtém o tempo (em nanossegundos) que o programa permaneceu rodando.
+     *
+     * @return o tempo (em nanossegundos) que o programa permaneceu rodando.
+     */
+    public long getTempoExecucaoNanos()
+    {
+        return tempoExecucaoNanos;
+    }
+
+    /**
+     * Define o tempo (em nanossegundos) que o programa permaneceu rodando. O tempo em
+     * milissegundos retornado por {@link #getTempoExecucao()} também é atualizado.
+     *
+     * @param tempoExecucaoNanos o tempo (em nanossegundos) que o programa permaneceu
+     * rodando.
+     */
+    public void setTempoExecucaoNanos(long tempoExecucaoNanos)
+    {
+        this.tempoExecucaoNanos = tempoExecucaoNanos;
+        this.tempoExecucao = TimeUnit.NANOSECONDS.toMillis(tempoExecucaoNanos);
+    }
+
+    /**
+     * Obtém os contadores e tempos coletados pelo interpretador durante a execução.
+     *
+     * @return as estatísticas da execução
+     */
+    public EstatisticasExecucao getEstatisticas()
+    {
+        return estatisticas;
+    }
+
+    public void setEstatisticas(EstatisticasExecucao estatisticas)
+    {
+        this.estatisticas = estatisticas;
+    }
 }
@@ -0,0 +1,234 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.ExcecaoVisitaASA;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoMatriz;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoVetor;
+import br.univali.portugol.nucleo.asa.NoEscolha;
+import br.univali.portugol.nucleo.asa.NoExpressao;
+import br.univali.portugol.nucleo.asa.NoInteiro;
+import br.univali.portugol.nucleo.asa.NoMatriz;
+import br.univali.portugol.nucleo.asa.NoMenosUnario;
+import br.univali.portugol.nucleo.asa.NoReal;
+import br.univali.portugol.nucleo.asa.NoValor;
+import br.univali.portugol.nucleo.asa.NoVetor;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import br.univali.portugol.nucleo.asa.VisitanteASAPadrao;
+import br.univali.portugol.nucleo.execucao.erros.ErroImpossivelConverterTipos;
+import br.univali.portugol.nucleo.execucao.util.ConversorTipos;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Guarda os valores das inicializações de vetores e matrizes compostas apenas por
+ * literais, como em {@code inteiro tabela[] = {1, 2, 3}}. Os valores são avaliados e
+ * convertidos para o tipo da declaração uma única vez, na compilação, e a cada execução
+ * da declaração o interpretador apenas copia os valores, ou os compartilha, no caso das
+ * declarações constantes.
+ * <p>
+ * Inicializações com qualquer outra expressão, ou cujos valores não possam ser
+ * convertidos para o tipo declarado, não entram na tabela e continuam sendo avaliadas a
+ * cada execução, para que os erros sejam reportados na posição de origem.
+ * <p>
+ * A tabela também guarda as tabelas de desvio dos comandos {@code escolha} cujos casos
+ * são todos valores literais.
+ * <p>
+ * A tabela é imutável depois de criada e pode ser compartilhada por várias execuções
+ * simultâneas do mesmo programa.
+ *
+ * @see br.univali.portugol.nucleo.Programa#getTabelaConstantes()
+ */
+public final class TabelaConstantes
+{
+    private final Map<NoDeclaracaoVetor, List<Object>> vetores = new IdentityHashMap<>();
+    private final Map<NoDeclaracaoMatriz, Object[][]> matrizes = new IdentityHashMap<>();
+    private final Map<NoEscolha, TabelaEscolha> escolhas = new IdentityHashMap<>();
+
+    public TabelaConstantes(ArvoreSintaticaAbstrataPrograma asa)
+    {
+        try
+        {
+            asa.aceitar(new Coletor());
+        }
+        catch (ExcecaoVisitaASA excecao)
+        {
+            // Uma tabela incompleta apenas faz com que mais inicializações sejam avaliadas
+            Logger.getLogger(TabelaConstantes.class.getName()).log(Level.WARNING, "Não foi possível montar a tabela de constantes", excecao);
+        }
+    }
+
+    /**
+     * Obtém os valores da inicialização de um vetor, já convertidos para o tipo do vetor.
+     * A lista não pode ser alterada.
+     *
+     * @param declaracao a declaração do vetor
+     * @return os valores ou {@code null} se a inicialização não for composta apenas por
+     * literais
+     */
+    public List<Object> obterValores(NoDeclaracaoVetor declaracao)
+    {
+        return vetores.get(declaracao);
+    }
+
+    /**
+     * Obtém os valores da inicialização de uma matriz, organizados em linhas de mesmo
+     * tamanho. Os vetores retornados pertencem à tabela e não devem ser alterados.
+     *
+     * @param declaracao a declaração da matriz
+     * @return os valores ou {@code null} se a inicialização não for composta apenas por
+     * literais
+     */
+    public Object[][] obterValores(NoDeclaracaoMatriz declaracao)
+    {
+        return matrizes.get(declaracao);
+    }
+
+    /**
+     * Obtém a tabela de desvio de um {@code escolha}.
+     *
+     * @param escolha o comando {@code escolha}
+     * @return a tabela de desvio ou {@code null} se algum caso não for um valor literal
+     */
+    TabelaEscolha obterTabelaEscolha(NoEscolha escolha)
+    {
+        return escolhas.get(escolha);
+    }
+
+    /**
+     * @return a quantidade de declarações com valores na tabela
+     */
+    public int getQuantidadeDeclaracoes()
+    {
+        return vetores.size() + matrizes.size();
+    }
+
+    private static Object avaliarLiteral(Object no)
+    {
+        if (no instanceof NoValor)
+        {
+            return ((NoValor) no).getValor();
+        }
+
+        if (no instanceof NoMenosUnario)
+        {
+            NoExpressao expressao = ((NoMenosUnario) no).getExpressao();
+
+            if (expressao instanceof NoInteiro)
+            {
+                return -((NoInteiro) expressao).getValor();
+            }
+
+            if (expressao instanceof NoReal)
+            {
+                return -((NoReal) expressao).getValor();
+            }
+        }
+
+        return null;
+    }
+
+    private final class Coletor extends VisitanteASAPadrao
+    {
+        @Override
+        public Object visitar(NoDeclaracaoVetor declaracao) throws ExcecaoVisitaASA
+        {
+            if (declaracao.getInicializacao() instanceof NoVetor)
+            {
+                List<Object> nos = ((NoVetor) declaracao.getInicializacao()).getValores();
+                Object[] valores = (nos != null) ? avaliar(nos, declaracao.getTipoDado()) : null;
+
+                if (valores != null)
+                {
+                    vetores.put(declaracao, Collections.unmodifiableList(Arrays.asList(valores)));
+                }
+            }
+
+            return super.visitar(declaracao);
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoMatriz declaracao) throws ExcecaoVisitaASA
+        {
+            if (declaracao.getInicializacao() instanceof NoMatriz)
+            {
+                List<List<Object>> linhas = ((NoMatriz) declaracao.getInicializacao()).getValores();
+                Object[][] valores = (linhas != null && !linhas.isEmpty()) ? new Object[linhas.size()][] : null;
+
+                for (int i = 0; valores != null && i < linhas.size(); i++)
+                {
+                    // Linhas de tamanhos diferentes são completadas pela matriz na execução
+                    if (linhas.get(i) == null || linhas.get(i).size() != linhas.get(0).size())
+                    {
+                        valores = null;
+                    }
+                    else
+                    {
+                        // Os valores das matrizes não são convertidos na inicialização
+                        valores[i] = avaliar(linhas.get(i), null);
+
+                        if (valores[i] == null)
+                        {
+                            valores = null;
+                        }
+                    }
+                }
+
+                if (valores != null)
+                {
+                    matrizes.put(declaracao, valores);
+                }
+            }
+
+            return super.visitar(declaracao);
+        }
+
+        @Override
+        public Object visitar(NoEscolha escolha) throws ExcecaoVisitaASA
+        {
+            TabelaEscolha tabela = TabelaEscolha.criar(escolha.getCasos());
+
+            if (tabela != null)
+            {
+                escolhas.put(escolha, tabela);
+            }
+
+            return super.visitar(escolha);
+        }
+
+        private Object[] avaliar(List<Object> nos, TipoDado tipo)
+        {
+            Object[] valores = new Object[nos.size()];
+
+            for (int i = 0; i < valores.length; i++)
+            {
+                Object valor = avaliarLiteral(nos.get(i));
+
+                if (valor == null)
+                {
+                    return null;
+                }
+
+                if (tipo != null && valor.getClass() != tipo.getTipoJava())
+                {
+                    try
+                    {
+                        valor = ConversorTipos.converter(valor, tipo);
+                    }
+                    catch (ErroImpossivelConverterTipos erro)
+                    {
+                        return null;
+                    }
+                }
+
+                valores[i] = valor;
+            }
+
+            return valores;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.asa.NoCaracter;
+import br.univali.portugol.nucleo.asa.NoCaso;
+import br.univali.portugol.nucleo.asa.NoExpressao;
+import br.univali.portugol.nucleo.asa.NoInteiro;
+import br.univali.portugol.nucleo.asa.NoMenosUnario;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabela de desvio de um comando {@code escolha} cujos casos são todos valores literais.
+ * Permite encontrar o caso escolhido com uma única consulta, em vez de avaliar e
+ * comparar os casos um a um.
+ * <p>
+ * Quando os valores dos casos são próximos, a tabela é um vetor indexado pelo valor;
+ * caso contrário, é um mapa. A tabela devolve o mesmo caso que a busca em ordem
+ * devolveria: o primeiro caso com o valor escolhido ou, se o caso {@code contrario}
+ * vier antes dele, o caso {@code contrario}.
+ *
+ * @see TabelaConstantes#obterTabelaEscolha(br.univali.portugol.nucleo.asa.NoEscolha)
+ */
+final class TabelaEscolha
+{
+    private static final int FOLGA_TABELA_DENSA = 16;
+
+    private final Class<?> tipo;
+    private final int indiceContrario;
+    private final int menorValor;
+    private final int[] indicesDensos;
+    private final Map<Integer, Integer> indicesEsparsos;
+
+    private TabelaEscolha(Class<?> tipo, int indiceContrario, Map<Integer, Integer> indices)
+    {
+        this.tipo = tipo;
+        this.indiceContrario = indiceContrario;
+
+        int menor = Integer.MAX_VALUE;
+        int maior = Integer.MIN_VALUE;
+
+        for (int valor : indices.keySet())
+        {
+            menor = Math.min(menor, valor);
+            maior = Math.max(maior, valor);
+        }
+
+        long tamanho = (long) maior - menor + 1;
+
+        if (!indices.isEmpty() && tamanho <= 2L * indices.size() + FOLGA_TABELA_DENSA)
+        {
+            menorValor = menor;
+            indicesDensos = new int[(int) tamanho];
+            indicesEsparsos = null;
+
+            for (int i = 0; i < indicesDensos.length; i++)
+            {
+                indicesDensos[i] = indiceContrario;
+            }
+
+            for (Map.Entry<Integer, Integer> indice : indices.entrySet())
+            {
+                indicesDensos[indice.getKey() - menor] = indice.getValue();
+            }
+        }
+        else
+        {
+            menorValor = 0;
+            indicesDensos = null;
+            indicesEsparsos = indices;
+        }
+    }
+
+    /**
+     * Cria a tabela de desvio para os casos de um {@code escolha}.
+     *
+     * @param casos os casos do {@code escolha}
+     * @return a tabela ou {@code null} se algum caso não for um valor literal
+     */
+    static TabelaEscolha criar(List<NoCaso> casos)
+    {
+        Class<?> tipo = null;
+        int indiceContrario = -1;
+        Map<Integer, Integer> indices = new HashMap<>();
+
+        for (int i = 0; i < casos.size() && indiceContrario < 0; i++)
+        {
+            NoExpressao expressao = casos.get(i).getExpressao();
+
+            if (expressao == null)
+            {
+                // Os casos depois do contrario nunca são escolhidos pelo valor
+                indiceContrario = i;
+                continue;
+            }
+
+            Object valor = avaliarLiteral(expressao);
+
+            if (valor == null || (tipo != null && valor.getClass() != tipo))
+            {
+                return null;
+            }
+
+            tipo = valor.getClass();
+            int chave = (valor instanceof Character) ? (Character) valor : (Integer) valor;
+
+            if (!indices.containsKey(chave))
+            {
+                indices.put(chave, i);
+            }
+        }
+
+        return new TabelaEscolha(tipo, indiceContrario, indices);
+    }
+
+    private static Object avaliarLiteral(NoExpressao expressao)
+    {
+        if (expressao instanceof NoInteiro)
+        {
+            return ((NoInteiro) expressao).getValor();
+        }
+
+        if (expressao instanceof NoCaracter)
+        {
+            return ((NoCaracter) expressao).getValor();
+        }
+
+        if (expressao instanceof NoMenosUnario && ((NoMenosUnario) expressao).getExpressao() instanceof NoInteiro)
+        {
+            return -((NoInteiro) ((NoMenosUnario) expressao).getExpressao()).getValor();
+        }
+
+        return null;
+    }
+
+    /**
+     * Verifica se o valor é do mesmo tipo dos casos. Valores de outros tipos devem ser
+     * comparados caso a caso.
+     *
+     * @param valor o valor do {@code escolha}
+     * @return {@code true} se a tabela pode ser consultada com o valor
+     */
+    boolean aceita(Object valor)
+    {
+        return tipo == null || (valor != null && valor.getClass() == tipo);
+    }
+
+    /**
+     * @param valor o valor do {@code escolha}
+     * @return o índice do caso escolhido ou -1 se nenhum caso for escolhido
+     */
+    int procurarIndice(Object valor)
+    {
+        if (tipo == null)
+        {
+            return indiceContrario;
+        }
+
+        int chave = (valor instanceof Character) ? (Character) valor : (Integer) valor;
+
+        if (indicesDensos != null)
+        {
+            long posicao = (long) chave - menorValor;
+
+            return (posicao >= 0 && posicao < indicesDensos.length) ? indicesDensos[(int) posicao] : indiceContrario;
+        }
+
+        Integer indice = indicesEsparsos.get(chave);
+
+        return (indice != null) ? indice : indiceContrario;
+    }
+}
@@ -0,0 +1,177 @@
+package br.univali.portugol.nucleo.execucao.cobertura;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Cobertura de uma ou mais execuções de um programa: quais comandos e quais ramos dos
+ * desvios foram executados. As linhas são as mesmas usadas em
+ * {@link br.univali.portugol.nucleo.asa.TrechoCodigoFonte}.
+ * <p>
+ * Objetos desta classe são imutáveis e podem ser combinados entre si, desde que
+ * pertençam ao mesmo programa.
+ *
+ * @see ColetorCobertura#obterCobertura()
+ */
+public final class Cobertura
+{
+    private final MapaCobertura mapa;
+    private final BitSet comandos;
+    private final BitSet ramos;
+
+    Cobertura(MapaCobertura mapa, BitSet comandos, BitSet ramos)
+    {
+        this.mapa = mapa;
+        this.comandos = comandos;
+        this.ramos = ramos;
+    }
+
+    /**
+     * Combina esta cobertura com outra do mesmo programa. Um comando ou ramo está coberto
+     * no resultado se foi executado em qualquer uma das duas.
+     *
+     * @param outra a outra cobertura
+     * @return uma nova cobertura com a união das duas
+     * @throws IllegalArgumentException se as coberturas forem de programas diferentes
+     */
+    public Cobertura mesclar(Cobertura outra)
+    {
+        if (!mapa.compativel(outra.mapa))
+        {
+            throw new IllegalArgumentException("Não é possível mesclar coberturas de programas diferentes");
+        }
+
+        BitSet uniaoComandos = (BitSet) comandos.clone();
+        BitSet uniaoRamos = (BitSet) ramos.clone();
+
+        uniaoComandos.or(outra.comandos);
+        uniaoRamos.or(outra.ramos);
+
+        return new Cobertura(mapa, uniaoComandos, uniaoRamos);
+    }
+
+    public int getQuantidadeComandos()
+    {
+        return mapa.getQuantidadeComandos();
+    }
+
+    public int getQuantidadeComandosCobertos()
+    {
+        return comandos.cardinality();
+    }
+
+    public int getQuantidadeRamos()
+    {
+        return mapa.getQuantidadeRamos();
+    }
+
+    public int getQuantidadeRamosCobertos()
+    {
+        return ramos.cardinality();
+    }
+
+    /**
+     * @return as linhas com pelo menos um comando executado
+     */
+    public SortedSet<Integer> getLinhasCobertas()
+    {
+        SortedSet<Integer> linhas = new TreeSet<>();
+
+        for (int i = comandos.nextSetBit(0); i >= 0; i = comandos.nextSetBit(i + 1))
+        {
+            int linha = mapa.obterLinhaComando(i);
+
+            if (linha >= 0)
+            {
+                linhas.add(linha);
+            }
+        }
+
+        return Collections.unmodifiableSortedSet(linhas);
+    }
+
+    /**
+     * @return as linhas que possuem comandos, mas nenhum deles foi executado
+     */
+    public SortedSet<Integer> getLinhasNaoCobertas()
+    {
+        SortedSet<Integer> linhas = new TreeSet<>();
+
+        for (int i = comandos.nextClearBit(0); i < mapa.getQuantidadeComandos(); i = comandos.nextClearBit(i + 1))
+        {
+            int linha = mapa.obterLinhaComando(i);
+
+            if (linha >= 0)
+            {
+                linhas.add(linha);
+            }
+        }
+
+        linhas.removeAll(getLinhasCobertas());
+
+        return Collections.unmodifiableSortedSet(linhas);
+    }
+
+    /**
+     * @return a descrição de cada ramo não executado, no formato "linha 7: se falso"
+     */
+    public List<String> getRamosNaoCobertos()
+    {
+        List<String> descricoes = new ArrayList<>();
+
+        for (int i = ramos.nextClearBit(0); i < mapa.getQuantidadeRamos(); i = ramos.nextClearBit(i + 1))
+        {
+            descricoes.add("linha " + mapa.obterLinhaRamo(i) + ": " + mapa.obterDescricaoRamo(i));
+        }
+
+        return Collections.unmodifiableList(descricoes);
+    }
+
+    /**
+     * Escreve a cobertura no formato LCOV, aceito pela maioria das ferramentas de relatório
+     * de cobertura. As contagens são 1 para o que foi executado e 0 para o que não foi.
+     *
+     * @param saida o destino do relatório
+     * @param arquivo o nome do arquivo do programa, usado no registro "SF"
+     * @throws IOException se ocorrer um erro ao escrever na saída
+     */
+    public void escreverLcov(Appendable saida, String arquivo) throws IOException
+    {
+        saida.append("SF:").append(arquivo).append('\n');
+
+        SortedSet<Integer> cobertas = getLinhasCobertas();
+        SortedSet<Integer> todas = new TreeSet<>(cobertas);
+        todas.addAll(getLinhasNaoCobertas());
+
+        for (Integer linha : todas)
+        {
+            saida.append("DA:").append(String.valueOf(linha)).append(',').append(cobertas.contains(linha) ? "1" : "0").append('\n');
+        }
+
+        int desvioAnterior = -1;
+        int ramoLocal = 0;
+
+        for (int i = 0; i < mapa.getQuantidadeRamos(); i++)
+        {
+            int desvio = mapa.obterDesvioRamo(i);
+
+            ramoLocal = (desvio == desvioAnterior) ? ramoLocal + 1 : 0;
+            desvioAnterior = desvio;
+
+            saida.append("BRDA:").append(String.valueOf(mapa.obterLinhaRamo(i))).append(',');
+            saida.append(String.valueOf(desvio)).append(',').append(String.valueOf(ramoLocal)).append(',');
+            saida.append(ramos.get(i) ? "1" : "0").append('\n');
+        }
+
+        saida.append("BRF:").append(String.valueOf(getQuantidadeRamos())).append('\n');
+        saida.append("BRH:").append(String.valueOf(getQuantidadeRamosCobertos())).append('\n');
+        saida.append("LF:").append(String.valueOf(todas.size())).append('\n');
+        saida.append("LH:").append(String.valueOf(cobertas.size())).append('\n');
+        saida.append("end_of_record\n");
+    }
+}
@@ -0,0 +1,97 @@
+package br.univali.portugol.nucleo.execucao.cobertura;
+
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import br.univali.portugol.nucleo.execucao.MonitorExecucao;
+import java.util.BitSet;
+
+/**
+ * Registra quais comandos e quais ramos dos desvios foram executados. Cada comando e
+ * cada ramo ocupa um bit, numerado pelo {@link MapaCobertura} do programa, assim a
+ * coleta não cria objetos durante a execução.
+ * <p>
+ * As marcações se acumulam entre as execuções até que o coletor seja reiniciado. Para
+ * execuções simultâneas, cada execução deve usar o seu próprio coletor; as coberturas
+ * obtidas podem ser combinadas depois com {@link Cobertura#mesclar(Cobertura)}.
+ *
+ * @see br.univali.portugol.nucleo.Programa#setColetorCobertura(br.univali.portugol.nucleo.execucao.cobertura.ColetorCobertura)
+ */
+public final class ColetorCobertura implements MonitorExecucao
+{
+    private final MapaCobertura mapa;
+    private final BitSet comandos;
+    private final BitSet ramos;
+
+    public ColetorCobertura(MapaCobertura mapa)
+    {
+        this.mapa = mapa;
+        this.comandos = new BitSet(mapa.getQuantidadeComandos());
+        this.ramos = new BitSet(mapa.getQuantidadeRamos());
+    }
+
+    @Override
+    public void execucaoIniciada()
+    {
+
+    }
+
+    @Override
+    public void execucaoEncerrada()
+    {
+
+    }
+
+    @Override
+    public void funcaoIniciada(NoDeclaracaoFuncao funcao)
+    {
+
+    }
+
+    @Override
+    public void funcaoEncerrada(NoDeclaracaoFuncao funcao)
+    {
+
+    }
+
+    @Override
+    public void blocoIniciado(NoBloco bloco)
+    {
+        int indice = mapa.obterIndiceComando(bloco);
+
+        if (indice >= 0)
+        {
+            comandos.set(indice);
+        }
+    }
+
+    @Override
+    public void desvioRealizado(NoBloco desvio, int ramo)
+    {
+        int indice = mapa.obterIndiceRamo(desvio, ramo);
+
+        if (indice >= 0)
+        {
+            ramos.set(indice);
+        }
+    }
+
+    /**
+     * Obtém a cobertura acumulada até o momento. Deve ser chamado quando não houver
+     * nenhuma execução em andamento com este coletor.
+     *
+     * @return uma cópia da cobertura acumulada
+     */
+    public Cobertura obterCobertura()
+    {
+        return new Cobertura(mapa, (BitSet) comandos.clone(), (BitSet) ramos.clone());
+    }
+
+    /**
+     * Descarta as marcações acumuladas.
+     */
+    public void reiniciar()
+    {
+        comandos.clear();
+        ramos.clear();
+    }
+}
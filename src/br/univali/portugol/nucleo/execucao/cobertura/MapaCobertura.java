@@ -0,0 +1,304 @@
+package br.univali.portugol.nucleo.execucao.cobertura;
+
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.ExcecaoVisitaASA;
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoCaso;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import br.univali.portugol.nucleo.asa.NoEnquanto;
+import br.univali.portugol.nucleo.asa.NoEscolha;
+import br.univali.portugol.nucleo.asa.NoExpressao;
+import br.univali.portugol.nucleo.asa.NoFacaEnquanto;
+import br.univali.portugol.nucleo.asa.NoPara;
+import br.univali.portugol.nucleo.asa.NoSe;
+import br.univali.portugol.nucleo.asa.VisitanteASAPadrao;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numera os comandos e os desvios de um programa compilado, para que a cobertura de uma
+ * execução possa ser guardada em mapas de bits, sem criar objetos por nó durante a
+ * execução.
+ * <p>
+ * Cada comando que aparece em uma lista de comandos (corpo de função, laço, desvio ou
+ * caso) recebe um índice. Cada desvio recebe um índice por ramo: o {@code se} tem os
+ * ramos verdadeiro e falso, e o {@code escolha} tem um ramo por caso, mais um ramo para
+ * quando nenhum caso é escolhido, se não houver o caso {@code contrario}.
+ * <p>
+ * O mapa é imutável depois de criado e pode ser compartilhado por várias execuções
+ * simultâneas do mesmo programa.
+ *
+ * @see br.univali.portugol.nucleo.Programa#getMapaCobertura()
+ */
+public final class MapaCobertura
+{
+    private final Map<NoBloco, Integer> indicesComandos = new IdentityHashMap<>();
+    private final Map<NoBloco, Integer> primeirosRamos = new IdentityHashMap<>();
+    private final int[] linhasComandos;
+    private final int[] linhasRamos;
+    private final int[] desviosRamos;
+    private final String[] descricoesRamos;
+
+    public MapaCobertura(ArvoreSintaticaAbstrataPrograma asa) throws ExcecaoVisitaASA
+    {
+        Numerador numerador = new Numerador();
+        asa.aceitar(numerador);
+
+        linhasComandos = converter(numerador.linhas);
+        linhasRamos = converter(numerador.ramos);
+        desviosRamos = converter(numerador.desviosDosRamos);
+        descricoesRamos = numerador.descricoes.toArray(new String[numerador.descricoes.size()]);
+    }
+
+    /**
+     * @return a quantidade de comandos do programa
+     */
+    public int getQuantidadeComandos()
+    {
+        return linhasComandos.length;
+    }
+
+    /**
+     * @return a quantidade de ramos de todos os desvios do programa
+     */
+    public int getQuantidadeRamos()
+    {
+        return linhasRamos.length;
+    }
+
+    /**
+     * Verifica se este mapa e outro numeram o mesmo programa. Mapas criados a partir de
+     * compilações diferentes do mesmo código fonte são compatíveis.
+     *
+     * @param outro o outro mapa
+     * @return {@code true} se os mapas forem compatíveis
+     */
+    public boolean compativel(MapaCobertura outro)
+    {
+        return this == outro
+                || (Arrays.equals(linhasComandos, outro.linhasComandos)
+                && Arrays.equals(linhasRamos, outro.linhasRamos)
+                && Arrays.equals(desviosRamos, outro.desviosRamos));
+    }
+
+    int obterIndiceComando(NoBloco comando)
+    {
+        Integer indice = indicesComandos.get(comando);
+
+        return (indice != null) ? indice : -1;
+    }
+
+    int obterIndiceRamo(NoBloco desvio, int ramo)
+    {
+        Integer primeiro = primeirosRamos.get(desvio);
+
+        return (primeiro != null) ? primeiro + ramo : -1;
+    }
+
+    int obterLinhaComando(int indice)
+    {
+        return linhasComandos[indice];
+    }
+
+    int obterLinhaRamo(int indice)
+    {
+        return linhasRamos[indice];
+    }
+
+    int obterDesvioRamo(int indice)
+    {
+        return desviosRamos[indice];
+    }
+
+    String obterDescricaoRamo(int indice)
+    {
+        return descricoesRamos[indice];
+    }
+
+    private static int[] converter(List<Integer> valores)
+    {
+        int[] vetor = new int[valores.size()];
+
+        for (int i = 0; i < vetor.length; i++)
+        {
+            vetor[i] = valores.get(i);
+        }
+
+        return vetor;
+    }
+
+    /**
+     * Obtém a linha de um comando. Os comandos de controle de fluxo não guardam o seu
+     * trecho no código fonte, por isso é usada a linha da sua condição ou expressão.
+     */
+    static int obterLinha(NoBloco comando)
+    {
+        int linha = comando.getTrechoCodigoFonte().getLinha();
+
+        if (linha >= 0)
+        {
+            return linha;
+        }
+
+        NoExpressao expressao = null;
+
+        if (comando instanceof NoSe)
+        {
+            expressao = ((NoSe) comando).getCondicao();
+        }
+        else if (comando instanceof NoEnquanto)
+        {
+            expressao = ((NoEnquanto) comando).getCondicao();
+        }
+        else if (comando instanceof NoFacaEnquanto)
+        {
+            expressao = ((NoFacaEnquanto) comando).getCondicao();
+        }
+        else if (comando instanceof NoEscolha)
+        {
+            expressao = ((NoEscolha) comando).getExpressao();
+        }
+        else if (comando instanceof NoCaso)
+        {
+            expressao = ((NoCaso) comando).getExpressao();
+        }
+        else if (comando instanceof NoPara)
+        {
+            NoPara para = (NoPara) comando;
+
+            if (para.getCondicao() != null)
+            {
+                expressao = para.getCondicao();
+            }
+            else if (para.getInicializacao() != null)
+            {
+                return obterLinha(para.getInicializacao());
+            }
+        }
+
+        return (expressao != null) ? expressao.getTrechoCodigoFonte().getLinha() : -1;
+    }
+
+    private final class Numerador extends VisitanteASAPadrao
+    {
+        private final List<Integer> linhas = new ArrayList<>();
+        private final List<Integer> ramos = new ArrayList<>();
+        private final List<Integer> desviosDosRamos = new ArrayList<>();
+        private final List<String> descricoes = new ArrayList<>();
+        private int desvios = 0;
+
+        private void registrarComandos(List<NoBloco> comandos)
+        {
+            if (comandos != null)
+            {
+                for (NoBloco comando : comandos)
+                {
+                    indicesComandos.put(comando, linhas.size());
+                    linhas.add(obterLinha(comando));
+                }
+            }
+        }
+
+        private void registrarRamo(int linha, String descricao)
+        {
+            ramos.add(linha);
+            desviosDosRamos.add(desvios);
+            descricoes.add(descricao);
+        }
+
+        @Override
+        public Object visitar(NoDeclaracaoFuncao declaracaoFuncao) throws ExcecaoVisitaASA
+        {
+            registrarComandos(declaracaoFuncao.getBlocos());
+
+            return super.visitar(declaracaoFuncao);
+        }
+
+        @Override
+        public Object visitar(NoEnquanto noEnquanto) throws ExcecaoVisitaASA
+        {
+            registrarComandos(noEnquanto.getBlocos());
+
+            return super.visitar(noEnquanto);
+        }
+
+        @Override
+        public Object visitar(NoFacaEnquanto noFacaEnquanto) throws ExcecaoVisitaASA
+        {
+            registrarComandos(noFacaEnquanto.getBlocos());
+
+            return super.visitar(noFacaEnquanto);
+        }
+
+        @Override
+        public Object visitar(NoPara noPara) throws ExcecaoVisitaASA
+        {
+            registrarComandos(noPara.getBlocos());
+
+            return super.visitar(noPara);
+        }
+
+        @Override
+        public Object visitar(NoCaso noCaso) throws ExcecaoVisitaASA
+        {
+            registrarComandos(noCaso.getBlocos());
+
+            return super.visitar(noCaso);
+        }
+
+        @Override
+        public Object visitar(NoSe noSe) throws ExcecaoVisitaASA
+        {
+            int linha = obterLinha(noSe);
+
+            primeirosRamos.put(noSe, ramos.size());
+            registrarRamo(linha, "se verdadeiro");
+            registrarRamo(linha, "se falso");
+            desvios++;
+
+            registrarComandos(noSe.getBlocosVerdadeiros());
+            registrarComandos(noSe.getBlocosFalsos());
+
+            return super.visitar(noSe);
+        }
+
+        @Override
+        public Object visitar(NoEscolha noEscolha) throws ExcecaoVisitaASA
+        {
+            int linha = obterLinha(noEscolha);
+            boolean possuiContrario = false;
+            int numeroCaso = 1;
+
+            primeirosRamos.put(noEscolha, ramos.size());
+
+            for (NoCaso caso : noEscolha.getCasos())
+            {
+                int linhaCaso = obterLinha(caso);
+
+                if (caso.getExpressao() == null)
+                {
+                    possuiContrario = true;
+                    registrarRamo((linhaCaso >= 0) ? linhaCaso : linha, "caso contrario");
+                }
+                else
+                {
+                    registrarRamo((linhaCaso >= 0) ? linhaCaso : linha, "caso " + numeroCaso);
+                }
+
+                numeroCaso++;
+            }
+
+            if (!possuiContrario)
+            {
+                registrarRamo(linha, "nenhum caso");
+            }
+
+            desvios++;
+
+            return super.visitar(noEscolha);
+        }
+    }
+}
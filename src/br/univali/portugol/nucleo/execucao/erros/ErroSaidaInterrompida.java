@@ -0,0 +1,31 @@
+package br.univali.portugol.nucleo.execucao.erros;
+
+import br.univali.portugol.nucleo.mensagens.ErroExecucao;
+
+/**
+ * Erro gerado quando a saída de dados recusa o que o programa escreveu, por exemplo
+ * porque o limite de caracteres da saída foi excedido ou porque a saída não corresponde
+ * à esperada.
+ *
+ * @see br.univali.portugol.nucleo.execucao.es.SaidaCapturada
+ */
+public final class ErroSaidaInterrompida extends ErroExecucao
+{
+    private final String motivo;
+
+    public ErroSaidaInterrompida(String motivo)
+    {
+        this.motivo = motivo;
+    }
+
+    public String getMotivo()
+    {
+        return motivo;
+    }
+
+    @Override
+    protected String construirMensagem()
+    {
+        return String.format("A execução do programa foi interrompida pela saída de dados: %s", motivo);
+    }
+}
@@ -0,0 +1,94 @@
+package br.univali.portugol.nucleo.execucao.es;
+
+import br.univali.portugol.nucleo.execucao.erros.ErroSaidaInterrompida;
+
+/**
+ * Compara a saída do programa com a saída esperada à medida que ela é escrita,
+ * encerrando o programa na primeira diferença. Assim, uma correção automática não
+ * precisa aguardar o fim de um programa cuja saída já está errada.
+ * <p>
+ * As limpezas da saída são ignoradas. Ao final da execução, {@link #isCompleta()}
+ * informa se o programa escreveu toda a saída esperada.
+ *
+ * @see SaidaCapturada#inscrever(ConsumidorSaida)
+ */
+public final class ComparadorSaida implements ConsumidorSaida
+{
+    private final String esperada;
+
+    private int posicao = 0;
+    private int linha = 1;
+    private int coluna = 1;
+
+    public ComparadorSaida(String esperada)
+    {
+        this.esperada = esperada;
+    }
+
+    @Override
+    public synchronized void consumir(CharSequence trecho) throws ErroSaidaInterrompida
+    {
+        for (int i = 0; i < trecho.length(); i++)
+        {
+            char escrito = trecho.charAt(i);
+
+            if (posicao == esperada.length())
+            {
+                throw new ErroSaidaInterrompida(String.format("na linha %d, coluna %d, o programa continuou escrevendo após o fim da saída esperada", linha, coluna));
+            }
+
+            char caracterEsperado = esperada.charAt(posicao);
+
+            if (escrito != caracterEsperado)
+            {
+                throw new ErroSaidaInterrompida(String.format("na linha %d, coluna %d, era esperado %s, mas o programa escreveu %s", linha, coluna, descrever(caracterEsperado), descrever(escrito)));
+            }
+
+            posicao++;
+
+            if (escrito == '\n')
+            {
+                linha++;
+                coluna = 1;
+            }
+            else
+            {
+                coluna++;
+            }
+        }
+    }
+
+    @Override
+    public void saidaLimpa()
+    {
+
+    }
+
+    /**
+     * @return {@code true} se o programa escreveu toda a saída esperada
+     */
+    public synchronized boolean isCompleta()
+    {
+        return posicao == esperada.length();
+    }
+
+    /**
+     * @return a quantidade de caracteres da saída esperada que o programa já escreveu
+     */
+    public synchronized int getPosicao()
+    {
+        return posicao;
+    }
+
+    private static String descrever(char caracter)
+    {
+        switch (caracter)
+        {
+            case '\n': return "uma quebra de linha";
+            case '\t': return "uma tabulação";
+            case ' ': return "um espaço";
+        }
+
+        return "'" + caracter + "'";
+    }
+}
@@ -0,0 +1,32 @@
+package br.univali.portugol.nucleo.execucao.es;
+
+import br.univali.portugol.nucleo.execucao.erros.ErroSaidaInterrompida;
+
+/**
+ * Recebe, à medida que são escritos, os trechos de texto capturados por uma
+ * {@link SaidaCapturada}. Permite, por exemplo, enviar a saída do programa a um cliente
+ * remoto ou compará-la com a saída esperada sem aguardar o fim da execução.
+ * <p>
+ * Os métodos são chamados na thread que escreve na saída, portanto devem retornar
+ * rapidamente.
+ *
+ * @see SaidaCapturada#inscrever(ConsumidorSaida)
+ */
+public interface ConsumidorSaida
+{
+    /**
+     * Recebe um trecho escrito pelo programa. O trecho só é válido durante a chamada.
+     *
+     * @param trecho o texto escrito
+     * @throws ErroSaidaInterrompida para encerrar o programa, por exemplo quando a saída
+     * deixou de corresponder à esperada
+     */
+    public void consumir(CharSequence trecho) throws ErroSaidaInterrompida;
+
+    /**
+     * Informa que o programa limpou a saída.
+     *
+     * @throws ErroSaidaInterrompida para encerrar o programa
+     */
+    public void saidaLimpa() throws ErroSaidaInterrompida;
+}
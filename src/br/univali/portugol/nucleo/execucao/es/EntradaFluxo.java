@@ -0,0 +1,306 @@
+package br.univali.portugol.nucleo.execucao.es;
+
+import br.univali.portugol.nucleo.asa.TipoDado;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entrada de dados que lê os valores de um fluxo de texto, como a entrada padrão, um
+ * arquivo ou um texto em memória. É útil para executar programas sem interação, por
+ * exemplo ao corrigir exercícios com entradas pré-definidas.
+ * <p>
+ * Os valores são separados por espaços em branco ou quebras de linha, como no
+ * {@link java.util.Scanner}, e cada chamada a <code>leia</code> consome um valor. O
+ * fluxo é lido através de um único buffer, reaproveitado entre as leituras, e os valores
+ * são reconhecidos sem expressões regulares. O valor é entregue ao interpretador antes
+ * do retorno de {@link #solicitaEntrada(TipoDado, Armazenador)}, portanto o interpretador
+ * não precisa aguardar a leitura.
+ * <p>
+ * Se o valor lido não for compatível com o tipo da variável ou se o fluxo terminar, a
+ * leitura é cancelada e o programa é encerrado com um erro de valor de entrada inválido.
+ */
+public final class EntradaFluxo implements Entrada, Closeable
+{
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private static final char[] VERDADEIRO = "verdadeiro".toCharArray();
+    private static final char[] FALSO = "falso".toCharArray();
+
+    private final Reader leitor;
+    private final char[] buffer = new char[TAMANHO_BUFFER];
+    private int posicao = 0;
+    private int limite = 0;
+
+    private char[] token = new char[64];
+    private int tamanhoToken = 0;
+    private boolean fimEntrada = false;
+
+    /**
+     * @param leitor o fluxo de onde os valores serão lidos
+     */
+    public EntradaFluxo(Reader leitor)
+    {
+        this.leitor = leitor;
+    }
+
+    /**
+     * @param entrada o fluxo de onde os valores serão lidos
+     * @param codificacao a codificação dos caracteres do fluxo
+     */
+    public EntradaFluxo(InputStream entrada, Charset codificacao)
+    {
+        this(new InputStreamReader(entrada, codificacao));
+    }
+
+    /**
+     * Cria uma entrada que lê os valores de um texto em memória.
+     *
+     * @param texto os valores separados por espaços em branco ou quebras de linha
+     * @return a entrada
+     */
+    public static EntradaFluxo doTexto(String texto)
+    {
+        return new EntradaFluxo(new StringReader(texto));
+    }
+
+    /**
+     * Cria uma entrada que lê os valores de um arquivo. O arquivo deve ser fechado através
+     * de {@link #close()}.
+     *
+     * @param arquivo o arquivo com os valores
+     * @param codificacao a codificação dos caracteres do arquivo
+     * @return a entrada
+     * @throws IOException se não for possível abrir o arquivo
+     */
+    public static EntradaFluxo doArquivo(Path arquivo, Charset codificacao) throws IOException
+    {
+        return new EntradaFluxo(Files.newBufferedReader(arquivo, codificacao));
+    }
+
+    /**
+     * @return {@code true} se uma leitura já encontrou o fim do fluxo
+     */
+    public boolean isFimEntrada()
+    {
+        return fimEntrada;
+    }
+
+    @Override
+    public void solicitaEntrada(TipoDado tipoDado, Armazenador armazenador) throws Exception
+    {
+        Object valor = lerToken() ? converter(tipoDado) : null;
+
+        if (valor != null)
+        {
+            armazenador.setValor(valor);
+        }
+        else
+        {
+            armazenador.cancelarLeitura();
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        leitor.close();
+    }
+
+    private Object converter(TipoDado tipoDado)
+    {
+        switch (tipoDado)
+        {
+            case CADEIA: return new String(token, 0, tamanhoToken);
+            case CARACTER: return token[0];
+            case INTEIRO: return converterInteiro();
+            case REAL: return converterReal();
+            case LOGICO: return converterLogico();
+        }
+
+        return null;
+    }
+
+    private Integer converterInteiro()
+    {
+        int indice = 0;
+        boolean negativo = false;
+
+        if (token[0] == '-' || token[0] == '+')
+        {
+            negativo = (token[0] == '-');
+            indice = 1;
+        }
+
+        if (indice == tamanhoToken)
+        {
+            return null;
+        }
+
+        // Acumula em negativo para que o menor inteiro também possa ser representado
+        long valor = 0;
+
+        for (; indice < tamanhoToken; indice++)
+        {
+            int digito = token[indice] - '0';
+
+            if (digito < 0 || digito > 9)
+            {
+                return null;
+            }
+
+            valor = valor * 10 - digito;
+
+            if (valor < Integer.MIN_VALUE)
+            {
+                return null;
+            }
+        }
+
+        if (!negativo)
+        {
+            valor = -valor;
+
+            if (valor > Integer.MAX_VALUE)
+            {
+                return null;
+            }
+        }
+
+        return (int) valor;
+    }
+
+    private Double converterReal()
+    {
+        for (int i = 0; i < tamanhoToken; i++)
+        {
+            char caracter = token[i];
+
+            // Aceita a vírgula como separador decimal, como é comum no Brasil
+            if (caracter == ',')
+            {
+                token[i] = '.';
+            }
+            else if (!(caracter >= '0' && caracter <= '9') && caracter != '.' && caracter != '-' && caracter != '+' && caracter != 'e' && caracter != 'E')
+            {
+                // Evita que Double.parseDouble aceite valores como "NaN", "Infinity" ou "1d"
+                return null;
+            }
+        }
+
+        try
+        {
+            return Double.parseDouble(new String(token, 0, tamanhoToken));
+        }
+        catch (NumberFormatException excecao)
+        {
+            return null;
+        }
+    }
+
+    private Boolean converterLogico()
+    {
+        if (tokenIgual(VERDADEIRO))
+        {
+            return Boolean.TRUE;
+        }
+
+        if (tokenIgual(FALSO))
+        {
+            return Boolean.FALSE;
+        }
+
+        return null;
+    }
+
+    private boolean tokenIgual(char[] palavra)
+    {
+        if (tamanhoToken != palavra.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < tamanhoToken; i++)
+        {
+            if (token[i] != palavra[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Lê o próximo valor do fluxo para o buffer do token, ignorando os espaços em branco
+     * que o precedem.
+     *
+     * @return {@code false} se o fluxo terminou antes de encontrar um valor
+     */
+    private boolean lerToken() throws IOException
+    {
+        tamanhoToken = 0;
+
+        while (true)
+        {
+            if (posicao == limite && !preencher())
+            {
+                fimEntrada = true;
+                return false;
+            }
+
+            if (!Character.isWhitespace(buffer[posicao]))
+            {
+                break;
+            }
+
+            posicao++;
+        }
+
+        while (true)
+        {
+            if (posicao == limite && !preencher())
+            {
+                return true;
+            }
+
+            char caracter = buffer[posicao];
+
+            if (Character.isWhitespace(caracter))
+            {
+                return true;
+            }
+
+            if (tamanhoToken == token.length)
+            {
+                char[] maior = new char[token.length * 2];
+                System.arraycopy(token, 0, maior, 0, tamanhoToken);
+                token = maior;
+            }
+
+            token[tamanhoToken++] = caracter;
+            posicao++;
+        }
+    }
+
+    private boolean preencher() throws IOException
+    {
+        int lidos = leitor.read(buffer, 0, buffer.length);
+
+        while (lidos == 0)
+        {
+            lidos = leitor.read(buffer, 0, buffer.length);
+        }
+
+        posicao = 0;
+        limite = Math.max(lidos, 0);
+
+        return lidos > 0;
+    }
+}
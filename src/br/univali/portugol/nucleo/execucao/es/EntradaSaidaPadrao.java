@@ -1,45 +1,38 @@
 package br.univali.portugol.nucleo.execucao.es;
 
 import br.univali.portugol.nucleo.asa.TipoDado;
-import java.util.Scanner;
+import br.univali.portugol.nucleo.execucao.util.FormatadorNumeros;
+import java.nio.charset.Charset;
 
 /**
  *
  * @author Luiz Fernando Noschang
  */
-public final class EntradaSaidaPadrao implements Entrada, Saida
+public final class EntradaSaidaPadrao implements Entrada, SaidaEmBlocos
 {
+    private final StringBuilder conversao = new StringBuilder(32);
+
     public EntradaSaidaPadrao()
     {
 
     }
 
+    /**
+     * Todas as instâncias compartilham a mesma leitura da entrada padrão, para que os
+     * caracteres já lidos do {@link System#in} por uma leitura não se percam na seguinte.
+     */
+    private static final class LeitorEntradaPadrao
+    {
+        private static final EntradaFluxo INSTANCIA = new EntradaFluxo(System.in, Charset.defaultCharset());
+    }
+
     @Override
     public void solicitaEntrada(TipoDado tipoDado, Armazenador armazenador) throws Exception
     {
-        Scanner in = new Scanner(System.in);
-
-        switch (tipoDado)
+        synchronized (LeitorEntradaPadrao.INSTANCIA)
         {
-            case CADEIA:
-                armazenador.setValor(in.next());
-                break;
-            case CARACTER:
-                armazenador.setValor(in.next().charAt(0));
-                break;
-            case INTEIRO:
-                armazenador.setValor(in.nextInt());
-                break;
-            case LOGICO:
-                String s = in.next();
-
-                armazenador.setValor(s.equals("verdadeiro") ? true : s.equals("falso") ? false : null);
-                break;
-            case REAL:
-                armazenador.setValor(in.nextDouble());
+            LeitorEntradaPadrao.INSTANCIA.solicitaEntrada(tipoDado, armazenador);
         }
-
-        armazenador.setValor(null);
     }
 
     @Override
@@ -57,6 +50,13 @@ public final class EntradaSaidaPadrao implements Entrada, Saida
         System.out.print(valor);
     }
 
+    @Override
+    public void escrever(CharSequence trecho) throws Exception
+    {
+        System.out.append(trecho);
+        System.out.flush();
+    }
+
     @Override
     public void escrever(boolean valor) throws Exception
     {
@@ -72,7 +72,11 @@ public final class EntradaSaidaPadrao implements Entrada, Saida
     @Override
     public void escrever(double valor) throws Exception
     {
-        System.out.print(valor);
+        synchronized (conversao)
+        {
+            conversao.setLength(0);
+            System.out.append(FormatadorNumeros.formatar(valor, conversao));
+        }
     }
 
     @Override
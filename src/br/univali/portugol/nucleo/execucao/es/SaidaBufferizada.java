@@ -0,0 +1,232 @@
+package br.univali.portugol.nucleo.execucao.es;
+
+import br.univali.portugol.nucleo.execucao.util.FormatadorNumeros;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Acumula em um buffer os valores escritos pelo programa e os entrega a outra saída em
+ * blocos, evitando uma chamada à saída de destino (e, no console, uma escrita no
+ * {@link System#out}) para cada valor escrito.
+ * <p>
+ * O buffer é descarregado quando:
+ * <ul>
+ * <li>atinge a capacidade definida;</li>
+ * <li>o intervalo máximo de espera se esgota desde o primeiro valor acumulado, para que
+ * o usuário veja a saída de um programa que passa muito tempo sem escrever;</li>
+ * <li>a saída é limpa;</li>
+ * <li>o interpretador solicita uma leitura ou encerra o programa, através de
+ * {@link #descarregar()}.</li>
+ * </ul>
+ * Os valores são convertidos em texto pela própria saída bufferizada, da mesma forma que
+ * na {@link EntradaSaidaPadrao}. Se o destino implementar {@link SaidaEmBlocos}, cada
+ * bloco é entregue sem cópias; caso contrário, é entregue como uma {@link String}.
+ */
+public final class SaidaBufferizada implements Saida
+{
+    private static final Logger LOGGER = Logger.getLogger(SaidaBufferizada.class.getName());
+
+    public static final int CAPACIDADE_PADRAO = 8192;
+    public static final long INTERVALO_DESCARGA_PADRAO = 50;
+
+    private static final ScheduledExecutorService AGENDADOR = criarAgendador();
+
+    private final Saida destino;
+    private final int capacidade;
+    private final long intervaloDescarga;
+    private final StringBuilder buffer;
+
+    private ScheduledFuture<?> descargaAgendada = null;
+    private Exception erroDescarga = null;
+
+    private final Runnable tarefaDescarga = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            try
+            {
+                descarregar();
+            }
+            catch (Exception excecao)
+            {
+                // O erro é relançado na próxima escrita, para que chegue ao interpretador
+                synchronized (SaidaBufferizada.this)
+                {
+                    erroDescarga = excecao;
+                }
+
+                LOGGER.log(Level.FINE, "Não foi possível descarregar a saída do programa", excecao);
+            }
+        }
+    };
+
+    /**
+     * Cria uma saída bufferizada com a capacidade {@link #CAPACIDADE_PADRAO} e o intervalo
+     * {@link #INTERVALO_DESCARGA_PADRAO}.
+     *
+     * @param destino a saída que receberá os blocos de texto
+     */
+    public SaidaBufferizada(Saida destino)
+    {
+        this(destino, CAPACIDADE_PADRAO, INTERVALO_DESCARGA_PADRAO);
+    }
+
+    /**
+     *
+     * @param destino a saída que receberá os blocos de texto
+     * @param capacidade a quantidade de caracteres acumulados que provoca a descarga
+     * @param intervaloDescarga o tempo máximo, em milissegundos, que um valor pode
+     * permanecer no buffer, ou zero para descarregar apenas quando o buffer estiver cheio
+     * ou quando solicitado
+     */
+    public SaidaBufferizada(Saida destino, int capacidade, long intervaloDescarga)
+    {
+        if (destino == null)
+        {
+            throw new IllegalArgumentException("A saída de destino não pode ser nula");
+        }
+
+        if (capacidade <= 0)
+        {
+            throw new IllegalArgumentException("A capacidade do buffer deve ser maior que zero");
+        }
+
+        this.destino = destino;
+        this.capacidade = capacidade;
+        this.intervaloDescarga = intervaloDescarga;
+        this.buffer = new StringBuilder(capacidade);
+    }
+
+    private static ScheduledExecutorService criarAgendador()
+    {
+        ScheduledThreadPoolExecutor agendador = new ScheduledThreadPoolExecutor(1, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable tarefa)
+            {
+                Thread thread = new Thread(tarefa, "Portugol Núcleo (Descarga da saída)");
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        });
+
+        agendador.setRemoveOnCancelPolicy(true);
+
+        return agendador;
+    }
+
+    public Saida getDestino()
+    {
+        return destino;
+    }
+
+    /**
+     * Entrega à saída de destino todo o texto acumulado no buffer.
+     *
+     * @throws Exception erro ocorrido durante a escrita na saída de destino, inclusive
+     * em uma descarga automática anterior
+     */
+    public synchronized void descarregar() throws Exception
+    {
+        relancarErroDescarga();
+
+        if (descargaAgendada != null)
+        {
+            descargaAgendada.cancel(false);
+            descargaAgendada = null;
+        }
+
+        if (buffer.length() > 0)
+        {
+            try
+            {
+                if (destino instanceof SaidaEmBlocos)
+                {
+                    ((SaidaEmBlocos) destino).escrever(buffer);
+                }
+                else
+                {
+                    destino.escrever(buffer.toString());
+                }
+            }
+            finally
+            {
+                buffer.setLength(0);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void limpar() throws Exception
+    {
+        descarregar();
+        destino.limpar();
+    }
+
+    @Override
+    public synchronized void escrever(String valor) throws Exception
+    {
+        buffer.append(valor);
+        valorAcumulado();
+    }
+
+    @Override
+    public synchronized void escrever(boolean valor) throws Exception
+    {
+        buffer.append(valor ? "verdadeiro" : "falso");
+        valorAcumulado();
+    }
+
+    @Override
+    public synchronized void escrever(int valor) throws Exception
+    {
+        buffer.append(valor);
+        valorAcumulado();
+    }
+
+    @Override
+    public synchronized void escrever(double valor) throws Exception
+    {
+        FormatadorNumeros.formatar(valor, buffer);
+        valorAcumulado();
+    }
+
+    @Override
+    public synchronized void escrever(char valor) throws Exception
+    {
+        buffer.append(valor);
+        valorAcumulado();
+    }
+
+    private void relancarErroDescarga() throws Exception
+    {
+        if (erroDescarga != null)
+        {
+            Exception erro = erroDescarga;
+            erroDescarga = null;
+
+            throw erro;
+        }
+    }
+
+    private void valorAcumulado() throws Exception
+    {
+        relancarErroDescarga();
+
+        if (buffer.length() >= capacidade)
+        {
+            descarregar();
+        }
+        else if (descargaAgendada == null && intervaloDescarga > 0)
+        {
+            descargaAgendada = AGENDADOR.schedule(tarefaDescarga, intervaloDescarga, TimeUnit.MILLISECONDS);
+        }
+    }
+}
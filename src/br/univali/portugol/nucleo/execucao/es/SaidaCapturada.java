@@ -0,0 +1,226 @@
+package br.univali.portugol.nucleo.execucao.es;
+
+import br.univali.portugol.nucleo.execucao.erros.ErroSaidaInterrompida;
+import br.univali.portugol.nucleo.execucao.util.FormatadorNumeros;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Saída de dados que guarda em memória o que o programa escreve, usada por exemplo na
+ * correção automática de exercícios e nas IDEs web.
+ * <p>
+ * O texto é guardado em um buffer circular de capacidade fixa, para que um programa que
+ * escreve sem parar não consuma toda a memória antes de ser interrompido. Quando a
+ * capacidade é excedida, a {@link PoliticaTransbordamento} define se o texto mais antigo
+ * é descartado, se o texto novo é descartado ou se o programa é encerrado com um
+ * {@link ErroSaidaInterrompida}.
+ * <p>
+ * Os {@link ConsumidorSaida consumidores} inscritos recebem cada trecho no momento em que
+ * ele é escrito, independente do que foi guardado no buffer, e podem encerrar o programa
+ * lançando um {@link ErroSaidaInterrompida}.
+ */
+public final class SaidaCapturada implements SaidaEmBlocos
+{
+    public static enum PoliticaTransbordamento
+    {
+        /**
+         * Descarta o texto mais antigo, mantendo o final da saída.
+         */
+        DESCARTAR_INICIO,
+
+        /**
+         * Descarta o texto novo, mantendo o início da saída.
+         */
+        DESCARTAR_FIM,
+
+        /**
+         * Encerra o programa com um {@link ErroSaidaInterrompida}.
+         */
+        INTERROMPER
+    }
+
+    private final char[] buffer;
+    private final PoliticaTransbordamento politica;
+    private final List<ConsumidorSaida> consumidores = new CopyOnWriteArrayList<>();
+    private final StringBuilder conversao = new StringBuilder(32);
+
+    private int inicio = 0;
+    private int tamanho = 0;
+    private long caracteresEscritos = 0;
+    private long caracteresDescartados = 0;
+
+    /**
+     *
+     * @param capacidade a quantidade máxima de caracteres guardados
+     * @param politica o que fazer quando a capacidade for excedida
+     */
+    public SaidaCapturada(int capacidade, PoliticaTransbordamento politica)
+    {
+        if (capacidade <= 0)
+        {
+            throw new IllegalArgumentException("A capacidade da saída deve ser maior que zero");
+        }
+
+        this.buffer = new char[capacidade];
+        this.politica = politica;
+    }
+
+    /**
+     * Inscreve um consumidor para receber os próximos trechos escritos. O texto escrito
+     * antes da inscrição não é entregue ao consumidor, mas pode ser obtido através de
+     * {@link #getTexto()}.
+     *
+     * @param consumidor o consumidor
+     */
+    public void inscrever(ConsumidorSaida consumidor)
+    {
+        consumidores.add(consumidor);
+    }
+
+    public void cancelarInscricao(ConsumidorSaida consumidor)
+    {
+        consumidores.remove(consumidor);
+    }
+
+    /**
+     * @return o texto guardado no buffer, do mais antigo para o mais recente
+     */
+    public synchronized String getTexto()
+    {
+        int primeiraParte = Math.min(tamanho, buffer.length - inicio);
+        StringBuilder texto = new StringBuilder(tamanho);
+
+        texto.append(buffer, inicio, primeiraParte);
+        texto.append(buffer, 0, tamanho - primeiraParte);
+
+        return texto.toString();
+    }
+
+    /**
+     * @return a quantidade de caracteres escritos pelo programa desde a última limpeza,
+     * incluindo os que foram descartados
+     */
+    public synchronized long getCaracteresEscritos()
+    {
+        return caracteresEscritos;
+    }
+
+    /**
+     * @return a quantidade de caracteres que não estão no buffer porque a capacidade foi
+     * excedida
+     */
+    public synchronized long getCaracteresDescartados()
+    {
+        return caracteresDescartados;
+    }
+
+    public synchronized boolean isTruncada()
+    {
+        return caracteresDescartados > 0;
+    }
+
+    @Override
+    public synchronized void limpar() throws Exception
+    {
+        inicio = 0;
+        tamanho = 0;
+        caracteresEscritos = 0;
+        caracteresDescartados = 0;
+
+        for (ConsumidorSaida consumidor : consumidores)
+        {
+            consumidor.saidaLimpa();
+        }
+    }
+
+    @Override
+    public synchronized void escrever(CharSequence trecho) throws Exception
+    {
+        guardar(trecho);
+
+        for (ConsumidorSaida consumidor : consumidores)
+        {
+            consumidor.consumir(trecho);
+        }
+    }
+
+    @Override
+    public void escrever(String valor) throws Exception
+    {
+        escrever((CharSequence) valor);
+    }
+
+    @Override
+    public void escrever(boolean valor) throws Exception
+    {
+        escrever((CharSequence) (valor ? "verdadeiro" : "falso"));
+    }
+
+    @Override
+    public synchronized void escrever(int valor) throws Exception
+    {
+        conversao.setLength(0);
+        escrever(conversao.append(valor));
+    }
+
+    @Override
+    public synchronized void escrever(double valor) throws Exception
+    {
+        conversao.setLength(0);
+        escrever(FormatadorNumeros.formatar(valor, conversao));
+    }
+
+    @Override
+    public synchronized void escrever(char valor) throws Exception
+    {
+        conversao.setLength(0);
+        escrever(conversao.append(valor));
+    }
+
+    private void guardar(CharSequence trecho) throws ErroSaidaInterrompida
+    {
+        int quantidade = trecho.length();
+        int livre = buffer.length - tamanho;
+
+        if (quantidade > livre && politica == PoliticaTransbordamento.INTERROMPER)
+        {
+            throw new ErroSaidaInterrompida(String.format("o programa excedeu o limite de %d caracteres escritos", buffer.length));
+        }
+
+        caracteresEscritos += quantidade;
+
+        if (politica == PoliticaTransbordamento.DESCARTAR_FIM)
+        {
+            int guardados = Math.min(quantidade, livre);
+
+            copiar(trecho, 0, guardados);
+            caracteresDescartados += quantidade - guardados;
+        }
+        else
+        {
+            // Somente os últimos caracteres do trecho cabem no buffer
+            int ignorados = Math.max(0, quantidade - buffer.length);
+            int guardados = quantidade - ignorados;
+            int excedente = Math.max(0, guardados - livre);
+
+            inicio = (inicio + excedente) % buffer.length;
+            tamanho -= excedente;
+            caracteresDescartados += ignorados + excedente;
+
+            copiar(trecho, ignorados, guardados);
+        }
+    }
+
+    private void copiar(CharSequence trecho, int deslocamento, int quantidade)
+    {
+        int posicao = (inicio + tamanho) % buffer.length;
+
+        for (int i = 0; i < quantidade; i++)
+        {
+            buffer[posicao] = trecho.charAt(deslocamento + i);
+            posicao = (posicao + 1 == buffer.length) ? 0 : posicao + 1;
+        }
+
+        tamanho += quantidade;
+    }
+}
@@ -0,0 +1,21 @@
+package br.univali.portugol.nucleo.execucao.es;
+
+/**
+ * Saída de dados capaz de receber vários valores já convertidos em texto de uma só vez.
+ * <p>
+ * É usada pela {@link SaidaBufferizada}: ao descarregar o buffer, o texto acumulado é
+ * entregue em uma única chamada, sem a cópia necessária para convertê-lo em
+ * {@link String}. Consoles de IDE podem implementar esta interface para acrescentar o
+ * trecho inteiro de uma vez ao invés de receber um valor por chamada.
+ */
+public interface SaidaEmBlocos extends Saida
+{
+    /**
+     * Escreve um trecho de texto na saída de dados. O trecho só é válido durante a
+     * chamada e não deve ser guardado, pois o seu conteúdo é reaproveitado em seguida.
+     *
+     * @param trecho          o texto que será escrito na saída.
+     * @throws Exception      erro ocorrido durante a escrita do texto na saída.
+     */
+    public void escrever(CharSequence trecho) throws Exception;
+}
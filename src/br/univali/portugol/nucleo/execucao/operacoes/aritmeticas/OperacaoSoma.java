@@ -1,16 +1,28 @@
 package br.univali.portugol.nucleo.execucao.operacoes.aritmeticas;
 
 import br.univali.portugol.nucleo.execucao.operacoes.Operacao;
+import br.univali.portugol.nucleo.execucao.util.FormatadorNumeros;
 
 public class OperacaoSoma extends Operacao
 {
+    /**
+     * Espaço reservado para o texto de um número ao concatená-lo com uma cadeia, para
+     * que o texto seja escrito no resultado sem cópias intermediárias.
+     */
+    private static final int TAMANHO_NUMERO = 24;
         
     public String executar(String operandoEsquerdo, Integer operandoDireito){
-        return operandoEsquerdo + operandoDireito;
+        StringBuilder resultado = new StringBuilder(operandoEsquerdo.length() + TAMANHO_NUMERO);
+        resultado.append(operandoEsquerdo);
+        
+        return FormatadorNumeros.formatar(operandoDireito, resultado).toString();
     }
     
     public String executar(Integer operandoEsquerdo, String operandoDireito){
-        return operandoEsquerdo + operandoDireito;
+        StringBuilder resultado = new StringBuilder(operandoDireito.length() + TAMANHO_NUMERO);
+        FormatadorNumeros.formatar(operandoEsquerdo, resultado);
+        
+        return resultado.append(operandoDireito).toString();
     }
     
     public String executar(String operandoEsquerdo, String operandoDireito){
@@ -38,11 +50,17 @@ public class OperacaoSoma extends Operacao
     }
     
     public String executar(String operandoEsquerdo, Double operandoDireito){
-        return operandoEsquerdo + operandoDireito;
+        StringBuilder resultado = new StringBuilder(operandoEsquerdo.length() + TAMANHO_NUMERO);
+        resultado.append(operandoEsquerdo);
+        
+        return FormatadorNumeros.formatar(operandoDireito, resultado).toString();
     }
     
     public String executar(Double operandoEsquerdo, String operandoDireito){
-        return operandoEsquerdo + operandoDireito;
+        StringBuilder resultado = new StringBuilder(operandoDireito.length() + TAMANHO_NUMERO);
+        FormatadorNumeros.formatar(operandoEsquerdo, resultado);
+        
+        return resultado.append(operandoDireito).toString();
     }
            
     public Integer executar(Integer operandoEsquerdo, Integer operandoDireito){
@@ -0,0 +1,73 @@
+package br.univali.portugol.nucleo.execucao.perfil;
+
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+
+/**
+ * Medições de uma função do programa, somadas sobre todas as pilhas de chamadas em que
+ * ela apareceu.
+ *
+ * @see RelatorioPerfil#getFuncoes()
+ */
+public final class PerfilFuncao
+{
+    private final NoDeclaracaoFuncao declaracao;
+
+    long chamadas;
+    long tempoInclusivo;
+    long tempoExclusivo;
+    long amostras;
+
+    PerfilFuncao(NoDeclaracaoFuncao declaracao)
+    {
+        this.declaracao = declaracao;
+    }
+
+    public NoDeclaracaoFuncao getDeclaracao()
+    {
+        return declaracao;
+    }
+
+    /**
+     * @return a quantidade de vezes que a função foi chamada
+     */
+    public long getChamadas()
+    {
+        return chamadas;
+    }
+
+    /**
+     * Obtém o tempo gasto na função, incluindo as funções chamadas por ela. Nas chamadas
+     * recursivas, o tempo é contado apenas uma vez.
+     *
+     * @return o tempo em nanossegundos
+     */
+    public long getTempoInclusivo()
+    {
+        return tempoInclusivo;
+    }
+
+    /**
+     * Obtém o tempo gasto nos comandos da própria função, sem as funções chamadas por ela.
+     *
+     * @return o tempo em nanossegundos
+     */
+    public long getTempoExclusivo()
+    {
+        return tempoExclusivo;
+    }
+
+    /**
+     * @return a quantidade de amostras em que a função estava no topo da pilha. Sempre
+     * zero no modo {@link Perfilador.Modo#INSTRUMENTACAO}
+     */
+    public long getAmostras()
+    {
+        return amostras;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: %d chamadas, %d ns inclusivo, %d ns exclusivo", declaracao.getNome(), chamadas, tempoInclusivo, tempoExclusivo);
+    }
+}
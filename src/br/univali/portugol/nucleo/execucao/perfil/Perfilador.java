@@ -0,0 +1,325 @@
+package br.univali.portugol.nucleo.execucao.perfil;
+
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import br.univali.portugol.nucleo.execucao.MonitorExecucao;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede onde um programa Portugol gasta seu tempo, em termos do código fonte do
+ * programa: tempo inclusivo e exclusivo e quantidade de chamadas de cada função e
+ * quantidade de execuções de cada comando.
+ * <p>
+ * O perfilador funciona em dois modos:
+ * <ul>
+ * <li>{@link Modo#INSTRUMENTACAO}: mede o tempo exato de cada chamada de função e conta
+ * cada comando executado. É preciso, mas deixa o programa mais lento.</li>
+ * <li>{@link Modo#AMOSTRAGEM}: o interpretador apenas publica a função e o comando
+ * atuais, e uma thread separada os consulta periodicamente. Os tempos e contagens são
+ * estimados a partir da quantidade de amostras, com pouco impacto no programa.</li>
+ * </ul>
+ * <p>
+ * As chamadas são organizadas em uma árvore de pilhas de chamadas, que é usada tanto para
+ * calcular os tempos das funções quanto para gerar as pilhas agrupadas dos gráficos de
+ * chama. Um perfilador pode ser usado em várias execuções; cada execução reinicia as
+ * medições.
+ *
+ * @see br.univali.portugol.nucleo.Programa#setPerfilador(br.univali.portugol.nucleo.execucao.perfil.Perfilador)
+ */
+public final class Perfilador implements MonitorExecucao
+{
+    public static enum Modo
+    {
+        INSTRUMENTACAO, AMOSTRAGEM
+    }
+
+    public static final long INTERVALO_AMOSTRAGEM_PADRAO = 1;
+
+    private final Modo modo;
+    private final long intervaloAmostragem;
+
+    private NoPilha raiz;
+    private volatile NoPilha noAtual;
+    private volatile NoBloco blocoAtual;
+    private Map<NoBloco, long[]> contagemBlocos;
+    private Thread amostrador;
+    private long inicioExecucao;
+    private long fimExecucao;
+
+    /**
+     * Cria um perfilador no modo {@link Modo#INSTRUMENTACAO}.
+     */
+    public Perfilador()
+    {
+        this(Modo.INSTRUMENTACAO, INTERVALO_AMOSTRAGEM_PADRAO);
+    }
+
+    /**
+     *
+     * @param modo o modo de funcionamento do perfilador
+     * @param intervaloAmostragem o intervalo entre as amostras, em milissegundos. Usado
+     * apenas no modo {@link Modo#AMOSTRAGEM}
+     */
+    public Perfilador(Modo modo, long intervaloAmostragem)
+    {
+        if (intervaloAmostragem <= 0)
+        {
+            throw new IllegalArgumentException("O intervalo de amostragem deve ser positivo");
+        }
+
+        this.modo = modo;
+        this.intervaloAmostragem = intervaloAmostragem;
+    }
+
+    public Modo getModo()
+    {
+        return modo;
+    }
+
+    @Override
+    public void execucaoIniciada()
+    {
+        raiz = new NoPilha(null, null);
+        noAtual = raiz;
+        blocoAtual = null;
+        contagemBlocos = new IdentityHashMap<>();
+        inicioExecucao = System.nanoTime();
+
+        if (modo == Modo.AMOSTRAGEM)
+        {
+            amostrador = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    amostrar();
+                }
+            }, "Portugol Núcleo (Perfilador)");
+
+            amostrador.setDaemon(true);
+            amostrador.start();
+        }
+    }
+
+    @Override
+    public void execucaoEncerrada()
+    {
+        fimExecucao = System.nanoTime();
+
+        if (amostrador != null)
+        {
+            amostrador.interrupt();
+
+            boolean interrompida = false;
+
+            while (amostrador.isAlive())
+            {
+                try
+                {
+                    amostrador.join();
+                }
+                catch (InterruptedException excecao)
+                {
+                    interrompida = true;
+                }
+            }
+
+            amostrador = null;
+
+            if (interrompida)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Fecha as chamadas que ainda estavam abertas, caso a execução tenha sido interrompida
+        while (noAtual != raiz)
+        {
+            funcaoEncerrada(noAtual.funcao);
+        }
+    }
+
+    @Override
+    public void funcaoIniciada(NoDeclaracaoFuncao funcao)
+    {
+        NoPilha pai = noAtual;
+        NoPilha no = pai.obterFilho(funcao);
+
+        no.chamadas++;
+
+        if (modo == Modo.INSTRUMENTACAO)
+        {
+            no.inicioChamada = System.nanoTime();
+            no.tempoFilhosChamada = 0;
+        }
+
+        noAtual = no;
+    }
+
+    @Override
+    public void funcaoEncerrada(NoDeclaracaoFuncao funcao)
+    {
+        NoPilha no = noAtual;
+
+        if (no == raiz)
+        {
+            return;
+        }
+
+        if (modo == Modo.INSTRUMENTACAO)
+        {
+            long tempoChamada = System.nanoTime() - no.inicioChamada;
+
+            no.tempoInclusivo += tempoChamada;
+            no.tempoExclusivo += tempoChamada - no.tempoFilhosChamada;
+            no.pai.tempoFilhosChamada += tempoChamada;
+        }
+
+        noAtual = no.pai;
+
+        if (no.funcao != funcao)
+        {
+            // Uma função foi abandonada sem notificar o seu encerramento
+            funcaoEncerrada(funcao);
+        }
+    }
+
+    @Override
+    public void blocoIniciado(NoBloco bloco)
+    {
+        if (modo == Modo.INSTRUMENTACAO)
+        {
+            incrementar(bloco);
+        }
+        else
+        {
+            blocoAtual = bloco;
+        }
+    }
+
+    @Override
+    public void desvioRealizado(NoBloco desvio, int ramo)
+    {
+
+    }
+
+    private void incrementar(NoBloco bloco)
+    {
+        long[] contagem = contagemBlocos.get(bloco);
+
+        if (contagem == null)
+        {
+            contagem = new long[1];
+            contagemBlocos.put(bloco, contagem);
+        }
+
+        contagem[0]++;
+    }
+
+    private void amostrar()
+    {
+        long intervalo = TimeUnit.MILLISECONDS.toNanos(intervaloAmostragem);
+
+        try
+        {
+            while (!Thread.currentThread().isInterrupted())
+            {
+                TimeUnit.NANOSECONDS.sleep(intervalo);
+
+                // Os campos das amostras só são escritos por esta thread. O interpretador
+                // só lê os resultados depois que esta thread termina
+                noAtual.amostras++;
+
+                NoBloco bloco = blocoAtual;
+
+                if (bloco != null)
+                {
+                    incrementar(bloco);
+                }
+            }
+        }
+        catch (InterruptedException excecao)
+        {
+            // Fim da execução
+        }
+    }
+
+    /**
+     * Gera o relatório da última execução. Deve ser chamado após o término da execução.
+     *
+     * @return o relatório da última execução
+     */
+    public RelatorioPerfil gerarRelatorio()
+    {
+        if (raiz == null)
+        {
+            throw new IllegalStateException("O programa ainda não foi executado com este perfilador");
+        }
+
+        long nanosPorAmostra = TimeUnit.MILLISECONDS.toNanos(intervaloAmostragem);
+
+        if (modo == Modo.AMOSTRAGEM)
+        {
+            calcularTemposAmostrados(raiz, nanosPorAmostra);
+        }
+
+        return new RelatorioPerfil(modo, fimExecucao - inicioExecucao, raiz, contagemBlocos);
+    }
+
+    private long calcularTemposAmostrados(NoPilha no, long nanosPorAmostra)
+    {
+        long tempo = no.amostras * nanosPorAmostra;
+
+        no.tempoExclusivo = tempo;
+
+        for (NoPilha filho : no.filhos.values())
+        {
+            tempo += calcularTemposAmostrados(filho, nanosPorAmostra);
+        }
+
+        no.tempoInclusivo = tempo;
+
+        return tempo;
+    }
+
+    /**
+     * Nó da árvore de pilhas de chamadas. Cada caminho da raiz até um nó corresponde a uma
+     * pilha de chamadas que ocorreu durante a execução.
+     */
+    static final class NoPilha
+    {
+        final NoDeclaracaoFuncao funcao;
+        final NoPilha pai;
+        final Map<NoDeclaracaoFuncao, NoPilha> filhos = new HashMap<>(4);
+
+        long chamadas;
+        long tempoInclusivo;
+        long tempoExclusivo;
+        long amostras;
+
+        private long inicioChamada;
+        private long tempoFilhosChamada;
+
+        NoPilha(NoDeclaracaoFuncao funcao, NoPilha pai)
+        {
+            this.funcao = funcao;
+            this.pai = pai;
+        }
+
+        private NoPilha obterFilho(NoDeclaracaoFuncao funcao)
+        {
+            NoPilha filho = filhos.get(funcao);
+
+            if (filho == null)
+            {
+                filho = new NoPilha(funcao, this);
+                filhos.put(funcao, filho);
+            }
+
+            return filho;
+        }
+    }
+}
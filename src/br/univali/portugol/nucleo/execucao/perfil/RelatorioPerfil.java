@@ -0,0 +1,285 @@
+package br.univali.portugol.nucleo.execucao.perfil;
+
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import br.univali.portugol.nucleo.asa.TrechoCodigoFonte;
+import br.univali.portugol.nucleo.execucao.perfil.Perfilador.NoPilha;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Resultado de uma execução com o {@link Perfilador}. O relatório é independente do
+ * perfilador e permanece válido mesmo que o perfilador seja usado em outras execuções.
+ * <p>
+ * No modo {@link Perfilador.Modo#INSTRUMENTACAO} as contagens dos comandos são as
+ * quantidades de execuções de cada comando. No modo {@link Perfilador.Modo#AMOSTRAGEM}
+ * elas são as quantidades de amostras em que cada comando estava em execução.
+ *
+ * @see Perfilador#gerarRelatorio()
+ */
+public final class RelatorioPerfil
+{
+    private final Perfilador.Modo modo;
+    private final long tempoTotal;
+    private final List<PerfilFuncao> funcoes;
+    private final Map<TrechoCodigoFonte, Long> contagemPorTrecho;
+    private final SortedMap<Integer, Long> contagemPorLinha;
+    private final List<String> pilhasAgrupadas = new ArrayList<>();
+
+    RelatorioPerfil(Perfilador.Modo modo, long tempoTotal, NoPilha raiz, Map<NoBloco, long[]> contagemBlocos)
+    {
+        this.modo = modo;
+        this.tempoTotal = tempoTotal;
+
+        Map<NoDeclaracaoFuncao, PerfilFuncao> perfis = new IdentityHashMap<>();
+        Map<NoDeclaracaoFuncao, Integer> ativas = new IdentityHashMap<>();
+
+        for (NoPilha filho : raiz.filhos.values())
+        {
+            acumular(filho, perfis, ativas, new StringBuilder());
+        }
+
+        List<PerfilFuncao> lista = new ArrayList<>(perfis.values());
+
+        Collections.sort(lista, new Comparator<PerfilFuncao>()
+        {
+            @Override
+            public int compare(PerfilFuncao p1, PerfilFuncao p2)
+            {
+                return Long.compare(p2.getTempoExclusivo(), p1.getTempoExclusivo());
+            }
+        });
+
+        this.funcoes = Collections.unmodifiableList(lista);
+
+        List<NoBloco> blocos = new ArrayList<>(contagemBlocos.keySet());
+
+        Collections.sort(blocos, new Comparator<NoBloco>()
+        {
+            @Override
+            public int compare(NoBloco b1, NoBloco b2)
+            {
+                TrechoCodigoFonte t1 = b1.getTrechoCodigoFonte();
+                TrechoCodigoFonte t2 = b2.getTrechoCodigoFonte();
+
+                if (t1.getLinha() != t2.getLinha())
+                {
+                    return Integer.compare(t1.getLinha(), t2.getLinha());
+                }
+
+                return Integer.compare(t1.getColuna(), t2.getColuna());
+            }
+        });
+
+        Map<TrechoCodigoFonte, Long> porTrecho = new LinkedHashMap<>();
+        SortedMap<Integer, Long> porLinha = new TreeMap<>();
+
+        for (NoBloco bloco : blocos)
+        {
+            TrechoCodigoFonte trecho = bloco.getTrechoCodigoFonte();
+            long contagem = contagemBlocos.get(bloco)[0];
+
+            if (trecho.getLinha() < 0)
+            {
+                continue;
+            }
+
+            porTrecho.put(trecho, contagem);
+
+            Long anterior = porLinha.get(trecho.getLinha());
+            porLinha.put(trecho.getLinha(), (anterior != null) ? anterior + contagem : contagem);
+        }
+
+        this.contagemPorTrecho = Collections.unmodifiableMap(porTrecho);
+        this.contagemPorLinha = Collections.unmodifiableSortedMap(porLinha);
+    }
+
+    private void acumular(NoPilha no, Map<NoDeclaracaoFuncao, PerfilFuncao> perfis, Map<NoDeclaracaoFuncao, Integer> ativas, StringBuilder pilha)
+    {
+        PerfilFuncao perfil = perfis.get(no.funcao);
+
+        if (perfil == null)
+        {
+            perfil = new PerfilFuncao(no.funcao);
+            perfis.put(no.funcao, perfil);
+        }
+
+        Integer profundidade = ativas.get(no.funcao);
+
+        // Em chamadas recursivas o tempo inclusivo já está contido na chamada mais externa
+        if (profundidade == null)
+        {
+            perfil.tempoInclusivo += no.tempoInclusivo;
+            ativas.put(no.funcao, 1);
+        }
+        else
+        {
+            ativas.put(no.funcao, profundidade + 1);
+        }
+
+        perfil.chamadas += no.chamadas;
+        perfil.tempoExclusivo += no.tempoExclusivo;
+        perfil.amostras += no.amostras;
+
+        int tamanhoPilha = pilha.length();
+
+        if (tamanhoPilha > 0)
+        {
+            pilha.append(';');
+        }
+
+        pilha.append(no.funcao.getNome());
+
+        long peso = (modo == Perfilador.Modo.AMOSTRAGEM) ? no.amostras : no.tempoExclusivo;
+
+        if (peso > 0)
+        {
+            pilhasAgrupadas.add(pilha.toString() + ' ' + peso);
+        }
+
+        for (NoPilha filho : no.filhos.values())
+        {
+            acumular(filho, perfis, ativas, pilha);
+        }
+
+        pilha.setLength(tamanhoPilha);
+
+        if (profundidade == null)
+        {
+            ativas.remove(no.funcao);
+        }
+        else
+        {
+            ativas.put(no.funcao, profundidade);
+        }
+    }
+
+    public Perfilador.Modo getModo()
+    {
+        return modo;
+    }
+
+    /**
+     * @return o tempo total da execução, em nanossegundos
+     */
+    public long getTempoTotal()
+    {
+        return tempoTotal;
+    }
+
+    /**
+     * @return as medições de cada função chamada, da que teve o maior tempo exclusivo
+     * para a que teve o menor
+     */
+    public List<PerfilFuncao> getFuncoes()
+    {
+        return funcoes;
+    }
+
+    /**
+     * Obtém as medições de uma função.
+     *
+     * @param nome o nome da função
+     * @return as medições ou {@code null} se a função não foi chamada
+     */
+    public PerfilFuncao getFuncao(String nome)
+    {
+        for (PerfilFuncao perfil : funcoes)
+        {
+            if (perfil.getDeclaracao().getNome().equals(nome))
+            {
+                return perfil;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return a contagem de cada comando executado, na ordem em que aparecem no código
+     * fonte
+     */
+    public Map<TrechoCodigoFonte, Long> getContagemPorTrecho()
+    {
+        return contagemPorTrecho;
+    }
+
+    /**
+     * @return a soma das contagens dos comandos de cada linha do código fonte
+     */
+    public SortedMap<Integer, Long> getContagemPorLinha()
+    {
+        return contagemPorLinha;
+    }
+
+    /**
+     * Escreve o relatório em formato JSON.
+     *
+     * @param saida o destino do relatório
+     * @throws IOException se ocorrer um erro ao escrever na saída
+     */
+    public void escreverRelatorio(Appendable saida) throws IOException
+    {
+        saida.append("{\n");
+        saida.append("  \"modo\": \"").append(modo.name()).append("\",\n");
+        saida.append("  \"tempoTotal\": ").append(String.valueOf(tempoTotal)).append(",\n");
+        saida.append("  \"funcoes\": [");
+
+        for (int i = 0; i < funcoes.size(); i++)
+        {
+            PerfilFuncao perfil = funcoes.get(i);
+            TrechoCodigoFonte trecho = perfil.getDeclaracao().getTrechoCodigoFonteNome();
+
+            saida.append((i > 0) ? ",\n" : "\n");
+            saida.append("    {\"nome\": \"").append(perfil.getDeclaracao().getNome()).append('"');
+            saida.append(", \"linha\": ").append(String.valueOf((trecho != null) ? trecho.getLinha() : -1));
+            saida.append(", \"chamadas\": ").append(String.valueOf(perfil.getChamadas()));
+            saida.append(", \"tempoInclusivo\": ").append(String.valueOf(perfil.getTempoInclusivo()));
+            saida.append(", \"tempoExclusivo\": ").append(String.valueOf(perfil.getTempoExclusivo()));
+            saida.append(", \"amostras\": ").append(String.valueOf(perfil.getAmostras())).append('}');
+        }
+
+        saida.append("\n  ],\n");
+        saida.append("  \"linhas\": [");
+
+        boolean primeira = true;
+
+        for (Map.Entry<Integer, Long> linha : contagemPorLinha.entrySet())
+        {
+            saida.append(primeira ? "\n" : ",\n");
+            saida.append("    {\"linha\": ").append(String.valueOf(linha.getKey()));
+            saida.append(", \"contagem\": ").append(String.valueOf(linha.getValue())).append('}');
+
+            primeira = false;
+        }
+
+        saida.append("\n  ]\n");
+        saida.append("}\n");
+    }
+
+    /**
+     * Escreve as pilhas de chamadas no formato de pilhas agrupadas ("folded stacks"),
+     * usado pelas ferramentas de gráficos de chama. Cada linha contém os nomes das funções
+     * da pilha, separados por ';', seguidos do peso da pilha: o tempo exclusivo em
+     * nanossegundos no modo {@link Perfilador.Modo#INSTRUMENTACAO} ou a quantidade de
+     * amostras no modo {@link Perfilador.Modo#AMOSTRAGEM}.
+     *
+     * @param saida o destino das pilhas
+     * @throws IOException se ocorrer um erro ao escrever na saída
+     */
+    public void escreverPilhasAgrupadas(Appendable saida) throws IOException
+    {
+        for (String pilha : pilhasAgrupadas)
+        {
+            saida.append(pilha).append('\n');
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package br.univali.portugol.nucleo.execucao.reproducao;
+
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoChamadaFuncao;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import br.univali.portugol.nucleo.bibliotecas.base.Biblioteca;
+import br.univali.portugol.nucleo.execucao.InterceptadorExecucao;
+import br.univali.portugol.nucleo.execucao.MonitorExecucao;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base do {@link GravadorExecucao} e do {@link ReprodutorExecucao}. Conta os comandos
+ * executados, que são os passos usados para localizar os pontos de controle e para
+ * retornar a um ponto anterior da execução.
+ *
+ * @see br.univali.portugol.nucleo.Programa#setControleReproducao(br.univali.portugol.nucleo.execucao.reproducao.ControleReproducao)
+ */
+public abstract class ControleReproducao implements MonitorExecucao, InterceptadorExecucao
+{
+    /**
+     * As funções de biblioteca cujos resultados não dependem apenas dos seus parâmetros,
+     * no formato "Biblioteca.funcao".
+     */
+    public static final List<String> FUNCOES_NAO_DETERMINISTICAS = Collections.unmodifiableList(Arrays.asList
+    (
+        "Util.sorteia", "Util.tempo_decorrido",
+        "Teclado.tecla_pressionada", "Teclado.alguma_tecla_pressionada", "Teclado.ler_tecla",
+        "Mouse.botao_pressionado", "Mouse.algum_botao_pressionado", "Mouse.ler_botao", "Mouse.posicao_x", "Mouse.posicao_y"
+    ));
+
+    public static final int INTERVALO_PONTOS_CONTROLE_PADRAO = 10_000;
+
+    private volatile long passo;
+
+    ControleReproducao()
+    {
+
+    }
+
+    /**
+     * @return a quantidade de comandos executados desde o início da execução
+     */
+    public final long getPassoAtual()
+    {
+        return passo;
+    }
+
+    final long avancarPasso()
+    {
+        return ++passo;
+    }
+
+    final void reiniciarPassos()
+    {
+        passo = 0;
+    }
+
+    static String obterChave(Biblioteca biblioteca, NoChamadaFuncao chamada)
+    {
+        return biblioteca.getNome() + "." + chamada.getNome();
+    }
+
+    @Override
+    public void funcaoIniciada(NoDeclaracaoFuncao funcao)
+    {
+
+    }
+
+    @Override
+    public void funcaoEncerrada(NoDeclaracaoFuncao funcao)
+    {
+
+    }
+
+    @Override
+    public void desvioRealizado(NoBloco desvio, int ramo)
+    {
+
+    }
+}
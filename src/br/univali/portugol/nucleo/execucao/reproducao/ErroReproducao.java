@@ -0,0 +1,24 @@
+package br.univali.portugol.nucleo.execucao.reproducao;
+
+import br.univali.portugol.nucleo.mensagens.ErroExecucao;
+
+/**
+ * Erro ocorrido quando a execução reproduzida deixa de seguir o registro gravado, por
+ * exemplo, quando o programa foi alterado depois da gravação ou quando o registro está
+ * corrompido.
+ */
+public final class ErroReproducao extends ErroExecucao
+{
+    private final String motivo;
+
+    public ErroReproducao(String motivo)
+    {
+        this.motivo = motivo;
+    }
+
+    @Override
+    protected String construirMensagem()
+    {
+        return "Não foi possível reproduzir a execução gravada: " + motivo;
+    }
+}
@@ -0,0 +1,150 @@
+package br.univali.portugol.nucleo.execucao.reproducao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escreve o registro de uma execução em um canal, usando um buffer para reduzir a
+ * quantidade de escritas no canal.
+ * <p>
+ * O registro começa com o cabeçalho ({@link #ASSINATURA}, versão, intervalo dos pontos de
+ * controle e lista das funções de biblioteca gravadas) seguido de uma sequência de
+ * entradas, cada uma identificada por um byte. Os números inteiros são gravados com
+ * tamanho variável (7 bits por byte, em zigue-zague), pois a maioria dos valores é
+ * pequena.
+ */
+final class EscritorRegistro
+{
+    static final int ASSINATURA = 0x50545243; // "PTRC"
+    static final byte VERSAO = 1;
+
+    static final byte ENTRADA_LEITURA = 'L';
+    static final byte ENTRADA_LEITURA_CANCELADA = 'C';
+    static final byte ENTRADA_RETORNO = 'R';
+    static final byte ENTRADA_PONTO_CONTROLE = 'P';
+    static final byte ENTRADA_FIM = 'F';
+
+    static final byte VALOR_NULO = 0;
+    static final byte VALOR_INTEIRO = 1;
+    static final byte VALOR_REAL = 2;
+    static final byte VALOR_LOGICO = 3;
+    static final byte VALOR_CARACTER = 4;
+    static final byte VALOR_CADEIA = 5;
+
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private final WritableByteChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+
+    EscritorRegistro(WritableByteChannel canal)
+    {
+        this.canal = canal;
+    }
+
+    void escreverByte(byte valor) throws IOException
+    {
+        garantirEspaco(1);
+        buffer.put(valor);
+    }
+
+    void escreverInteiro(int valor) throws IOException
+    {
+        escreverLongo(valor);
+    }
+
+    void escreverLongo(long valor) throws IOException
+    {
+        garantirEspaco(10);
+
+        long zigueZague = (valor << 1) ^ (valor >> 63);
+
+        while ((zigueZague & ~0x7FL) != 0)
+        {
+            buffer.put((byte) ((zigueZague & 0x7F) | 0x80));
+            zigueZague >>>= 7;
+        }
+
+        buffer.put((byte) zigueZague);
+    }
+
+    void escreverTexto(String texto) throws IOException
+    {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+
+        escreverInteiro(bytes.length);
+
+        int escritos = 0;
+
+        while (escritos < bytes.length)
+        {
+            garantirEspaco(1);
+
+            int quantidade = Math.min(buffer.remaining(), bytes.length - escritos);
+
+            buffer.put(bytes, escritos, quantidade);
+            escritos += quantidade;
+        }
+    }
+
+    void escreverValor(Object valor) throws IOException
+    {
+        if (valor == null)
+        {
+            escreverByte(VALOR_NULO);
+        }
+        else if (valor instanceof Integer)
+        {
+            escreverByte(VALOR_INTEIRO);
+            escreverInteiro((Integer) valor);
+        }
+        else if (valor instanceof Double)
+        {
+            escreverByte(VALOR_REAL);
+            escreverLongo(Double.doubleToRawLongBits((Double) valor));
+        }
+        else if (valor instanceof Boolean)
+        {
+            escreverByte(VALOR_LOGICO);
+            escreverByte((byte) (((Boolean) valor) ? 1 : 0));
+        }
+        else if (valor instanceof Character)
+        {
+            escreverByte(VALOR_CARACTER);
+            escreverInteiro((Character) valor);
+        }
+        else if (valor instanceof String)
+        {
+            escreverByte(VALOR_CADEIA);
+            escreverTexto((String) valor);
+        }
+        else
+        {
+            throw new IOException("Não é possível gravar valores do tipo " + valor.getClass().getName());
+        }
+    }
+
+    /**
+     * Envia para o canal tudo o que está no buffer.
+     */
+    void descarregar() throws IOException
+    {
+        buffer.flip();
+
+        while (buffer.hasRemaining())
+        {
+            canal.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    private void garantirEspaco(int bytes) throws IOException
+    {
+        if (buffer.remaining() < bytes)
+        {
+            descarregar();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package br.univali.portugol.nucleo.execucao.reproducao;
+
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoChamadaFuncao;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import br.univali.portugol.nucleo.bibliotecas.base.Biblioteca;
+import br.univali.portugol.nucleo.execucao.es.Armazenador;
+import br.univali.portugol.nucleo.execucao.es.Entrada;
+import br.univali.portugol.nucleo.mensagens.ErroExecucao;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Grava os valores que um programa recebe de fora do interpretador: os valores lidos
+ * pela função <code>leia</code> e os resultados das funções de biblioteca não
+ * determinísticas, como sorteios, tempo e eventos do teclado e do mouse. A cada
+ * intervalo de comandos também é gravado um ponto de controle, usado na reprodução para
+ * verificar se a execução continua seguindo o registro.
+ * <p>
+ * O registro pode ser usado pelo {@link ReprodutorExecucao} para repetir a execução
+ * exatamente como ela ocorreu.
+ */
+public final class GravadorExecucao extends ControleReproducao
+{
+    private static final Logger LOGGER = Logger.getLogger(GravadorExecucao.class.getName());
+
+    private final WritableByteChannel canal;
+    private final boolean fecharCanal;
+    private final EscritorRegistro escritor;
+    private final int intervaloPontosControle;
+    private final List<String> funcoes;
+    private final Map<String, Integer> identificadoresFuncoes = new HashMap<>();
+
+    private IOException erro;
+
+    /**
+     * Cria um gravador que grava as funções de {@link #FUNCOES_NAO_DETERMINISTICAS} e
+     * um ponto de controle a cada {@link #INTERVALO_PONTOS_CONTROLE_PADRAO} comandos.
+     *
+     * @param canal o canal onde o registro será escrito. O canal não é fechado pelo
+     * gravador
+     */
+    public GravadorExecucao(WritableByteChannel canal)
+    {
+        this(canal, INTERVALO_PONTOS_CONTROLE_PADRAO, FUNCOES_NAO_DETERMINISTICAS);
+    }
+
+    /**
+     *
+     * @param canal o canal onde o registro será escrito. O canal não é fechado pelo
+     * gravador
+     * @param intervaloPontosControle a quantidade de comandos entre dois pontos de
+     * controle, ou zero para não gravar pontos de controle
+     * @param funcoes as funções de biblioteca gravadas, no formato "Biblioteca.funcao"
+     */
+    public GravadorExecucao(WritableByteChannel canal, int intervaloPontosControle, Collection<String> funcoes)
+    {
+        this(canal, false, intervaloPontosControle, funcoes);
+    }
+
+    private GravadorExecucao(WritableByteChannel canal, boolean fecharCanal, int intervaloPontosControle, Collection<String> funcoes)
+    {
+        if (intervaloPontosControle < 0)
+        {
+            throw new IllegalArgumentException("O intervalo dos pontos de controle não pode ser negativo");
+        }
+
+        this.canal = canal;
+        this.fecharCanal = fecharCanal;
+        this.escritor = new EscritorRegistro(canal);
+        this.intervaloPontosControle = intervaloPontosControle;
+        this.funcoes = new ArrayList<>(funcoes);
+
+        for (int i = 0; i < this.funcoes.size(); i++)
+        {
+            identificadoresFuncoes.put(this.funcoes.get(i), i);
+        }
+    }
+
+    /**
+     * Cria um gravador que escreve o registro em um arquivo. O arquivo é fechado ao final
+     * da execução.
+     *
+     * @param arquivo o arquivo do registro. Se já existir, será sobrescrito
+     * @return o gravador
+     * @throws IOException se não for possível abrir o arquivo
+     */
+    public static GravadorExecucao criar(File arquivo) throws IOException
+    {
+        FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        return new GravadorExecucao(canal, true, INTERVALO_PONTOS_CONTROLE_PADRAO, FUNCOES_NAO_DETERMINISTICAS);
+    }
+
+    /**
+     * @return o primeiro erro ocorrido ao escrever o registro, ou {@code null} se o
+     * registro foi escrito corretamente. Após um erro, a gravação é interrompida, mas o
+     * programa continua executando normalmente
+     */
+    public synchronized IOException getErro()
+    {
+        return erro;
+    }
+
+    @Override
+    public synchronized void execucaoIniciada()
+    {
+        reiniciarPassos();
+
+        try
+        {
+            escritor.escreverLongo(EscritorRegistro.ASSINATURA);
+            escritor.escreverByte(EscritorRegistro.VERSAO);
+            escritor.escreverInteiro(intervaloPontosControle);
+            escritor.escreverInteiro(funcoes.size());
+
+            for (String funcao : funcoes)
+            {
+                escritor.escreverTexto(funcao);
+            }
+        }
+        catch (IOException excecao)
+        {
+            registrarErro(excecao);
+        }
+    }
+
+    @Override
+    public synchronized void execucaoEncerrada()
+    {
+        try
+        {
+            if (erro == null)
+            {
+                escritor.escreverByte(EscritorRegistro.ENTRADA_FIM);
+                escritor.escreverLongo(getPassoAtual());
+                escritor.descarregar();
+            }
+        }
+        catch (IOException excecao)
+        {
+            registrarErro(excecao);
+        }
+        finally
+        {
+            if (fecharCanal)
+            {
+                try
+                {
+                    canal.close();
+                }
+                catch (IOException excecao)
+                {
+                    registrarErro(excecao);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void blocoIniciado(NoBloco bloco)
+    {
+        long passo = avancarPasso();
+
+        if (intervaloPontosControle > 0 && passo % intervaloPontosControle == 0)
+        {
+            gravarPontoControle(passo, bloco);
+        }
+    }
+
+    private synchronized void gravarPontoControle(long passo, NoBloco bloco)
+    {
+        if (erro == null)
+        {
+            try
+            {
+                escritor.escreverByte(EscritorRegistro.ENTRADA_PONTO_CONTROLE);
+                escritor.escreverLongo(passo);
+                escritor.escreverInteiro(bloco.getTrechoCodigoFonte().getLinha());
+
+                // Mantém o arquivo atualizado para que a execução possa ser reproduzida
+                // até este ponto mesmo que o programa ainda não tenha terminado
+                escritor.descarregar();
+            }
+            catch (IOException excecao)
+            {
+                registrarErro(excecao);
+            }
+        }
+    }
+
+    @Override
+    public Entrada interceptarEntrada(final Entrada entrada)
+    {
+        if (entrada == null)
+        {
+            return null;
+        }
+
+        return new Entrada()
+        {
+            @Override
+            public void solicitaEntrada(TipoDado tipoDado, final Armazenador armazenador) throws Exception
+            {
+                entrada.solicitaEntrada(tipoDado, new Armazenador()
+                {
+                    @Override
+                    public void cancelarLeitura()
+                    {
+                        gravar(EscritorRegistro.ENTRADA_LEITURA_CANCELADA, -1, null);
+                        armazenador.cancelarLeitura();
+                    }
+
+                    @Override
+                    public void setValor(Object valor)
+                    {
+                        gravar(EscritorRegistro.ENTRADA_LEITURA, -1, valor);
+                        armazenador.setValor(valor);
+                    }
+                });
+            }
+        };
+    }
+
+    @Override
+    public Object chamarFuncao(Biblioteca biblioteca, NoChamadaFuncao chamada, Object... parametros) throws ErroExecucao, InterruptedException
+    {
+        Integer identificador = identificadoresFuncoes.get(obterChave(biblioteca, chamada));
+        Object retorno = biblioteca.chamarFuncao(chamada, parametros);
+
+        if (identificador != null)
+        {
+            gravar(EscritorRegistro.ENTRADA_RETORNO, identificador, retorno);
+        }
+
+        return retorno;
+    }
+
+    private synchronized void gravar(byte tipoEntrada, int identificador, Object valor)
+    {
+        if (erro == null)
+        {
+            try
+            {
+                escritor.escreverByte(tipoEntrada);
+
+                if (identificador >= 0)
+                {
+                    escritor.escreverInteiro(identificador);
+                }
+
+                if (tipoEntrada != EscritorRegistro.ENTRADA_LEITURA_CANCELADA)
+                {
+                    escritor.escreverValor(valor);
+                }
+            }
+            catch (IOException excecao)
+            {
+                registrarErro(excecao);
+            }
+        }
+    }
+
+    private void registrarErro(IOException excecao)
+    {
+        if (erro == null)
+        {
+            erro = excecao;
+            LOGGER.log(Level.WARNING, "Não foi possível gravar o registro da execução", excecao);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package br.univali.portugol.nucleo.execucao.reproducao;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lê um registro escrito pelo {@link EscritorRegistro}, usando um buffer para reduzir a
+ * quantidade de leituras no canal.
+ */
+final class LeitorRegistro
+{
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private final ReadableByteChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+
+    LeitorRegistro(ReadableByteChannel canal)
+    {
+        this.canal = canal;
+        this.buffer.flip();
+    }
+
+    byte lerByte() throws IOException
+    {
+        if (!buffer.hasRemaining())
+        {
+            preencher();
+        }
+
+        return buffer.get();
+    }
+
+    /**
+     * Consulta o próximo byte sem consumi-lo.
+     */
+    byte espiarByte() throws IOException
+    {
+        if (!buffer.hasRemaining())
+        {
+            preencher();
+        }
+
+        return buffer.get(buffer.position());
+    }
+
+    int lerInteiro() throws IOException
+    {
+        return (int) lerLongo();
+    }
+
+    long lerLongo() throws IOException
+    {
+        long zigueZague = 0;
+        int deslocamento = 0;
+        byte atual;
+
+        do
+        {
+            if (deslocamento > 63)
+            {
+                throw new IOException("Número mal formado no registro da execução");
+            }
+
+            atual = lerByte();
+            zigueZague |= (long) (atual & 0x7F) << deslocamento;
+            deslocamento += 7;
+        }
+        while ((atual & 0x80) != 0);
+
+        return (zigueZague >>> 1) ^ -(zigueZague & 1);
+    }
+
+    String lerTexto() throws IOException
+    {
+        byte[] bytes = new byte[lerInteiro()];
+        int lidos = 0;
+
+        while (lidos < bytes.length)
+        {
+            if (!buffer.hasRemaining())
+            {
+                preencher();
+            }
+
+            int quantidade = Math.min(buffer.remaining(), bytes.length - lidos);
+
+            buffer.get(bytes, lidos, quantidade);
+            lidos += quantidade;
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    Object lerValor() throws IOException
+    {
+        byte tipo = lerByte();
+
+        switch (tipo)
+        {
+            case EscritorRegistro.VALOR_NULO: return null;
+            case EscritorRegistro.VALOR_INTEIRO: return lerInteiro();
+            case EscritorRegistro.VALOR_REAL: return Double.longBitsToDouble(lerLongo());
+            case EscritorRegistro.VALOR_LOGICO: return lerByte() != 0;
+            case EscritorRegistro.VALOR_CARACTER: return (char) lerInteiro();
+            case EscritorRegistro.VALOR_CADEIA: return lerTexto();
+        }
+
+        throw new IOException("Tipo de valor desconhecido no registro da execução: " + tipo);
+    }
+
+    private void preencher() throws IOException
+    {
+        buffer.clear();
+
+        int lidos;
+
+        do
+        {
+            lidos = canal.read(buffer);
+        }
+        while (lidos == 0);
+
+        buffer.flip();
+
+        if (lidos < 0)
+        {
+            throw new EOFException("O registro da execução terminou inesperadamente");
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package br.univali.portugol.nucleo.execucao.reproducao;
+
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoChamadaFuncao;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import br.univali.portugol.nucleo.bibliotecas.base.Biblioteca;
+import br.univali.portugol.nucleo.execucao.es.Armazenador;
+import br.univali.portugol.nucleo.execucao.es.Entrada;
+import br.univali.portugol.nucleo.mensagens.ErroExecucao;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reproduz uma execução gravada pelo {@link GravadorExecucao}. Os valores lidos pela
+ * função <code>leia</code> e os resultados das funções de biblioteca gravadas são
+ * obtidos do registro, sem consultar a entrada de dados nem as bibliotecas, tornando a
+ * execução determinística.
+ * <p>
+ * O reprodutor também permite voltar a um ponto anterior da execução: como o
+ * interpretador guarda o estado do programa na própria pilha de chamadas, não é possível
+ * restaurá-lo diretamente. Em vez disso, o programa é executado novamente desde o início
+ * com um reprodutor configurado com {@link #pararNoPasso(long)}, e a execução é
+ * suspensa ao atingir o passo desejado. Os pontos de controle do registro são
+ * conferidos durante a reprodução para detectar execuções que deixaram de seguir o
+ * registro.
+ */
+public final class ReprodutorExecucao extends ControleReproducao
+{
+    private final ReadableByteChannel canal;
+    private final boolean fecharCanal;
+    private final LeitorRegistro leitor;
+    private final Map<String, Integer> identificadoresFuncoes = new HashMap<>();
+
+    private int intervaloPontosControle;
+    private String divergencia;
+
+    private volatile long passoParada = -1;
+    private boolean parado = false;
+    private volatile NoBloco blocoAtual;
+
+    /**
+     *
+     * @param canal o canal de onde o registro será lido. O canal não é fechado pelo
+     * reprodutor
+     */
+    public ReprodutorExecucao(ReadableByteChannel canal)
+    {
+        this(canal, false);
+    }
+
+    private ReprodutorExecucao(ReadableByteChannel canal, boolean fecharCanal)
+    {
+        this.canal = canal;
+        this.fecharCanal = fecharCanal;
+        this.leitor = new LeitorRegistro(canal);
+    }
+
+    /**
+     * Cria um reprodutor que lê o registro de um arquivo. O arquivo é fechado ao final da
+     * execução.
+     *
+     * @param arquivo o arquivo gravado pelo {@link GravadorExecucao}
+     * @return o reprodutor
+     * @throws IOException se não for possível abrir o arquivo
+     */
+    public static ReprodutorExecucao abrir(File arquivo) throws IOException
+    {
+        return new ReprodutorExecucao(FileChannel.open(arquivo.toPath(), StandardOpenOption.READ), true);
+    }
+
+    /**
+     * @return a descrição do primeiro ponto em que a execução deixou de seguir o
+     * registro, ou {@code null} se a reprodução está correta até o momento
+     */
+    public synchronized String getDivergencia()
+    {
+        return divergencia;
+    }
+
+    /**
+     * @return o último comando iniciado na reprodução
+     */
+    public NoBloco getBlocoAtual()
+    {
+        return blocoAtual;
+    }
+
+    /**
+     * Faz com que a execução seja suspensa antes de executar o comando do passo
+     * informado. A execução continua quando {@link #retomar()} for chamado.
+     *
+     * @param passo o passo em que a execução será suspensa, contado a partir de 1, ou
+     * um valor negativo para não suspender
+     */
+    public synchronized void pararNoPasso(long passo)
+    {
+        this.passoParada = passo;
+    }
+
+    /**
+     * Aguarda até que a execução seja suspensa no passo definido em
+     * {@link #pararNoPasso(long)}.
+     *
+     * @param tempoLimite o tempo máximo de espera, em milissegundos
+     * @return {@code true} se a execução foi suspensa dentro do tempo limite
+     * @throws InterruptedException se a thread for interrompida durante a espera
+     */
+    public synchronized boolean aguardarParada(long tempoLimite) throws InterruptedException
+    {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tempoLimite);
+
+        while (!parado)
+        {
+            long restante = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+
+            if (restante <= 0)
+            {
+                return false;
+            }
+
+            wait(restante);
+        }
+
+        return true;
+    }
+
+    /**
+     * Continua uma execução suspensa por {@link #pararNoPasso(long)}.
+     */
+    public synchronized void retomar()
+    {
+        parado = false;
+        passoParada = -1;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void execucaoIniciada()
+    {
+        reiniciarPassos();
+
+        try
+        {
+            if (leitor.lerLongo() != EscritorRegistro.ASSINATURA)
+            {
+                throw new IOException("O arquivo não é um registro de execução");
+            }
+
+            byte versao = leitor.lerByte();
+
+            if (versao != EscritorRegistro.VERSAO)
+            {
+                throw new IOException("Versão do registro não suportada: " + versao);
+            }
+
+            intervaloPontosControle = leitor.lerInteiro();
+
+            int quantidadeFuncoes = leitor.lerInteiro();
+
+            for (int i = 0; i < quantidadeFuncoes; i++)
+            {
+                identificadoresFuncoes.put(leitor.lerTexto(), i);
+            }
+        }
+        catch (IOException excecao)
+        {
+            divergir(excecao.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void execucaoEncerrada()
+    {
+        parado = false;
+        notifyAll();
+
+        if (fecharCanal)
+        {
+            try
+            {
+                canal.close();
+            }
+            catch (IOException excecao)
+            {
+                divergir(excecao.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void blocoIniciado(NoBloco bloco)
+    {
+        long passo = avancarPasso();
+
+        blocoAtual = bloco;
+
+        if (intervaloPontosControle > 0 && passo % intervaloPontosControle == 0)
+        {
+            verificarPontoControle(passo, bloco);
+        }
+
+        if (passo == passoParada)
+        {
+            suspender();
+        }
+    }
+
+    private synchronized void verificarPontoControle(long passo, NoBloco bloco)
+    {
+        if (divergencia != null)
+        {
+            return;
+        }
+
+        try
+        {
+            if (leitor.espiarByte() != EscritorRegistro.ENTRADA_PONTO_CONTROLE)
+            {
+                divergir(String.format("o ponto de controle do passo %d não foi encontrado", passo));
+                return;
+            }
+
+            leitor.lerByte();
+
+            long passoGravado = leitor.lerLongo();
+            int linhaGravada = leitor.lerInteiro();
+            int linha = bloco.getTrechoCodigoFonte().getLinha();
+
+            if (passoGravado != passo || linhaGravada != linha)
+            {
+                divergir(String.format("no passo %d a gravação estava na linha %d, mas a reprodução está na linha %d", passo, linhaGravada, linha));
+            }
+        }
+        catch (IOException excecao)
+        {
+            divergir(excecao.getMessage());
+        }
+    }
+
+    private synchronized void suspender()
+    {
+        parado = true;
+        notifyAll();
+
+        try
+        {
+            while (parado)
+            {
+                wait();
+            }
+        }
+        catch (InterruptedException excecao)
+        {
+            // O interpretador verifica a interrupção antes do próximo comando
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public Entrada interceptarEntrada(Entrada entrada)
+    {
+        // Sem entrada de dados o interpretador não realiza leituras, e nada foi gravado
+        if (entrada == null)
+        {
+            return null;
+        }
+
+        return new Entrada()
+        {
+            @Override
+            public void solicitaEntrada(TipoDado tipoDado, Armazenador armazenador) throws Exception
+            {
+                synchronized (ReprodutorExecucao.this)
+                {
+                    byte tipoEntrada = lerTipoEntrada();
+
+                    if (tipoEntrada == EscritorRegistro.ENTRADA_LEITURA)
+                    {
+                        armazenador.setValor(lerValor());
+                    }
+                    else if (tipoEntrada == EscritorRegistro.ENTRADA_LEITURA_CANCELADA)
+                    {
+                        armazenador.cancelarLeitura();
+                    }
+                    else
+                    {
+                        throw divergir(String.format("no passo %d a reprodução tentou ler um valor que não foi gravado", getPassoAtual()));
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public Object chamarFuncao(Biblioteca biblioteca, NoChamadaFuncao chamada, Object... parametros) throws ErroExecucao, InterruptedException
+    {
+        String chave = obterChave(biblioteca, chamada);
+        Integer identificador = identificadoresFuncoes.get(chave);
+
+        if (identificador == null)
+        {
+            return biblioteca.chamarFuncao(chamada, parametros);
+        }
+
+        synchronized (this)
+        {
+            if (lerTipoEntrada() != EscritorRegistro.ENTRADA_RETORNO || lerIdentificador() != identificador)
+            {
+                throw divergir(String.format("no passo %d a reprodução chamou '%s', que não foi gravada neste ponto", getPassoAtual(), chave));
+            }
+
+            return lerValor();
+        }
+    }
+
+    private byte lerTipoEntrada() throws ErroReproducao
+    {
+        verificarDivergencia();
+
+        try
+        {
+            return leitor.lerByte();
+        }
+        catch (IOException excecao)
+        {
+            throw divergir(excecao.getMessage());
+        }
+    }
+
+    private int lerIdentificador() throws ErroReproducao
+    {
+        try
+        {
+            return leitor.lerInteiro();
+        }
+        catch (IOException excecao)
+        {
+            throw divergir(excecao.getMessage());
+        }
+    }
+
+    private Object lerValor() throws ErroReproducao
+    {
+        try
+        {
+            return leitor.lerValor();
+        }
+        catch (IOException excecao)
+        {
+            throw divergir(excecao.getMessage());
+        }
+    }
+
+    private void verificarDivergencia() throws ErroReproducao
+    {
+        if (divergencia != null)
+        {
+            throw new ErroReproducao(divergencia);
+        }
+    }
+
+    private ErroReproducao divergir(String motivo)
+    {
+        if (divergencia == null)
+        {
+            divergencia = motivo;
+        }
+
+        return new ErroReproducao(divergencia);
+    }
+}
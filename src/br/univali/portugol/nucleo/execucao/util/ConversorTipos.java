@@ -2,38 +2,146 @@ package br.univali.portugol.nucleo.execucao.util;
 
 import br.univali.portugol.nucleo.asa.TipoDado;
 import br.univali.portugol.nucleo.execucao.erros.ErroImpossivelConverterTipos;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 
 /**
+ * Converte os valores entre os tipos de dado do Portugol. As conversões possíveis ficam
+ * em uma tabela indexada pelos tipos de origem e de destino, montada uma única vez, de
+ * forma que cada conversão é apenas uma consulta à tabela e uma chamada direta.
+ * <p>
+ * A tabela contém apenas as conversões entre tipos diferentes, de inteiro para real e de
+ * real para inteiro. Converter um valor para o seu próprio tipo, ou para
+ * {@link TipoDado#TODOS}, é considerado impossível: quem converte deve verificar antes se
+ * o valor já tem o tipo de destino.
  *
  * @author Luiz Fernando Noschang
  */
 public final class ConversorTipos
 {
-    public static Object converter(Object objeto, Class para) throws ErroImpossivelConverterTipos
+    /**
+     * Converte um valor de um tipo de dado para outro.
+     */
+    public interface Conversao
+    {
+        Object converter(Object valor);
+    }
+
+    private static final Conversao INTEIRO_PARA_REAL = new Conversao()
     {
-        try
+        @Override
+        public Object converter(Object valor)
         {
-            Method metodo = ConversorTipos.class.getMethod("converter", objeto.getClass(), para);
-            
-            return metodo.invoke(null, objeto, null);
+            return ((Integer) valor).doubleValue();
         }
-        catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException | InvocationTargetException excecao)
+    };
+
+    private static final Conversao REAL_PARA_INTEIRO = new Conversao()
+    {
+        @Override
+        public Object converter(Object valor)
         {
-            excecao.printStackTrace(System.out);
-            
-            throw new ErroImpossivelConverterTipos(TipoDado.obterTipoDadoPeloTipoJava(objeto.getClass()), TipoDado.obterTipoDadoPeloTipoJava(para));
+            return ((Double) valor).intValue();
         }
+    };
+
+    private static final Conversao[][] CONVERSOES = criarTabela();
+
+    private ConversorTipos()
+    {
+
+    }
+
+    private static Conversao[][] criarTabela()
+    {
+        TipoDado[] tipos = TipoDado.values();
+        Conversao[][] tabela = new Conversao[tipos.length][tipos.length];
+
+        tabela[TipoDado.INTEIRO.ordinal()][TipoDado.REAL.ordinal()] = INTEIRO_PARA_REAL;
+        tabela[TipoDado.REAL.ordinal()][TipoDado.INTEIRO.ordinal()] = REAL_PARA_INTEIRO;
+
+        return tabela;
     }
-    
-    public static Object converter(Double real, Integer inteiro) 
+
+    /**
+     * Obtém a conversão entre dois tipos de dado. Pode ser consultada uma única vez
+     * quando os dois tipos são conhecidos antes da execução.
+     *
+     * @param origem o tipo de dado do valor
+     * @param destino o tipo de dado para o qual o valor será convertido
+     * @return a conversão ou {@code null} se não for possível converter entre os tipos
+     */
+    public static Conversao obterConversao(TipoDado origem, TipoDado destino)
     {
-        return real.intValue();
+        return CONVERSOES[origem.ordinal()][destino.ordinal()];
     }
-    
-    public static Object converter(Integer inteiro, Double real)
+
+    /**
+     * Converte um valor para o tipo de dado informado.
+     *
+     * @param objeto o valor a ser convertido
+     * @param para o tipo de dado de destino
+     * @return o valor convertido
+     * @throws ErroImpossivelConverterTipos se o valor não puder ser convertido
+     */
+    public static Object converter(Object objeto, TipoDado para) throws ErroImpossivelConverterTipos
     {
-        return Double.parseDouble(inteiro.toString());
+        TipoDado origem = obterTipoDado(objeto);
+        Conversao conversao = (origem != null) ? CONVERSOES[origem.ordinal()][para.ordinal()] : null;
+
+        if (conversao == null)
+        {
+            throw new ErroImpossivelConverterTipos(origem, para);
+        }
+
+        return conversao.converter(objeto);
+    }
+
+    /**
+     * Converte um valor para o tipo de dado cujo tipo Java é informado.
+     *
+     * @param objeto o valor a ser convertido
+     * @param para o tipo Java do tipo de dado de destino
+     * @return o valor convertido
+     * @throws ErroImpossivelConverterTipos se o valor não puder ser convertido
+     */
+    public static Object converter(Object objeto, Class para) throws ErroImpossivelConverterTipos
+    {
+        TipoDado destino = TipoDado.obterTipoDadoPeloTipoJava(para);
+
+        if (destino == null)
+        {
+            throw new ErroImpossivelConverterTipos(obterTipoDado(objeto), null);
+        }
+
+        return converter(objeto, destino);
+    }
+
+    private static TipoDado obterTipoDado(Object valor)
+    {
+        if (valor instanceof Integer)
+        {
+            return TipoDado.INTEIRO;
+        }
+
+        if (valor instanceof Double)
+        {
+            return TipoDado.REAL;
+        }
+
+        if (valor instanceof String)
+        {
+            return TipoDado.CADEIA;
+        }
+
+        if (valor instanceof Character)
+        {
+            return TipoDado.CARACTER;
+        }
+
+        if (valor instanceof Boolean)
+        {
+            return TipoDado.LOGICO;
+        }
+
+        return null;
     }
 }
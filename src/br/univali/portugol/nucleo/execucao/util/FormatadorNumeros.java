@@ -0,0 +1,106 @@
+package br.univali.portugol.nucleo.execucao.util;
+
+/**
+ * Converte valores numéricos em texto diretamente em um {@link StringBuilder}, sem criar
+ * {@link String Strings} intermediárias. É utilizado pelas saídas de dados e pelas
+ * concatenações de cadeias com valores numéricos.
+ * <p>
+ * O texto produzido é sempre idêntico ao de {@link Double#toString(double)} e
+ * {@link Integer#toString(int)}. Os valores reais mais comuns em programas de alunos,
+ * como <code>2.5</code> ou <code>1234.75</code>, têm poucas casas decimais e são
+ * representados exatamente por um inteiro dividido por uma potência de dez. Estes
+ * valores são formatados através de aritmética inteira. Os demais valores, que
+ * precisam de notação científica ou de muitos dígitos, são delegados ao
+ * {@link StringBuilder#append(double)}.
+ */
+public final class FormatadorNumeros
+{
+    /**
+     * Abaixo de 10<sup>-3</sup> e a partir de 10<sup>7</sup>, o {@link Double#toString(double)}
+     * utiliza notação científica.
+     */
+    private static final double MENOR_VALOR_DECIMAL = 1e-3;
+    private static final double MAIOR_VALOR_DECIMAL = 1e7;
+
+    private static final int MAXIMO_CASAS_DECIMAIS = 3;
+    private static final double[] POTENCIAS_DEZ = { 1, 10, 100, 1000 };
+    private static final long[] POTENCIAS_DEZ_INTEIRAS = { 1, 10, 100, 1000 };
+
+    private FormatadorNumeros()
+    {
+
+    }
+
+    /**
+     * Acrescenta o valor ao destino, no mesmo formato de {@link Double#toString(double)}.
+     *
+     * @param valor o valor a ser formatado
+     * @param destino onde o texto será acrescentado
+     * @return o destino
+     */
+    public static StringBuilder formatar(double valor, StringBuilder destino)
+    {
+        double absoluto = Math.abs(valor);
+
+        if (absoluto == 0)
+        {
+            // Preserva o sinal de -0.0
+            return destino.append((Double.doubleToRawLongBits(valor) < 0) ? "-0.0" : "0.0");
+        }
+
+        if (absoluto >= MENOR_VALOR_DECIMAL && absoluto < MAIOR_VALOR_DECIMAL)
+        {
+            for (int casas = 0; casas <= MAXIMO_CASAS_DECIMAIS; casas++)
+            {
+                double escalado = Math.rint(absoluto * POTENCIAS_DEZ[casas]);
+
+                // O valor só é formatado aqui se o número decimal com esta quantidade de
+                // casas for convertido exatamente de volta para o mesmo valor real
+                if (escalado / POTENCIAS_DEZ[casas] == absoluto)
+                {
+                    if (valor < 0)
+                    {
+                        destino.append('-');
+                    }
+
+                    return formatarDecimal((long) escalado, casas, destino);
+                }
+            }
+        }
+
+        return destino.append(valor);
+    }
+
+    /**
+     * Acrescenta o valor ao destino, no mesmo formato de {@link Integer#toString(int)}.
+     *
+     * @param valor o valor a ser formatado
+     * @param destino onde o texto será acrescentado
+     * @return o destino
+     */
+    public static StringBuilder formatar(int valor, StringBuilder destino)
+    {
+        return destino.append(valor);
+    }
+
+    private static StringBuilder formatarDecimal(long escalado, int casas, StringBuilder destino)
+    {
+        if (casas == 0)
+        {
+            return destino.append(escalado).append(".0");
+        }
+
+        long divisor = POTENCIAS_DEZ_INTEIRAS[casas];
+        long fracao = escalado % divisor;
+
+        destino.append(escalado / divisor).append('.');
+
+        // Zeros à esquerda da parte fracionária, por exemplo em 0.05
+        for (long limite = divisor / 10; limite > fracao; limite /= 10)
+        {
+            destino.append('0');
+        }
+
+        return destino.append(fracao);
+    }
+}
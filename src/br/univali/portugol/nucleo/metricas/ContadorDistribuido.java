@@ -0,0 +1,86 @@
+package br.univali.portugol.nucleo.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador que pode ser atualizado por várias threads ao mesmo tempo sem que elas
+ * disputem a mesma posição de memória. O valor é dividido em faixas e cada thread
+ * atualiza a faixa correspondente ao seu identificador. A leitura soma todas as faixas.
+ * <p>
+ * As faixas ficam separadas por {@link #ESPACAMENTO} posições para que duas faixas não
+ * compartilhem a mesma linha de cache do processador.
+ */
+public final class ContadorDistribuido
+{
+    private static final int ESPACAMENTO = 8;
+    private static final int FAIXAS = calcularQuantidadeFaixas();
+
+    private final AtomicLongArray faixas = new AtomicLongArray(FAIXAS * ESPACAMENTO);
+
+    private static int calcularQuantidadeFaixas()
+    {
+        int processadores = Runtime.getRuntime().availableProcessors();
+        int faixas = 1;
+
+        while (faixas < processadores * 2 && faixas < 64)
+        {
+            faixas <<= 1;
+        }
+
+        return faixas;
+    }
+
+    /**
+     * Soma um valor ao contador. O valor pode ser negativo.
+     *
+     * @param valor o valor a ser somado
+     */
+    public void adicionar(long valor)
+    {
+        faixas.addAndGet(obterFaixa(), valor);
+    }
+
+    public void incrementar()
+    {
+        adicionar(1);
+    }
+
+    public void decrementar()
+    {
+        adicionar(-1);
+    }
+
+    /**
+     * Obtém o valor do contador. Se houver atualizações simultâneas à leitura, o valor
+     * pode não incluir as mais recentes.
+     *
+     * @return a soma de todas as faixas
+     */
+    public long somar()
+    {
+        long soma = 0;
+
+        for (int i = 0; i < FAIXAS; i++)
+        {
+            soma += faixas.get(i * ESPACAMENTO);
+        }
+
+        return soma;
+    }
+
+    public void zerar()
+    {
+        for (int i = 0; i < FAIXAS; i++)
+        {
+            faixas.set(i * ESPACAMENTO, 0);
+        }
+    }
+
+    private static int obterFaixa()
+    {
+        long identificador = Thread.currentThread().getId();
+        int dispersao = (int) (identificador ^ (identificador >>> 32)) * 0x9E3779B9;
+
+        return ((dispersao >>> 16) & (FAIXAS - 1)) * ESPACAMENTO;
+    }
+}
@@ -0,0 +1,52 @@
+package br.univali.portugol.nucleo.metricas;
+
+/**
+ * Acumula a quantidade de vezes que uma operação foi realizada e o tempo total gasto
+ * nela.
+ */
+public final class EstatisticaOperacao
+{
+    private final ContadorDistribuido quantidade = new ContadorDistribuido();
+    private final ContadorDistribuido tempoTotal = new ContadorDistribuido();
+
+    /**
+     * Registra uma realização da operação.
+     *
+     * @param tempo o tempo gasto, em nanossegundos
+     */
+    public void registrar(long tempo)
+    {
+        quantidade.incrementar();
+        tempoTotal.adicionar(tempo);
+    }
+
+    public long getQuantidade()
+    {
+        return quantidade.somar();
+    }
+
+    /**
+     * @return o tempo gasto em todas as realizações, em nanossegundos
+     */
+    public long getTempoTotal()
+    {
+        return tempoTotal.somar();
+    }
+
+    /**
+     * @return o tempo médio de cada realização, em nanossegundos, ou zero se a operação
+     * ainda não foi realizada
+     */
+    public long getTempoMedio()
+    {
+        long total = getQuantidade();
+
+        return (total > 0) ? getTempoTotal() / total : 0;
+    }
+
+    void zerar()
+    {
+        quantidade.zerar();
+        tempoTotal.zerar();
+    }
+}
@@ -0,0 +1,372 @@
+package br.univali.portugol.nucleo.metricas;
+
+import br.univali.portugol.nucleo.execucao.ModoEncerramento;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Reúne as métricas de funcionamento do núcleo: execuções em andamento e encerradas,
+ * compilações, chamadas às funções das bibliotecas e bibliotecas reservadas em memória.
+ * <p>
+ * As métricas são atualizadas pelo próprio núcleo e podem ser consultadas diretamente
+ * por esta classe ou via JMX, após chamar {@link #registrarMBean()}. Os contadores são
+ * distribuídos entre as threads (ver {@link ContadorDistribuido}) para que programas
+ * executando em paralelo não disputem as mesmas posições de memória.
+ */
+public final class MetricasNucleo implements MetricasNucleoMXBean
+{
+    public static final String NOME_MBEAN = "br.univali.portugol.nucleo:type=MetricasNucleo";
+
+    private static final MetricasNucleo instance = new MetricasNucleo();
+
+    private volatile boolean ativa = true;
+
+    private final ContadorDistribuido execucoesAtivas = new ContadorDistribuido();
+    private final ContadorDistribuido execucoesIniciadas = new ContadorDistribuido();
+    private final Map<ModoEncerramento, ContadorDistribuido> execucoesEncerradas = new EnumMap<>(ModoEncerramento.class);
+
+    private final ContadorDistribuido compilacoes = new ContadorDistribuido();
+    private final ContadorDistribuido compilacoesComErro = new ContadorDistribuido();
+    private final EstatisticaOperacao analiseSintatica = new EstatisticaOperacao();
+    private final EstatisticaOperacao analiseSemantica = new EstatisticaOperacao();
+
+    private final ConcurrentMap<String, ConcurrentMap<String, EstatisticaOperacao>> funcoesBibliotecas = new ConcurrentHashMap<>();
+    private final ContadorDistribuido bibliotecasReservadas = new ContadorDistribuido();
+
+    private MetricasNucleo()
+    {
+        for (ModoEncerramento modo : ModoEncerramento.values())
+        {
+            execucoesEncerradas.put(modo, new ContadorDistribuido());
+        }
+    }
+
+    public static MetricasNucleo getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * Publica as métricas no servidor de MBeans da plataforma, com o nome
+     * {@link #NOME_MBEAN}. Não faz nada se já estiverem publicadas.
+     *
+     * @throws JMException se não for possível publicar as métricas
+     */
+    public void registrarMBean() throws JMException
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, obterNomeMBean());
+        }
+        catch (InstanceAlreadyExistsException excecao)
+        {
+            // Já publicado por outro componente da aplicação
+        }
+    }
+
+    /**
+     * Remove as métricas do servidor de MBeans da plataforma. Não faz nada se não
+     * estiverem publicadas.
+     *
+     * @throws JMException se não for possível remover as métricas
+     */
+    public void desregistrarMBean() throws JMException
+    {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+
+        try
+        {
+            servidor.unregisterMBean(obterNomeMBean());
+        }
+        catch (InstanceNotFoundException excecao)
+        {
+            // Não estava publicado
+        }
+    }
+
+    private static ObjectName obterNomeMBean() throws MalformedObjectNameException
+    {
+        return new ObjectName(NOME_MBEAN);
+    }
+
+    @Override
+    public boolean isAtiva()
+    {
+        return ativa;
+    }
+
+    /**
+     * Liga ou desliga a coleta das métricas. Com a coleta desligada, os pontos de coleta
+     * do núcleo não medem tempo nem atualizam contadores. As métricas de estado atual
+     * (execuções ativas e bibliotecas reservadas) continuam sendo atualizadas, para que
+     * não fiquem incorretas quando a coleta for religada.
+     *
+     * @param ativa se as métricas devem ser coletadas
+     */
+    @Override
+    public void setAtiva(boolean ativa)
+    {
+        this.ativa = ativa;
+    }
+
+    public void execucaoIniciada()
+    {
+        execucoesAtivas.incrementar();
+
+        if (ativa)
+        {
+            execucoesIniciadas.incrementar();
+        }
+    }
+
+    public void execucaoEncerrada(ModoEncerramento modoEncerramento)
+    {
+        execucoesAtivas.decrementar();
+
+        if (ativa)
+        {
+            execucoesEncerradas.get(modoEncerramento).incrementar();
+        }
+    }
+
+    /**
+     * @param sucesso {@code false} se o código fonte continha erros
+     */
+    public void compilacaoRealizada(boolean sucesso)
+    {
+        if (ativa)
+        {
+            compilacoes.incrementar();
+
+            if (!sucesso)
+            {
+                compilacoesComErro.incrementar();
+            }
+        }
+    }
+
+    /**
+     * @param tempo o tempo gasto na análise, em nanossegundos
+     */
+    public void analiseSintaticaRealizada(long tempo)
+    {
+        if (ativa)
+        {
+            analiseSintatica.registrar(tempo);
+        }
+    }
+
+    /**
+     * @param tempo o tempo gasto na análise, em nanossegundos
+     */
+    public void analiseSemanticaRealizada(long tempo)
+    {
+        if (ativa)
+        {
+            analiseSemantica.registrar(tempo);
+        }
+    }
+
+    /**
+     * @param biblioteca o nome da biblioteca
+     * @param funcao o nome da função chamada
+     * @param tempo o tempo gasto na chamada, em nanossegundos
+     */
+    public void funcaoBibliotecaChamada(String biblioteca, String funcao, long tempo)
+    {
+        if (ativa)
+        {
+            obterEstatisticaFuncao(biblioteca, funcao).registrar(tempo);
+        }
+    }
+
+    public void bibliotecaReservada()
+    {
+        bibliotecasReservadas.incrementar();
+    }
+
+    public void bibliotecaLiberada()
+    {
+        bibliotecasReservadas.decrementar();
+    }
+
+    private EstatisticaOperacao obterEstatisticaFuncao(String biblioteca, String funcao)
+    {
+        ConcurrentMap<String, EstatisticaOperacao> funcoes = funcoesBibliotecas.get(biblioteca);
+
+        if (funcoes == null)
+        {
+            ConcurrentMap<String, EstatisticaOperacao> novas = new ConcurrentHashMap<>();
+
+            funcoes = funcoesBibliotecas.putIfAbsent(biblioteca, novas);
+            funcoes = (funcoes != null) ? funcoes : novas;
+        }
+
+        EstatisticaOperacao estatistica = funcoes.get(funcao);
+
+        if (estatistica == null)
+        {
+            EstatisticaOperacao nova = new EstatisticaOperacao();
+
+            estatistica = funcoes.putIfAbsent(funcao, nova);
+            estatistica = (estatistica != null) ? estatistica : nova;
+        }
+
+        return estatistica;
+    }
+
+    /**
+     * Obtém as medições das chamadas de uma função de biblioteca.
+     *
+     * @param biblioteca o nome da biblioteca
+     * @param funcao o nome da função
+     * @return as medições da função, ou {@code null} se ela ainda não foi chamada
+     */
+    public EstatisticaOperacao getEstatisticaFuncaoBiblioteca(String biblioteca, String funcao)
+    {
+        ConcurrentMap<String, EstatisticaOperacao> funcoes = funcoesBibliotecas.get(biblioteca);
+
+        return (funcoes != null) ? funcoes.get(funcao) : null;
+    }
+
+    public EstatisticaOperacao getEstatisticaAnaliseSintatica()
+    {
+        return analiseSintatica;
+    }
+
+    public EstatisticaOperacao getEstatisticaAnaliseSemantica()
+    {
+        return analiseSemantica;
+    }
+
+    public long getExecucoesEncerradas(ModoEncerramento modoEncerramento)
+    {
+        return execucoesEncerradas.get(modoEncerramento).somar();
+    }
+
+    @Override
+    public long getExecucoesAtivas()
+    {
+        return execucoesAtivas.somar();
+    }
+
+    @Override
+    public long getExecucoesIniciadas()
+    {
+        return execucoesIniciadas.somar();
+    }
+
+    @Override
+    public Map<String, Long> getExecucoesEncerradas()
+    {
+        Map<String, Long> encerradas = new TreeMap<>();
+
+        for (Map.Entry<ModoEncerramento, ContadorDistribuido> entrada : execucoesEncerradas.entrySet())
+        {
+            encerradas.put(entrada.getKey().name(), entrada.getValue().somar());
+        }
+
+        return encerradas;
+    }
+
+    @Override
+    public long getCompilacoes()
+    {
+        return compilacoes.somar();
+    }
+
+    @Override
+    public long getCompilacoesComErro()
+    {
+        return compilacoesComErro.somar();
+    }
+
+    @Override
+    public long getAnalisesSintaticas()
+    {
+        return analiseSintatica.getQuantidade();
+    }
+
+    @Override
+    public long getTempoTotalAnaliseSintatica()
+    {
+        return analiseSintatica.getTempoTotal();
+    }
+
+    @Override
+    public long getAnalisesSemanticas()
+    {
+        return analiseSemantica.getQuantidade();
+    }
+
+    @Override
+    public long getTempoTotalAnaliseSemantica()
+    {
+        return analiseSemantica.getTempoTotal();
+    }
+
+    @Override
+    public Map<String, Long> getChamadasFuncoesBibliotecas()
+    {
+        Map<String, Long> chamadas = new TreeMap<>();
+
+        for (Map.Entry<String, ConcurrentMap<String, EstatisticaOperacao>> biblioteca : funcoesBibliotecas.entrySet())
+        {
+            for (Map.Entry<String, EstatisticaOperacao> funcao : biblioteca.getValue().entrySet())
+            {
+                chamadas.put(biblioteca.getKey() + "." + funcao.getKey(), funcao.getValue().getQuantidade());
+            }
+        }
+
+        return chamadas;
+    }
+
+    @Override
+    public Map<String, Long> getTempoTotalFuncoesBibliotecas()
+    {
+        Map<String, Long> tempos = new TreeMap<>();
+
+        for (Map.Entry<String, ConcurrentMap<String, EstatisticaOperacao>> biblioteca : funcoesBibliotecas.entrySet())
+        {
+            for (Map.Entry<String, EstatisticaOperacao> funcao : biblioteca.getValue().entrySet())
+            {
+                tempos.put(biblioteca.getKey() + "." + funcao.getKey(), funcao.getValue().getTempoTotal());
+            }
+        }
+
+        return tempos;
+    }
+
+    @Override
+    public long getBibliotecasReservadas()
+    {
+        return bibliotecasReservadas.somar();
+    }
+
+    @Override
+    public void zerar()
+    {
+        execucoesIniciadas.zerar();
+
+        for (ContadorDistribuido contador : execucoesEncerradas.values())
+        {
+            contador.zerar();
+        }
+
+        compilacoes.zerar();
+        compilacoesComErro.zerar();
+        analiseSintatica.zerar();
+        analiseSemantica.zerar();
+        funcoesBibliotecas.clear();
+    }
+}
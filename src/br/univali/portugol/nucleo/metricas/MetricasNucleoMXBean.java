@@ -0,0 +1,62 @@
+package br.univali.portugol.nucleo.metricas;
+
+import java.util.Map;
+
+/**
+ * Interface de gerenciamento das métricas do núcleo, publicada via JMX por
+ * {@link MetricasNucleo#registrarMBean()}. Os tempos são informados em nanossegundos.
+ */
+public interface MetricasNucleoMXBean
+{
+    public boolean isAtiva();
+
+    public void setAtiva(boolean ativa);
+
+    /**
+     * @return a quantidade de programas executando neste momento
+     */
+    public long getExecucoesAtivas();
+
+    public long getExecucoesIniciadas();
+
+    /**
+     * @return a quantidade de execuções encerradas em cada modo de encerramento
+     */
+    public Map<String, Long> getExecucoesEncerradas();
+
+    public long getCompilacoes();
+
+    public long getCompilacoesComErro();
+
+    public long getAnalisesSintaticas();
+
+    public long getTempoTotalAnaliseSintatica();
+
+    public long getAnalisesSemanticas();
+
+    public long getTempoTotalAnaliseSemantica();
+
+    /**
+     * @return a quantidade de chamadas de cada função de biblioteca, no formato
+     * "Biblioteca.funcao"
+     */
+    public Map<String, Long> getChamadasFuncoesBibliotecas();
+
+    /**
+     * @return o tempo total gasto em cada função de biblioteca, no formato
+     * "Biblioteca.funcao"
+     */
+    public Map<String, Long> getTempoTotalFuncoesBibliotecas();
+
+    /**
+     * @return a quantidade de instâncias de bibliotecas reservadas mantidas pelo
+     * gerenciador de bibliotecas
+     */
+    public long getBibliotecasReservadas();
+
+    /**
+     * Zera os contadores. As execuções ativas e as bibliotecas reservadas não são
+     * alteradas, pois representam o estado atual e não um acúmulo.
+     */
+    public void zerar();
+}
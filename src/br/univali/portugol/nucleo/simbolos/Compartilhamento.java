@@ -0,0 +1,43 @@
+package br.univali.portugol.nucleo.simbolos;
+
+import br.univali.portugol.nucleo.asa.NoDeclaracao;
+
+/**
+ * Conta quantos vetores ou matrizes compartilham os mesmos valores. Os valores de um
+ * vetor ou matriz passado por valor para uma função não são copiados na chamada: o
+ * parâmetro compartilha os valores do argumento, e somente o primeiro símbolo que
+ * alterar os valores compartilhados faz uma cópia deles (<i>copy-on-write</i>).
+ * <p>
+ * Os vetores e matrizes constantes inicializados com literais compartilham os valores da
+ * tabela de constantes do programa, que conta como uma referência que nunca é liberada.
+ *
+ * @see Vetor#compartilhar(String, NoDeclaracao)
+ * @see Matriz#compartilhar(String, NoDeclaracao)
+ * @see Vetor#compartilharConstantes(java.util.List)
+ */
+final class Compartilhamento
+{
+    private int referencias = 2;
+
+    /**
+     * Chamado quando um dos símbolos deixa de utilizar os valores compartilhados, seja
+     * por ter feito a sua própria cópia ou por ter sido liberado.
+     */
+    void desvincular()
+    {
+        referencias--;
+    }
+
+    void vincular()
+    {
+        referencias++;
+    }
+
+    /**
+     * @return {@code true} se mais de um símbolo utiliza os valores
+     */
+    boolean compartilhado()
+    {
+        return referencias > 1;
+    }
+}
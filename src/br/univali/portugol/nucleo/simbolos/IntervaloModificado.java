@@ -0,0 +1,61 @@
+package br.univali.portugol.nucleo.simbolos;
+
+/**
+ * Intervalo de índices de um {@link Vetor}, ou de linhas ou colunas de uma
+ * {@link Matriz}, que foram modificados desde a última consulta. Os limites são
+ * inclusivos.
+ *
+ * @see Vetor#consumirModificacoes()
+ * @see Matriz#consumirModificacoes()
+ */
+public final class IntervaloModificado
+{
+    private final int inicio;
+    private final int fim;
+
+    public IntervaloModificado(int inicio, int fim)
+    {
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    /**
+     * @return o primeiro índice modificado
+     */
+    public int getInicio()
+    {
+        return inicio;
+    }
+
+    /**
+     * @return o último índice modificado
+     */
+    public int getFim()
+    {
+        return fim;
+    }
+
+    /**
+     * @return a quantidade de índices do intervalo
+     */
+    public int getTamanho()
+    {
+        return fim - inicio + 1;
+    }
+
+    boolean contem(int indice)
+    {
+        return indice >= inicio && indice <= fim;
+    }
+
+    IntervaloModificado expandir(int indice)
+    {
+        return new IntervaloModificado(Math.min(inicio, indice), Math.max(fim, indice));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[" + inicio + ", " + fim + "]";
+    }
+}
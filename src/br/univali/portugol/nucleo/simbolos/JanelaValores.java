@@ -0,0 +1,102 @@
+package br.univali.portugol.nucleo.simbolos;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Visões somente leitura sobre trechos dos valores de vetores e matrizes. As visões não
+ * copiam os valores nem guardam referências a eles: cada acesso lê o valor atual do
+ * símbolo, que pode trocar os seus valores por uma cópia quando deixa de compartilhá-los.
+ * Assim, as visões refletem todas as alterações feitas depois de criadas.
+ */
+final class JanelaValores
+{
+    private JanelaValores()
+    {
+
+    }
+
+    /**
+     * Calcula o fim (exclusivo) de uma janela, limitando-o ao tamanho disponível.
+     */
+    static int calcularFim(int inicio, int quantidade, int tamanho)
+    {
+        if (inicio < 0 || quantidade < 0 || inicio > tamanho)
+        {
+            throw new IndexOutOfBoundsException(String.format("Janela inválida: início %d, quantidade %d, tamanho %d", inicio, quantidade, tamanho));
+        }
+
+        return (int) Math.min((long) inicio + quantidade, tamanho);
+    }
+
+    static List<Object> sobreVetor(final Vetor vetor, final int inicio, final int fim)
+    {
+        return new Janela<Object>()
+        {
+            @Override
+            public Object get(int indice)
+            {
+                verificarIndice(indice, size());
+                return vetor.lerValor(inicio + indice);
+            }
+
+            @Override
+            public int size()
+            {
+                return fim - inicio;
+            }
+        };
+    }
+
+    static List<List<Object>> sobreMatriz(final Matriz matriz, final int linhaInicial, final int linhaFinal, final int colunaInicial, final int colunaFinal)
+    {
+        return new Janela<List<Object>>()
+        {
+            @Override
+            public List<Object> get(int indice)
+            {
+                verificarIndice(indice, size());
+                return sobreLinha(matriz, linhaInicial + indice, colunaInicial, colunaFinal);
+            }
+
+            @Override
+            public int size()
+            {
+                return linhaFinal - linhaInicial;
+            }
+        };
+    }
+
+    private static List<Object> sobreLinha(final Matriz matriz, final int linha, final int colunaInicial, final int colunaFinal)
+    {
+        return new Janela<Object>()
+        {
+            @Override
+            public Object get(int indice)
+            {
+                verificarIndice(indice, size());
+                return matriz.lerValor(linha, colunaInicial + indice);
+            }
+
+            @Override
+            public int size()
+            {
+                return colunaFinal - colunaInicial;
+            }
+        };
+    }
+
+    private static void verificarIndice(int indice, int tamanho)
+    {
+        if (indice < 0 || indice >= tamanho)
+        {
+            throw new IndexOutOfBoundsException(String.format("Índice %d fora da janela de tamanho %d", indice, tamanho));
+        }
+    }
+
+    private abstract static class Janela<T> extends AbstractList<T> implements RandomAccess
+    {
+
+    }
+}
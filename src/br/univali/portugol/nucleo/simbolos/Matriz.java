@@ -3,6 +3,7 @@ package br.univali.portugol.nucleo.simbolos;
 import br.univali.portugol.nucleo.asa.NoDeclaracao;
 import br.univali.portugol.nucleo.asa.TipoDado;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -15,10 +16,17 @@ public final class Matriz extends Simbolo
 {
     private int numeroLinhas;
     private int numeroColunas;
-    private Object[][] valores;
+    /**
+     * Os valores são trocados por uma cópia quando a matriz deixa de compartilhá-los. O
+     * campo é volátil para que os observadores da execução, que leem a matriz na thread
+     * de entrega dos eventos, vejam a cópia completa.
+     */
+    private volatile Object[][] valores;
+    private Compartilhamento compartilhamento;
     public static final Integer TAMANHO_MAXIMO = 16777216;
     private int ultimaLinhaModificada;
     private int ultimaColunaModificada;
+    private volatile RegiaoModificada modificacoes;
 
     public int getUltimaLinhaModificada()
     {
@@ -173,9 +181,86 @@ public final class Matriz extends Simbolo
      */
     public void setValor(int linha, int coluna, Object valor)
     {
+        if (compartilhamento != null)
+        {
+            copiarValoresCompartilhados();
+        }
+
         ultimaLinhaModificada = linha;
         ultimaColunaModificada = coluna;
         this.valores[linha][coluna] = valor;
+
+        RegiaoModificada regiao = modificacoes;
+
+        // Caso comum: a posição já está na região, não é preciso escrever nada
+        if (regiao == null || !regiao.contem(linha, coluna))
+        {
+            expandirModificacoes(linha, coluna);
+        }
+    }
+
+    private synchronized void expandirModificacoes(int linha, int coluna)
+    {
+        RegiaoModificada regiao = modificacoes;
+
+        if (regiao == null)
+        {
+            modificacoes = new RegiaoModificada(new IntervaloModificado(linha, linha), new IntervaloModificado(coluna, coluna));
+        }
+        else if (!regiao.contem(linha, coluna))
+        {
+            modificacoes = regiao.expandir(linha, coluna);
+        }
+    }
+
+    /**
+     * Obtém a região que contém todas as posições modificadas desde a última chamada
+     * deste método e reinicia o rastreamento. Permite que o depurador atualize apenas os
+     * valores que mudaram, em conjunto com {@link #obterJanela(int, int, int, int) }.
+     *
+     * @return a região modificada ou {@code null} se nenhum valor foi modificado
+     */
+    public synchronized RegiaoModificada consumirModificacoes()
+    {
+        RegiaoModificada regiao = modificacoes;
+        modificacoes = null;
+
+        return regiao;
+    }
+
+    /**
+     * Obtém uma visão somente leitura de um trecho desta matriz, sem copiar os valores.
+     * A visão consulta os valores atuais da matriz a cada acesso, portanto reflete as
+     * alterações feitas depois de criada, inclusive quando a matriz deixa de compartilhar
+     * os seus valores e passa a usar uma cópia própria. Se o trecho ultrapassar as
+     * dimensões da matriz, a visão é limitada à última linha ou coluna.
+     *
+     * @param linhaInicial a primeira linha do trecho
+     * @param quantidadeLinhas a quantidade de linhas do trecho
+     * @param colunaInicial a primeira coluna do trecho
+     * @param quantidadeColunas a quantidade de colunas do trecho
+     * @return a visão dos valores do trecho, organizada em linhas
+     */
+    public List<List<Object>> obterJanela(int linhaInicial, int quantidadeLinhas, int colunaInicial, int quantidadeColunas)
+    {
+        if (valores == null)
+        {
+            return Collections.emptyList();
+        }
+
+        int linhaFinal = JanelaValores.calcularFim(linhaInicial, quantidadeLinhas, numeroLinhas);
+        int colunaFinal = JanelaValores.calcularFim(colunaInicial, quantidadeColunas, numeroColunas);
+
+        return JanelaValores.sobreMatriz(this, linhaInicial, linhaFinal, colunaInicial, colunaFinal);
+    }
+
+    /**
+     * Lê um valor sem marcar a matriz como utilizada. Usado pelas janelas, que não guardam
+     * os valores porque eles são trocados quando os valores compartilhados são copiados.
+     */
+    Object lerValor(int linha, int coluna)
+    {
+        return valores[linha][coluna];
     }
 
     private void inicializarComDimensoes(int numeroLinhas, int numeroColunas)
@@ -219,7 +304,20 @@ public final class Matriz extends Simbolo
 
     public void inicializarComValores(List<List<Object>> valores)
     {
+        liberarCompartilhamento();
         inicializarComDimensoesValores(obterNumeroLinhas(valores), obterNumeroColunas(valores), valores);
+        registrarModificacaoCompleta();
+    }
+
+    private void registrarModificacaoCompleta()
+    {
+        if (numeroLinhas > 0 && numeroColunas > 0)
+        {
+            synchronized (this)
+            {
+                modificacoes = new RegiaoModificada(new IntervaloModificado(0, numeroLinhas - 1), new IntervaloModificado(0, numeroColunas - 1));
+            }
+        }
     }
 
     private int obterNumeroLinhas(List<List<Object>> valores)
@@ -253,24 +351,114 @@ public final class Matriz extends Simbolo
     @Override
     public Matriz copiar(String novoNome)
     {
-        Matriz matriz = new Matriz(novoNome, getTipoDado(), getOrigemDoSimbolo());
+        return compartilhar(novoNome, getOrigemDoSimbolo());
+    }
+
+    /**
+     * Cria uma nova matriz com os mesmos valores desta matriz, utilizada na passagem de
+     * matrizes por valor. Os valores não são copiados até que uma das matrizes seja
+     * alterada, portanto passar uma matriz para uma função que apenas a lê não depende
+     * das dimensões da matriz.
+     *
+     * @param nome o nome da nova matriz
+     * @param declaracaoOrigem a declaração que originou a nova matriz
+     * @return a nova matriz
+     */
+    public Matriz compartilhar(String nome, NoDeclaracao declaracaoOrigem)
+    {
+        if (compartilhamento == null)
+        {
+            compartilhamento = new Compartilhamento();
+        }
+        else
+        {
+            compartilhamento.vincular();
+        }
+
+        Matriz matriz = new Matriz(nome, getTipoDado(), declaracaoOrigem);
         matriz.numeroLinhas = numeroLinhas;
         matriz.numeroColunas = numeroColunas;
-        matriz.valores = copiarValores();
+        matriz.valores = valores;
+        matriz.compartilhamento = compartilhamento;
 
         return matriz;
     }
 
+    /**
+     * Define os valores desta matriz com uma cópia dos valores pré-calculados de uma
+     * inicialização constante. As linhas são copiadas inteiras, sem conversões.
+     *
+     * @param constantes os valores da tabela de constantes, com linhas de mesmo tamanho
+     */
+    public void copiarConstantes(Object[][] constantes)
+    {
+        liberarCompartilhamento();
+        numeroLinhas = constantes.length;
+        numeroColunas = constantes[0].length;
+        Object[][] copia = new Object[numeroLinhas][];
+
+        for (int i = 0; i < numeroLinhas; i++)
+        {
+            copia[i] = constantes[i].clone();
+        }
+
+        valores = copia;
+
+        registrarModificacaoCompleta();
+    }
+
+    /**
+     * Define os valores desta matriz a partir dos valores pré-calculados de uma
+     * inicialização constante, sem copiá-los. Os valores são compartilhados com a tabela
+     * de constantes, que nunca os libera, portanto a matriz faz a sua própria cópia na
+     * primeira alteração.
+     *
+     * @param constantes os valores da tabela de constantes, com linhas de mesmo tamanho
+     */
+    public void compartilharConstantes(Object[][] constantes)
+    {
+        liberarCompartilhamento();
+        numeroLinhas = constantes.length;
+        numeroColunas = constantes[0].length;
+        valores = constantes;
+        compartilhamento = new Compartilhamento();
+        registrarModificacaoCompleta();
+    }
+
+    /**
+     * Informa que esta matriz não será mais utilizada, para que as matrizes com as quais
+     * ela compartilha os valores possam alterá-los sem fazer uma cópia.
+     */
+    public void liberarCompartilhamento()
+    {
+        if (compartilhamento != null)
+        {
+            compartilhamento.desvincular();
+            compartilhamento = null;
+        }
+    }
+
+    private void copiarValoresCompartilhados()
+    {
+        if (compartilhamento.compartilhado())
+        {
+            valores = copiarValores();
+        }
+
+        liberarCompartilhamento();
+    }
+
     public List<List<Object>> obterValores()
     {
         List<List<Object>> retorno = new ArrayList<>();
+        Object[][] atuais = valores;
 
         for (int i = 0; i < numeroLinhas; i++)
         {
             List<Object> linha = new ArrayList<>();
             for (int j = 0; j < numeroColunas; j++)
             {
-                linha.add(this.valores[i][j]);
+                linha.add(atuais[i][j]);
             }
             retorno.add(linha);
         }
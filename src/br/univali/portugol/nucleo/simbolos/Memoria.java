@@ -23,7 +23,27 @@ public class Memoria
         escoposLocais = new Stack<>();
         observadores = new ArrayList<>();
     }
-    
+
+    private Memoria(TabelaSimbolos escopoGlobal)
+    {
+        this.escopoGlobal = escopoGlobal;
+        escoposLocais = new Stack<>();
+        observadores = new ArrayList<>();
+    }
+
+    /**
+     * Cria uma nova memória que compartilha o escopo global desta memória, mas possui
+     * sua própria pilha de escopos locais e seus próprios observadores. Permite que
+     * várias funções sejam analisadas ao mesmo tempo, desde que o escopo global não
+     * seja alterado enquanto as memórias criadas estiverem em uso.
+     *
+     * @return uma nova memória com o mesmo escopo global desta
+     */
+    public Memoria compartilharEscopoGlobal()
+    {
+        return new Memoria(escopoGlobal);
+    }
+
     public void adicionarObservador(ObservadorMemoria observador)
     {
         if (!observadores.contains(observador))
@@ -0,0 +1,51 @@
+package br.univali.portugol.nucleo.simbolos;
+
+/**
+ * Região retangular de uma {@link Matriz} que contém todas as posições modificadas
+ * desde a última consulta.
+ *
+ * @see Matriz#consumirModificacoes()
+ */
+public final class RegiaoModificada
+{
+    private final IntervaloModificado linhas;
+    private final IntervaloModificado colunas;
+
+    public RegiaoModificada(IntervaloModificado linhas, IntervaloModificado colunas)
+    {
+        this.linhas = linhas;
+        this.colunas = colunas;
+    }
+
+    /**
+     * @return o intervalo das linhas modificadas
+     */
+    public IntervaloModificado getLinhas()
+    {
+        return linhas;
+    }
+
+    /**
+     * @return o intervalo das colunas modificadas
+     */
+    public IntervaloModificado getColunas()
+    {
+        return colunas;
+    }
+
+    boolean contem(int linha, int coluna)
+    {
+        return linhas.contem(linha) && colunas.contem(coluna);
+    }
+
+    RegiaoModificada expandir(int linha, int coluna)
+    {
+        return new RegiaoModificada(linhas.expandir(linha), colunas.expandir(coluna));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "linhas " + linhas + ", colunas " + colunas;
+    }
+}
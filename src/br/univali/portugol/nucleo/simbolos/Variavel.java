@@ -13,6 +13,19 @@ public final class Variavel extends Simbolo
 {
     private Object valor;
 
+    /**
+     * Texto acumulado pelas concatenações feitas através de
+     * {@link #concatenar(CharSequence)}. Enquanto estiver definido, o valor da variável
+     * só é convertido em {@link String} quando for lido.
+     * <p>
+     * Só a thread do interpretador altera o texto acumulado, mas os observadores da
+     * execução podem ler a variável em outra thread. Por isso as concatenações, a
+     * conversão em {@link String} e o descarte do texto acumulado são feitos com o
+     * monitor da variável. Enquanto não há texto acumulado, nenhum acesso precisa do
+     * monitor.
+     */
+    private StringBuilder cadeiaAcumulada;
+
     /**
      * Aloca uma variável em memória sem definir seu valor.
      *
@@ -58,6 +71,66 @@ public final class Variavel extends Simbolo
     public Object getValor()
     {
         setUtilizado(true);
+
+        return obterValor();
+    }
+
+    /**
+     * Verifica se esta variável contém uma cadeia, sem convertê-la em {@link String}.
+     *
+     * @return <code>true</code> se a variável contém uma cadeia
+     */
+    public boolean contemCadeia()
+    {
+        return (cadeiaAcumulada != null) || (valor instanceof String);
+    }
+
+    /**
+     * Acrescenta um texto ao final da cadeia armazenada nesta variável, sem criar uma
+     * nova {@link String} a cada chamada. Desta forma, um programa que monta uma cadeia
+     * concatenando um caractere de cada vez não precisa copiar a cadeia inteira em cada
+     * concatenação. A {@link String} só é criada quando o valor for lido.
+     *
+     * @param trecho o texto a ser acrescentado
+     *
+     * @throws IllegalStateException se a variável não contém uma cadeia
+     *
+     * @see #contemCadeia()
+     */
+    public synchronized void concatenar(CharSequence trecho)
+    {
+        if (cadeiaAcumulada == null)
+        {
+            if (!(valor instanceof String))
+            {
+                throw new IllegalStateException("A variável '" + getNome() + "' não contém uma cadeia");
+            }
+
+            String atual = (String) valor;
+
+            cadeiaAcumulada = new StringBuilder(Math.max(16, (atual.length() + trecho.length()) * 2));
+            cadeiaAcumulada.append(atual);
+        }
+
+        cadeiaAcumulada.append(trecho);
+        valor = null;
+    }
+
+    private Object obterValor()
+    {
+        Object atual = valor;
+
+        // O valor só fica nulo durante uma concatenação ou antes da inicialização
+        return (atual != null) ? atual : converterCadeiaAcumulada();
+    }
+
+    private synchronized Object converterCadeiaAcumulada()
+    {
+        if (valor == null && cadeiaAcumulada != null)
+        {
+            valor = cadeiaAcumulada.toString();
+        }
+
         return valor;
     }
 
@@ -82,7 +155,21 @@ public final class Variavel extends Simbolo
         }
 
         setInicializado(true);
+
+        if (cadeiaAcumulada != null)
+        {
+            descartarCadeiaAcumulada(valor);
+        }
+        else
+        {
+            this.valor = valor;
+        }
+    }
+
+    private synchronized void descartarCadeiaAcumulada(Object valor)
+    {
         this.valor = valor;
+        this.cadeiaAcumulada = null;
     }
 
     /**
@@ -92,8 +179,9 @@ public final class Variavel extends Simbolo
     public Variavel copiar(String novoNome)
     {
         Variavel variavel = new Variavel(novoNome, getTipoDado(), getOrigemDoSimbolo());
+
         variavel.setInicializado(true);
-        variavel.valor = valor;
+        variavel.valor = obterValor();
 
         return variavel;
     }
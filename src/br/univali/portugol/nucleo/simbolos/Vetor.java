@@ -5,6 +5,7 @@ import br.univali.portugol.nucleo.asa.TipoDado;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Representa um vetor alocado em memória durante a execução de um programa.
@@ -14,10 +15,25 @@ import java.util.List;
  */
 public final class Vetor extends Simbolo
 {
-    private List<Object> valores;
+    /**
+     * Os valores são trocados por uma cópia quando o vetor deixa de compartilhá-los. O
+     * campo é volátil para que os observadores da execução, que leem o vetor na thread de
+     * entrega dos eventos, vejam a cópia completa.
+     */
+    private volatile List<Object> valores;
+    private Compartilhamento compartilhamento;
     private int ultimoIndiceModificado;
     public final static Integer TAMANHO_MAXIMO = 16777216;
 
+    private static final long NENHUMA_MODIFICACAO = -1L;
+
+    /**
+     * Intervalo dos índices modificados desde a última chamada de
+     * {@link #consumirModificacoes()}, com o primeiro índice nos 32 bits mais
+     * significativos e o último nos 32 bits menos significativos.
+     */
+    private final AtomicLong modificacoes = new AtomicLong(NENHUMA_MODIFICACAO);
+
     public int getUltimoIndiceModificado()
     {
         return ultimoIndiceModificado;
@@ -150,13 +166,99 @@ public final class Vetor extends Simbolo
      */
     public void setValor(int indice, Object valor)
     {
+        if (compartilhamento != null)
+        {
+            copiarValoresCompartilhados();
+        }
+
         ultimoIndiceModificado = indice;
         this.valores.set(indice, valor);
+        registrarModificacao(indice);
+    }
+
+    private void registrarModificacao(int indice)
+    {
+        long atual = modificacoes.get();
+
+        // Caso comum: o índice já está no intervalo, não é preciso escrever nada
+        while (atual == NENHUMA_MODIFICACAO || indice < (int) (atual >>> 32) || indice > (int) atual)
+        {
+            long novo = (atual == NENHUMA_MODIFICACAO) ? empacotar(indice, indice) : empacotar(Math.min(indice, (int) (atual >>> 32)), Math.max(indice, (int) atual));
+
+            if (modificacoes.compareAndSet(atual, novo))
+            {
+                return;
+            }
+
+            atual = modificacoes.get();
+        }
+    }
+
+    private static long empacotar(int inicio, int fim)
+    {
+        return ((long) inicio << 32) | (fim & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Obtém o intervalo dos índices modificados desde a última chamada deste método
+     * e reinicia o rastreamento. Permite que o depurador atualize apenas os valores que
+     * mudaram, em conjunto com {@link #obterJanela(int, int) }.
+     *
+     * @return o intervalo modificado ou {@code null} se nenhum valor foi modificado
+     */
+    public IntervaloModificado consumirModificacoes()
+    {
+        long intervalo = modificacoes.getAndSet(NENHUMA_MODIFICACAO);
+
+        if (intervalo == NENHUMA_MODIFICACAO)
+        {
+            return null;
+        }
+
+        return new IntervaloModificado((int) (intervalo >>> 32), (int) intervalo);
+    }
+
+    /**
+     * Obtém uma visão somente leitura de um trecho deste vetor, sem copiar os valores.
+     * A visão consulta os valores atuais do vetor a cada acesso, portanto reflete as
+     * alterações feitas depois de criada, inclusive quando o vetor deixa de compartilhar
+     * os seus valores e passa a usar uma cópia própria. Se o trecho ultrapassar o fim do
+     * vetor, a visão termina no último valor.
+     *
+     * @param inicio o índice do primeiro valor do trecho
+     * @param quantidade a quantidade de valores do trecho
+     * @return a visão dos valores do trecho
+     */
+    public List<Object> obterJanela(int inicio, int quantidade)
+    {
+        if (valores == null)
+        {
+            return Collections.emptyList();
+        }
+
+        int fim = JanelaValores.calcularFim(inicio, quantidade, valores.size());
+
+        return JanelaValores.sobreVetor(this, inicio, fim);
+    }
+
+    /**
+     * Lê um valor sem marcar o vetor como utilizado. Usado pelas janelas, que não guardam
+     * a lista de valores porque ela é trocada quando os valores compartilhados são copiados.
+     */
+    Object lerValor(int indice)
+    {
+        return valores.get(indice);
     }
 
     public void inicializarComValores(List<Object> valores)
     {
+        liberarCompartilhamento();
         this.valores = new ArrayList<>(valores);
+
+        if (!valores.isEmpty())
+        {
+            modificacoes.set(empacotar(0, valores.size() - 1));
+        }
     }
 
     /**
@@ -167,13 +269,75 @@ public final class Vetor extends Simbolo
     @Override
     public Vetor copiar(String novoNome)
     {
-        Vetor vetor = new Vetor(novoNome, getTipoDado(), getOrigemDoSimbolo());
-        vetor.valores = new ArrayList<>(this.valores.size());
-        Collections.copy(vetor.valores, this.valores);
+        return compartilhar(novoNome, getOrigemDoSimbolo());
+    }
+
+    /**
+     * Cria um novo vetor com os mesmos valores deste vetor, utilizado na passagem de
+     * vetores por valor. Os valores não são copiados até que um dos vetores seja
+     * alterado, portanto passar um vetor para uma função que apenas o lê não depende do
+     * tamanho do vetor.
+     *
+     * @param nome o nome do novo vetor
+     * @param declaracaoOrigem a declaração que originou o novo vetor
+     * @return o novo vetor
+     */
+    public Vetor compartilhar(String nome, NoDeclaracao declaracaoOrigem)
+    {
+        if (compartilhamento == null)
+        {
+            compartilhamento = new Compartilhamento();
+        }
+        else
+        {
+            compartilhamento.vincular();
+        }
+
+        Vetor vetor = new Vetor(nome, getTipoDado(), declaracaoOrigem);
+        vetor.valores = valores;
+        vetor.compartilhamento = compartilhamento;
 
         return vetor;
     }
 
+    /**
+     * Define os valores deste vetor a partir dos valores pré-calculados de uma
+     * inicialização constante, sem copiá-los. Os valores são compartilhados com a tabela
+     * de constantes, que nunca os libera, portanto o vetor faz a sua própria cópia na
+     * primeira alteração.
+     *
+     * @param constantes os valores da tabela de constantes
+     */
+    public void compartilharConstantes(List<Object> constantes)
+    {
+        liberarCompartilhamento();
+        valores = constantes;
+        compartilhamento = new Compartilhamento();
+    }
+
+    /**
+     * Informa que este vetor não será mais utilizado, para que os vetores com os quais
+     * ele compartilha os valores possam alterá-los sem fazer uma cópia.
+     */
+    public void liberarCompartilhamento()
+    {
+        if (compartilhamento != null)
+        {
+            compartilhamento.desvincular();
+            compartilhamento = null;
+        }
+    }
+
+    private void copiarValoresCompartilhados()
+    {
+        if (compartilhamento.compartilhado())
+        {
+            valores = new ArrayList<>(valores);
+        }
+
+        liberarCompartilhamento();
+    }
+
     public List<Object> obterValores()
     {
         if (valores != null)
@@ -0,0 +1,93 @@
+package br.univali.portugol.nucleo;
+
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class AtivadorDePontosDeParadaTest
+{
+    private static final String PROGRAMA =
+        "programa\n"
+        + "{\n"
+        + "  funcao inicio()\n"
+        + "  {\n"
+        + "    inteiro x = 0\n"
+        + "    x = x + 1\n"
+        + "    escreva(x)\n"
+        + "  }\n"
+        + "}\n";
+
+    @Test
+    public void testAtivaSomenteAsLinhasInformadas() throws Exception
+    {
+        Programa programa = Portugol.compilar(PROGRAMA);
+        List<NoBloco> blocos = obterBlocos(programa.getArvoreSintaticaAbstrata());
+
+        assertFalse(programa.possuiPontosDeParadaAtivos());
+
+        programa.ativaPontosDeParada(new HashSet<>(Arrays.asList(5, 7)));
+
+        assertTrue(programa.possuiPontosDeParadaAtivos());
+        assertTrue(blocos.get(0).pontoDeParadaEstaAtivo());
+        assertFalse(blocos.get(1).pontoDeParadaEstaAtivo());
+        assertTrue(blocos.get(2).pontoDeParadaEstaAtivo());
+
+        programa.ativaPontosDeParada(new HashSet<>(Arrays.asList(6)));
+
+        assertFalse(blocos.get(0).pontoDeParadaEstaAtivo());
+        assertTrue(blocos.get(1).pontoDeParadaEstaAtivo());
+        assertFalse(blocos.get(2).pontoDeParadaEstaAtivo());
+
+        programa.ativaPontosDeParada(Collections.<Integer>emptySet());
+
+        assertFalse(programa.possuiPontosDeParadaAtivos());
+        assertFalse(blocos.get(1).pontoDeParadaEstaAtivo());
+    }
+
+    @Test
+    public void testAlternaUmaUnicaLinha() throws Exception
+    {
+        Programa programa = Portugol.compilar(PROGRAMA);
+        List<NoBloco> blocos = obterBlocos(programa.getArvoreSintaticaAbstrata());
+
+        programa.ativaPontosDeParada(new HashSet<>(Arrays.asList(5)));
+        programa.definirPontoDeParada(7, true);
+
+        assertTrue(blocos.get(0).pontoDeParadaEstaAtivo());
+        assertTrue(blocos.get(2).pontoDeParadaEstaAtivo());
+
+        programa.definirPontoDeParada(5, false);
+
+        assertFalse(blocos.get(0).pontoDeParadaEstaAtivo());
+        assertTrue(blocos.get(2).pontoDeParadaEstaAtivo());
+    }
+
+    @Test
+    public void testNovaASAMantemAsLinhasAtivas() throws Exception
+    {
+        Programa programa = Portugol.compilar(PROGRAMA);
+
+        programa.ativaPontosDeParada(new HashSet<>(Arrays.asList(6)));
+
+        ArvoreSintaticaAbstrataPrograma novaASA = Portugol.compilar(PROGRAMA).getArvoreSintaticaAbstrata();
+        List<NoBloco> blocos = obterBlocos(novaASA);
+
+        programa.setArvoreSintaticaAbstrata(novaASA);
+        programa.definirPontoDeParada(7, true);
+
+        assertFalse(blocos.get(0).pontoDeParadaEstaAtivo());
+        assertTrue(blocos.get(1).pontoDeParadaEstaAtivo());
+        assertTrue(blocos.get(2).pontoDeParadaEstaAtivo());
+    }
+
+    private static List<NoBloco> obterBlocos(ArvoreSintaticaAbstrataPrograma asa)
+    {
+        return ((NoDeclaracaoFuncao) asa.getListaDeclaracoesGlobais().get(0)).getBlocos();
+    }
+}
@@ -0,0 +1,135 @@
+package br.univali.portugol.nucleo;
+
+import br.univali.portugol.nucleo.execucao.Depurador;
+import br.univali.portugol.nucleo.execucao.ModoEncerramento;
+import br.univali.portugol.nucleo.execucao.ObservadorExecucao;
+import br.univali.portugol.nucleo.execucao.ResultadoExecucao;
+import br.univali.portugol.nucleo.execucao.es.Saida;
+import br.univali.portugol.nucleo.simbolos.Simbolo;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executa um programa de forma síncrona capturando tudo o que for escrito na saída.
+ * Utilizado pelos testes que precisam comparar a saída de programas.
+ */
+public final class ExecutorProgramaTeste
+{
+    private static final long TEMPO_LIMITE_SEGUNDOS = 30;
+
+    private ExecutorProgramaTeste()
+    {
+
+    }
+
+    public static String executar(Programa programa) throws Exception
+    {
+        final StringBuilder saida = new StringBuilder();
+        final CountDownLatch encerramento = new CountDownLatch(1);
+        final ResultadoExecucao[] resultado = new ResultadoExecucao[1];
+
+        programa.setSaida(new Saida()
+        {
+            @Override
+            public void limpar() throws Exception
+            {
+                saida.setLength(0);
+            }
+
+            @Override
+            public void escrever(String valor) throws Exception
+            {
+                saida.append(valor);
+            }
+
+            @Override
+            public void escrever(boolean valor) throws Exception
+            {
+                saida.append(valor ? "verdadeiro" : "falso");
+            }
+
+            @Override
+            public void escrever(int valor) throws Exception
+            {
+                saida.append(valor);
+            }
+
+            @Override
+            public void escrever(double valor) throws Exception
+            {
+                saida.append(valor);
+            }
+
+            @Override
+            public void escrever(char valor) throws Exception
+            {
+                saida.append(valor);
+            }
+        });
+
+        ObservadorExecucao observador = new ObservadorExecucao()
+        {
+            @Override
+            public void execucaoIniciada(Programa programa)
+            {
+            }
+
+            @Override
+            public void execucaoEncerrada(Programa programa, ResultadoExecucao resultadoExecucao)
+            {
+                resultado[0] = resultadoExecucao;
+                encerramento.countDown();
+            }
+
+            @Override
+            public void highlightLinha(int linha)
+            {
+            }
+
+            @Override
+            public void highlightDetalhadoAtual(int linha, int coluna, int tamanho)
+            {
+            }
+
+            @Override
+            public void simbolosAlterados(List<Simbolo> simbolos)
+            {
+            }
+
+            @Override
+            public void simboloDeclarado(Simbolo simbolo)
+            {
+            }
+
+            @Override
+            public void simboloRemovido(Simbolo simbolo)
+            {
+            }
+        };
+
+        programa.adicionarObservadorExecucao(observador);
+
+        try
+        {
+            programa.executar(null, Depurador.Estado.BREAK_POINT);
+
+            if (!encerramento.await(TEMPO_LIMITE_SEGUNDOS, TimeUnit.SECONDS))
+            {
+                programa.interromper();
+                throw new IllegalStateException("O programa não terminou no tempo esperado");
+            }
+        }
+        finally
+        {
+            programa.removerObservadorExecucao(observador);
+        }
+
+        if (resultado[0].getModoEncerramento() != ModoEncerramento.NORMAL)
+        {
+            throw new IllegalStateException("O programa foi encerrado com " + resultado[0].getModoEncerramento(), resultado[0].getErro());
+        }
+
+        return saida.toString();
+    }
+}
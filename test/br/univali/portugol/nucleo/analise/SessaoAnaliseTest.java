@@ -0,0 +1,206 @@
+package br.univali.portugol.nucleo.analise;
+
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.SerializadorASA;
+import br.univali.portugol.nucleo.mensagens.AvisoAnalise;
+import br.univali.portugol.nucleo.mensagens.ErroAnalise;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class SessaoAnaliseTest
+{
+    private static final String PROGRAMA =
+        "programa\n"
+        + "{\n"
+        + "  inteiro contador = 0\n"
+        + "\n"
+        + "  funcao inicio()\n"
+        + "  {\n"
+        + "    inteiro x = 1\n"
+        + "    contador = somar(x, 2)\n"
+        + "  }\n"
+        + "\n"
+        + "  funcao inteiro somar(inteiro a, inteiro b)\n"
+        + "  {\n"
+        + "    retorne a + b\n"
+        + "  }\n"
+        + "\n"
+        + "  funcao mostrar() { escreva(contador) }\n"
+        + "}\n";
+
+    @Test
+    public void testAlteracaoNoCorpoDeUmaFuncao()
+    {
+        SessaoAnalise sessao = new SessaoAnalise();
+        sessao.analisar(PROGRAMA);
+
+        int posicao = PROGRAMA.indexOf("retorne a + b") + "retorne a".length();
+        sessao.alterar(posicao, 0, " * 2");
+
+        assertTrue(sessao.isUltimaAnaliseIncremental());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+    }
+
+    @Test
+    public void testAlteracaoQueAdicionaLinhasEErros()
+    {
+        SessaoAnalise sessao = new SessaoAnalise();
+        sessao.analisar(PROGRAMA);
+
+        int posicao = PROGRAMA.indexOf("contador = somar");
+        sessao.alterar(posicao, 0, "cadeia c = 3\n    y = 2\n    ");
+
+        assertTrue(sessao.isUltimaAnaliseIncremental());
+        assertFalse(sessao.getResultadoAnalise().getErros().isEmpty());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+
+        // Remove o texto inserido, voltando ao programa original
+        sessao.alterar(posicao, "cadeia c = 3\n    y = 2\n    ".length(), "");
+
+        assertTrue(sessao.isUltimaAnaliseIncremental());
+        assertEquals(PROGRAMA, sessao.getCodigo());
+        assertTrue(sessao.getResultadoAnalise().getErros().isEmpty());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+    }
+
+    @Test
+    public void testAlteracaoForaDasFuncoesFazAnaliseCompleta()
+    {
+        SessaoAnalise sessao = new SessaoAnalise();
+        sessao.analisar(PROGRAMA);
+
+        int posicao = PROGRAMA.indexOf("contador = 0") + "contador = ".length();
+        sessao.alterar(posicao, 1, "10");
+
+        assertFalse(sessao.isUltimaAnaliseIncremental());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+    }
+
+    @Test
+    public void testErroSintaticoFazAnaliseCompleta()
+    {
+        SessaoAnalise sessao = new SessaoAnalise();
+        sessao.analisar(PROGRAMA);
+
+        int posicao = PROGRAMA.indexOf("retorne a + b") + "retorne a + b".length();
+        sessao.alterar(posicao, 0, " }");
+
+        assertFalse(sessao.isUltimaAnaliseIncremental());
+        assertFalse(sessao.getResultadoAnalise().getErrosSintaticos().isEmpty());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+
+        // Depois de corrigido o erro, as próximas alterações voltam a ser incrementais
+        sessao.alterar(posicao, 2, "");
+        sessao.alterar(posicao, 0, " + 1");
+
+        assertTrue(sessao.isUltimaAnaliseIncremental());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+    }
+
+    @Test
+    public void testAnaliseSemanticaReaproveitaFuncoesNaoAfetadas()
+    {
+        SessaoAnalise sessao = new SessaoAnalise();
+        sessao.analisar(PROGRAMA);
+
+        // A função inicio chama somar e precisa ser analisada outra vez; mostrar não
+        int posicao = PROGRAMA.indexOf("retorne a + b") + "retorne a".length();
+        sessao.alterar(posicao, 0, " * 2");
+
+        assertEquals(1, sessao.getQuantidadeFuncoesReaproveitadas());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+
+        posicao = sessao.getCodigo().indexOf("escreva(contador)") + "escreva(".length();
+        sessao.alterar(posicao, 0, "2 * ");
+
+        assertEquals(2, sessao.getQuantidadeFuncoesReaproveitadas());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+
+        // A mudança na assinatura de somar leva a uma análise completa
+        posicao = sessao.getCodigo().indexOf("inteiro b)");
+        sessao.alterar(posicao, "inteiro".length(), "real");
+
+        assertFalse(sessao.isUltimaAnaliseIncremental());
+        assertEquals(0, sessao.getQuantidadeFuncoesReaproveitadas());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+    }
+
+    @Test
+    public void testFuncaoQueConsultaGlobalInicializadaEmOutraFuncaoEhAnalisadaOutraVez()
+    {
+        String codigo =
+            "programa\n"
+            + "{\n"
+            + "  inteiro total\n"
+            + "\n"
+            + "  funcao inicio()\n"
+            + "  {\n"
+            + "    inteiro x = 1\n"
+            + "  }\n"
+            + "\n"
+            + "  funcao mostrar() { escreva(total) }\n"
+            + "\n"
+            + "  funcao limpar() { escreva(\"\") }\n"
+            + "}\n";
+
+        SessaoAnalise sessao = new SessaoAnalise();
+        sessao.analisar(codigo);
+
+        assertFalse(sessao.getResultadoAnalise().getErros().isEmpty());
+
+        int posicao = codigo.indexOf("inteiro x = 1");
+        sessao.alterar(posicao, "inteiro x".length(), "total");
+
+        assertTrue(sessao.isUltimaAnaliseIncremental());
+        assertEquals(1, sessao.getQuantidadeFuncoesReaproveitadas());
+        assertTrue(sessao.getResultadoAnalise().getErros().isEmpty());
+        verificarIgualdadeComAnaliseCompleta(sessao);
+    }
+
+    private static void verificarIgualdadeComAnaliseCompleta(SessaoAnalise sessao)
+    {
+        AnalisadorAlgoritmo analisador = new AnalisadorAlgoritmo();
+        ResultadoAnalise esperado = analisador.analisar(sessao.getCodigo());
+
+        assertEquals(descrever(esperado), descrever(sessao.getResultadoAnalise()));
+
+        if (!esperado.contemErrosSintaticos())
+        {
+            assertArrayEquals(serializar((ArvoreSintaticaAbstrataPrograma) analisador.getArvoreSintaticaAbstrata()), serializar(sessao.getArvoreSintaticaAbstrata()));
+        }
+    }
+
+    private static String descrever(ResultadoAnalise resultado)
+    {
+        StringBuilder descricao = new StringBuilder();
+
+        for (ErroAnalise erro : resultado.getErros())
+        {
+            descricao.append(erro.getClass().getSimpleName()).append(':').append(erro.getLinha()).append(':').append(erro.getColuna()).append(':').append(erro.getMensagem()).append('\n');
+        }
+
+        for (AvisoAnalise aviso : resultado.getAvisos())
+        {
+            descricao.append(aviso.getClass().getSimpleName()).append(':').append(aviso.getLinha()).append(':').append(aviso.getColuna()).append(':').append(aviso.getMensagem()).append('\n');
+        }
+
+        return descricao.toString();
+    }
+
+    private static byte[] serializar(ArvoreSintaticaAbstrataPrograma asa)
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            SerializadorASA.serializar(asa, Channels.newChannel(bytes));
+
+            return bytes.toByteArray();
+        }
+        catch (Exception excecao)
+        {
+            throw new AssertionError(excecao);
+        }
+    }
+}
@@ -7,7 +7,12 @@ import br.univali.portugol.nucleo.analise.ResultadoAnalise;
 import br.univali.portugol.nucleo.analise.semantica.erros.ErroSimboloNaoDeclarado;
 import br.univali.portugol.nucleo.analise.semantica.erros.ErroSimboloNaoInicializado;
 import br.univali.portugol.nucleo.analise.semantica.erros.ErroTiposIncompativeis;
+import br.univali.portugol.nucleo.analise.sintatica.AnalisadorSintatico;
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.NoDeclaracao;
 import br.univali.portugol.nucleo.asa.TipoDado;
+import br.univali.portugol.nucleo.mensagens.AvisoAnalise;
+import br.univali.portugol.nucleo.mensagens.ErroSemantico;
 import org.junit.AfterClass;
 import static org.junit.Assert.*;
 import org.junit.Before;
@@ -336,4 +341,90 @@ public final class AnalisadorSemanticoTest
             assertEquals("Tipos incompatíveis! O comando \"escolha\" espera uma expressão do tipo \""+ TipoDado.INTEIRO+"\" ou \""+TipoDado.CARACTER+"\" mas foi passada uma expressão do tipo \""+TipoDado.CADEIA+"\".", resultado.getErros().get(0).getMensagem());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAnaliseParalelaIgualASequencial()
+    {
+        StringBuilder codigo = new StringBuilder();
+
+        codigo.append("programa\n{\n");
+        codigo.append("  inteiro global\n");
+        codigo.append("  inteiro nuncaInicializada\n");
+        codigo.append("  real fator = 2.5\n");
+        codigo.append("  funcao inicio()\n  {\n    global = 1\n    funcao0(global)\n  }\n");
+
+        for (int i = 0; i < 12; i++)
+        {
+            codigo.append("  funcao inteiro funcao").append(i).append("(inteiro a)\n  {\n");
+            codigo.append("    inteiro local = global + a\n");
+            codigo.append("    inteiro convertido = fator * ").append(i).append("\n");
+
+            if (i % 3 == 0)
+            {
+                codigo.append("    escreva(nuncaInicializada + naoDeclarada").append(i).append(")\n");
+            }
+
+            if (i % 4 == 1)
+            {
+                codigo.append("    cadeia texto = local\n");
+            }
+
+            if (i < 11)
+            {
+                codigo.append("    retorne funcao").append(i + 1).append("(local)\n");
+            }
+
+            codigo.append("  }\n");
+        }
+
+        codigo.append("}\n");
+
+        AnaliseComparada sequencial = new AnaliseComparada(codigo.toString(), Integer.MAX_VALUE);
+        AnaliseComparada paralela = new AnaliseComparada(codigo.toString(), 1);
+
+        // Apenas "nuncaInicializada" não foi inicializada, "global" é inicializada pela função inicio
+        assertEquals(4, sequencial.mensagens.toString().split(ErroSimboloNaoInicializado.class.getSimpleName(), -1).length - 1);
+        assertEquals(sequencial.mensagens.toString(), paralela.mensagens.toString());
+        assertEquals(sequencial.referencias.toString(), paralela.referencias.toString());
+    }
+
+    private static final class AnaliseComparada implements ObservadorAnaliseSemantica
+    {
+        private final StringBuilder mensagens = new StringBuilder();
+        private final StringBuilder referencias = new StringBuilder();
+
+        AnaliseComparada(String codigo, int quantidadeMinimaFuncoesParalelas)
+        {
+            ArvoreSintaticaAbstrataPrograma asa = (ArvoreSintaticaAbstrataPrograma) new AnalisadorSintatico().analisar(codigo);
+
+            AnalisadorSemantico analisador = new AnalisadorSemantico();
+            analisador.setQuantidadeMinimaFuncoesParalelas(quantidadeMinimaFuncoesParalelas);
+            analisador.adicionarObservador(this);
+            analisador.analisar(asa);
+
+            for (NoDeclaracao declaracao : asa.getListaDeclaracoesGlobais())
+            {
+                referencias.append(declaracao.getNome()).append(':');
+
+                for (int i = 0; i < declaracao.getReferencias().size(); i++)
+                {
+                    referencias.append(' ').append(declaracao.getReferencias().get(i).getTrechoCodigoFonte().getLinha());
+                }
+
+                referencias.append('\n');
+            }
+        }
+
+        @Override
+        public void tratarErroSemantico(ErroSemantico erroSemantico)
+        {
+            mensagens.append(erroSemantico.getClass().getSimpleName()).append(':').append(erroSemantico.getLinha()).append(':').append(erroSemantico.getColuna()).append('\n');
+        }
+
+        @Override
+        public void tratarAviso(AvisoAnalise aviso)
+        {
+            mensagens.append(aviso.getClass().getSimpleName()).append(':').append(aviso.getLinha()).append(':').append(aviso.getColuna()).append('\n');
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package br.univali.portugol.nucleo.analise.semantica;
+
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.asa.NoBloco;
+import br.univali.portugol.nucleo.asa.NoChamadaFuncao;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoFuncao;
+import br.univali.portugol.nucleo.asa.NoDeclaracaoVariavel;
+import br.univali.portugol.nucleo.asa.NoExpressao;
+import br.univali.portugol.nucleo.asa.NoOperacao;
+import br.univali.portugol.nucleo.asa.NoRetorne;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class AnotacaoTiposTest
+{
+    private static void verificar(NoExpressao expressao, TipoDado tipoResultado, TipoDado tipoConversao)
+    {
+        assertEquals(tipoResultado, expressao.getTipoResultado());
+        assertEquals(tipoConversao, expressao.getTipoConversao());
+        assertEquals((tipoConversao != null) ? tipoConversao : tipoResultado, expressao.getTipoEfetivo());
+    }
+
+    private static NoExpressao inicializacao(NoBloco bloco)
+    {
+        return ((NoDeclaracaoVariavel) bloco).getInicializacao();
+    }
+
+    @Test
+    public void testTiposEConversoesDasExpressoes() throws Exception
+    {
+        List<?> declaracoes = Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + "    inclua biblioteca Matematica --> mat\n"
+            + "\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        real r = 1\n"
+            + "        inteiro i = 2\n"
+            + "        cadeia c = \"a\" + i\n"
+            + "        r = i * 2\n"
+            + "        escreva(mat.potencia(i, 2.0))\n"
+            + "        logico l = -r > i\n"
+            + "        dobrar(i)\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao inteiro truncar()\n"
+            + "    {\n"
+            + "        retorne 2.5\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao dobrar(real v)\n"
+            + "    {\n"
+            + "    }\n"
+            + "}\n"
+        ).getArvoreSintaticaAbstrata().getListaDeclaracoesGlobais();
+
+        List<NoBloco> blocos = ((NoDeclaracaoFuncao) declaracoes.get(0)).getBlocos();
+
+        verificar(inicializacao(blocos.get(0)), TipoDado.INTEIRO, null);
+        verificar(inicializacao(blocos.get(1)), TipoDado.INTEIRO, null);
+
+        NoOperacao concatenacao = (NoOperacao) inicializacao(blocos.get(2));
+        verificar(concatenacao, TipoDado.CADEIA, null);
+        verificar(concatenacao.getOperandoEsquerdo(), TipoDado.CADEIA, null);
+        verificar(concatenacao.getOperandoDireito(), TipoDado.INTEIRO, null);
+
+        NoOperacao atribuicao = (NoOperacao) blocos.get(3);
+        verificar(atribuicao, TipoDado.REAL, null);
+        verificar(atribuicao.getOperandoDireito(), TipoDado.INTEIRO, null);
+
+        NoChamadaFuncao escreva = (NoChamadaFuncao) blocos.get(4);
+        NoChamadaFuncao potencia = (NoChamadaFuncao) escreva.getParametros().get(0);
+        verificar(escreva, TipoDado.VAZIO, null);
+        verificar(potencia, TipoDado.REAL, null);
+        verificar(potencia.getParametros().get(0), TipoDado.INTEIRO, TipoDado.REAL);
+        verificar(potencia.getParametros().get(1), TipoDado.REAL, null);
+
+        NoOperacao comparacao = (NoOperacao) inicializacao(blocos.get(5));
+        verificar(comparacao, TipoDado.LOGICO, null);
+        verificar(comparacao.getOperandoEsquerdo(), TipoDado.REAL, null);
+
+        // O argumento de uma função do programa é convertido pela variável do parâmetro
+        NoChamadaFuncao dobrar = (NoChamadaFuncao) blocos.get(6);
+        verificar(dobrar.getParametros().get(0), TipoDado.INTEIRO, null);
+
+        NoRetorne retorne = (NoRetorne) ((NoDeclaracaoFuncao) declaracoes.get(1)).getBlocos().get(0);
+        verificar(retorne.getExpressao(), TipoDado.REAL, TipoDado.INTEIRO);
+    }
+}
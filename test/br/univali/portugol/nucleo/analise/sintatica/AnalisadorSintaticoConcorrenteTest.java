@@ -0,0 +1,163 @@
+package br.univali.portugol.nucleo.analise.sintatica;
+
+import br.univali.portugol.nucleo.analise.sintatica.erros.ErroExpressoesForaEscopoPrograma;
+import br.univali.portugol.nucleo.asa.ArvoreSintaticaAbstrataPrograma;
+import br.univali.portugol.nucleo.asa.SerializadorASA;
+import br.univali.portugol.nucleo.mensagens.ErroSintatico;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class AnalisadorSintaticoConcorrenteTest
+{
+    private static final int QUANTIDADE_PROGRAMAS = 200;
+    private static final int QUANTIDADE_THREADS = 8;
+    private static final int REPETICOES = 5;
+
+    @Test
+    public void testCodigoAposEscopoDoPrograma()
+    {
+        String programa = "programa\n{\n  funcao inicio()\n  {\n    escreva(\"} {\")\n  }\n}";
+
+        assertEquals(0, analisar(programa).erros.size());
+        assertEquals(0, analisar(programa + "\n  // comentário\n  /* outro\n comentário */  \n").erros.size());
+
+        List<ErroSintatico> erros = analisar(programa + "\n\n inteiro x").erros;
+
+        assertEquals(1, erros.size());
+        assertTrue(erros.get(0) instanceof ErroExpressoesForaEscopoPrograma);
+        assertEquals(1, analisar(programa + " /* comentário */ ).").erros.size());
+    }
+
+    @Test
+    public void testAnalisesConcorrentesProduzemMesmoResultado() throws Exception
+    {
+        final List<String> programas = new ArrayList<>();
+        final List<String> esperados = new ArrayList<>();
+
+        for (int i = 0; i < QUANTIDADE_PROGRAMAS; i++)
+        {
+            String programa = gerarPrograma(i);
+
+            programas.add(programa);
+            esperados.add(analisar(programa).descrever());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(QUANTIDADE_THREADS);
+
+        try
+        {
+            List<Callable<List<String>>> tarefas = new ArrayList<>();
+
+            for (int t = 0; t < QUANTIDADE_THREADS; t++)
+            {
+                final int deslocamento = t;
+
+                tarefas.add(new Callable<List<String>>()
+                {
+                    @Override
+                    public List<String> call() throws Exception
+                    {
+                        String[] resultados = new String[programas.size()];
+
+                        for (int repeticao = 0; repeticao < REPETICOES; repeticao++)
+                        {
+                            for (int i = 0; i < programas.size(); i++)
+                            {
+                                int indice = (i + deslocamento * 17) % programas.size();
+                                resultados[indice] = analisar(programas.get(indice)).descrever();
+                            }
+                        }
+
+                        return Arrays.asList(resultados);
+                    }
+                });
+            }
+
+            for (Future<List<String>> futuro : executor.invokeAll(tarefas))
+            {
+                assertEquals(esperados, futuro.get());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String gerarPrograma(int indice)
+    {
+        StringBuilder codigo = new StringBuilder("programa\n{\n  inteiro global = ").append(indice).append("\n");
+
+        for (int funcao = 0; funcao <= indice % 7; funcao++)
+        {
+            codigo.append("  funcao inteiro f").append(funcao).append("(inteiro a)\n  {\n");
+            codigo.append("    se (a > ").append(funcao).append(") { retorne a * (global - ").append(funcao).append(") }\n");
+            codigo.append("    retorne -a\n  }\n");
+        }
+
+        if (indice % 5 == 0)
+        {
+            codigo.append("  funcao erro() { inteiro x = (1 + }\n");
+        }
+
+        codigo.append("}\n");
+
+        if (indice % 11 == 0)
+        {
+            codigo.append("escreva(").append(indice).append(")\n");
+        }
+
+        return codigo.toString();
+    }
+
+    private static Analise analisar(String programa)
+    {
+        Analise analise = new Analise();
+        AnalisadorSintatico analisador = new AnalisadorSintatico();
+
+        analisador.adicionarObservador(analise);
+        analise.asa = (ArvoreSintaticaAbstrataPrograma) analisador.analisar(programa);
+
+        return analise;
+    }
+
+    private static final class Analise implements ObservadorAnaliseSintatica
+    {
+        private final List<ErroSintatico> erros = new ArrayList<>();
+        private ArvoreSintaticaAbstrataPrograma asa;
+
+        @Override
+        public void tratarErroSintatico(ErroSintatico erroSintatico)
+        {
+            erros.add(erroSintatico);
+        }
+
+        String descrever() throws Exception
+        {
+            StringBuilder descricao = new StringBuilder();
+
+            for (ErroSintatico erro : erros)
+            {
+                descricao.append(erro.getLinha()).append(':').append(erro.getColuna()).append(':').append(erro.getMensagem()).append('\n');
+            }
+
+            if (erros.isEmpty())
+            {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                SerializadorASA.serializar(asa, Channels.newChannel(bytes));
+                descricao.append(Arrays.toString(bytes.toByteArray()));
+            }
+
+            return descricao.toString();
+        }
+    }
+}
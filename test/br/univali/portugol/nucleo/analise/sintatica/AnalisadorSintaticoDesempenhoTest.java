@@ -0,0 +1,123 @@
+package br.univali.portugol.nucleo.analise.sintatica;
+
+import java.util.Stack;
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.Token;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Verifica que o custo do parsing cresce linearmente com o tamanho do código fonte nos
+ * casos mais custosos para o analisador sintático: expressões com muitos parênteses
+ * aninhados e programas com milhares de linhas.
+ * <p>
+ * O custo é medido pela quantidade de consultas de lookahead feitas pelo parser, que não
+ * depende da máquina onde os testes executam. O tempo de parsing dos mesmos códigos fonte
+ * é medido pelo ExecutorDesempenho ({@code ant benchmark}).
+ */
+public final class AnalisadorSintaticoDesempenhoTest
+{
+    private static final double VARIACAO_TOLERADA = 1.1;
+
+    @Test
+    public void testParentesesAninhadosTemCustoLinear() throws Exception
+    {
+        verificarCustoLinear(gerarExpressaoParentesesAninhados(100), gerarExpressaoParentesesAninhados(200));
+    }
+
+    @Test
+    public void testProgramaComMilharesDeLinhasTemCustoLinear() throws Exception
+    {
+        verificarCustoLinear(gerarProgramaComLinhas(2500), gerarProgramaComLinhas(5000));
+    }
+
+    private static String gerarExpressaoParentesesAninhados(int niveis)
+    {
+        StringBuilder codigo = new StringBuilder("programa\n{\n  funcao inicio()\n  {\n    inteiro x = ");
+
+        for (int nivel = 0; nivel < niveis; nivel++)
+        {
+            codigo.append("(-");
+        }
+
+        codigo.append('1');
+
+        for (int nivel = 0; nivel < niveis; nivel++)
+        {
+            codigo.append(" + ").append(nivel).append(')');
+        }
+
+        return codigo.append("\n  }\n}\n").toString();
+    }
+
+    private static String gerarProgramaComLinhas(int linhas)
+    {
+        StringBuilder codigo = new StringBuilder("programa\n{\n  funcao inicio()\n  {\n    inteiro x = 0\n");
+
+        for (int linha = 5; linha < linhas - 2; linha++)
+        {
+            switch (linha % 4)
+            {
+                case 0: codigo.append("    se (x > ").append(linha).append(") { x = x - 1 } senao se (x < 2) { x = (x + 1) * 2 } senao { escreva(x) }\n"); break;
+                case 1: codigo.append("    x = -(x * 2 + ").append(linha).append(") % 7\n"); break;
+                case 2: codigo.append("    enquanto (x > 10 e nao (x == 3)) { x = x / 2 }\n"); break;
+                default: codigo.append("    escreva(\"linha \", ").append(linha).append(", x >= 0 ou x < -1)\n");
+            }
+        }
+
+        return codigo.append("  }\n}\n").toString();
+    }
+
+    private static void verificarCustoLinear(String codigoMenor, String codigoMaior) throws Exception
+    {
+        double custoMenor = calcularCustoPorToken(codigoMenor);
+        double custoMaior = calcularCustoPorToken(codigoMaior);
+
+        assertTrue(String.format("Custo por token cresceu de %.2f para %.2f", custoMenor, custoMaior), custoMaior <= custoMenor * VARIACAO_TOLERADA);
+    }
+
+    private static double calcularCustoPorToken(String codigo) throws Exception
+    {
+        ContadorLookahead tokens = new ContadorLookahead(new PortugolLexer(new ANTLRStringStream(codigo)));
+        PortugolParser parser = new PortugolParser(tokens);
+
+        parser.adicionarObservadorParsing(new ObservadorParsing()
+        {
+            @Override
+            public void tratarErroParsing(RecognitionException erro, String[] tokens, Stack<String> pilhaContexto, String mensagemPadrao)
+            {
+                fail(mensagemPadrao);
+            }
+        });
+
+        parser.parse();
+
+        return (double) tokens.consultas / tokens.getTokens().size();
+    }
+
+    private static final class ContadorLookahead extends CommonTokenStream
+    {
+        private long consultas;
+
+        ContadorLookahead(PortugolLexer lexer)
+        {
+            super(lexer);
+        }
+
+        @Override
+        public int LA(int i)
+        {
+            consultas++;
+            return super.LA(i);
+        }
+
+        @Override
+        public Token LT(int k)
+        {
+            consultas++;
+            return super.LT(k);
+        }
+    }
+}
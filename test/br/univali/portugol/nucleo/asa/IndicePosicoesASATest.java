@@ -0,0 +1,103 @@
+package br.univali.portugol.nucleo.asa;
+
+import br.univali.portugol.nucleo.ErroAoRenomearSimbolo;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class IndicePosicoesASATest
+{
+    private static final String PROGRAMA =
+        "programa\n"
+        + "{\n"
+        + "  inclua biblioteca Matematica --> mat\n"
+        + "  inteiro total = 0\n"
+        + "  inteiro v[3] = {1, 2, 3}\n"
+        + "\n"
+        + "  funcao inicio()\n"
+        + "  {\n"
+        + "    para (inteiro i = 0; i < 3; i++)\n"
+        + "    {\n"
+        + "      total = somar(total, v[i])\n"
+        + "    }\n"
+        + "    escreva(total, mat.PI)\n"
+        + "  }\n"
+        + "\n"
+        + "  funcao inteiro somar(inteiro a, inteiro b)\n"
+        + "  {\n"
+        + "    retorne a + b\n"
+        + "  }\n"
+        + "}\n";
+
+    @Test
+    public void testObterDeclaracaoPorPosicao() throws Exception
+    {
+        IndicePosicoesASA indice = Portugol.compilar(PROGRAMA).getIndicePosicoes();
+
+        NoDeclaracao total = indice.obterDeclaracao(4, 10);
+
+        assertTrue(total instanceof NoDeclaracaoVariavel);
+        assertEquals("total", total.getNome());
+        assertSame(total, indice.obterDeclaracao(11, 6));
+        assertSame(total, indice.obterDeclaracao(11, 10));
+        assertSame(total, indice.obterDeclaracao(13, 12));
+        assertNull(indice.obterDeclaracao(11, 11));
+
+        NoDeclaracao somar = indice.obterDeclaracao(11, 15);
+
+        assertTrue(somar instanceof NoDeclaracaoFuncao);
+        assertSame(somar, indice.obterDeclaracao(16, 18));
+        assertSame(indice.obterDeclaracao(16, 31), indice.obterDeclaracao(18, 12));
+        assertTrue(indice.obterDeclaracao(5, 10) instanceof NoDeclaracaoVetor);
+
+        assertTrue(indice.obterSimbolo(13, 20) instanceof NoReferenciaVariavel);
+        assertNull(indice.obterDeclaracao(13, 20));
+        assertNull(indice.obterSimbolo(1, 0));
+    }
+
+    @Test
+    public void testOcorrenciasOrdenadasSemRepeticoes() throws Exception
+    {
+        Programa programa = Portugol.compilar(PROGRAMA);
+        IndicePosicoesASA indice = programa.getIndicePosicoes();
+
+        assertSame(indice, programa.getIndicePosicoes());
+        assertEquals("[4:10, 11:6, 11:20, 13:12]", descrever(indice.obterOcorrencias(indice.obterDeclaracao(4, 10))));
+        assertEquals("[11:14, 16:17]", descrever(indice.obterOcorrencias(indice.obterDeclaracao(16, 18))));
+        assertTrue(indice.obterOcorrencias(new NoDeclaracaoVariavel("x", TipoDado.INTEIRO, false)).isEmpty());
+    }
+
+    @Test
+    public void testRenomearSimbolo() throws Exception
+    {
+        String renomeado = Portugol.renomearSimbolo(PROGRAMA, 11, 7, "soma");
+
+        assertEquals(PROGRAMA.replace("total", "soma"), renomeado);
+        assertEquals(PROGRAMA.replace("somar", "adicionar"), Portugol.renomearSimbolo(PROGRAMA, 16, 18, "adicionar"));
+
+        try
+        {
+            Portugol.renomearSimbolo(PROGRAMA, 13, 21, "PI2");
+            fail("Constantes de bibliotecas não podem ser renomeadas");
+        }
+        catch (ErroAoRenomearSimbolo erro)
+        {
+            assertTrue(erro.getMensagem().contains("pertence a uma biblioteca"));
+        }
+    }
+
+    private static String descrever(List<TrechoCodigoFonte> trechos)
+    {
+        List<String> descricoes = new ArrayList<>();
+
+        for (TrechoCodigoFonte trecho : trechos)
+        {
+            descricoes.add(trecho.getLinha() + ":" + trecho.getColuna());
+        }
+
+        return descricoes.toString();
+    }
+}
@@ -0,0 +1,228 @@
+package br.univali.portugol.nucleo.asa;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import br.univali.portugol.nucleo.mensagens.AvisoAnalise;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class SerializadorASATest
+{
+    private static final String PROGRAMA =
+        "programa\n"
+        + "{\n"
+        + "  const inteiro LIMITE = 4\n"
+        + "  real fator = 1.5\n"
+        + "  inteiro tabela[2][3] = {{1, 2, 3}, {4, 5, 6}}\n"
+        + "\n"
+        + "  funcao inicio()\n"
+        + "  {\n"
+        + "    inteiro v[] = {5, -3, 8, 1}\n"
+        + "    inteiro total = 0\n"
+        + "    para (inteiro i = 0; i < LIMITE; i++)\n"
+        + "    {\n"
+        + "      se (v[i] > 0 e nao (v[i] == 8)) { total += v[i] } senao { total = total - 1 }\n"
+        + "    }\n"
+        + "    dobrar(total)\n"
+        + "    escreva(total, \" \", somar(tabela), \" \", fator * 2, \" \", (7 & 3) ^ 1, \"\\n\")\n"
+        + "    enquanto (total > 10) { total = total / 2 }\n"
+        + "    faca { total-- } enquanto (total % 3 != 0)\n"
+        + "    escolha (total)\n"
+        + "    {\n"
+        + "      caso 3: escreva(\"tres\") pare\n"
+        + "      caso contrario: escreva(\"outro \", total)\n"
+        + "    }\n"
+        + "  }\n"
+        + "\n"
+        + "  funcao dobrar(inteiro &valor)\n"
+        + "  {\n"
+        + "    valor = valor << 1\n"
+        + "  }\n"
+        + "\n"
+        + "  funcao inteiro somar(inteiro m[][])\n"
+        + "  {\n"
+        + "    inteiro s = 0\n"
+        + "    para (inteiro l = 0; l < 2; l++) { para (inteiro c = 0; c < 3; c++) { s = s + m[l][c] } }\n"
+        + "    retorne s\n"
+        + "  }\n"
+        + "}\n";
+
+    @Test
+    public void testProgramaRecuperadoProduzMesmaSaida() throws Exception
+    {
+        Programa original = Portugol.compilar(PROGRAMA);
+        ArvoreSintaticaAbstrataPrograma recuperada = copiar(original.getArvoreSintaticaAbstrata());
+
+        Programa programa = Portugol.compilar(PROGRAMA);
+        programa.setArvoreSintaticaAbstrata(recuperada);
+
+        assertEquals("8 21 3.0 2\noutro 6", ExecutorProgramaTeste.executar(original));
+        assertEquals(ExecutorProgramaTeste.executar(original), ExecutorProgramaTeste.executar(programa));
+    }
+
+    @Test
+    public void testReferenciasSaoVinculadasAsDeclaracoes() throws Exception
+    {
+        ArvoreSintaticaAbstrataPrograma asa = copiar(Portugol.compilar(PROGRAMA).getArvoreSintaticaAbstrata());
+
+        NoDeclaracao limite = asa.getListaDeclaracoesGlobais().get(0);
+
+        assertEquals("LIMITE", limite.getNome());
+        assertTrue(limite.constante());
+        assertEquals(1, limite.getReferencias().size());
+        assertSame(limite, limite.getReferencias().get(0).getOrigemDaReferencia());
+        assertEquals(11, limite.getReferencias().get(0).getTrechoCodigoFonte().getLinha());
+    }
+
+    @Test
+    public void testTiposDasExpressoesSaoPreservados() throws Exception
+    {
+        String codigo =
+            "programa\n"
+            + "{\n"
+            + "  inclua biblioteca Matematica --> mat\n"
+            + "\n"
+            + "  funcao inicio()\n"
+            + "  {\n"
+            + "    real r = 1\n"
+            + "    escreva(r, \" \", truncar(), \" \", mat.potencia(2, 3))\n"
+            + "  }\n"
+            + "\n"
+            + "  funcao inteiro truncar()\n"
+            + "  {\n"
+            + "    retorne 2.5\n"
+            + "  }\n"
+            + "}\n";
+
+        ArvoreSintaticaAbstrataPrograma recuperada = copiar(Portugol.compilar(codigo).getArvoreSintaticaAbstrata());
+        List<NoDeclaracao> declaracoes = recuperada.getListaDeclaracoesGlobais();
+        NoDeclaracaoFuncao inicio = (NoDeclaracaoFuncao) declaracoes.get(0);
+
+        NoExpressao inicializacao = ((NoDeclaracaoVariavel) inicio.getBlocos().get(0)).getInicializacao();
+        assertEquals(TipoDado.INTEIRO, inicializacao.getTipoResultado());
+        assertNull(inicializacao.getTipoConversao());
+
+        NoChamadaFuncao escreva = (NoChamadaFuncao) inicio.getBlocos().get(1);
+        NoChamadaFuncao potencia = (NoChamadaFuncao) escreva.getParametros().get(4);
+        assertEquals(TipoDado.VAZIO, escreva.getTipoResultado());
+        assertNull(escreva.getTipoConversao());
+        assertEquals(TipoDado.REAL, potencia.getParametros().get(0).getTipoConversao());
+
+        NoRetorne retorne = (NoRetorne) ((NoDeclaracaoFuncao) declaracoes.get(1)).getBlocos().get(0);
+        assertEquals(TipoDado.REAL, retorne.getExpressao().getTipoResultado());
+        assertEquals(TipoDado.INTEIRO, retorne.getExpressao().getTipoConversao());
+
+        Programa programa = Portugol.compilar(codigo);
+        programa.setArvoreSintaticaAbstrata(recuperada);
+
+        assertEquals("1.0 2 8.0", ExecutorProgramaTeste.executar(programa));
+    }
+
+    @Test(expected = ExcecaoSerializacaoASA.class)
+    public void testConteudoTruncadoEhRejeitado() throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SerializadorASA.serializar(Portugol.compilar(PROGRAMA).getArvoreSintaticaAbstrata(), Channels.newChannel(bytes));
+
+        byte[] truncado = Arrays.copyOf(bytes.toByteArray(), bytes.size() / 2);
+        SerializadorASA.desserializar(Channels.newChannel(new ByteArrayInputStream(truncado)));
+    }
+
+    @Test
+    public void testCacheReaproveitaProgramaCompilado() throws Exception
+    {
+        File diretorio = Files.createTempDirectory("cache-asa").toFile();
+
+        try
+        {
+            Programa compilado = Portugol.compilar(PROGRAMA, diretorio);
+            assertEquals(1, diretorio.listFiles().length);
+
+            Programa recuperado = Portugol.compilar(PROGRAMA, diretorio);
+            assertNotSame(compilado.getArvoreSintaticaAbstrata(), recuperado.getArvoreSintaticaAbstrata());
+            assertEquals(compilado.getFuncaoInicial(), recuperado.getFuncaoInicial());
+            assertEquals(ExecutorProgramaTeste.executar(compilado), ExecutorProgramaTeste.executar(recuperado));
+        }
+        finally
+        {
+            for (File arquivo : diretorio.listFiles())
+            {
+                arquivo.delete();
+            }
+
+            diretorio.delete();
+        }
+    }
+
+    @Test
+    public void testCacheRecuperaAvisosDaCompilacao() throws Exception
+    {
+        String codigo =
+            "programa\n"
+            + "{\n"
+            + "  inteiro total = 0\n"
+            + "\n"
+            + "  funcao inicio()\n"
+            + "  {\n"
+            + "    inteiro total = 7.9\n"
+            + "    escreva(total, \" \", metade(total))\n"
+            + "  }\n"
+            + "\n"
+            + "  funcao inteiro metade(real valor)\n"
+            + "  {\n"
+            + "    retorne valor / 2\n"
+            + "  }\n"
+            + "}\n";
+
+        File diretorio = Files.createTempDirectory("cache-asa").toFile();
+
+        try
+        {
+            Programa compilado = Portugol.compilar(codigo, diretorio);
+            Programa recuperado = Portugol.compilar(codigo, diretorio);
+
+            List<AvisoAnalise> avisos = compilado.getResultadoAnalise().getAvisos();
+            List<AvisoAnalise> avisosRecuperados = recuperado.getResultadoAnalise().getAvisos();
+
+            assertEquals(4, avisos.size());
+            assertEquals(avisos.size(), avisosRecuperados.size());
+
+            for (int i = 0; i < avisos.size(); i++)
+            {
+                assertEquals(avisos.get(i).getClass(), avisosRecuperados.get(i).getClass());
+                assertEquals(avisos.get(i).getMensagem(), avisosRecuperados.get(i).getMensagem());
+                assertEquals(avisos.get(i).getLinha(), avisosRecuperados.get(i).getLinha());
+            }
+
+            NoDeclaracao global = compilado.getArvoreSintaticaAbstrata().getListaDeclaracoesGlobais().get(0);
+            NoDeclaracao globalRecuperada = recuperado.getArvoreSintaticaAbstrata().getListaDeclaracoesGlobais().get(0);
+            assertEquals(global.getReferencias().size(), globalRecuperada.getReferencias().size());
+            assertEquals("7 3", ExecutorProgramaTeste.executar(recuperado));
+        }
+        finally
+        {
+            for (File arquivo : diretorio.listFiles())
+            {
+                arquivo.delete();
+            }
+
+            diretorio.delete();
+        }
+    }
+
+    private static ArvoreSintaticaAbstrataPrograma copiar(ArvoreSintaticaAbstrataPrograma asa) throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SerializadorASA.serializar(asa, Channels.newChannel(bytes));
+
+        return SerializadorASA.desserializar(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
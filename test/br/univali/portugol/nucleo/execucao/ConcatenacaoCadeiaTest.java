@@ -0,0 +1,157 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import br.univali.portugol.nucleo.simbolos.Variavel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class ConcatenacaoCadeiaTest
+{
+    private static String executar(String corpo) throws Exception
+    {
+        return ExecutorProgramaTeste.executar(Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + "    inclua biblioteca Texto --> t\n"
+            + "\n"
+            + corpo
+            + "}\n"
+        ));
+    }
+
+    @Test(timeout = 60000)
+    public void testMontagemDeCadeiaLongaEmLaco() throws Exception
+    {
+        String saida = executar
+        (
+              "    funcao inicio()\n"
+            + "    {\n"
+            + "        cadeia texto = \"\"\n"
+            + "        para (inteiro i = 0; i < 200000; i++)\n"
+            + "        {\n"
+            + "            texto = texto + \"a\"\n"
+            + "            texto += 'b'\n"
+            + "        }\n"
+            + "        escreva(t.numero_caracteres(texto), \" \", t.extrair_subtexto(texto, 0, 6))\n"
+            + "    }\n"
+        );
+
+        assertEquals("400000 ababab", saida);
+    }
+
+    @Test
+    public void testConcatenacaoDeTodosOsTipos() throws Exception
+    {
+        String saida = executar
+        (
+              "    funcao inicio()\n"
+            + "    {\n"
+            + "        cadeia texto = \">\"\n"
+            + "        inteiro v[] = {7, 8}\n"
+            + "        inteiro i = 1\n"
+            + "        texto = texto + 42\n"
+            + "        texto = texto + 2.5\n"
+            + "        texto = texto + verdadeiro\n"
+            + "        texto = texto + 'x'\n"
+            + "        texto = texto + v[i] * 2\n"
+            + "        texto = texto + \"|\" + i\n"
+            + "        se (texto == \">422.5verdadeirox16|1\")\n"
+            + "        {\n"
+            + "            escreva(\"igual \", copiar(texto), \" \", texto)\n"
+            + "        }\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao cadeia copiar(cadeia c)\n"
+            + "    {\n"
+            + "        c = c + \"!\"\n"
+            + "        retorne c\n"
+            + "    }\n"
+        );
+
+        assertEquals("igual >422.5verdadeirox16|1! >422.5verdadeirox16|1", saida);
+    }
+
+    @Test
+    public void testOrdemDeAvaliacaoComChamadaDeFuncao() throws Exception
+    {
+        String saida = executar
+        (
+              "    cadeia texto = \"a\"\n"
+            + "\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        texto = texto + alterar()\n"
+            + "        escreva(texto)\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao cadeia alterar()\n"
+            + "    {\n"
+            + "        texto = \"xyz\"\n"
+            + "        retorne \"b\"\n"
+            + "    }\n"
+        );
+
+        // O valor da variável é lido antes da chamada, como nas demais expressões
+        assertEquals("ab", saida);
+    }
+
+    @Test(timeout = 60000)
+    public void testLeituraEmOutraThreadDuranteConcatenacao() throws Exception
+    {
+        final Variavel variavel = new Variavel("texto", TipoDado.CADEIA, null, "");
+        final AtomicBoolean concluido = new AtomicBoolean();
+        final AtomicReference<Throwable> falha = new AtomicReference<>();
+
+        // Simula um observador da execução lendo a variável enquanto o programa concatena
+        Thread observador = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    while (!concluido.get())
+                    {
+                        String valor = (String) variavel.getValor();
+
+                        for (int i = 0; i < valor.length(); i++)
+                        {
+                            if (valor.charAt(i) != ((i % 2 == 0) ? 'a' : 'b'))
+                            {
+                                throw new AssertionError("Valor inconsistente lido pelo observador: " + valor);
+                            }
+                        }
+                    }
+                }
+                catch (Throwable erro)
+                {
+                    falha.set(erro);
+                }
+            }
+        });
+
+        observador.start();
+
+        for (int i = 0; i < 200000; i++)
+        {
+            variavel.concatenar("a");
+            variavel.concatenar("b");
+
+            if (i % 10000 == 0)
+            {
+                variavel.setValor(variavel.getValor());
+            }
+        }
+
+        concluido.set(true);
+        observador.join();
+
+        assertNull(falha.get());
+        assertEquals(400000, ((String) variavel.getValor()).length());
+    }
+}
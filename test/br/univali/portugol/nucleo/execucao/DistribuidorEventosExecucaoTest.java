@@ -0,0 +1,332 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import br.univali.portugol.nucleo.simbolos.Simbolo;
+import br.univali.portugol.nucleo.simbolos.Variavel;
+import br.univali.portugol.nucleo.simbolos.Vetor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class DistribuidorEventosExecucaoTest
+{
+    private static final int QUANTIDADE_ALTERACOES = 20000;
+
+    @Test(timeout = 60000)
+    public void testObservadorBloqueadoNaoAtrasaOPrograma() throws Exception
+    {
+        CountDownLatch liberacao = new CountDownLatch(1);
+        ObservadorRegistro observador = new ObservadorRegistro(liberacao);
+        DistribuidorEventosExecucao eventos = new DistribuidorEventosExecucao(64, 0, DistribuidorEventosExecucao.PoliticaFilaCheia.BLOQUEAR);
+        Variavel variavel = new Variavel("x", TipoDado.INTEIRO, null, 0);
+
+        eventos.adicionarObservadores(Collections.<ObservadorExecucao>singletonList(observador));
+        eventos.iniciar();
+        eventos.simbolosAlterados(Collections.<Simbolo>singletonList(variavel));
+        observador.bloqueado.await();
+
+        // O observador permanece bloqueado durante todas as alterações, se o programa
+        // dependesse dele o laço nunca terminaria
+        for (int i = 1; i < QUANTIDADE_ALTERACOES; i++)
+        {
+            variavel.setValor(i);
+            eventos.simbolosAlterados(Collections.<Simbolo>singletonList(variavel));
+        }
+
+        liberacao.countDown();
+        eventos.encerrar();
+
+        // As alterações feitas enquanto o observador estava bloqueado foram agrupadas em um único evento
+        assertEquals(Arrays.asList("alterado x=0", "alterado x=" + (QUANTIDADE_ALTERACOES - 1)), observador.eventos);
+    }
+
+    @Test
+    public void testPreservaAOrdemDosEventosDeCadaSimbolo() throws Exception
+    {
+        ObservadorRegistro observador = new ObservadorRegistro(0);
+        DistribuidorEventosExecucao eventos = new DistribuidorEventosExecucao(4, 0, DistribuidorEventosExecucao.PoliticaFilaCheia.BLOQUEAR);
+        Variavel x = new Variavel("x", TipoDado.INTEIRO, null, 0);
+        Variavel y = new Variavel("y", TipoDado.INTEIRO, null, 0);
+
+        eventos.adicionarObservadores(Collections.<ObservadorExecucao>singletonList(observador));
+        eventos.iniciar();
+
+        eventos.simboloDeclarado(x);
+        eventos.destacarLinha(3);
+        x.setValor(1);
+        eventos.simbolosAlterados(Collections.<Simbolo>singletonList(x));
+        eventos.simboloDeclarado(y);
+        eventos.simbolosAlterados(Arrays.<Simbolo>asList(x, y));
+        eventos.simboloRemovido(x);
+        eventos.aguardarEntrega();
+
+        List<String> recebidos = new ArrayList<>(observador.eventos);
+        List<String> eventosX = new ArrayList<>();
+
+        for (String evento : recebidos)
+        {
+            if (evento.contains("x"))
+            {
+                eventosX.add(evento.replaceAll("=.*", ""));
+            }
+        }
+
+        assertEquals("declarado x", recebidos.get(0));
+        assertEquals("linha 3", recebidos.get(1));
+        assertEquals("removido x", recebidos.get(recebidos.size() - 1));
+        assertTrue(recebidos.contains("declarado y"));
+        assertEquals("declarado x", eventosX.get(0));
+        assertEquals("removido x", eventosX.get(eventosX.size() - 1));
+        assertEquals(eventosX.size() - 2, Collections.frequency(eventosX, "alterado x"));
+
+        eventos.encerrar();
+    }
+
+    @Test
+    public void testDescartaAlteracoesQuandoAFilaEstaCheia() throws Exception
+    {
+        ObservadorRegistro observador = new ObservadorRegistro(20);
+        DistribuidorEventosExecucao eventos = new DistribuidorEventosExecucao(2, 0, DistribuidorEventosExecucao.PoliticaFilaCheia.DESCARTAR);
+        List<Variavel> variaveis = new ArrayList<>();
+
+        eventos.adicionarObservadores(Collections.<ObservadorExecucao>singletonList(observador));
+        eventos.iniciar();
+
+        for (int i = 0; i < 50; i++)
+        {
+            Variavel variavel = new Variavel("v" + i, TipoDado.INTEIRO, null, i);
+
+            variaveis.add(variavel);
+            eventos.simbolosAlterados(Collections.<Simbolo>singletonList(variavel));
+        }
+
+        eventos.simboloDeclarado(variaveis.get(0));
+        eventos.encerrar();
+
+        assertTrue(observador.eventos.size() < 50);
+        assertEquals("declarado v0", observador.eventos.get(observador.eventos.size() - 1));
+    }
+
+    @Test
+    public void testObservadorLeOsValoresAtuaisNaThreadDeEntrega() throws Exception
+    {
+        ObservadorRegistro observador = new ObservadorRegistro(0);
+        DistribuidorEventosExecucao eventos = new DistribuidorEventosExecucao(4, 0, DistribuidorEventosExecucao.PoliticaFilaCheia.BLOQUEAR);
+        Vetor original = new Vetor("v", TipoDado.INTEIRO, null, Arrays.<Object>asList(1, 2, 3));
+        Vetor parametro = original.compartilhar("p", null);
+        Variavel texto = new Variavel("t", TipoDado.CADEIA, null, "a");
+
+        eventos.adicionarObservadores(Collections.<ObservadorExecucao>singletonList(observador));
+        eventos.iniciar();
+
+        // O vetor original troca os valores compartilhados por uma cópia própria
+        original.setValor(0, 10);
+        texto.concatenar("b");
+        eventos.simbolosAlterados(Arrays.<Simbolo>asList(original, parametro, texto));
+        eventos.aguardarEntrega();
+        eventos.encerrar();
+
+        assertEquals(Arrays.asList("alterado v=[10, 2, 3]", "alterado p=[1, 2, 3]", "alterado t=ab"), observador.eventos);
+    }
+
+    @Test(timeout = 60000)
+    public void testObservadorComErroNaoImpedeAInterrupcao() throws Exception
+    {
+        final CountDownLatch erros = new CountDownLatch(3);
+
+        ResultadoExecucao resultado = interromperDuranteEntrega(new ObservadorExecucaoBasico()
+        {
+            @Override
+            public void simboloDeclarado(Simbolo simbolo)
+            {
+                erros.countDown();
+                throw new AssertionError("Erro no observador");
+            }
+        }, erros);
+
+        assertEquals(ModoEncerramento.INTERRUPCAO, resultado.getModoEncerramento());
+    }
+
+    @Test(timeout = 60000)
+    public void testObservadorBloqueadoNaoImpedeAInterrupcao() throws Exception
+    {
+        final CountDownLatch bloqueado = new CountDownLatch(1);
+        final CountDownLatch liberacao = new CountDownLatch(1);
+
+        ResultadoExecucao resultado = interromperDuranteEntrega(new ObservadorExecucaoBasico()
+        {
+            @Override
+            public void simboloDeclarado(Simbolo simbolo)
+            {
+                bloqueado.countDown();
+
+                try
+                {
+                    liberacao.await();
+                }
+                catch (InterruptedException excecao)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, bloqueado);
+
+        assertEquals(ModoEncerramento.INTERRUPCAO, resultado.getModoEncerramento());
+    }
+
+    /**
+     * Executa um programa que declara variáveis sem parar, com uma fila de eventos
+     * pequena, e o interrompe depois que o observador sinalizar. Os eventos de declaração
+     * nunca são descartados pela política da fila, então o programa só continua enquanto
+     * a thread de entrega os consome.
+     */
+    private static ResultadoExecucao interromperDuranteEntrega(ObservadorExecucao observador, CountDownLatch sinal) throws Exception
+    {
+        Programa programa = Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro x = 0\n"
+            + "        enquanto (verdadeiro)\n"
+            + "        {\n"
+            + "            inteiro y = x\n"
+            + "            x = y + 1\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n"
+        );
+
+        final CountDownLatch encerramento = new CountDownLatch(1);
+        final ResultadoExecucao[] resultado = new ResultadoExecucao[1];
+
+        programa.configurarEventosDepuracao(2, 0, DistribuidorEventosExecucao.PoliticaFilaCheia.BLOQUEAR);
+        programa.adicionarObservadorExecucao(observador);
+        programa.adicionarObservadorExecucao(new ObservadorExecucaoBasico()
+        {
+            @Override
+            public void execucaoEncerrada(Programa programa, ResultadoExecucao resultadoExecucao)
+            {
+                resultado[0] = resultadoExecucao;
+                encerramento.countDown();
+            }
+        });
+
+        programa.executar(null, Depurador.Estado.BREAK_POINT);
+        sinal.await();
+        programa.interromper();
+        encerramento.await();
+
+        return resultado[0];
+    }
+
+    @Test
+    public void testSemThreadEntregaImediatamente() throws Exception
+    {
+        ObservadorRegistro observador = new ObservadorRegistro(0);
+        DistribuidorEventosExecucao eventos = new DistribuidorEventosExecucao();
+
+        eventos.adicionarObservadores(Collections.<ObservadorExecucao>singletonList(observador));
+        eventos.destacarTrecho(1, 2, 3);
+
+        assertEquals(Arrays.asList("trecho 1:2:3"), observador.eventos);
+    }
+
+    private static final class ObservadorRegistro extends ObservadorExecucaoBasico
+    {
+        private final List<String> eventos = Collections.synchronizedList(new ArrayList<String>());
+        private final CountDownLatch bloqueado = new CountDownLatch(1);
+        private final CountDownLatch liberacao;
+        private final long atraso;
+
+        ObservadorRegistro(long atraso)
+        {
+            this.atraso = atraso;
+            this.liberacao = null;
+        }
+
+        /**
+         * Cria um observador que fica bloqueado no primeiro evento até que a liberação
+         * seja sinalizada.
+         */
+        ObservadorRegistro(CountDownLatch liberacao)
+        {
+            this.atraso = 0;
+            this.liberacao = liberacao;
+        }
+
+        private void registrar(String evento)
+        {
+            eventos.add(evento);
+
+            if (liberacao != null)
+            {
+                bloqueado.countDown();
+
+                try
+                {
+                    liberacao.await();
+                }
+                catch (InterruptedException excecao)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (atraso > 0)
+            {
+                try
+                {
+                    Thread.sleep(atraso);
+                }
+                catch (InterruptedException excecao)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void highlightLinha(int linha)
+        {
+            registrar("linha " + linha);
+        }
+
+        @Override
+        public void highlightDetalhadoAtual(int linha, int coluna, int tamanho)
+        {
+            registrar("trecho " + linha + ":" + coluna + ":" + tamanho);
+        }
+
+        @Override
+        public void simbolosAlterados(List<Simbolo> simbolos)
+        {
+            for (Simbolo simbolo : simbolos)
+            {
+                Object valor = (simbolo instanceof Vetor) ? ((Vetor) simbolo).obterJanela(0, Integer.MAX_VALUE) : ((Variavel) simbolo).getValor();
+
+                registrar("alterado " + simbolo.getNome() + "=" + valor);
+            }
+        }
+
+        @Override
+        public void simboloDeclarado(Simbolo simbolo)
+        {
+            registrar("declarado " + simbolo.getNome());
+        }
+
+        @Override
+        public void simboloRemovido(Simbolo simbolo)
+        {
+            registrar("removido " + simbolo.getNome());
+        }
+    }
+}
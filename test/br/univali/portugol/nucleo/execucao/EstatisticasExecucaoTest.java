@@ -0,0 +1,99 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import br.univali.portugol.nucleo.analise.AnalisadorAlgoritmo;
+import br.univali.portugol.nucleo.analise.EstatisticasAnalise;
+import br.univali.portugol.nucleo.analise.ResultadoAnalise;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class EstatisticasExecucaoTest
+{
+    private static final String CODIGO_FONTE
+            = "programa\n"
+            + "{\n"
+            + "    inclua biblioteca Matematica --> mat\n"
+            + "\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro valores[10]\n"
+            + "        real matriz[3][4]\n"
+            + "        para (inteiro i = 0; i < 10; i++)\n"
+            + "        {\n"
+            + "            valores[i] = fatorial(3)\n"
+            + "        }\n"
+            + "        escreva(somar(valores), \" \", mat.potencia(2.0, 3.0))\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao inteiro somar(inteiro v[])\n"
+            + "    {\n"
+            + "        inteiro soma = 0\n"
+            + "        para (inteiro i = 0; i < 10; i++)\n"
+            + "        {\n"
+            + "            soma = soma + v[i]\n"
+            + "        }\n"
+            + "        retorne soma\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao inteiro fatorial(inteiro n)\n"
+            + "    {\n"
+            + "        se (n <= 1)\n"
+            + "        {\n"
+            + "            retorne 1\n"
+            + "        }\n"
+            + "        retorne n * fatorial(n - 1)\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    public void testEstatisticasDaExecucao() throws Exception
+    {
+        Programa programa = Portugol.compilar(CODIGO_FONTE);
+        final ResultadoExecucao[] resultado = new ResultadoExecucao[1];
+
+        programa.adicionarObservadorExecucao(new ObservadorExecucaoBasico()
+        {
+            @Override
+            public void execucaoEncerrada(Programa programa, ResultadoExecucao resultadoExecucao)
+            {
+                resultado[0] = resultadoExecucao;
+            }
+        });
+
+        assertEquals("60 8.0", ExecutorProgramaTeste.executar(programa));
+
+        EstatisticasExecucao estatisticas = resultado[0].getEstatisticas();
+
+        // inicio + somar + 10 chamadas de fatorial(3), cada uma com mais duas chamadas recursivas
+        assertEquals(1 + 1 + 10 * 3, estatisticas.getChamadasFuncoes());
+        assertEquals(4, estatisticas.getProfundidadeMaximaPilha());
+        assertEquals(1, estatisticas.getChamadasFuncoesBibliotecas());
+
+        // O vetor e a matriz declarados. O vetor passado por valor para somar não é
+        // copiado, pois somar não o altera
+        assertEquals(10 + 3 * 4, estatisticas.getElementosVetoresMatrizes());
+        assertEquals(estatisticas.getElementosVetoresMatrizes() * EstatisticasExecucao.BYTES_POR_ELEMENTO, estatisticas.getBytesVetoresMatrizes());
+        assertEquals("60 8.0".length(), estatisticas.getCaracteresEscritos());
+        assertTrue(estatisticas.getComandosExecutados() > 30);
+        assertTrue(estatisticas.getTempoInicializacaoBibliotecas() > 0);
+        assertTrue(resultado[0].getTempoExecucaoNanos() > 0);
+    }
+
+    @Test
+    public void testEstatisticasDaAnalise() throws Exception
+    {
+        ResultadoAnalise resultadoAnalise = new AnalisadorAlgoritmo().analisar(CODIGO_FONTE);
+        EstatisticasAnalise estatisticas = resultadoAnalise.getEstatisticas();
+
+        assertFalse(resultadoAnalise.contemErros());
+        assertNotNull(estatisticas);
+        assertTrue(estatisticas.getTempoAnaliseLexica() > 0);
+        assertTrue(estatisticas.getTempoAnaliseSintatica() > 0);
+        assertTrue(estatisticas.getTempoAnaliseSemantica() > 0);
+        assertTrue(estatisticas.getTempoCarregamentoBibliotecas() > 0);
+        assertTrue(estatisticas.getQuantidadeTokens() > 100);
+        assertEquals(estatisticas.getTempoAnaliseLexica() + estatisticas.getTempoAnaliseSintatica() + estatisticas.getTempoAnaliseSemantica() + estatisticas.getTempoCarregamentoBibliotecas(), estatisticas.getTempoTotal());
+    }
+}
@@ -0,0 +1,116 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class TabelaConstantesTest
+{
+    private static Programa compilar(String corpo) throws Exception
+    {
+        return Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + corpo
+            + "}\n"
+        );
+    }
+
+    @Test
+    public void testSomenteInicializacoesLiteraisEntramNaTabela() throws Exception
+    {
+        Programa programa = compilar
+        (
+              "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro a[] = {1, -2, 3}\n"
+            + "        real b[2] = {1, -2}\n"
+            + "        cadeia c[][] = {{\"x\", \"y\"}, {\"z\", \"w\"}}\n"
+            + "        inteiro d[] = {1, a[0]}\n"
+            + "        inteiro f[][] = {{1, 2}, {3}}\n"
+            + "    }\n"
+        );
+
+        assertEquals(3, programa.getTabelaConstantes().getQuantidadeDeclaracoes());
+    }
+
+    @Test
+    public void testVetoresEMatrizesSaoRecriadosACadaChamada() throws Exception
+    {
+        String saida = ExecutorProgramaTeste.executar(compilar
+        (
+              "    funcao inicio()\n"
+            + "    {\n"
+            + "        alterar()\n"
+            + "        alterar()\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao alterar()\n"
+            + "    {\n"
+            + "        inteiro v[4] = {1, 2, 3, -4}\n"
+            + "        real r[] = {1, 2}\n"
+            + "        caracter m[2][2] = {{'a', 'b'}, {'c', 'd'}}\n"
+            + "        escreva(v[0], v[3], r[0], m[0][0], m[1][1], \" \")\n"
+            + "        v[0] = 9\n"
+            + "        r[0] = 7.5\n"
+            + "        m[0][0] = 'z'\n"
+            + "    }\n"
+        ));
+
+        assertEquals("1-41.0ad 1-41.0ad ", saida);
+    }
+
+    @Test
+    public void testConstantesCompartilhadasNaoSaoAlteradasPelosParametros() throws Exception
+    {
+        String saida = ExecutorProgramaTeste.executar(compilar
+        (
+              "    funcao inicio()\n"
+            + "    {\n"
+            + "        alterar()\n"
+            + "        alterar()\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao alterar()\n"
+            + "    {\n"
+            + "        const inteiro V[] = {1, 2, 3}\n"
+            + "        const inteiro M[2][2] = {{1, 2}, {3, 4}}\n"
+            + "        zerar(V, M)\n"
+            + "        escreva(V[0], M[0][0], \" \")\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao zerar(inteiro v[], inteiro m[][])\n"
+            + "    {\n"
+            + "        v[0] = 0\n"
+            + "        m[0][0] = 0\n"
+            + "        escreva(v[0], m[0][0], v[1], m[1][1], \" \")\n"
+            + "    }\n"
+        ));
+
+        assertEquals("0024 11 0024 11 ", saida);
+    }
+
+    @Test
+    public void testMatrizNaoLiteralEAvaliadaACadaChamada() throws Exception
+    {
+        String saida = ExecutorProgramaTeste.executar(compilar
+        (
+              "    funcao inicio()\n"
+            + "    {\n"
+            + "        escrever(1)\n"
+            + "        escrever(5)\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao escrever(inteiro x)\n"
+            + "    {\n"
+            + "        inteiro m[][] = {{x, x + 1}, {2, 3}}\n"
+            + "        escreva(m[0][0], m[0][1], m[1][1], \" \")\n"
+            + "    }\n"
+        ));
+
+        assertEquals("123 563 ", saida);
+    }
+}
@@ -0,0 +1,141 @@
+package br.univali.portugol.nucleo.execucao;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class TabelaEscolhaTest
+{
+    private static String executar(String corpo) throws Exception
+    {
+        return ExecutorProgramaTeste.executar(Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + corpo
+            + "}\n"
+        ));
+    }
+
+    @Test
+    public void testCasosProximosComPareEContrario() throws Exception
+    {
+        String saida = executar
+        (
+              "    funcao inicio()\n"
+            + "    {\n"
+            + "        para (inteiro i = -2; i <= 5; i++)\n"
+            + "        {\n"
+            + "            escolha (i)\n"
+            + "            {\n"
+            + "                caso -1:\n"
+            + "                    escreva(\"m\")\n"
+            + "                    pare\n"
+            + "                caso 1:\n"
+            + "                    escreva(\"a\")\n"
+            + "                    pare\n"
+            + "                caso 2:\n"
+            + "                caso 3:\n"
+            + "                    escreva(\"b\")\n"
+            + "                caso 4:\n"
+            + "                    escreva(\"c\")\n"
+            + "                    pare\n"
+            + "                caso contrario:\n"
+            + "                    escreva(\"x\")\n"
+            + "            }\n"
+            + "        }\n"
+            + "    }\n"
+        );
+
+        assertEquals("xmxabcbccx", saida);
+    }
+
+    @Test
+    public void testCasosEsparsosEValoresGrandes() throws Exception
+    {
+        String saida = executar
+        (
+              "    funcao inicio()\n"
+            + "    {\n"
+            + "        escreva(nome(1000), nome(200), nome(-70000), nome(200000), nome(7))\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao cadeia nome(inteiro valor)\n"
+            + "    {\n"
+            + "        escolha (valor)\n"
+            + "        {\n"
+            + "            caso 200:\n"
+            + "                retorne \"B\"\n"
+            + "            caso 1000:\n"
+            + "                retorne \"K\"\n"
+            + "            caso -70000:\n"
+            + "                retorne \"N\"\n"
+            + "            caso 200000:\n"
+            + "                retorne \"M\"\n"
+            + "        }\n"
+            + "        retorne \"?\"\n"
+            + "    }\n"
+        );
+
+        assertEquals("KBNM?", saida);
+    }
+
+    @Test
+    public void testCasosDeCaracteres() throws Exception
+    {
+        String saida = executar
+        (
+              "    funcao inicio()\n"
+            + "    {\n"
+            + "        caracter teclas[] = {'w', 'a', 's', 'd', 'q'}\n"
+            + "        para (inteiro i = 0; i < 5; i++)\n"
+            + "        {\n"
+            + "            escolha (teclas[i])\n"
+            + "            {\n"
+            + "                caso 'w':\n"
+            + "                    escreva(\"^\")\n"
+            + "                    pare\n"
+            + "                caso 's':\n"
+            + "                    escreva(\"v\")\n"
+            + "                    pare\n"
+            + "                caso 'a':\n"
+            + "                caso 'd':\n"
+            + "                    escreva(\"-\")\n"
+            + "                    pare\n"
+            + "                caso contrario:\n"
+            + "                    escreva(\".\")\n"
+            + "            }\n"
+            + "        }\n"
+            + "    }\n"
+        );
+
+        assertEquals("^-v-.", saida);
+    }
+
+    @Test
+    public void testCasoComConstanteEComparadoPeloValor() throws Exception
+    {
+        String saida = executar
+        (
+              "    const inteiro LIMITE = 5000\n"
+            + "\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro valor = 4999\n"
+            + "        valor++\n"
+            + "        escolha (valor)\n"
+            + "        {\n"
+            + "            caso 1:\n"
+            + "                escreva(\"1\")\n"
+            + "                pare\n"
+            + "            caso LIMITE:\n"
+            + "                escreva(\"limite\")\n"
+            + "                pare\n"
+            + "        }\n"
+            + "    }\n"
+        );
+
+        assertEquals("limite", saida);
+    }
+}
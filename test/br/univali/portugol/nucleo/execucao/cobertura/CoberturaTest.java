@@ -0,0 +1,109 @@
+package br.univali.portugol.nucleo.execucao.cobertura;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import java.util.Arrays;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class CoberturaTest
+{
+    private static final String CODIGO_FONTE
+            = "programa\n"
+            + "{\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        classificar(5)\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao outro()\n"
+            + "    {\n"
+            + "        classificar(-1)\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao classificar(inteiro n)\n"
+            + "    {\n"
+            + "        se (n > 0)\n"
+            + "        {\n"
+            + "            escreva(\"positivo \")\n"
+            + "        }\n"
+            + "        senao\n"
+            + "        {\n"
+            + "            escreva(\"negativo \")\n"
+            + "        }\n"
+            + "\n"
+            + "        escolha (n)\n"
+            + "        {\n"
+            + "            caso 5:\n"
+            + "                escreva(\"cinco\")\n"
+            + "                pare\n"
+            + "            caso contrario:\n"
+            + "                escreva(\"outro\")\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n";
+
+    private static Cobertura executar(String funcaoInicial, String saidaEsperada) throws Exception
+    {
+        Programa programa = Portugol.compilar(CODIGO_FONTE);
+        ColetorCobertura coletor = new ColetorCobertura(programa.getMapaCobertura());
+
+        programa.setFuncaoInicial(funcaoInicial);
+        programa.setColetorCobertura(coletor);
+
+        assertEquals(saidaEsperada, ExecutorProgramaTeste.executar(programa));
+
+        return coletor.obterCobertura();
+    }
+
+    @Test
+    public void testCoberturaDeLinhasERamos() throws Exception
+    {
+        Cobertura cobertura = executar("inicio", "positivo cinco");
+
+        assertTrue(cobertura.getLinhasCobertas().containsAll(Arrays.asList(5, 15, 17, 24, 27, 28)));
+        assertTrue(cobertura.getLinhasNaoCobertas().containsAll(Arrays.asList(10, 21, 30)));
+        assertFalse(cobertura.getLinhasNaoCobertas().contains(17));
+
+        assertEquals(4, cobertura.getQuantidadeRamos());
+        assertEquals(2, cobertura.getQuantidadeRamosCobertos());
+        assertTrue(cobertura.getRamosNaoCobertos().contains("linha 15: se falso"));
+
+        StringBuilder lcov = new StringBuilder();
+        cobertura.escreverLcov(lcov, "programa.por");
+
+        assertTrue(lcov.toString().startsWith("SF:programa.por\n"));
+        assertTrue(lcov.toString().contains("DA:17,1\n"));
+        assertTrue(lcov.toString().contains("DA:21,0\n"));
+        assertTrue(lcov.toString().contains("BRDA:15,0,1,0\n"));
+        assertTrue(lcov.toString().contains("BRH:2\n"));
+        assertTrue(lcov.toString().endsWith("end_of_record\n"));
+    }
+
+    @Test
+    public void testMesclarCoberturasDeExecucoesDiferentes() throws Exception
+    {
+        Cobertura positivo = executar("inicio", "positivo cinco");
+        Cobertura negativo = executar("outro", "negativo outro");
+
+        Cobertura total = positivo.mesclar(negativo);
+
+        assertEquals(4, total.getQuantidadeRamosCobertos());
+        assertTrue(total.getRamosNaoCobertos().isEmpty());
+        assertTrue(total.getLinhasNaoCobertas().isEmpty());
+        assertEquals(total.getQuantidadeComandos(), total.getQuantidadeComandosCobertos());
+
+        // As coberturas originais não são alteradas
+        assertEquals(2, positivo.getQuantidadeRamosCobertos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNaoMesclaProgramasDiferentes() throws Exception
+    {
+        Programa outroPrograma = Portugol.compilar("programa\n{\n    funcao inicio()\n    {\n    }\n}\n");
+        Cobertura vazia = new ColetorCobertura(outroPrograma.getMapaCobertura()).obterCobertura();
+
+        executar("inicio", "positivo cinco").mesclar(vazia);
+    }
+}
@@ -0,0 +1,127 @@
+package br.univali.portugol.nucleo.execucao.es;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class EntradaFluxoTest
+{
+    private static final class ArmazenadorTeste implements Armazenador
+    {
+        private Object valor;
+        private boolean cancelado;
+
+        @Override
+        public void cancelarLeitura()
+        {
+            cancelado = true;
+        }
+
+        @Override
+        public void setValor(Object valor)
+        {
+            this.valor = valor;
+        }
+    }
+
+    private static Object ler(Entrada entrada, TipoDado tipoDado) throws Exception
+    {
+        ArmazenadorTeste armazenador = new ArmazenadorTeste();
+        entrada.solicitaEntrada(tipoDado, armazenador);
+
+        return armazenador.cancelado ? "cancelado" : armazenador.valor;
+    }
+
+    @Test
+    public void testLeituraDeTodosOsTipos() throws Exception
+    {
+        EntradaFluxo entrada = EntradaFluxo.doTexto("  42 -2147483648 3,5 -1.25e2\n verdadeiro falso\tx Olá\r\n");
+
+        assertEquals(42, ler(entrada, TipoDado.INTEIRO));
+        assertEquals(Integer.MIN_VALUE, ler(entrada, TipoDado.INTEIRO));
+        assertEquals(3.5, ler(entrada, TipoDado.REAL));
+        assertEquals(-125.0, ler(entrada, TipoDado.REAL));
+        assertEquals(true, ler(entrada, TipoDado.LOGICO));
+        assertEquals(false, ler(entrada, TipoDado.LOGICO));
+        assertEquals('x', ler(entrada, TipoDado.CARACTER));
+        assertEquals("Olá", ler(entrada, TipoDado.CADEIA));
+        assertFalse(entrada.isFimEntrada());
+
+        assertEquals("cancelado", ler(entrada, TipoDado.INTEIRO));
+        assertTrue(entrada.isFimEntrada());
+    }
+
+    @Test
+    public void testValoresInvalidosCancelamALeitura() throws Exception
+    {
+        EntradaFluxo entrada = EntradaFluxo.doTexto("12a 2147483648 NaN talvez 7");
+
+        assertEquals("cancelado", ler(entrada, TipoDado.INTEIRO));
+        assertEquals("cancelado", ler(entrada, TipoDado.INTEIRO));
+        assertEquals("cancelado", ler(entrada, TipoDado.REAL));
+        assertEquals("cancelado", ler(entrada, TipoDado.LOGICO));
+
+        // O valor inválido é descartado e a leitura seguinte continua do próximo valor
+        assertEquals(7, ler(entrada, TipoDado.INTEIRO));
+    }
+
+    @Test
+    public void testValoresMaioresQueOBufferDeLeitura() throws Exception
+    {
+        StringBuilder texto = new StringBuilder();
+
+        for (int i = 0; i < 5000; i++)
+        {
+            texto.append(i).append(i % 10 == 0 ? '\n' : ' ');
+        }
+
+        StringBuilder cadeiaLonga = new StringBuilder();
+
+        for (int i = 0; i < 20000; i++)
+        {
+            cadeiaLonga.append((char) ('a' + i % 26));
+        }
+
+        texto.append(cadeiaLonga);
+
+        EntradaFluxo entrada = new EntradaFluxo(new ByteArrayInputStream(texto.toString().getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+        for (int i = 0; i < 5000; i++)
+        {
+            assertEquals(i, ler(entrada, TipoDado.INTEIRO));
+        }
+
+        assertEquals(cadeiaLonga.toString(), ler(entrada, TipoDado.CADEIA));
+    }
+
+    @Test
+    public void testProgramaLeValoresPreDefinidos() throws Exception
+    {
+        Programa programa = Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro quantidade, valor, soma = 0\n"
+            + "        leia(quantidade)\n"
+            + "        para (inteiro i = 0; i < quantidade; i++)\n"
+            + "        {\n"
+            + "            leia(valor)\n"
+            + "            soma = soma + valor\n"
+            + "        }\n"
+            + "        escreva(soma)\n"
+            + "    }\n"
+            + "}\n"
+        );
+
+        programa.setEntrada(EntradaFluxo.doTexto("4\n10 20\n30 40\n"));
+
+        assertEquals("100", ExecutorProgramaTeste.executar(programa));
+    }
+}
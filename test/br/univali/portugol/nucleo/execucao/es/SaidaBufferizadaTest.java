@@ -0,0 +1,161 @@
+package br.univali.portugol.nucleo.execucao.es;
+
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import br.univali.portugol.nucleo.execucao.Depurador;
+import br.univali.portugol.nucleo.execucao.ObservadorExecucao;
+import br.univali.portugol.nucleo.execucao.ObservadorExecucaoBasico;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class SaidaBufferizadaTest
+{
+    /**
+     * Registra cada bloco recebido, para verificar quantas vezes a saída foi chamada.
+     */
+    private static final class SaidaRegistro implements SaidaEmBlocos
+    {
+        private final List<String> blocos = Collections.synchronizedList(new ArrayList<String>());
+        private int limpezas = 0;
+
+        @Override
+        public void escrever(CharSequence trecho) throws Exception
+        {
+            blocos.add(trecho.toString());
+        }
+
+        @Override
+        public void limpar() throws Exception
+        {
+            limpezas++;
+        }
+
+        @Override
+        public void escrever(String valor) throws Exception
+        {
+            fail("A saída bufferizada deveria entregar apenas blocos");
+        }
+
+        @Override
+        public void escrever(boolean valor) throws Exception
+        {
+            fail("A saída bufferizada deveria entregar apenas blocos");
+        }
+
+        @Override
+        public void escrever(int valor) throws Exception
+        {
+            fail("A saída bufferizada deveria entregar apenas blocos");
+        }
+
+        @Override
+        public void escrever(double valor) throws Exception
+        {
+            fail("A saída bufferizada deveria entregar apenas blocos");
+        }
+
+        @Override
+        public void escrever(char valor) throws Exception
+        {
+            fail("A saída bufferizada deveria entregar apenas blocos");
+        }
+    }
+
+    private static void executar(Programa programa) throws Exception
+    {
+        List<ObservadorExecucao> observadores = Collections.<ObservadorExecucao>singletonList(new ObservadorExecucaoBasico()
+        {
+        });
+
+        Depurador depurador = new Depurador();
+        depurador.setEstado(Depurador.Estado.BREAK_POINT);
+        depurador.adicionarObservadoresExecucao(observadores);
+        depurador.executar(programa, null);
+    }
+
+    @Test
+    public void testValoresSaoEntreguesEmUmUnicoBlocoAoFinalDoPrograma() throws Exception
+    {
+        Programa programa = Portugol.compilar("programa { funcao inicio() { para (inteiro i = 0; i < 100; i++) { escreva(i, \" \", i * 0.5, \" \", i % 2 == 0, '\\n') } } }");
+        SaidaRegistro registro = new SaidaRegistro();
+
+        programa.setSaida(new SaidaBufferizada(registro, SaidaBufferizada.CAPACIDADE_PADRAO, 0));
+        executar(programa);
+
+        StringBuilder esperado = new StringBuilder();
+
+        for (int i = 0; i < 100; i++)
+        {
+            esperado.append(i).append(' ').append(i * 0.5).append(' ').append(i % 2 == 0 ? "verdadeiro" : "falso").append('\n');
+        }
+
+        assertEquals(Collections.singletonList(esperado.toString()), registro.blocos);
+    }
+
+    @Test
+    public void testBufferEDescarregadoAoAtingirACapacidade() throws Exception
+    {
+        SaidaRegistro registro = new SaidaRegistro();
+        SaidaBufferizada saida = new SaidaBufferizada(registro, 4, 0);
+
+        saida.escrever("ab");
+        saida.escrever('c');
+        assertTrue(registro.blocos.isEmpty());
+
+        saida.escrever(12);
+        assertEquals(Collections.singletonList("abc12"), registro.blocos);
+
+        saida.escrever("x");
+        saida.limpar();
+
+        assertEquals(2, registro.blocos.size());
+        assertEquals("x", registro.blocos.get(1));
+        assertEquals(1, registro.limpezas);
+    }
+
+    @Test
+    public void testBufferEDescarregadoAposOIntervalo() throws Exception
+    {
+        SaidaRegistro registro = new SaidaRegistro();
+        SaidaBufferizada saida = new SaidaBufferizada(registro, SaidaBufferizada.CAPACIDADE_PADRAO, 10);
+
+        saida.escrever("calculando...");
+
+        long limite = System.currentTimeMillis() + 5000;
+
+        while (registro.blocos.isEmpty() && System.currentTimeMillis() < limite)
+        {
+            Thread.sleep(5);
+        }
+
+        assertEquals(Collections.singletonList("calculando..."), registro.blocos);
+    }
+
+    @Test
+    public void testBufferEDescarregadoAntesDaLeitura() throws Exception
+    {
+        Programa programa = Portugol.compilar("programa { funcao inicio() { inteiro x escreva(\"Digite: \") leia(x) escreva(x * 2) } }");
+        final SaidaRegistro registro = new SaidaRegistro();
+        final List<String> saidaAntesDaLeitura = new ArrayList<>();
+
+        programa.setSaida(new SaidaBufferizada(registro, SaidaBufferizada.CAPACIDADE_PADRAO, 0));
+        programa.setEntrada(new Entrada()
+        {
+            @Override
+            public void solicitaEntrada(TipoDado tipoDado, Armazenador armazenador) throws Exception
+            {
+                saidaAntesDaLeitura.addAll(registro.blocos);
+                armazenador.setValor(21);
+            }
+        });
+
+        executar(programa);
+
+        assertEquals(Collections.singletonList("Digite: "), saidaAntesDaLeitura);
+        assertEquals("42", registro.blocos.get(registro.blocos.size() - 1));
+    }
+}
@@ -0,0 +1,157 @@
+package br.univali.portugol.nucleo.execucao.es;
+
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import br.univali.portugol.nucleo.execucao.Depurador;
+import br.univali.portugol.nucleo.execucao.ModoEncerramento;
+import br.univali.portugol.nucleo.execucao.ObservadorExecucaoBasico;
+import br.univali.portugol.nucleo.execucao.ResultadoExecucao;
+import br.univali.portugol.nucleo.execucao.erros.ErroSaidaInterrompida;
+import br.univali.portugol.nucleo.execucao.es.SaidaCapturada.PoliticaTransbordamento;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class SaidaCapturadaTest
+{
+    @Test
+    public void testPoliticasDeTransbordamento() throws Exception
+    {
+        SaidaCapturada inicio = new SaidaCapturada(8, PoliticaTransbordamento.DESCARTAR_INICIO);
+        SaidaCapturada fim = new SaidaCapturada(8, PoliticaTransbordamento.DESCARTAR_FIM);
+
+        for (SaidaCapturada saida : new SaidaCapturada[] { inicio, fim })
+        {
+            saida.escrever("abcde");
+            saida.escrever(123);
+            saida.escrever('x');
+            saida.escrever("0123456789ABCDEF");
+        }
+
+        assertEquals("89ABCDEF", inicio.getTexto());
+        assertEquals("abcde123", fim.getTexto());
+
+        assertEquals(25, inicio.getCaracteresEscritos());
+        assertEquals(17, inicio.getCaracteresDescartados());
+        assertEquals(17, fim.getCaracteresDescartados());
+        assertTrue(inicio.isTruncada());
+
+        inicio.limpar();
+        inicio.escrever(true);
+
+        assertEquals("rdadeiro", inicio.getTexto());
+
+        SaidaCapturada interromper = new SaidaCapturada(8, PoliticaTransbordamento.INTERROMPER);
+        interromper.escrever("abcdefgh");
+
+        try
+        {
+            interromper.escrever('!');
+            fail("A saída deveria ter interrompido o programa");
+        }
+        catch (ErroSaidaInterrompida erro)
+        {
+            assertEquals("abcdefgh", interromper.getTexto());
+            assertFalse(interromper.isTruncada());
+        }
+    }
+
+    @Test
+    public void testConsumidoresRecebemCadaTrecho() throws Exception
+    {
+        final List<String> trechos = new ArrayList<>();
+        SaidaCapturada saida = new SaidaCapturada(4, PoliticaTransbordamento.DESCARTAR_INICIO);
+
+        saida.escrever("antes ");
+        saida.inscrever(new ConsumidorSaida()
+        {
+            @Override
+            public void consumir(CharSequence trecho)
+            {
+                trechos.add(trecho.toString());
+            }
+
+            @Override
+            public void saidaLimpa()
+            {
+                trechos.add("<limpa>");
+            }
+        });
+
+        saida.escrever("Olá, ");
+        saida.escrever(2.5);
+        saida.limpar();
+        saida.escrever(false);
+
+        // Os consumidores recebem todo o texto, mesmo o que não coube no buffer
+        assertEquals("[Olá, , 2.5, <limpa>, falso]", trechos.toString());
+        assertEquals("also", saida.getTexto());
+    }
+
+    @Test
+    public void testComparadorInterrompeNaPrimeiraDiferenca() throws Exception
+    {
+        ComparadorSaida comparador = new ComparadorSaida("1\n2\n3\n");
+        comparador.consumir("1\n2");
+        assertFalse(comparador.isCompleta());
+
+        try
+        {
+            comparador.consumir("\n4\n");
+            fail("O comparador deveria ter interrompido o programa");
+        }
+        catch (ErroSaidaInterrompida erro)
+        {
+            assertEquals(4, comparador.getPosicao());
+            assertTrue(erro.getMensagem().contains("linha 3, coluna 1"));
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testProgramaEncerradoQuandoASaidaDiverge() throws Exception
+    {
+        Programa programa = Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro i = 1\n"
+            + "        enquanto (verdadeiro)\n"
+            + "        {\n"
+            + "            escreva(i, \"\\n\")\n"
+            + "            i = i * 2\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n"
+        );
+
+        SaidaCapturada saida = new SaidaCapturada(1024, PoliticaTransbordamento.DESCARTAR_INICIO);
+        ComparadorSaida comparador = new ComparadorSaida("1\n2\n4\n8\n15\n");
+        saida.inscrever(comparador);
+
+        final CountDownLatch encerramento = new CountDownLatch(1);
+        final ResultadoExecucao[] resultado = new ResultadoExecucao[1];
+
+        programa.setSaida(saida);
+        programa.adicionarObservadorExecucao(new ObservadorExecucaoBasico()
+        {
+            @Override
+            public void execucaoEncerrada(Programa programa, ResultadoExecucao resultadoExecucao)
+            {
+                resultado[0] = resultadoExecucao;
+                encerramento.countDown();
+            }
+        });
+
+        programa.executar(null, Depurador.Estado.BREAK_POINT);
+
+        assertTrue(encerramento.await(20, TimeUnit.SECONDS));
+        assertEquals(ModoEncerramento.ERRO, resultado[0].getModoEncerramento());
+        assertTrue(resultado[0].getErro() instanceof ErroSaidaInterrompida);
+        assertEquals("1\n2\n4\n8\n16", saida.getTexto());
+    }
+}
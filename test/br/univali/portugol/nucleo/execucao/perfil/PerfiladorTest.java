@@ -0,0 +1,128 @@
+package br.univali.portugol.nucleo.execucao.perfil;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import java.util.Arrays;
+import java.util.HashSet;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class PerfiladorTest
+{
+    private static final String CODIGO_FONTE
+            = "programa\n"
+            + "{\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro total = 0\n"
+            + "        para (inteiro i = 0; i < 10; i++)\n"
+            + "        {\n"
+            + "            total = total + quadrado(i)\n"
+            + "        }\n"
+            + "        escreva(total, \" \", fatorial(5))\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao inteiro quadrado(inteiro n)\n"
+            + "    {\n"
+            + "        retorne n * n\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao inteiro fatorial(inteiro n)\n"
+            + "    {\n"
+            + "        se (n <= 1)\n"
+            + "        {\n"
+            + "            retorne 1\n"
+            + "        }\n"
+            + "        retorne n * fatorial(n - 1)\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    public void testInstrumentacaoContaChamadasEComandos() throws Exception
+    {
+        Programa programa = Portugol.compilar(CODIGO_FONTE);
+        Perfilador perfilador = new Perfilador();
+
+        programa.setPerfilador(perfilador);
+
+        assertEquals("285 120", ExecutorProgramaTeste.executar(programa));
+
+        RelatorioPerfil relatorio = perfilador.gerarRelatorio();
+
+        assertEquals(1, relatorio.getFuncao("inicio").getChamadas());
+        assertEquals(10, relatorio.getFuncao("quadrado").getChamadas());
+        assertEquals(5, relatorio.getFuncao("fatorial").getChamadas());
+
+        // Os comandos dentro do laço são executados uma vez a cada iteração
+        assertEquals(Long.valueOf(10), relatorio.getContagemPorLinha().get(8));
+        assertEquals(Long.valueOf(10), relatorio.getContagemPorLinha().get(15));
+        assertEquals(Long.valueOf(4), relatorio.getContagemPorLinha().get(24));
+
+        for (PerfilFuncao funcao : relatorio.getFuncoes())
+        {
+            assertTrue(funcao.getTempoExclusivo() >= 0);
+            assertTrue(funcao.getTempoExclusivo() <= funcao.getTempoInclusivo());
+        }
+
+        // O tempo das chamadas recursivas não é contado mais de uma vez
+        PerfilFuncao inicio = relatorio.getFuncao("inicio");
+        PerfilFuncao fatorial = relatorio.getFuncao("fatorial");
+
+        assertTrue(fatorial.getTempoInclusivo() <= inicio.getTempoInclusivo());
+        assertTrue(inicio.getTempoInclusivo() <= relatorio.getTempoTotal());
+    }
+
+    @Test
+    public void testPilhasAgrupadas() throws Exception
+    {
+        Programa programa = Portugol.compilar(CODIGO_FONTE);
+        Perfilador perfilador = new Perfilador();
+
+        programa.setPerfilador(perfilador);
+        ExecutorProgramaTeste.executar(programa);
+
+        StringBuilder pilhas = new StringBuilder();
+        perfilador.gerarRelatorio().escreverPilhasAgrupadas(pilhas);
+
+        HashSet<String> nomes = new HashSet<>();
+
+        for (String linha : pilhas.toString().split("\n"))
+        {
+            String[] partes = linha.split(" ");
+
+            assertEquals(2, partes.length);
+            assertTrue(Long.parseLong(partes[1]) > 0);
+
+            nomes.add(partes[0]);
+        }
+
+        assertTrue(nomes.containsAll(Arrays.asList("inicio", "inicio;quadrado", "inicio;fatorial;fatorial;fatorial;fatorial;fatorial")));
+
+        StringBuilder json = new StringBuilder();
+        perfilador.gerarRelatorio().escreverRelatorio(json);
+
+        assertTrue(json.toString().contains("\"nome\": \"quadrado\", \"linha\": 13, \"chamadas\": 10"));
+    }
+
+    @Test
+    public void testAmostragem() throws Exception
+    {
+        Programa programa = Portugol.compilar(CODIGO_FONTE);
+        Perfilador perfilador = new Perfilador(Perfilador.Modo.AMOSTRAGEM, 1);
+
+        programa.setPerfilador(perfilador);
+        ExecutorProgramaTeste.executar(programa);
+
+        RelatorioPerfil relatorio = perfilador.gerarRelatorio();
+
+        // As chamadas são contadas mesmo sem medir o tempo de cada uma
+        assertEquals(10, relatorio.getFuncao("quadrado").getChamadas());
+
+        for (PerfilFuncao funcao : relatorio.getFuncoes())
+        {
+            assertEquals(funcao.getAmostras() * 1_000_000L, funcao.getTempoExclusivo());
+            assertTrue(funcao.getTempoExclusivo() <= funcao.getTempoInclusivo());
+        }
+    }
+}
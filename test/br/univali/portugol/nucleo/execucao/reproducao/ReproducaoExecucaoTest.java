@@ -0,0 +1,151 @@
+package br.univali.portugol.nucleo.execucao.reproducao;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import br.univali.portugol.nucleo.execucao.es.Armazenador;
+import br.univali.portugol.nucleo.execucao.es.Entrada;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class ReproducaoExecucaoTest
+{
+    private static final String CODIGO_FONTE
+            = "programa\n"
+            + "{\n"
+            + "    inclua biblioteca Util --> u\n"
+            + "\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro n, soma = 0\n"
+            + "        leia(n)\n"
+            + "        para (inteiro i = 0; i < n; i++)\n"
+            + "        {\n"
+            + "            soma = soma + u.sorteia(1, 1000000)\n"
+            + "        }\n"
+            + "        escreva(soma)\n"
+            + "    }\n"
+            + "}\n";
+
+    private static Entrada entradaFixa(final int valor)
+    {
+        return new Entrada()
+        {
+            @Override
+            public void solicitaEntrada(TipoDado tipoDado, Armazenador armazenador) throws Exception
+            {
+                armazenador.setValor(valor);
+            }
+        };
+    }
+
+    private static byte[] gravar() throws Exception
+    {
+        ByteArrayOutputStream registro = new ByteArrayOutputStream();
+        Programa programa = Portugol.compilar(CODIGO_FONTE);
+        GravadorExecucao gravador = new GravadorExecucao(Channels.newChannel(registro), 7, ControleReproducao.FUNCOES_NAO_DETERMINISTICAS);
+
+        programa.setEntrada(entradaFixa(50));
+        programa.setControleReproducao(gravador);
+        ExecutorProgramaTeste.executar(programa);
+
+        assertNull(gravador.getErro());
+
+        return registro.toByteArray();
+    }
+
+    private static Programa prepararReproducao(String codigoFonte, ReprodutorExecucao reprodutor) throws Exception
+    {
+        Programa programa = Portugol.compilar(codigoFonte);
+
+        // O valor da entrada e os sorteios devem vir do registro
+        programa.setEntrada(entradaFixa(3));
+        programa.setControleReproducao(reprodutor);
+
+        return programa;
+    }
+
+    @Test
+    public void testReproducaoRepeteAExecucao() throws Exception
+    {
+        ByteArrayOutputStream registro = new ByteArrayOutputStream();
+        Programa programa = Portugol.compilar(CODIGO_FONTE);
+
+        programa.setEntrada(entradaFixa(50));
+        programa.setControleReproducao(new GravadorExecucao(Channels.newChannel(registro), 7, ControleReproducao.FUNCOES_NAO_DETERMINISTICAS));
+
+        String saidaOriginal = ExecutorProgramaTeste.executar(programa);
+
+        // Além do cabeçalho, cada sorteio, leitura e ponto de controle ocupa poucos bytes
+        assertTrue(registro.size() < 800);
+
+        ReprodutorExecucao reprodutor = new ReprodutorExecucao(Channels.newChannel(new ByteArrayInputStream(registro.toByteArray())));
+
+        assertEquals(saidaOriginal, ExecutorProgramaTeste.executar(prepararReproducao(CODIGO_FONTE, reprodutor)));
+        assertNull(reprodutor.getDivergencia());
+    }
+
+    @Test
+    public void testPararNoPasso() throws Exception
+    {
+        byte[] registro = gravar();
+        final ReprodutorExecucao reprodutor = new ReprodutorExecucao(Channels.newChannel(new ByteArrayInputStream(registro)));
+        final Programa programa = prepararReproducao(CODIGO_FONTE, reprodutor);
+        final AtomicReference<Exception> erro = new AtomicReference<>();
+
+        reprodutor.pararNoPasso(20);
+
+        Thread execucao = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    ExecutorProgramaTeste.executar(programa);
+                }
+                catch (Exception excecao)
+                {
+                    erro.set(excecao);
+                }
+            }
+        });
+
+        execucao.start();
+
+        assertTrue(reprodutor.aguardarParada(10000));
+        assertEquals(20, reprodutor.getPassoAtual());
+        assertEquals(11, reprodutor.getBlocoAtual().getTrechoCodigoFonte().getLinha());
+
+        reprodutor.retomar();
+        execucao.join(10000);
+
+        assertNull(erro.get());
+        assertNull(reprodutor.getDivergencia());
+    }
+
+    @Test
+    public void testDetectaDivergencia() throws Exception
+    {
+        byte[] registro = gravar();
+        ReprodutorExecucao reprodutor = new ReprodutorExecucao(Channels.newChannel(new ByteArrayInputStream(registro)));
+        String codigoAlterado = CODIGO_FONTE.replace("i < n", "i < n * 2");
+
+        try
+        {
+            ExecutorProgramaTeste.executar(prepararReproducao(codigoAlterado, reprodutor));
+            fail("A reprodução de um programa alterado deveria falhar");
+        }
+        catch (IllegalStateException excecao)
+        {
+            assertTrue(excecao.getCause() instanceof ErroReproducao);
+        }
+
+        assertNotNull(reprodutor.getDivergencia());
+    }
+}
@@ -0,0 +1,75 @@
+package br.univali.portugol.nucleo.execucao.util;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import br.univali.portugol.nucleo.execucao.erros.ErroImpossivelConverterTipos;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class ConversorTiposTest
+{
+    @Test
+    public void testTabelaDeConversoes()
+    {
+        for (TipoDado tipo : TipoDado.values())
+        {
+            assertNull(ConversorTipos.obterConversao(tipo, tipo));
+            assertNull(ConversorTipos.obterConversao(tipo, TipoDado.TODOS));
+        }
+
+        assertNull(ConversorTipos.obterConversao(TipoDado.CADEIA, TipoDado.INTEIRO));
+        assertNull(ConversorTipos.obterConversao(TipoDado.LOGICO, TipoDado.REAL));
+        assertEquals(3.0, ConversorTipos.obterConversao(TipoDado.INTEIRO, TipoDado.REAL).converter(3));
+        assertEquals(-2, ConversorTipos.obterConversao(TipoDado.REAL, TipoDado.INTEIRO).converter(-2.9));
+    }
+
+    @Test
+    public void testConversaoDeValores() throws Exception
+    {
+        assertEquals(7.0, ConversorTipos.converter(7, TipoDado.REAL));
+        assertEquals(7, ConversorTipos.converter(7.5, Integer.class));
+    }
+
+    @Test(expected = ErroImpossivelConverterTipos.class)
+    public void testConversaoParaOProprioTipoEhImpossivel() throws Exception
+    {
+        ConversorTipos.converter("texto", TipoDado.CADEIA);
+    }
+
+    @Test(expected = ErroImpossivelConverterTipos.class)
+    public void testConversaoImpossivel() throws Exception
+    {
+        ConversorTipos.converter("texto", TipoDado.INTEIRO);
+    }
+
+    @Test
+    public void testConversoesNaExecucao() throws Exception
+    {
+        String saida = ExecutorProgramaTeste.executar(Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + "    inclua biblioteca Matematica --> mat\n"
+            + "\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        real v[] = {1, 2}\n"
+            + "        escreva(paraReal(5), \" \", truncar(2.75), \" \", mat.potencia(2, 3), \" \", v[1])\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao real paraReal(inteiro n)\n"
+            + "    {\n"
+            + "        retorne n\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao inteiro truncar(real r)\n"
+            + "    {\n"
+            + "        retorne r\n"
+            + "    }\n"
+            + "}\n"
+        ));
+
+        assertEquals("5.0 2 8.0 2.0", saida);
+    }
+}
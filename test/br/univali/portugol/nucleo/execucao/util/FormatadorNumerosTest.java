@@ -0,0 +1,77 @@
+package br.univali.portugol.nucleo.execucao.util;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class FormatadorNumerosTest
+{
+    private static void verificar(double valor)
+    {
+        String formatado = FormatadorNumeros.formatar(valor, new StringBuilder()).toString();
+
+        assertEquals(Double.toString(valor), formatado);
+    }
+
+    @Test
+    public void testValoresEspeciais()
+    {
+        double[] valores =
+        {
+            0.0, -0.0, 1.0, -1.0, 0.1, 0.5, 2.5, -3.75, 0.001, 0.0015, 0.05, 1.005, 100.125,
+            9999999.0, 9999999.999, 1e7, 1e-3, 9.99e-4, 1e21, 1.0 / 3, Math.PI, 1e-300,
+            Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, 0.1 + 0.2, 1234567.125, 2147483647.0
+        };
+
+        for (double valor : valores)
+        {
+            verificar(valor);
+        }
+    }
+
+    @Test
+    public void testValoresDecimaisEAleatorios()
+    {
+        double[] potencias = { 1, 10, 100, 1000, 10000 };
+
+        for (int i = -200000; i <= 200000; i++)
+        {
+            for (double potencia : potencias)
+            {
+                verificar(i / potencia);
+            }
+        }
+
+        Random aleatorio = new Random(42);
+
+        for (int i = 0; i < 200000; i++)
+        {
+            verificar(Double.longBitsToDouble(aleatorio.nextLong()));
+            verificar(aleatorio.nextDouble() * Math.pow(10, aleatorio.nextInt(14) - 5));
+            verificar((long) (aleatorio.nextDouble() * 1e10) / potencias[aleatorio.nextInt(potencias.length)]);
+        }
+    }
+
+    @Test
+    public void testConcatenacaoEEscritaDeNumeros() throws Exception
+    {
+        String saida = ExecutorProgramaTeste.executar(Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        real r = -0.05\n"
+            + "        inteiro i = -2147483647 - 1\n"
+            + "        cadeia c = \"r=\" + r + \" i=\" + i + \" \" + 10000000.0 * 1000.0 + \" \" + 2.5 + \"|\"\n"
+            + "        escreva(c, 12.375, \" \", 1.0 / 3.0, \" \", 7 / 2.0)\n"
+            + "    }\n"
+            + "}\n"
+        ));
+
+        assertEquals("r=-0.05 i=-2147483648 1.0E10 2.5|12.375 0.3333333333333333 3.5", saida);
+    }
+}
@@ -0,0 +1,138 @@
+package br.univali.portugol.nucleo.metricas;
+
+import br.univali.portugol.nucleo.ErroCompilacao;
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.Programa;
+import br.univali.portugol.nucleo.execucao.ModoEncerramento;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class MetricasNucleoTest
+{
+    private static final String CODIGO_FONTE
+            = "programa\n"
+            + "{\n"
+            + "    inclua biblioteca Matematica --> mat\n"
+            + "\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        real total = 0.0\n"
+            + "        para (inteiro i = 1; i <= 3; i++)\n"
+            + "        {\n"
+            + "            total = total + mat.raiz(i * i * 1.0, 2.0)\n"
+            + "        }\n"
+            + "        escreva(total)\n"
+            + "    }\n"
+            + "}\n";
+
+    private final MetricasNucleo metricas = MetricasNucleo.getInstance();
+
+    @Test
+    public void testCompilacaoEExecucaoSaoContabilizadas() throws Exception
+    {
+        long compilacoes = metricas.getCompilacoes();
+        long analisesSintaticas = metricas.getAnalisesSintaticas();
+        long analisesSemanticas = metricas.getAnalisesSemanticas();
+        long encerradas = metricas.getExecucoesEncerradas(ModoEncerramento.NORMAL);
+        EstatisticaOperacao raiz = metricas.getEstatisticaFuncaoBiblioteca("Matematica", "raiz");
+        long chamadasRaiz = (raiz != null) ? raiz.getQuantidade() : 0;
+
+        Programa programa = Portugol.compilar(CODIGO_FONTE);
+
+        assertEquals(compilacoes + 1, metricas.getCompilacoes());
+        assertEquals(analisesSintaticas + 1, metricas.getAnalisesSintaticas());
+        assertEquals(analisesSemanticas + 1, metricas.getAnalisesSemanticas());
+
+        assertEquals("6.0", ExecutorProgramaTeste.executar(programa));
+
+        assertEquals(encerradas + 1, metricas.getExecucoesEncerradas(ModoEncerramento.NORMAL));
+        assertEquals(0, metricas.getExecucoesAtivas());
+        assertEquals(chamadasRaiz + 3, metricas.getEstatisticaFuncaoBiblioteca("Matematica", "raiz").getQuantidade());
+        assertTrue(metricas.getTempoTotalFuncoesBibliotecas().containsKey("Matematica.raiz"));
+    }
+
+    @Test
+    public void testCompilacaoComErroEContabilizada() throws Exception
+    {
+        long comErro = metricas.getCompilacoesComErro();
+
+        try
+        {
+            Portugol.compilar("programa { funcao inicio() { inteiro x = verdadeiro } }");
+            fail("O programa não deveria compilar");
+        }
+        catch (ErroCompilacao erro)
+        {
+            assertEquals(comErro + 1, metricas.getCompilacoesComErro());
+        }
+    }
+
+    @Test
+    public void testContadorDistribuidoSomaAtualizacoesDeVariasThreads() throws Exception
+    {
+        final ContadorDistribuido contador = new ContadorDistribuido();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++)
+        {
+            Thread thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < 10_000; j++)
+                    {
+                        contador.incrementar();
+                    }
+
+                    contador.adicionar(-100);
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(8 * (10_000 - 100), contador.somar());
+
+        contador.zerar();
+
+        assertEquals(0, contador.somar());
+    }
+
+    @Test
+    public void testMetricasSaoPublicadasViaJmx() throws Exception
+    {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nome = new ObjectName(MetricasNucleo.NOME_MBEAN);
+
+        metricas.registrarMBean();
+
+        try
+        {
+            // Registrar novamente não deve falhar
+            metricas.registrarMBean();
+
+            assertEquals(metricas.getCompilacoes(), servidor.getAttribute(nome, "Compilacoes"));
+            assertNotNull(servidor.getAttribute(nome, "ExecucoesEncerradas"));
+        }
+        finally
+        {
+            metricas.desregistrarMBean();
+        }
+
+        assertFalse(servidor.isRegistered(nome));
+    }
+}
@@ -11,7 +11,7 @@ import org.junit.Test;
  *
  * @author Luiz Fernando
  */
-public class TesteRenomeadorSimbolos
+public class RenomeadorSimbolosTest
 {
     @Test
     public void testRenomearVariavelGlobal1() throws Exception
@@ -109,6 +109,60 @@ public class TesteRenomeadorSimbolos
         testPrograma4(19, 19);
     }    
 
+    @Test
+    public void testRenomearFuncaoAPartirDeUmaChamada() throws Exception
+    {
+        String programa =
+              "programa\n"
+            + "{\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro soma = dobro(2) + dobro(dobro(3))\n"
+            + "        escreva(soma)\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao inteiro dobro(inteiro valor)\n"
+            + "    {\n"
+            + "        retorne valor * 2\n"
+            + "    }\n"
+            + "}\n";
+
+        Assert.assertEquals(programa.replace("dobro", "multiplicar"), Portugol.renomearSimbolo(programa, 5, 36, "multiplicar"));
+    }
+
+    @Test
+    public void testRenomearVariavelLocalNaoAlteraOutrasComMesmoNome() throws Exception
+    {
+        String programa =
+              "programa\n"
+            + "{\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro m[2][2] = {{1, 2}, {3, 4}}\n"
+            + "        inteiro x = m[0][1]\n"
+            + "        x = x + m[1][x - 1]\n"
+            + "        escreva(x, outra())\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao inteiro outra()\n"
+            + "    {\n"
+            + "        inteiro x = 7\n"
+            + "        retorne x\n"
+            + "    }\n"
+            + "}\n";
+
+        String esperado = programa
+            .replace("inteiro x = m", "inteiro total = m")
+            .replace("x = x + m[1][x - 1]", "total = total + m[1][total - 1]")
+            .replace("escreva(x,", "escreva(total,");
+
+        Assert.assertEquals(esperado, Portugol.renomearSimbolo(programa, 7, 9, "total"));
+
+        String matrizRenomeada = programa.replace("m[", "tabela[");
+
+        Assert.assertEquals(matrizRenomeada, Portugol.renomearSimbolo(programa, 7, 17, "tabela"));
+    }
+
     private void testPrograma1(int linha, int coluna) throws Exception
     {
         String renomeado;
@@ -0,0 +1,137 @@
+package br.univali.portugol.nucleo.simbolos;
+
+import br.univali.portugol.nucleo.ExecutorProgramaTeste;
+import br.univali.portugol.nucleo.Portugol;
+import br.univali.portugol.nucleo.asa.TipoDado;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class CompartilhamentoTest
+{
+    @Test
+    public void testVetorCompartilhadoCopiaSomenteNaEscrita()
+    {
+        Vetor original = new Vetor("v", TipoDado.INTEIRO, null, Arrays.<Object>asList(1, 2, 3));
+        Vetor parametro = original.compartilhar("p", null);
+        List<Object> janelaOriginal = original.obterJanela(0, 3);
+
+        parametro.setValor(0, 10);
+
+        assertEquals(1, original.getValor(0));
+        assertEquals(10, parametro.getValor(0));
+        assertEquals(Arrays.<Object>asList(1, 2, 3), janelaOriginal);
+
+        // O parâmetro já tem a sua cópia, então o original volta a ser o único dono dos
+        // seus valores e pode alterá-los sem copiar
+        original.setValor(1, 20);
+
+        assertEquals(20, janelaOriginal.get(1));
+        assertEquals(2, parametro.getValor(1));
+    }
+
+    @Test
+    public void testVetorLiberadoNaoProvocaCopia()
+    {
+        Vetor original = new Vetor("v", TipoDado.INTEIRO, null, Arrays.<Object>asList(1, 2, 3));
+        Vetor primeiro = original.compartilhar("p", null);
+        Vetor segundo = primeiro.compartilhar("q", null);
+        List<Object> janelaOriginal = original.obterJanela(0, 3);
+
+        segundo.liberarCompartilhamento();
+        original.setValor(0, 5);
+
+        // O primeiro parâmetro ainda compartilha os valores, então o original copiou, e a
+        // janela criada antes da cópia passa a mostrar os valores copiados
+        assertEquals(5, janelaOriginal.get(0));
+        assertEquals(1, primeiro.getValor(0));
+
+        primeiro.liberarCompartilhamento();
+        original.setValor(2, 7);
+
+        assertEquals(Arrays.<Object>asList(5, 2, 7), janelaOriginal);
+    }
+
+    @Test
+    public void testMatrizCompartilhadaCopiaSomenteNaEscrita()
+    {
+        List<Object> linha = Arrays.<Object>asList(1, 2);
+        Matriz original = new Matriz("m", TipoDado.INTEIRO, null, Arrays.asList(linha, linha));
+        Matriz parametro = original.compartilhar("p", null);
+
+        original.setValor(1, 1, 40);
+        parametro.setValor(0, 0, 10);
+
+        assertEquals(1, original.getValor(0, 0));
+        assertEquals(40, original.getValor(1, 1));
+        assertEquals(10, parametro.getValor(0, 0));
+        assertEquals(2, parametro.getValor(1, 1));
+        assertEquals(2, parametro.getNumeroLinhas());
+        assertEquals(2, parametro.getNumeroColunas());
+    }
+
+    @Test
+    public void testJanelaDaMatrizAcompanhaACopia()
+    {
+        List<Object> linha = Arrays.<Object>asList(1, 2);
+        Matriz original = new Matriz("m", TipoDado.INTEIRO, null, Arrays.asList(linha, linha));
+        Matriz parametro = original.compartilhar("p", null);
+        List<List<Object>> janelaOriginal = original.obterJanela(0, 2, 0, 2);
+        List<Object> segundaLinha = janelaOriginal.get(1);
+
+        original.setValor(1, 0, 30);
+        parametro.setValor(0, 0, 10);
+
+        assertEquals(30, segundaLinha.get(0));
+        assertEquals(Arrays.<Object>asList(1, 2), janelaOriginal.get(0));
+        assertEquals(Arrays.<Object>asList(10, 2), parametro.obterJanela(0, 1, 0, 2).get(0));
+    }
+
+    @Test(timeout = 60000)
+    public void testPassagemPorValorEmPrograma() throws Exception
+    {
+        String saida = ExecutorProgramaTeste.executar(Portugol.compilar
+        (
+              "programa\n"
+            + "{\n"
+            + "    inteiro global[3] = {1, 2, 3}\n"
+            + "\n"
+            + "    funcao inicio()\n"
+            + "    {\n"
+            + "        inteiro grande[1000000]\n"
+            + "        inteiro m[2][2] = {{1, 2}, {3, 4}}\n"
+            + "        inteiro soma = 0\n"
+            + "        grande[999999] = 1\n"
+            + "        para (inteiro i = 0; i < 2000; i++)\n"
+            + "        {\n"
+            + "            soma = soma + ultimo(grande)\n"
+            + "        }\n"
+            + "        alterar(global)\n"
+            + "        alterarMatriz(m)\n"
+            + "        escreva(soma, \" \", global[0], \" \", m[0][0])\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao inteiro ultimo(inteiro v[])\n"
+            + "    {\n"
+            + "        retorne v[999999]\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao alterar(inteiro v[])\n"
+            + "    {\n"
+            + "        global[0] = 100\n"
+            + "        escreva(v[0], \" \")\n"
+            + "        v[0] = 50\n"
+            + "        escreva(v[0], \" \", global[0], \" \")\n"
+            + "    }\n"
+            + "\n"
+            + "    funcao alterarMatriz(inteiro mat[][])\n"
+            + "    {\n"
+            + "        mat[0][0] = 9\n"
+            + "    }\n"
+            + "}\n"
+        ));
+
+        assertEquals("1 50 100 2000 100 1", saida);
+    }
+}
@@ -0,0 +1,92 @@
+package br.univali.portugol.nucleo.simbolos;
+
+import br.univali.portugol.nucleo.asa.TipoDado;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class JanelaValoresTest
+{
+    @Test
+    public void testJanelaDoVetorNaoCopiaOsValores()
+    {
+        Vetor vetor = new Vetor("v", TipoDado.INTEIRO, null, 10);
+
+        for (int i = 0; i < 10; i++)
+        {
+            vetor.setValor(i, i);
+        }
+
+        List<Object> janela = vetor.obterJanela(3, 4);
+
+        assertEquals(Arrays.<Object>asList(3, 4, 5, 6), janela);
+
+        vetor.setValor(4, 40);
+
+        assertEquals(40, janela.get(1));
+        assertEquals(Arrays.<Object>asList(8, 9), vetor.obterJanela(8, 100));
+        assertTrue(vetor.obterJanela(10, 5).isEmpty());
+
+        try
+        {
+            janela.set(0, 1);
+            fail("A janela deve ser somente leitura");
+        }
+        catch (UnsupportedOperationException excecao)
+        {
+        }
+    }
+
+    @Test
+    public void testModificacoesDoVetor()
+    {
+        Vetor vetor = new Vetor("v", TipoDado.INTEIRO, null, 100);
+
+        assertNull(vetor.consumirModificacoes());
+
+        vetor.setValor(50, 1);
+        vetor.setValor(20, 1);
+        vetor.setValor(30, 1);
+
+        IntervaloModificado intervalo = vetor.consumirModificacoes();
+
+        assertEquals(20, intervalo.getInicio());
+        assertEquals(50, intervalo.getFim());
+        assertEquals(31, intervalo.getTamanho());
+        assertNull(vetor.consumirModificacoes());
+
+        vetor.setValor(99, 1);
+
+        assertEquals("[99, 99]", vetor.consumirModificacoes().toString());
+    }
+
+    @Test
+    public void testJanelaEModificacoesDaMatriz()
+    {
+        Matriz matriz = new Matriz("m", TipoDado.INTEIRO, null, 4, 5);
+
+        for (int i = 0; i < 4; i++)
+        {
+            for (int j = 0; j < 5; j++)
+            {
+                matriz.setValor(i, j, i * 10 + j);
+            }
+        }
+
+        assertEquals("linhas [0, 3], colunas [0, 4]", matriz.consumirModificacoes().toString());
+        assertNull(matriz.consumirModificacoes());
+
+        List<List<Object>> janela = matriz.obterJanela(1, 2, 3, 10);
+
+        assertEquals(2, janela.size());
+        assertEquals(Arrays.<Object>asList(13, 14), janela.get(0));
+        assertEquals(Arrays.<Object>asList(23, 24), janela.get(1));
+
+        matriz.setValor(2, 4, -1);
+        matriz.setValor(1, 3, -2);
+
+        assertEquals(Arrays.<Object>asList(-2, 14), janela.get(0));
+        assertEquals("linhas [1, 2], colunas [3, 4]", matriz.consumirModificacoes().toString());
+    }
+}